@@ -2,25 +2,54 @@ package pdfact.cli;
 
 import static org.apache.logging.log4j.Level.DEBUG;
 import static org.apache.logging.log4j.Level.ERROR;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Set;
 import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
 import pdfact.cli.pipes.PdfActServicePipe;
 import pdfact.cli.pipes.PlainPdfActServicePipe;
+import pdfact.cli.pipes.serialize.MetricsJsonSerializer;
+import pdfact.cli.util.exception.PdfActSerializeException;
 import pdfact.core.model.Document;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
+import pdfact.core.model.PageSelection;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.pipes.PdfActCorePipe;
+import pdfact.core.pipes.PlainPdfActCorePipe;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.exception.PdfActParseException;
+import pdfact.core.util.pipeline.PageStream;
+import pdfact.core.util.pipeline.PipelineListener;
+import pdfact.core.util.pipeline.PipelineMetrics;
+import pdfact.core.util.snapshot.Snapshot;
+import pdfact.core.util.snapshot.SnapshotReader;
 
 /**
  * The main class of PdfAct.
  *
+ * <p>
+ * An instance can be reused to parse any number of PDF documents, also concurrently from multiple
+ * threads (as long as its settings are not changed meanwhile). The immutable resources needed for
+ * parsing (like the metadata of well-known fonts) are loaded only once per JVM. The threads to
+ * process the pages in parallel are shared by all parsings and are shut down on {@link #close()}.
+ *
  * @author Claudius Korzen
  */
-public class PdfAct {
+public class PdfAct implements AutoCloseable {
+  /**
+   * The default maximum number of processed pages to buffer in a page stream.
+   */
+  public static final int DEFAULT_MAX_NUM_BUFFERED_PAGES = 16;
+
   /**
    * The serialization format.
    */
@@ -41,6 +70,16 @@ public class PdfAct {
    */
   protected Path visualizationPath;
 
+  /**
+   * The path to the file to which the metrics of the processing should be written.
+   */
+  protected Path metricsPath;
+
+  /**
+   * The path to the file to which a snapshot of the PDF document should be written.
+   */
+  protected Path snapshotPath;
+
   /**
    * The units of text to extract (e.g., "characters", "words", etc.).
    */
@@ -114,6 +153,67 @@ public class PdfAct {
    */
   protected boolean isPdfJsMode;
 
+  /**
+   * A boolean flag indicating whether or not only the processing stages should be executed that
+   * are needed to serialize and visualize the units and semantic roles to extract.
+   */
+  protected boolean isPlanStages;
+
+  /**
+   * The maximum number of pages to process in parallel.
+   */
+  protected int parallelism = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * A boolean flag indicating whether or not the images should be classified into shapes (images
+   * with a single color) and figures.
+   */
+  protected boolean isClassifyImages = true;
+
+  /**
+   * The setting that defines where PDFBox keeps its scratch data while parsing; null if all
+   * scratch data is kept in main memory.
+   */
+  protected MemoryUsageSetting memoryUsageSetting;
+
+  /**
+   * The selection of the pages to process; null if all pages should be processed.
+   */
+  protected PageSelection pageSelection;
+
+  /**
+   * The boolean flag indicating whether the shapes resulting from a single paint operation should
+   * be merged into a single shape.
+   */
+  protected boolean isMergeShapesPerPaint;
+
+  /**
+   * The maximum number of shapes per page; 0 if the number of shapes is not limited.
+   */
+  protected int maxNumShapesPerPage;
+
+  /**
+   * The policies how to deal with hidden characters, per category.
+   */
+  protected Map<HiddenTextCategory, HiddenTextPolicy> hiddenTextPolicies =
+      new EnumMap<>(HiddenTextCategory.class);
+
+  /**
+   * The boolean flag indicating whether duplicate characters should be removed.
+   */
+  protected boolean isRemoveDuplicateCharacters;
+
+  /**
+   * The boolean flag indicating whether the characters should be normalized in a single pass.
+   */
+  protected boolean isNormalizeCharactersInSinglePass = true;
+
+  /**
+   * The core pipe, shared by all parsings, such that the PDF documents can be parsed
+   * concurrently without creating new resources per PDF document.
+   */
+  protected PdfActCorePipe corePipe = new PlainPdfActCorePipe();
+
   // ==============================================================================================
 
   /**
@@ -139,6 +239,222 @@ public class PdfAct {
    * @throws PdfActException If something went wrong on parsing the PDF.
    */
   public Document parse(Path pdfPath) throws PdfActException {
+    return parse(pdfPath, null);
+  }
+
+  /**
+   * Parses the PDF file given by the path and notifies the given listener about each page as soon
+   * as the page was processed by all page-local pipes.
+   *
+   * @param pdfPath  The path to the PDF file to parse.
+   * @param listener The listener to notify about the processed pages and the processed document;
+   *                 null if there is no such listener.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF.
+   */
+  public Document parse(Path pdfPath, PipelineListener listener) throws PdfActException {
+    return parse(new Document(pdfPath), listener);
+  }
+
+  /**
+   * Parses the given content of a PDF file, for example received over the network, without
+   * writing it to a file.
+   *
+   * @param pdfBytes The content of the PDF file to parse.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF.
+   */
+  public Document parse(byte[] pdfBytes) throws PdfActException {
+    return parse(new Document(pdfBytes));
+  }
+
+  /**
+   * Parses the given PDF document, which may be given by a path or by its content (a byte
+   * array, a byte buffer, a stream or a channel).
+   *
+   * @param pdf The PDF document to parse.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF.
+   */
+  public Document parse(Document pdf) throws PdfActException {
+    return parse(pdf, null);
+  }
+
+  /**
+   * Parses the given PDF document and notifies the given listener about each page as soon as the
+   * page was processed by all page-local pipes.
+   *
+   * @param pdf      The PDF document to parse.
+   * @param listener The listener to notify about the processed pages and the processed document;
+   *                 null if there is no such listener.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF.
+   */
+  public Document parse(Document pdf, PipelineListener listener) throws PdfActException {
+    // Record the metrics only if they are to be written.
+    PipelineMetrics metrics = this.metricsPath != null ? new PipelineMetrics() : null;
+
+    parse(pdf, this.serializationPath, this.serializationStream, listener, metrics);
+
+    if (metrics != null) {
+      writeMetrics(metrics, this.metricsPath);
+    }
+
+    return pdf;
+  }
+
+  /**
+   * Resumes the processing of the PDF document of the snapshot in the given file, written on
+   * parsing the PDF document with a snapshot path (see {@link #setSnapshotPath(Path)}). The PDF
+   * document is not parsed again; it is serialized and visualized like on parsing.
+   *
+   * @param snapshotPath The path to the snapshot file.
+   *
+   * @return The processed PDF document.
+   *
+   * @throws PdfActException If something went wrong on reading the snapshot or on processing the
+   *                         PDF document.
+   */
+  public Document resume(Path snapshotPath) throws PdfActException {
+    return resume(new SnapshotReader().read(snapshotPath));
+  }
+
+  /**
+   * Resumes the processing of the PDF document of the given snapshot. The PDF document is not
+   * parsed again; it is serialized and visualized like on parsing.
+   *
+   * @param snapshot The snapshot of the PDF document to process.
+   *
+   * @return The processed PDF document.
+   *
+   * @throws PdfActException If something went wrong on processing the PDF document.
+   */
+  public Document resume(Snapshot snapshot) throws PdfActException {
+    // Record the metrics only if they are to be written.
+    PipelineMetrics metrics = this.metricsPath != null ? new PipelineMetrics() : null;
+
+    PdfActServicePipe service = createServicePipe(this.serializationPath,
+        this.serializationStream, null, metrics);
+    Document pdf = service.resume(snapshot);
+
+    if (metrics != null) {
+      writeMetrics(metrics, this.metricsPath);
+    }
+
+    return pdf;
+  }
+
+  /**
+   * Parses the PDF file given by the path, notifies the given listener about each page as soon
+   * as the page was processed by all page-local pipes and adds the measurements of the executed
+   * pipes (per stage and per page) to the given metrics.
+   *
+   * @param pdfPath  The path to the PDF file to parse.
+   * @param listener The listener to notify about the processed pages and the processed document;
+   *                 null if there is no such listener.
+   * @param metrics  The metrics to which the measurements should be added; null if no metrics
+   *                 should be recorded.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF.
+   */
+  public Document parse(Path pdfPath, PipelineListener listener, PipelineMetrics metrics)
+          throws PdfActException {
+    return parse(new Document(pdfPath), this.serializationPath, this.serializationStream,
+        listener, metrics);
+  }
+
+  /**
+   * Parses the PDF file given by the path and writes the serialization to the given stream
+   * (instead of the serialization path or stream of this instance). Can be used to parse
+   * multiple PDF files concurrently, each with its own serialization target.
+   *
+   * @param pdfPath             The path to the PDF file to parse.
+   * @param serializationStream The stream to which the serialization should be written.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF.
+   */
+  public Document parseTo(Path pdfPath, OutputStream serializationStream)
+          throws PdfActException {
+    return parseTo(new Document(pdfPath), serializationStream);
+  }
+
+  /**
+   * Parses the given PDF document and writes the serialization to the given stream (instead of
+   * the serialization path or stream of this instance). Can be used to parse multiple PDF
+   * documents concurrently, each with its own serialization target. No snapshot is written.
+   *
+   * @param pdf                 The PDF document to parse.
+   * @param serializationStream The stream to which the serialization should be written.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF.
+   */
+  public Document parseTo(Document pdf, OutputStream serializationStream)
+          throws PdfActException {
+    createServicePipe(null, serializationStream, null, null).execute(pdf);
+
+    return pdf;
+  }
+
+  /**
+   * Parses the given PDF document and writes the serialization to the given targets.
+   *
+   * @param pdf                 The PDF document to parse.
+   * @param serializationPath   The path to the file to which the serialization should be
+   *                            written; null if there is no such file.
+   * @param serializationStream The stream to which the serialization should be written; null if
+   *                            there is no such stream.
+   * @param listener            The listener to notify about the processed pages and the
+   *                            processed document; null if there is no such listener.
+   * @param metrics             The metrics to which the measurements should be added; null if
+   *                            no metrics should be recorded.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF.
+   */
+  protected Document parse(Document pdf, Path serializationPath, OutputStream serializationStream,
+          PipelineListener listener, PipelineMetrics metrics) throws PdfActException {
+    PdfActServicePipe service = createServicePipe(serializationPath, serializationStream,
+        listener, metrics);
+    service.setSnapshotPath(this.snapshotPath);
+
+    // Run PdfAct.
+    service.execute(pdf);
+
+    return pdf;
+  }
+
+  /**
+   * Creates a service pipe with the settings of this instance that writes the serialization to
+   * the given targets.
+   *
+   * @param serializationPath   The path to the file to which the serialization should be
+   *                            written; null if there is no such file.
+   * @param serializationStream The stream to which the serialization should be written; null if
+   *                            there is no such stream.
+   * @param listener            The listener to notify about the processed pages and the
+   *                            processed document; null if there is no such listener.
+   * @param metrics             The metrics to which the measurements should be added; null if
+   *                            no metrics should be recorded.
+   *
+   * @return The created service pipe.
+   */
+  protected PdfActServicePipe createServicePipe(Path serializationPath,
+          OutputStream serializationStream, PipelineListener listener, PipelineMetrics metrics) {
     // Set the different debug levels according to the given debug flags.
     Configurator.setLevel("pdf-parsing", this.isDebugPdfParsing ? DEBUG : ERROR);
     Configurator.setLevel("char-extraction", this.isDebugCharacterExtraction ? DEBUG : ERROR);
@@ -153,6 +469,9 @@ public class PdfAct {
 
     // Create a service pipe.
     PdfActServicePipe service = new PlainPdfActServicePipe();
+    service.setCorePipe(this.corePipe);
+    service.setPipelineListener(listener);
+    service.setPipelineMetrics(metrics);
 
     // Pass the serialization format, if there is any.
     if (this.serializationFormat != null) {
@@ -160,13 +479,13 @@ public class PdfAct {
     }
 
     // Pass the path to the serialization file, if there is any.
-    if (this.serializationPath != null) {
-      service.setSerializationPath(this.serializationPath);
+    if (serializationPath != null) {
+      service.setSerializationPath(serializationPath);
     }
 
     // Pass the serialization stream, if there is any.
-    if (this.serializationStream != null) {
-      service.setSerializationStream(this.serializationStream);
+    if (serializationStream != null) {
+      service.setSerializationStream(serializationStream);
     }
 
     // Pass the path to the visualization file.
@@ -187,13 +506,104 @@ public class PdfAct {
     service.setInsertControlCharacters(this.insertControlCharacters);
     service.setIsPdfJsMode(this.isPdfJsMode);
 
-    // Create the PDF document from the given path.
-    Document pdf = new Document(pdfPath);
+    // Process the pages sequentially when debugging, such that the debug info is printed in the
+    // order of the pages.
+    boolean isDebug = this.isDebugPdfParsing || this.isDebugCharacterExtraction
+        || this.isDebugSplittingLigatures || this.isDebugMergingDiacritics
+        || this.isDebugTextLineDetection || this.isDebugWordDetection
+        || this.isDebugTextBlockDetection || this.isDebugRoleDetection
+        || this.isDebugParagraphDetection || this.isDebugWordDehyphenation;
+    service.setParallelism(isDebug ? 1 : this.parallelism);
+    service.setIsClassifyImages(this.isClassifyImages);
+    service.setMemoryUsageSetting(this.memoryUsageSetting);
+    service.setPageSelection(this.pageSelection);
+    service.setIsMergeShapesPerPaint(this.isMergeShapesPerPaint);
+    service.setMaxNumShapesPerPage(this.maxNumShapesPerPage);
+    for (HiddenTextCategory category : HiddenTextCategory.values()) {
+      service.setHiddenTextPolicy(category, getHiddenTextPolicy(category));
+    }
+    service.setIsRemoveDuplicateCharacters(this.isRemoveDuplicateCharacters);
+    service.setIsNormalizeCharactersInSinglePass(this.isNormalizeCharactersInSinglePass);
+    // Execute all stages when debugging, such that the debug info is printed for all stages.
+    service.setIsPlanStages(this.isPlanStages && !isDebug);
 
-    // Run PdfAct.
-    service.execute(pdf);
+    return service;
+  }
 
-    return pdf;
+  /**
+   * Writes the given metrics in JSON format to the given file.
+   *
+   * @param metrics The metrics to write.
+   * @param path    The path to the file to write to.
+   *
+   * @throws PdfActSerializeException If something went wrong on writing the metrics.
+   */
+  protected void writeMetrics(PipelineMetrics metrics, Path path)
+          throws PdfActSerializeException {
+    byte[] serialization = new MetricsJsonSerializer().serialize(metrics);
+    try (OutputStream os = Files.newOutputStream(path)) {
+      os.write(serialization);
+    } catch (IOException e) {
+      throw new PdfActSerializeException("Couldn't write the metrics to file.", e);
+    }
+  }
+
+  /**
+   * Parses the PDF file given by the path in a new thread and returns a stream from which the
+   * pages can be pulled as soon as they were processed by all page-local pipes. Buffers at most
+   * {@link #DEFAULT_MAX_NUM_BUFFERED_PAGES} processed pages.
+   *
+   * @param pdfPath The path to the PDF file to parse.
+   *
+   * @return The stream of the processed pages.
+   */
+  public PageStream stream(Path pdfPath) {
+    return stream(pdfPath, DEFAULT_MAX_NUM_BUFFERED_PAGES);
+  }
+
+  /**
+   * Parses the PDF file given by the path in a new thread and returns a stream from which the
+   * pages can be pulled as soon as they were processed by all page-local pipes. The parsing is
+   * blocked while the stream buffers the given number of processed pages that were not pulled
+   * yet. The semantic roles, paragraphs and dehyphenated words are computed after all pages were
+   * processed and are available in the document returned by {@link PageStream#getDocument()}.
+   *
+   * @param pdfPath             The path to the PDF file to parse.
+   * @param maxNumBufferedPages The maximum number of processed pages to buffer.
+   *
+   * @return The stream of the processed pages.
+   */
+  public PageStream stream(final Path pdfPath, int maxNumBufferedPages) {
+    final PageStream stream = new PageStream(maxNumBufferedPages);
+
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          parse(pdfPath, stream);
+        } catch (PdfActException e) {
+          stream.handleException(e);
+        } catch (RuntimeException e) {
+          stream.handleException(new PdfActParseException("Could not parse the PDF.", e));
+        }
+      }
+    }, "pdfact-stream");
+    // Don't prevent the JVM from exiting when the stream is not pulled to the end.
+    thread.setDaemon(true);
+    thread.start();
+
+    return stream;
+  }
+
+  /**
+   * Releases the resources shared by the parsings of this instance (like the threads to process
+   * the pages in parallel). It should be called when all parsings have finished, for example when
+   * a long-running service shuts down. The instance can still be used afterwards; the resources
+   * are created again as needed.
+   */
+  @Override
+  public void close() {
+    this.corePipe.close();
   }
 
   // ==============================================================================================
@@ -430,6 +840,44 @@ public class PdfAct {
 
   // ==============================================================================================
 
+  /**
+   * Returns the path to the file to which the metrics of the processing should be written.
+   */
+  public Path getMetricsPath() {
+    return this.metricsPath;
+  }
+
+  /**
+   * Sets the path to the file to which the metrics of the processing (the wall time, CPU time,
+   * allocated bytes and element counts per stage and per page) should be written in JSON format;
+   * null if no metrics should be written.
+   */
+  public void setMetricsPath(Path metricsPath) {
+    this.metricsPath = metricsPath;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the path to the file to which a snapshot of the PDF document should be written.
+   */
+  public Path getSnapshotPath() {
+    return this.snapshotPath;
+  }
+
+  /**
+   * Sets the path to the file to which a snapshot of the PDF document should be written after it
+   * was parsed and processed by all stages of the core pipe; null if no snapshot should be
+   * written. The processing of the PDF document can be resumed from the snapshot by
+   * {@link #resume(Path)}, for example to extract other units, without parsing the PDF document
+   * again.
+   */
+  public void setSnapshotPath(Path snapshotPath) {
+    this.snapshotPath = snapshotPath;
+  }
+
+  // ==============================================================================================
+
   /**
    * Returns the set of text units to extract.
    */
@@ -497,5 +945,193 @@ public class PdfAct {
   public void setIsPdfJsMode(boolean isPdfJsMode) {
     this.isPdfJsMode = isPdfJsMode;
   }
-}
 
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not only the processing stages should be
+   * executed that are needed to serialize and visualize the units and semantic roles to extract.
+   */
+  public boolean isPlanStages() {
+    return this.isPlanStages;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not only the processing stages should be executed
+   * that are needed to serialize and visualize the units and semantic roles to extract (for
+   * example, no shapes are extracted if the shapes are not to be extracted). If set to true, the
+   * parsed PDF document may lack the elements of other units.
+   */
+  public void setIsPlanStages(boolean isPlanStages) {
+    this.isPlanStages = isPlanStages;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the maximum number of pages to process in parallel.
+   */
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Sets the maximum number of pages to process in parallel. The extraction result does not
+   * depend on this number. Set it to 1 to process the pages sequentially.
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not the images should be classified into
+   * shapes (images with a single color) and figures.
+   */
+  public boolean isClassifyImages() {
+    return this.isClassifyImages;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not the images should be classified into shapes
+   * (images with a single color) and figures. Classifying an image may require to decode the
+   * image. If set to false, all images are considered as figures, which is faster for documents
+   * with many (large) images.
+   */
+  public void setIsClassifyImages(boolean isClassifyImages) {
+    this.isClassifyImages = isClassifyImages;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the setting that defines where PDFBox keeps its scratch data while parsing; null if
+   * all scratch data is kept in main memory.
+   */
+  public MemoryUsageSetting getMemoryUsageSetting() {
+    return this.memoryUsageSetting;
+  }
+
+  /**
+   * Sets the setting that defines where PDFBox keeps its scratch data while parsing (for example,
+   * the decoded streams or the content of a PDF document given by a stream). For very large PDF
+   * files, a setting like MemoryUsageSetting.setupMixed(maxMainMemoryBytes) spills the scratch
+   * data exceeding the given number of bytes to temporary files.
+   */
+  public void setMemoryUsageSetting(MemoryUsageSetting setting) {
+    this.memoryUsageSetting = setting;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the selection of the pages to process; null if all pages are processed.
+   */
+  public PageSelection getPageSelection() {
+    return this.pageSelection;
+  }
+
+  /**
+   * Sets the selection of the pages to process, for example PageSelection.firstPages(2) to
+   * extract the title and the abstract of a long PDF document. The other pages are never parsed
+   * and not included in the output. Null to process all pages.
+   */
+  public void setPageSelection(PageSelection pageSelection) {
+    this.pageSelection = pageSelection;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if the shapes resulting from a single paint operation are merged into a single
+   * shape.
+   */
+  public boolean isMergeShapesPerPaint() {
+    return this.isMergeShapesPerPaint;
+  }
+
+  /**
+   * Sets the flag indicating whether the shapes resulting from a single paint operation (for
+   * example, all segments of a stroked curve) should be merged into a single shape, given by the
+   * bounding box of the painted path. By default, a shape is extracted per path segment.
+   */
+  public void setIsMergeShapesPerPaint(boolean isMergeShapesPerPaint) {
+    this.isMergeShapesPerPaint = isMergeShapesPerPaint;
+  }
+
+  /**
+   * Returns the maximum number of shapes per page; 0 if the number of shapes is not limited.
+   */
+  public int getMaxNumShapesPerPage() {
+    return this.maxNumShapesPerPage;
+  }
+
+  /**
+   * Sets the maximum number of shapes per page. If a page contains more shapes (for example, a
+   * page with a plot of many thousands of path segments), neighboring shapes with the same color
+   * are merged into their bounding boxes until the page contains at most the given number of
+   * shapes. 0 if the number of shapes should not be limited.
+   */
+  public void setMaxNumShapesPerPage(int maxNumShapesPerPage) {
+    this.maxNumShapesPerPage = maxNumShapesPerPage;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the policy how to deal with hidden characters of the given category.
+   */
+  public HiddenTextPolicy getHiddenTextPolicy(HiddenTextCategory category) {
+    return this.hiddenTextPolicies.getOrDefault(category, HiddenTextPolicy.KEEP);
+  }
+
+  /**
+   * Sets the policy how to deal with hidden characters of the given category. For example,
+   * setHiddenTextPolicy(HiddenTextCategory.INVISIBLE, HiddenTextPolicy.DROP) drops the invisible
+   * text layers of scanned pages on extraction, such that they don't double the work of the
+   * later stages. By default, all characters are kept. Null to keep the characters.
+   */
+  public void setHiddenTextPolicy(HiddenTextCategory category, HiddenTextPolicy policy) {
+    this.hiddenTextPolicies.put(category, policy != null ? policy : HiddenTextPolicy.KEEP);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if characters drawn multiple times at nearly the same position are removed.
+   */
+  public boolean isRemoveDuplicateCharacters() {
+    return this.isRemoveDuplicateCharacters;
+  }
+
+  /**
+   * Sets the flag indicating whether characters drawn multiple times at nearly the same position
+   * (for example, by producers that simulate bold text by drawing a glyph multiple times with
+   * tiny offsets, or that draw shadows) should be removed on extraction, such that only the first
+   * drawn copy is kept. The number of removed characters is given by
+   * Page.getNumDuplicateCharacters(). By default, all characters are kept.
+   */
+  public void setIsRemoveDuplicateCharacters(boolean isRemoveDuplicateCharacters) {
+    this.isRemoveDuplicateCharacters = isRemoveDuplicateCharacters;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if the characters are normalized in a single pass over each page.
+   */
+  public boolean isNormalizeCharactersInSinglePass() {
+    return this.isNormalizeCharactersInSinglePass;
+  }
+
+  /**
+   * Sets the flag indicating whether the characters should be normalized (that is: the
+   * diacritics merged, the ligatures split, and the characters standardized and filtered) in a
+   * single pass over each page, or by a separate pipe per step. Both produce the same result; the
+   * separate pipes are mainly kept to compare the results. By default, a single pass is used.
+   */
+  public void setIsNormalizeCharactersInSinglePass(boolean isNormalizeCharactersInSinglePass) {
+    this.isNormalizeCharactersInSinglePass = isNormalizeCharactersInSinglePass;
+  }
+}
@@ -0,0 +1,718 @@
+package pdfact.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.cli.util.exception.PdfActBatchException;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that processes a batch of PDF files in a single JVM, by processing multiple PDF files
+ * concurrently on a pool of workers, which share the core pipe (and the resources loaded for
+ * parsing) of a single instance of PdfAct.
+ *
+ * <p>
+ * The PDF files can be given by a directory (all PDF files in the directory and its
+ * subdirectories are processed), by a glob pattern (for example, "papers/**&#47;*.pdf"), by a
+ * file containing a newline-separated list of paths, or by such a list read from stdin. The
+ * serialization of each PDF file is written to an output file, whose path is given by a template.
+ * The processing of a batch can be resumed: a PDF file is skipped if its output file already
+ * exists. An output file is only created after its PDF file was processed successfully, so an
+ * interrupted batch leaves no incomplete output files. The PDF files of a batch must have distinct
+ * output files, which is checked on listing the PDF files.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActBatch {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PdfActBatch.class);
+
+  /**
+   * The input that stands for the list of paths read from stdin.
+   */
+  public static final String STDIN = "-";
+
+  /**
+   * The placeholder in the output template for the file name of a PDF file, without extension.
+   */
+  public static final String NAME_PLACEHOLDER = "{name}";
+
+  /**
+   * The placeholder in the output template for the path of a PDF file relative to the input
+   * directory (or to the base directory of the glob pattern), without extension.
+   */
+  public static final String PATH_PLACEHOLDER = "{path}";
+
+  /**
+   * The placeholder in the output template for the name of the serialization format.
+   */
+  public static final String FORMAT_PLACEHOLDER = "{format}";
+
+  /**
+   * The suffix of the temporary files to which the serializations are written before they are
+   * moved to the output files.
+   */
+  protected static final String TEMP_FILE_SUFFIX = ".part";
+
+  /**
+   * The instance of PdfAct to process the PDF files.
+   */
+  protected PdfAct pdfAct;
+
+  /**
+   * The template for the paths of the output files: either a directory or a path containing at
+   * least one of the placeholders.
+   */
+  protected String outputTemplate;
+
+  /**
+   * The number of PDF files to process concurrently.
+   */
+  protected int numWorkers;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new batch processor.
+   *
+   * @param pdfAct         The instance of PdfAct to process the PDF files. Its serialization
+   *                       targets are ignored.
+   * @param outputTemplate The template for the paths of the output files: either a directory
+   *                       (in which case the output files are written to the directory, with
+   *                       the same relative paths as the PDF files) or a path containing at least
+   *                       one of the placeholders {@value #NAME_PLACEHOLDER},
+   *                       {@value #PATH_PLACEHOLDER} and {@value #FORMAT_PLACEHOLDER}.
+   * @param numWorkers     The number of PDF files to process concurrently.
+   */
+  public PdfActBatch(PdfAct pdfAct, String outputTemplate, int numWorkers) {
+    this.pdfAct = pdfAct;
+    this.outputTemplate = outputTemplate;
+    this.numWorkers = Math.max(1, numWorkers);
+  }
+
+  // ==============================================================================================
+  // Methods to list the PDF files.
+
+  /**
+   * Lists the PDF files given by the given input.
+   *
+   * @param input The input: a directory, a glob pattern, a PDF file, a file containing a
+   *              newline-separated list of paths, or {@value #STDIN} to read such a list from the
+   *              given stream.
+   * @param stdin The stream to read the list of paths from if the input is {@value #STDIN}.
+   *
+   * @return The PDF files, in the order in which they should be processed.
+   *
+   * @throws PdfActException If the PDF files could not be listed, or if two of the PDF files
+   *                         have the same output file.
+   */
+  public List<Input> listInputs(String input, InputStream stdin) throws PdfActException {
+    List<Input> inputs;
+    try {
+      if (STDIN.equals(input)) {
+        inputs = listInputs(stdin);
+      } else if (Files.isDirectory(Paths.get(input))) {
+        inputs = listDirectory(Paths.get(input), null);
+      } else if (Files.isRegularFile(Paths.get(input))) {
+        Path path = Paths.get(input);
+        if (isPdfFile(path)) {
+          inputs = Collections.singletonList(new Input(path, path.getFileName()));
+        } else {
+          try (InputStream stream = Files.newInputStream(path)) {
+            inputs = listInputs(stream);
+          }
+        }
+      } else {
+        inputs = listGlob(input);
+      }
+    } catch (IOException | RuntimeException e) {
+      throw new PdfActBatchException("Couldn't list the PDF files of '" + input + "'.", e);
+    }
+    checkOutputPaths(inputs);
+    return inputs;
+  }
+
+  /**
+   * Checks that no two of the given PDF files have the same output file, because they would
+   * overwrite each other's output (or the second one would be skipped as already processed).
+   *
+   * @param inputs The PDF files to check.
+   *
+   * @throws PdfActBatchException If two of the PDF files have the same output file.
+   */
+  protected void checkOutputPaths(List<Input> inputs) throws PdfActBatchException {
+    Map<Path, Input> inputsByOutput = new HashMap<>();
+    for (Input input : inputs) {
+      Path output = getOutputPath(input).toAbsolutePath().normalize();
+      Input other = inputsByOutput.putIfAbsent(output, input);
+      if (other != null) {
+        throw new PdfActBatchException("The PDF files '" + other.getPath() + "' and '"
+            + input.getPath() + "' have the same output file '" + output + "'. Use the "
+            + "placeholder " + PATH_PLACEHOLDER + " in the output template or rename the files.");
+      }
+    }
+  }
+
+  /**
+   * Lists the PDF files given by a newline-separated list of paths, read from the given stream.
+   * Empty lines are ignored. The relative paths of the PDF files are relative to the deepest
+   * directory that contains all listed PDF files, such that PDF files with the same name in
+   * different directories get different relative paths.
+   *
+   * @param stream The stream to read from.
+   *
+   * @return The PDF files.
+   *
+   * @throws IOException If reading from the stream failed.
+   */
+  protected List<Input> listInputs(InputStream stream) throws IOException {
+    List<Path> paths = new ArrayList<>();
+    BufferedReader reader = new BufferedReader(
+        new InputStreamReader(stream, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null) {
+      line = line.trim();
+      if (!line.isEmpty()) {
+        paths.add(Paths.get(line));
+      }
+    }
+
+    // Compute the deepest directory that contains all listed PDF files.
+    Path base = null;
+    for (Path path : paths) {
+      Path parent = path.toAbsolutePath().normalize().getParent();
+      if (base == null) {
+        base = parent;
+      }
+      while (base != null && (parent == null || !parent.startsWith(base))) {
+        base = base.getParent();
+      }
+      if (base == null) {
+        break;
+      }
+    }
+
+    List<Input> inputs = new ArrayList<>();
+    for (Path path : paths) {
+      Path absolutePath = path.toAbsolutePath().normalize();
+      Path relativePath = base != null ? base.relativize(absolutePath)
+          : absolutePath.subpath(0, absolutePath.getNameCount());
+      inputs.add(new Input(path, relativePath));
+    }
+    return inputs;
+  }
+
+  /**
+   * Lists the PDF files given by a glob pattern. The pattern is matched against the paths
+   * relative to the base directory of the pattern, that is: the longest leading part of the
+   * pattern that doesn't contain any glob characters.
+   *
+   * @param glob The glob pattern.
+   *
+   * @return The PDF files matching the pattern.
+   *
+   * @throws IOException If the base directory could not be read.
+   */
+  protected List<Input> listGlob(String glob) throws IOException {
+    Path pattern = Paths.get(glob);
+
+    // Split the pattern into the base directory and the pattern relative to it.
+    Path base = pattern.getRoot();
+    int i = 0;
+    for (; i < pattern.getNameCount() - 1; i++) {
+      if (isGlob(pattern.getName(i).toString())) {
+        break;
+      }
+      base = base == null ? pattern.getName(i) : base.resolve(pattern.getName(i));
+    }
+    base = base != null ? base : Paths.get(".");
+    String relativeGlob = pattern.subpath(i, pattern.getNameCount()).toString();
+
+    if (!Files.isDirectory(base)) {
+      return new ArrayList<>();
+    }
+    return listDirectory(base, FileSystems.getDefault().getPathMatcher("glob:" + relativeGlob));
+  }
+
+  /**
+   * Lists the PDF files in the given directory and its subdirectories, sorted by their paths.
+   *
+   * @param dir     The directory.
+   * @param matcher The matcher for the paths relative to the directory; null if the file name
+   *                of a PDF file should end with ".pdf" instead.
+   *
+   * @return The PDF files.
+   *
+   * @throws IOException If the directory could not be read.
+   */
+  protected List<Input> listDirectory(Path dir, PathMatcher matcher) throws IOException {
+    List<Path> paths = new ArrayList<>();
+    try (Stream<Path> stream = Files.walk(dir)) {
+      stream.forEach(paths::add);
+    }
+    Collections.sort(paths);
+
+    List<Input> inputs = new ArrayList<>();
+    for (Path path : paths) {
+      Path relativePath = dir.relativize(path);
+      if (!Files.isRegularFile(path)) {
+        continue;
+      }
+      if (matcher != null ? matcher.matches(relativePath) : isPdfFile(path)) {
+        inputs.add(new Input(path, relativePath));
+      }
+    }
+    return inputs;
+  }
+
+  /**
+   * Checks if the given path is a PDF file, judged by its file extension.
+   *
+   * @param path The path to check.
+   *
+   * @return True if the file name of the path ends with ".pdf"; false otherwise.
+   */
+  protected static boolean isPdfFile(Path path) {
+    Path name = path.getFileName();
+    return name != null && name.toString().toLowerCase(Locale.ROOT).endsWith(".pdf");
+  }
+
+  /**
+   * Checks if the given part of a path contains any glob characters.
+   *
+   * @param part The part of a path.
+   *
+   * @return True if the part contains any glob characters; false otherwise.
+   */
+  protected static boolean isGlob(String part) {
+    return part.indexOf('*') >= 0 || part.indexOf('?') >= 0 || part.indexOf('[') >= 0
+        || part.indexOf('{') >= 0;
+  }
+
+  // ==============================================================================================
+  // Methods to process the PDF files.
+
+  /**
+   * Processes the given PDF files on the pool of workers and waits until all PDF files were
+   * processed.
+   *
+   * @param inputs The PDF files to process.
+   *
+   * @return The results, in the order of the given PDF files.
+   *
+   * @throws PdfActException If the processing was interrupted.
+   */
+  public List<Result> process(List<Input> inputs) throws PdfActException {
+    ExecutorService workers = Executors.newFixedThreadPool(this.numWorkers, new ThreadFactory() {
+      /**
+       * The number of created threads.
+       */
+      protected final AtomicInteger numThreads = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "pdfact-batch-" + this.numThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    try {
+      List<Future<Result>> futures = new ArrayList<>();
+      for (final Input input : inputs) {
+        futures.add(workers.submit(new Callable<Result>() {
+          @Override
+          public Result call() {
+            return process(input);
+          }
+        }));
+      }
+
+      // The processing of a PDF file doesn't throw, as its errors are reported by its result.
+      List<Result> results = new ArrayList<>();
+      for (Future<Result> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PdfActBatchException("Interrupted while processing the batch.", e);
+    } catch (ExecutionException e) {
+      throw new PdfActBatchException("Couldn't process the batch.", e.getCause());
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  /**
+   * Processes the given PDF file, unless its output file already exists.
+   *
+   * @param input The PDF file to process.
+   *
+   * @return The result.
+   */
+  protected Result process(Input input) {
+    Path output = getOutputPath(input);
+    if (Files.exists(output)) {
+      log.debug("Skipping '" + input.getPath() + "', as its output file exists.");
+      return new Result(input, output, Status.SKIPPED, 0, null);
+    }
+
+    long start = System.nanoTime();
+    Path tempFile = null;
+    try {
+      Path parent = output.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      // The temporary file is unique, so it can't be written by another task at the same time.
+      tempFile = output.resolveSibling(output.getFileName() + "." + UUID.randomUUID()
+          + TEMP_FILE_SUFFIX);
+      try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(tempFile,
+          StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+        this.pdfAct.parseTo(input.getPath(), stream);
+      }
+      moveFile(tempFile, output);
+      return new Result(input, output, Status.PROCESSED, elapsedMillis(start), null);
+    } catch (Throwable e) {
+      // Also catch errors (like a StackOverflowError on a deeply nested PDF file), such that a
+      // single PDF file can't abort the whole batch.
+      log.debug("Couldn't process '" + input.getPath() + "'.", e);
+      if (tempFile != null) {
+        deleteFile(tempFile);
+      }
+      String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+      return new Result(input, output, Status.FAILED, elapsedMillis(start), message);
+    }
+  }
+
+  /**
+   * Returns the path of the output file of the given PDF file.
+   *
+   * @param input The PDF file.
+   *
+   * @return The path of the output file.
+   */
+  protected Path getOutputPath(Input input) {
+    String name = removeExtension(input.getPath().getFileName().toString());
+    String path = removeExtension(input.getRelativePath().toString());
+    String format = getSerializationFormat().name().toLowerCase(Locale.ROOT);
+
+    if (this.outputTemplate.contains(NAME_PLACEHOLDER)
+        || this.outputTemplate.contains(PATH_PLACEHOLDER)
+        || this.outputTemplate.contains(FORMAT_PLACEHOLDER)) {
+      return Paths.get(this.outputTemplate.replace(NAME_PLACEHOLDER, name)
+          .replace(PATH_PLACEHOLDER, path).replace(FORMAT_PLACEHOLDER, format));
+    }
+    return Paths.get(this.outputTemplate, path + "." + format);
+  }
+
+  /**
+   * Returns the serialization format of the output files.
+   *
+   * @return The serialization format.
+   */
+  protected SerializationFormat getSerializationFormat() {
+    SerializationFormat format = this.pdfAct.getSerializationFormat();
+    return format != null ? format : PdfActCliSettings.DEFAULT_SERIALIZE_FORMAT;
+  }
+
+  /**
+   * Removes the extension from the given file name or path.
+   *
+   * @param name The file name or path.
+   *
+   * @return The file name or path without extension.
+   */
+  protected static String removeExtension(String name) {
+    int index = name.lastIndexOf('.');
+    int separatorIndex = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+    return index > separatorIndex + 1 ? name.substring(0, index) : name;
+  }
+
+  /**
+   * Moves the given source file to the given target file, atomically if possible.
+   *
+   * @param source The source file.
+   * @param target The target file.
+   *
+   * @throws IOException If moving the file failed.
+   */
+  protected static void moveFile(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Deletes the given file, if it exists.
+   *
+   * @param file The file to delete.
+   */
+  protected static void deleteFile(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.debug("Couldn't delete '" + file + "'.", e);
+    }
+  }
+
+  /**
+   * Returns the milliseconds elapsed since the given start.
+   *
+   * @param start The start, as given by {@link System#nanoTime()}.
+   *
+   * @return The elapsed milliseconds.
+   */
+  protected static long elapsedMillis(long start) {
+    return (System.nanoTime() - start) / 1000000;
+  }
+
+  // ==============================================================================================
+  // Methods to write the summary.
+
+  /**
+   * Writes a summary of the given results to the given stream: a tab-separated line per PDF file
+   * (the status, the path of the PDF file, the path of the output file, the time needed to
+   * process the PDF file in milliseconds and, if the processing failed, the error message),
+   * followed by a line with the totals.
+   *
+   * @param results The results.
+   * @param stream  The stream to write to.
+   */
+  public void writeSummary(List<Result> results, PrintStream stream) {
+    int numProcessed = 0;
+    int numSkipped = 0;
+    int numFailed = 0;
+    long millis = 0;
+
+    for (Result result : results) {
+      StringBuilder line = new StringBuilder();
+      line.append(result.getStatus()).append('\t');
+      line.append(result.getInput().getPath()).append('\t');
+      line.append(result.getOutput()).append('\t');
+      line.append(result.getMillis());
+      if (result.getMessage() != null) {
+        line.append('\t').append(result.getMessage().replaceAll("\\s+", " "));
+      }
+      stream.println(line);
+
+      switch (result.getStatus()) {
+        case PROCESSED:
+          numProcessed++;
+          break;
+        case SKIPPED:
+          numSkipped++;
+          break;
+        case FAILED:
+        default:
+          numFailed++;
+          break;
+      }
+      millis += result.getMillis();
+    }
+
+    stream.println("# processed: " + numProcessed + ", skipped: " + numSkipped + ", failed: "
+        + numFailed + ", time: " + millis + "ms");
+    stream.flush();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A PDF file of a batch.
+   */
+  public static class Input {
+    /**
+     * The path to the PDF file.
+     */
+    protected Path path;
+
+    /**
+     * The path to the PDF file relative to the input directory.
+     */
+    protected Path relativePath;
+
+    /**
+     * Creates a new PDF file of a batch.
+     *
+     * @param path         The path to the PDF file.
+     * @param relativePath The path to the PDF file relative to the input directory (or the file
+     *                     name, if there is no input directory).
+     */
+    public Input(Path path, Path relativePath) {
+      this.path = path;
+      this.relativePath = relativePath;
+    }
+
+    /**
+     * Returns the path to the PDF file.
+     *
+     * @return The path to the PDF file.
+     */
+    public Path getPath() {
+      return this.path;
+    }
+
+    /**
+     * Returns the path to the PDF file relative to the input directory.
+     *
+     * @return The path to the PDF file relative to the input directory.
+     */
+    public Path getRelativePath() {
+      return this.relativePath;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The status of a processed PDF file.
+   */
+  public enum Status {
+    /**
+     * The PDF file was processed successfully.
+     */
+    PROCESSED,
+
+    /**
+     * The PDF file was skipped, because its output file already exists.
+     */
+    SKIPPED,
+
+    /**
+     * The processing of the PDF file failed.
+     */
+    FAILED;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The result of processing a PDF file of a batch.
+   */
+  public static class Result {
+    /**
+     * The PDF file.
+     */
+    protected Input input;
+
+    /**
+     * The path to the output file.
+     */
+    protected Path output;
+
+    /**
+     * The status.
+     */
+    protected Status status;
+
+    /**
+     * The time needed to process the PDF file, in milliseconds.
+     */
+    protected long millis;
+
+    /**
+     * The error message; null if the processing didn't fail.
+     */
+    protected String message;
+
+    /**
+     * Creates a new result.
+     *
+     * @param input   The PDF file.
+     * @param output  The path to the output file.
+     * @param status  The status.
+     * @param millis  The time needed to process the PDF file, in milliseconds.
+     * @param message The error message; null if the processing didn't fail.
+     */
+    public Result(Input input, Path output, Status status, long millis, String message) {
+      this.input = input;
+      this.output = output;
+      this.status = status;
+      this.millis = millis;
+      this.message = message;
+    }
+
+    /**
+     * Returns the PDF file.
+     *
+     * @return The PDF file.
+     */
+    public Input getInput() {
+      return this.input;
+    }
+
+    /**
+     * Returns the path to the output file.
+     *
+     * @return The path to the output file.
+     */
+    public Path getOutput() {
+      return this.output;
+    }
+
+    /**
+     * Returns the status.
+     *
+     * @return The status.
+     */
+    public Status getStatus() {
+      return this.status;
+    }
+
+    /**
+     * Returns the time needed to process the PDF file.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getMillis() {
+      return this.millis;
+    }
+
+    /**
+     * Returns the error message.
+     *
+     * @return The error message; null if the processing didn't fail.
+     */
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -18,7 +18,11 @@ import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
+import pdfact.cli.util.exception.PdfActBatchException;
 import pdfact.cli.util.exception.PdfActParseCommandLineException;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
+import pdfact.core.model.PageSelection;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.util.exception.PdfActException;
 
@@ -80,6 +84,18 @@ public class PdfActCli {
         pdfAct.setVisualizationPath(Paths.get(visualizationPathStr));
       }
 
+      // Pass the target of the metrics.
+      String metricsPathStr = parser.metricsPath;
+      if (metricsPathStr != null) {
+        pdfAct.setMetricsPath(Paths.get(metricsPathStr));
+      }
+
+      // Pass the target of the snapshot.
+      String snapshotPathStr = parser.snapshotPath;
+      if (snapshotPathStr != null) {
+        pdfAct.setSnapshotPath(Paths.get(snapshotPathStr));
+      }
+
       // Pass the chosen text unit.
       List<String> extractionUnits = parser.extractionUnits;
       if (extractionUnits != null) {
@@ -104,8 +120,65 @@ public class PdfActCli {
       // Set the "pdf.js mode" flag.
       pdfAct.setIsPdfJsMode(parser.isPdfJsMode);
 
+      // Set the flag indicating whether or not the images should be classified.
+      pdfAct.setIsClassifyImages(!parser.isSkipImageClassification);
+
+      // Set the flag indicating whether the shapes of a paint operation should be merged.
+      pdfAct.setIsMergeShapesPerPaint(parser.isMergeShapes);
+
+      // Drop the hidden characters of the given categories.
+      if (parser.hiddenTextToDrop != null) {
+        for (String name : parser.hiddenTextToDrop) {
+          HiddenTextCategory category = HiddenTextCategory.fromString(name);
+          if (category != null) {
+            pdfAct.setHiddenTextPolicy(category, HiddenTextPolicy.DROP);
+          }
+        }
+      }
+
+      // Set the flag indicating whether duplicate characters should be removed.
+      pdfAct.setIsRemoveDuplicateCharacters(parser.isRemoveDuplicateCharacters);
+
+      // Set the maximum number of shapes per page.
+      if (parser.maxShapesPerPage != null) {
+        pdfAct.setMaxNumShapesPerPage(parser.maxShapesPerPage);
+      }
+
+      // Pass the selection of the pages to process.
+      pdfAct.setPageSelection(PageSelection.fromString(parser.pageSelection));
+
+      // Set the number of pages to process in parallel. In batch mode, the PDF files are processed
+      // in parallel instead of their pages, unless specified otherwise.
+      boolean isBatch = parser.batchInput != null;
+      if (parser.parallelism != null) {
+        pdfAct.setParallelism(parser.parallelism);
+      } else {
+        pdfAct.setParallelism(isBatch ? 1 : Runtime.getRuntime().availableProcessors());
+      }
+
+      // Execute only the stages needed for the output (the parsed document is not used otherwise).
+      pdfAct.setIsPlanStages(true);
+
       // Run PdfAct.
-      pdfAct.parse(parser.pdfPath);
+      if (isBatch) {
+        PdfActBatch batch = new PdfActBatch(pdfAct, parser.outputTemplate, parser.numWorkers);
+        List<PdfActBatch.Result> results = batch.process(
+            batch.listInputs(parser.batchInput, System.in));
+        batch.writeSummary(results, System.out);
+
+        int numFailed = 0;
+        for (PdfActBatch.Result result : results) {
+          numFailed += result.getStatus() == PdfActBatch.Status.FAILED ? 1 : 0;
+        }
+        if (numFailed > 0) {
+          throw new PdfActBatchException(numFailed + " of " + results.size()
+              + " PDF files could not be processed.");
+        }
+      } else if (parser.isFromSnapshot) {
+        pdfAct.resume(Paths.get(parser.pdfPath));
+      } else {
+        pdfAct.parse(parser.pdfPath);
+      }
     } catch (PdfActException e) {
       statusCode = e.getExitCode();
       errorMessage = e.getMessage();
@@ -202,6 +275,45 @@ public class PdfActCli {
 
     // ============================================================================================
 
+    /**
+     * The name of the option to define the target path for the metrics.
+     */
+    public static final String METRICS_PATH = "metrics";
+
+    /**
+     * The target path for the metrics.
+     */
+    @Arg(dest = METRICS_PATH)
+    public String metricsPath;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the target path for the snapshot.
+     */
+    public static final String SNAPSHOT_PATH = "snapshot";
+
+    /**
+     * The target path for the snapshot.
+     */
+    @Arg(dest = SNAPSHOT_PATH)
+    public String snapshotPath;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to resume the processing from a snapshot.
+     */
+    public static final String FROM_SNAPSHOT = "from-snapshot";
+
+    /**
+     * The boolean flag indicating whether or not the input file is a snapshot.
+     */
+    @Arg(dest = FROM_SNAPSHOT)
+    public boolean isFromSnapshot = false;
+
+    // ============================================================================================
+
     /**
      * The name of the option to define the units to extract.
      */
@@ -407,6 +519,138 @@ public class PdfActCli {
 
     // ============================================================================================
 
+    /**
+     * The name of the option to skip the classification of images into shapes and figures.
+     */
+    public static final String SKIP_IMAGE_CLASSIFICATION = "skip-image-classification";
+
+    /**
+     * The boolean flag indicating whether or not to skip the classification of images.
+     */
+    @Arg(dest = SKIP_IMAGE_CLASSIFICATION)
+    public boolean isSkipImageClassification = false;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the pages to process.
+     */
+    public static final String PAGES = "pages";
+
+    /**
+     * The selection of the pages to process; null if all pages should be processed.
+     */
+    @Arg(dest = PAGES)
+    public String pageSelection;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to merge the shapes resulting from a single paint operation.
+     */
+    public static final String MERGE_SHAPES = "merge-shapes";
+
+    /**
+     * The boolean flag indicating whether or not to merge the shapes of a paint operation.
+     */
+    @Arg(dest = MERGE_SHAPES)
+    public boolean isMergeShapes = false;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the maximum number of shapes per page.
+     */
+    public static final String MAX_SHAPES_PER_PAGE = "max-shapes-per-page";
+
+    /**
+     * The maximum number of shapes per page; null if the number of shapes is not limited.
+     */
+    @Arg(dest = MAX_SHAPES_PER_PAGE)
+    public Integer maxShapesPerPage;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the categories of hidden characters to drop.
+     */
+    public static final String DROP_HIDDEN_TEXT = "drop-hidden-text";
+
+    /**
+     * The categories of hidden characters to drop; null if all characters should be kept.
+     */
+    @Arg(dest = DROP_HIDDEN_TEXT)
+    public List<String> hiddenTextToDrop;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to remove characters drawn multiple times.
+     */
+    public static final String REMOVE_DUPLICATE_CHARACTERS = "remove-duplicate-characters";
+
+    /**
+     * The boolean flag indicating whether or not to remove characters drawn multiple times.
+     */
+    @Arg(dest = REMOVE_DUPLICATE_CHARACTERS)
+    public boolean isRemoveDuplicateCharacters = false;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the number of pages to process in parallel.
+     */
+    public static final String PARALLELISM = "parallelism";
+
+    /**
+     * The maximum number of pages to process in parallel.
+     */
+    @Arg(dest = PARALLELISM)
+    public Integer parallelism;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the PDF files to process in batch mode.
+     */
+    public static final String BATCH_INPUT = "batch";
+
+    /**
+     * The PDF files to process in batch mode (a directory, a glob pattern, a file containing a
+     * list of paths or "-" to read the list from stdin); null if not in batch mode.
+     */
+    @Arg(dest = BATCH_INPUT)
+    public String batchInput;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the template for the output files in batch mode.
+     */
+    public static final String OUTPUT_TEMPLATE = "output-dir";
+
+    /**
+     * The template for the output files in batch mode.
+     */
+    @Arg(dest = OUTPUT_TEMPLATE)
+    public String outputTemplate;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the number of PDF files to process in parallel in batch
+     * mode.
+     */
+    public static final String NUM_WORKERS = "workers";
+
+    /**
+     * The number of PDF files to process in parallel in batch mode.
+     */
+    @Arg(dest = NUM_WORKERS)
+    public int numWorkers = Runtime.getRuntime().availableProcessors();
+
+    // ============================================================================================
+
     /**
      * Creates a new command line argument parser.
      */
@@ -418,9 +662,11 @@ public class PdfActCli {
 
       // Add an option to define the path to the PDF file to be processed.
       this.parser.addArgument(PDF_PATH).dest(PDF_PATH)
-        .required(true)
+        .required(false).nargs("?")
         .metavar("<pdf-file>")
-        .help("The path to the PDF file to be processed.");
+        .help("The path to the PDF file to be processed (or to the snapshot, if the option \"--"
+            + FROM_SNAPSHOT + "\" is specified).\n"
+            + "Required, unless the option \"--" + BATCH_INPUT + "\" is specified.");
 
       // Add an argument to define the target path to the output file.
       this.parser.addArgument(SERIALIZE_PATH).dest(SERIALIZE_PATH)
@@ -512,6 +758,35 @@ public class PdfActCli {
             + "should be written to. The file doesn't have to be existent before. If not "
             + "specified, no such visualization will be created.");
 
+      // Add an option to define the target path for the metrics.
+      this.parser.addArgument("--" + METRICS_PATH).dest(METRICS_PATH)
+        .required(false)
+        .type(String.class)
+        .metavar("<file>")
+        .help("The path to a file to which the metrics of the processing should be written in "
+            + "JSON format, that is: per processing stage and per page, the wall time, the CPU "
+            + "time and the allocated bytes, and the numbers of the extracted elements. If not "
+            + "specified, no metrics will be written.");
+
+      // Add an option to define the target path for the snapshot.
+      this.parser.addArgument("--" + SNAPSHOT_PATH).dest(SNAPSHOT_PATH)
+        .required(false)
+        .type(String.class)
+        .metavar("<file>")
+        .help("The path to a file to which a snapshot of the processed PDF file should be "
+            + "written, that is: the extracted elements of all units with their layout "
+            + "information and semantic roles. The processing can be resumed from the snapshot "
+            + "with \"--" + FROM_SNAPSHOT + "\", for example to extract other units, without "
+            + "parsing the PDF file again. If not specified, no snapshot will be written.");
+
+      // Add an option to resume the processing from a snapshot.
+      this.parser.addArgument("--" + FROM_SNAPSHOT).dest(FROM_SNAPSHOT)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.isFromSnapshot)
+        .help("Treats <pdf-file> as a snapshot written with \"--" + SNAPSHOT_PATH + "\" and "
+            + "resumes the processing from the snapshot, instead of parsing a PDF file.");
+
       // Add an option to define whether or not control characters (which identify headings and
       // page breaks should be inserted into the TXT serialization output.
       this.parser.addArgument("--" + WITH_CONTROL_CHARACTERS).dest(WITH_CONTROL_CHARACTERS)
@@ -600,6 +875,112 @@ public class PdfActCli {
         .setDefault(this.isPdfJsMode)
         .help("Enables the pdf.js mode, that is: a mode that outputs the text in a format as "
               + "required by the tool from Robin that improves the search functionality of pdf.js");
+
+      // Add an option to skip the classification of images into shapes and figures.
+      this.parser.addArgument("--" + SKIP_IMAGE_CLASSIFICATION).dest(SKIP_IMAGE_CLASSIFICATION)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.isSkipImageClassification)
+        .help("Considers all images as figures. By default, images that consist of a single "
+            + "color are considered as shapes, which may require to decode the images.");
+
+      // Add an option to define the pages to process.
+      this.parser.addArgument("--" + PAGES).dest(PAGES)
+        .required(false)
+        .metavar("<pages>")
+        .help("The pages to process, given by comma-separated page numbers or page ranges. "
+            + "The page numbers start at 1; r1 is the last page, r2 the second last page, etc. "
+            + "For example: \"1-2\" (the first two pages), \"r2-r1\" (the last two pages) or "
+            + "\"3,5-7,10-\" (the pages 3, 5, 6, 7 and all pages from page 10 on).\n"
+            + "- Default: all pages.\n"
+            + "The other pages are neither parsed nor included in the output.");
+
+      // Add an option to merge the shapes resulting from a single paint operation.
+      this.parser.addArgument("--" + MERGE_SHAPES).dest(MERGE_SHAPES)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.isMergeShapes)
+        .help("Extracts a single shape (the bounding box of the painted path) per paint "
+            + "operation. By default, a shape is extracted per path segment.");
+
+      // Add an option to define the categories of hidden characters to drop.
+      List<String> categories = new ArrayList<>();
+      for (HiddenTextCategory category : HiddenTextCategory.values()) {
+        categories.add(category.getName());
+      }
+      this.parser.addArgument("--" + DROP_HIDDEN_TEXT).dest(DROP_HIDDEN_TEXT)
+        .required(false)
+        .metavar("<categories>")
+        .action(new SplitAtDelimiterAction(","))
+        .help("The categories of hidden characters to drop on extraction, separated by \",\".\n"
+            + "- Available options: " + String.join(", ", categories) + ".\n"
+            + "- Default: none.\n"
+            + "Invisible characters are shown with a text rendering mode that neither fills nor "
+            + "strokes them (for example, the text layer of a scanned page), off-page characters "
+            + "lie outside the crop box and clipped characters outside the clipping path.");
+
+      // Add an option to remove characters drawn multiple times.
+      this.parser.addArgument("--" + REMOVE_DUPLICATE_CHARACTERS)
+        .dest(REMOVE_DUPLICATE_CHARACTERS)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.isRemoveDuplicateCharacters)
+        .help("Removes characters drawn multiple times at nearly the same position (for example, "
+            + "to simulate bold text or to draw shadows), keeping only the first drawn copy.");
+
+      // Add an option to define the maximum number of shapes per page.
+      this.parser.addArgument("--" + MAX_SHAPES_PER_PAGE).dest(MAX_SHAPES_PER_PAGE)
+        .required(false)
+        .metavar("<num>")
+        .type(Integer.class)
+        .help("The maximum number of shapes per page. If a page contains more shapes, "
+            + "neighboring shapes with the same color are merged into their bounding boxes.\n"
+            + "- Default: no limit.");
+
+      // Add an option to define the number of pages to process in parallel.
+      this.parser.addArgument("--" + PARALLELISM).dest(PARALLELISM)
+        .required(false)
+        .metavar("<num>")
+        .type(Integer.class)
+        .help("The maximum number of pages to process in parallel.\n"
+            + "- Default: the number of available processors; 1 in batch mode.\n"
+            + "Set it to 1 to process the pages sequentially. The extraction output does not "
+            + "depend on this number.");
+
+      // Add an option to process multiple PDF files in batch mode.
+      this.parser.addArgument("--" + BATCH_INPUT).dest(BATCH_INPUT)
+        .required(false)
+        .metavar("<input>")
+        .help("Processes multiple PDF files in a single run (batch mode). The PDF files can be "
+            + "given by a directory (all PDF files in the directory and its subdirectories are "
+            + "processed), a glob pattern (for example, \"papers/**/*.pdf\"; quote it to "
+            + "prevent the shell from expanding it), a file containing a newline-separated "
+            + "list of paths, or \"-\" to read such a list from stdin. The output of each PDF "
+            + "file is written to a file given by \"--" + OUTPUT_TEMPLATE + "\". PDF files whose "
+            + "output file already exists are skipped, so an interrupted run can be resumed. "
+            + "After all PDF files were processed, a summary is written to stdout.");
+
+      // Add an option to define the template for the output files in batch mode.
+      this.parser.addArgument("--" + OUTPUT_TEMPLATE).dest(OUTPUT_TEMPLATE)
+        .required(false)
+        .metavar("<template>")
+        .help("The directory to which the output files should be written in batch mode, with "
+            + "the same relative paths as the PDF files. Alternatively, a path containing the "
+            + "placeholders " + PdfActBatch.NAME_PLACEHOLDER + " (the file name of the PDF file "
+            + "without extension), " + PdfActBatch.PATH_PLACEHOLDER + " (the path of the PDF "
+            + "file relative to the input directory, without extension) or "
+            + PdfActBatch.FORMAT_PLACEHOLDER + " (the output format), for example: "
+            + "\"out/" + PdfActBatch.NAME_PLACEHOLDER + "." + PdfActBatch.FORMAT_PLACEHOLDER
+            + "\".");
+
+      // Add an option to define the number of PDF files to process in parallel in batch mode.
+      this.parser.addArgument("--" + NUM_WORKERS).dest(NUM_WORKERS)
+        .required(false)
+        .metavar("<num>")
+        .type(Integer.class)
+        .setDefault(this.numWorkers)
+        .help("The number of PDF files to process in parallel in batch mode.\n"
+            + "- Default: the number of available processors.");
     }
 
     /**
@@ -612,6 +993,7 @@ public class PdfActCli {
     public void parseArgs(String[] args) throws PdfActException {
       try {
         this.parser.parseArgs(args, this);
+        validateArgs();
       } catch (HelpScreenException e) {
         // Set the status code to 0, such that no error message is shown.
         throw new PdfActParseCommandLineException(null, 0, e);
@@ -621,6 +1003,42 @@ public class PdfActCli {
       }
     }
 
+    /**
+     * Validates the combination of the parsed command line arguments.
+     *
+     * @throws ArgumentParserException If the combination is invalid.
+     */
+    protected void validateArgs() throws ArgumentParserException {
+      if (this.batchInput == null) {
+        if (this.pdfPath == null) {
+          throw new ArgumentParserException("the following arguments are required: <pdf-file>",
+              this.parser);
+        }
+        if (this.isFromSnapshot && this.snapshotPath != null) {
+          throw new ArgumentParserException("argument --" + SNAPSHOT_PATH + " is not allowed "
+              + "with argument --" + FROM_SNAPSHOT, this.parser);
+        }
+        return;
+      }
+
+      if (this.pdfPath != null || this.serializationPath != null) {
+        throw new ArgumentParserException("<pdf-file> and <output-file> are not allowed with "
+            + "argument --" + BATCH_INPUT, this.parser);
+      }
+      if (this.outputTemplate == null) {
+        throw new ArgumentParserException("argument --" + BATCH_INPUT + " requires argument --"
+            + OUTPUT_TEMPLATE, this.parser);
+      }
+      if (this.visualizationPath != null || this.metricsPath != null) {
+        throw new ArgumentParserException("arguments --" + VISUALIZATION_PATH + " and --"
+            + METRICS_PATH + " are not allowed with argument --" + BATCH_INPUT, this.parser);
+      }
+      if (this.snapshotPath != null || this.isFromSnapshot) {
+        throw new ArgumentParserException("arguments --" + SNAPSHOT_PATH + " and --"
+            + FROM_SNAPSHOT + " are not allowed with argument --" + BATCH_INPUT, this.parser);
+      }
+    }
+
     /**
      * Returns the usage for this command line parser.
      *
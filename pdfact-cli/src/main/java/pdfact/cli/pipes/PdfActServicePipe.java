@@ -3,10 +3,20 @@ package pdfact.cli.pipes;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.Set;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
+import pdfact.core.model.Document;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
+import pdfact.core.model.PageSelection;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.pipes.PdfActCorePipe;
+import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.pipeline.Pipe;
+import pdfact.core.util.pipeline.PipelineListener;
+import pdfact.core.util.pipeline.PipelineMetrics;
+import pdfact.core.util.snapshot.Snapshot;
 
 /**
  * A pipe that wires up all necessary steps to identify the document structure of PDF documents,
@@ -152,4 +162,190 @@ public interface PdfActServicePipe extends Pipe {
    * Sets the boolean flag indicating whether or not the pdf.js mode is enabled.
    */
   public void setIsPdfJsMode(boolean isPdfJsMode);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the maximum number of pages to process in parallel.
+   */
+  public int getParallelism();
+
+  /**
+   * Sets the maximum number of pages to process in parallel.
+   */
+  public void setParallelism(int parallelism);
+
+  /**
+   * Returns the boolean flag indicating whether or not the images should be classified into
+   * shapes (images with a single color) and figures.
+   */
+  public boolean isClassifyImages();
+
+  /**
+   * Sets the boolean flag indicating whether or not the images should be classified into shapes
+   * (images with a single color) and figures. If set to false, all images are considered as
+   * figures, without decoding them.
+   */
+  public void setIsClassifyImages(boolean isClassifyImages);
+
+  /**
+   * Returns the setting that defines where PDFBox keeps its scratch data while parsing; null if
+   * all scratch data is kept in main memory.
+   */
+  public MemoryUsageSetting getMemoryUsageSetting();
+
+  /**
+   * Sets the setting that defines where PDFBox keeps its scratch data while parsing; null to keep
+   * all scratch data in main memory.
+   */
+  public void setMemoryUsageSetting(MemoryUsageSetting setting);
+
+  /**
+   * Returns the selection of the pages to process; null if all pages are processed.
+   */
+  public PageSelection getPageSelection();
+
+  /**
+   * Sets the selection of the pages to process; null to process all pages.
+   */
+  public void setPageSelection(PageSelection pageSelection);
+
+  /**
+   * Returns true if the shapes resulting from a single paint operation are merged into a single
+   * shape.
+   */
+  public boolean isMergeShapesPerPaint();
+
+  /**
+   * Sets the flag indicating whether the shapes resulting from a single paint operation should be
+   * merged into a single shape.
+   */
+  public void setIsMergeShapesPerPaint(boolean isMergeShapesPerPaint);
+
+  /**
+   * Returns the maximum number of shapes per page; 0 if the number of shapes is not limited.
+   */
+  public int getMaxNumShapesPerPage();
+
+  /**
+   * Sets the maximum number of shapes per page; 0 if the number of shapes should not be limited.
+   */
+  public void setMaxNumShapesPerPage(int maxNumShapesPerPage);
+
+  /**
+   * Returns the policy how to deal with hidden characters of the given category.
+   */
+  public HiddenTextPolicy getHiddenTextPolicy(HiddenTextCategory category);
+
+  /**
+   * Sets the policy how to deal with hidden characters of the given category; null to keep them.
+   */
+  public void setHiddenTextPolicy(HiddenTextCategory category, HiddenTextPolicy policy);
+
+  /**
+   * Returns true if characters drawn multiple times at nearly the same position are removed.
+   */
+  public boolean isRemoveDuplicateCharacters();
+
+  /**
+   * Sets the flag indicating whether characters drawn multiple times at nearly the same position
+   * should be removed.
+   */
+  public void setIsRemoveDuplicateCharacters(boolean isRemoveDuplicateCharacters);
+
+  /**
+   * Returns true if the characters are normalized in a single pass over each page.
+   */
+  public boolean isNormalizeCharactersInSinglePass();
+
+  /**
+   * Sets the flag indicating whether the characters should be normalized in a single pass over
+   * each page, or by a separate pipe per step.
+   */
+  public void setIsNormalizeCharactersInSinglePass(boolean isInSinglePass);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the core pipe that processes the PDF document.
+   */
+  public PdfActCorePipe getCorePipe();
+
+  /**
+   * Sets the core pipe that processes the PDF document. A core pipe can be shared by multiple
+   * service pipes.
+   */
+  public void setCorePipe(PdfActCorePipe corePipe);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the listener to notify about the pages processed by the core pipe.
+   */
+  public PipelineListener getPipelineListener();
+
+  /**
+   * Sets the listener to notify about the pages processed by the core pipe; null if there is no
+   * such listener.
+   */
+  public void setPipelineListener(PipelineListener listener);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the metrics to which the measurements of the executed pipes are added.
+   */
+  public PipelineMetrics getPipelineMetrics();
+
+  /**
+   * Sets the metrics to which the measurements of the executed pipes (of the core pipe and of
+   * the serialization and visualization) should be added; null if no metrics should be recorded.
+   */
+  public void setPipelineMetrics(PipelineMetrics metrics);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not only the stages of the core pipe should be
+   * executed that are needed to serialize and visualize the units and semantic roles to extract.
+   */
+  public boolean isPlanStages();
+
+  /**
+   * Sets the boolean flag indicating whether or not only the stages of the core pipe should be
+   * executed that are needed to serialize and visualize the units and semantic roles to extract.
+   * If set to true, the processed PDF document may lack the elements of other units.
+   */
+  public void setIsPlanStages(boolean isPlanStages);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the path to the file to which a snapshot of the PDF document should be written after
+   * it was processed by the core pipe.
+   */
+  public Path getSnapshotPath();
+
+  /**
+   * Sets the path to the file to which a snapshot of the PDF document should be written after it
+   * was processed by the core pipe; null if no snapshot should be written. If a snapshot is
+   * written, all stages of the core pipe are executed, such that the processing can be resumed
+   * from the snapshot for any units and semantic roles to extract.
+   */
+  public void setSnapshotPath(Path path);
+
+  // ==============================================================================================
+
+  /**
+   * Resumes the processing of the PDF document of the given snapshot (without parsing the PDF
+   * document again) and serializes and visualizes the PDF document like
+   * {@link #execute(pdfact.core.model.Document)}.
+   *
+   * @param snapshot The snapshot of the PDF document to process.
+   *
+   * @return The PDF document after processing.
+   *
+   * @throws PdfActException If something went wrong on processing the PDF document.
+   */
+  public Document resume(Snapshot snapshot) throws PdfActException;
 }
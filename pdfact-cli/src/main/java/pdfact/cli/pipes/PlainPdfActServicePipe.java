@@ -5,9 +5,11 @@ import static pdfact.cli.PdfActCliSettings.DEFAULT_SEMANTIC_ROLES;
 import static pdfact.cli.PdfActCliSettings.DEFAULT_SERIALIZE_FORMAT;
 import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.EnumSet;
 import java.util.Set;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
 import pdfact.cli.pipes.serialize.PlainSerializePdfPipe;
@@ -17,11 +19,21 @@ import pdfact.cli.pipes.validate.ValidatePathToWritePipe;
 import pdfact.cli.pipes.visualize.PlainVisualizePdfPipe;
 import pdfact.cli.pipes.visualize.VisualizePdfPipe;
 import pdfact.core.model.Document;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
+import pdfact.core.model.PageSelection;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.pipes.PdfActCoreOptions;
+import pdfact.core.pipes.PdfActCorePipe;
+import pdfact.core.pipes.PdfActCoreStage;
 import pdfact.core.pipes.PlainPdfActCorePipe;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.pipeline.Pipeline;
+import pdfact.core.util.pipeline.PipelineListener;
+import pdfact.core.util.pipeline.PipelineMetrics;
 import pdfact.core.util.pipeline.PlainPipeline;
+import pdfact.core.util.snapshot.Snapshot;
+import pdfact.core.util.snapshot.SnapshotWriter;
 
 /**
  * A plain implementation of {@link PdfActServicePipe}.
@@ -87,6 +99,38 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
    */
   protected boolean isPdfJsMode;
 
+  /**
+   * The core pipe that processes the PDF document.
+   */
+  protected PdfActCorePipe corePipe;
+
+  /**
+   * The options of the executions of the core pipe.
+   */
+  protected PdfActCoreOptions coreOptions;
+
+  /**
+   * The listener to notify about the pages processed by the core pipe.
+   */
+  protected PipelineListener listener;
+
+  /**
+   * The metrics to which the measurements of the executed pipes are added.
+   */
+  protected PipelineMetrics metrics;
+
+  /**
+   * The boolean flag indicating whether or not only the stages of the core pipe should be
+   * executed that are needed to serialize and visualize the units and roles to extract.
+   */
+  protected boolean isPlanStages;
+
+  /**
+   * The path to the file to which a snapshot of the PDF document should be written after it was
+   * processed by the core pipe.
+   */
+  protected Path snapshotPath;
+
   // ==============================================================================================
 
   /**
@@ -96,6 +140,8 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
     this.serializationFormat = DEFAULT_SERIALIZE_FORMAT;
     this.extractionUnits = DEFAULT_EXTRACTION_UNITS;
     this.roles = DEFAULT_SEMANTIC_ROLES;
+    this.corePipe = new PlainPdfActCorePipe();
+    this.coreOptions = PdfActCoreOptions.DEFAULT;
   }
 
   // ==============================================================================================
@@ -116,10 +162,65 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
 
     log.debug("Process: Processing the service pipeline.");
 
-    Pipeline pipeline = new PlainPipeline();
-
     // Parse the PDF document.
-    pipeline.addPipe(new PlainPdfActCorePipe());
+    Set<PdfActCoreStage> stages = getStagesToExecute();
+    this.corePipe.execute(pdf, stages, this.listener, this.metrics, this.coreOptions);
+
+    // Write the snapshot if there is a target given for the snapshot.
+    if (this.snapshotPath != null) {
+      new SnapshotWriter().write(new Snapshot(pdf, stages), this.snapshotPath);
+    }
+
+    process(pdf);
+
+    log.debug("End of pipe: " + getClass().getSimpleName() + ".");
+
+    return pdf;
+  }
+
+  @Override
+  public Document resume(Snapshot snapshot) throws PdfActException {
+    log.debug("Start of pipe: " + getClass().getSimpleName() + ".");
+
+    log.debug("Process: Resuming the service pipeline from a snapshot.");
+
+    // Resume the processing of the PDF document, without parsing it again.
+    Document pdf = this.corePipe.resume(snapshot, getStagesToExecute(), this.listener,
+        this.metrics, this.coreOptions);
+
+    process(pdf);
+
+    log.debug("End of pipe: " + getClass().getSimpleName() + ".");
+
+    return pdf;
+  }
+
+  /**
+   * Returns the stages of the core pipe to execute.
+   *
+   * @return The stages of the core pipe to execute.
+   */
+  protected Set<PdfActCoreStage> getStagesToExecute() {
+    // Execute all stages if a snapshot is written, such that the snapshot can be resumed for any
+    // units and roles to extract.
+    if (this.isPlanStages && this.snapshotPath == null) {
+      return planStages();
+    }
+    return EnumSet.allOf(PdfActCoreStage.class);
+  }
+
+  /**
+   * Serializes and visualizes the given PDF document, processed by the core pipe.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   *
+   * @throws PdfActException
+   *         If something went wrong on processing the PDF document.
+   */
+  protected void process(Document pdf) throws PdfActException {
+    Pipeline pipeline = new PlainPipeline();
+    pipeline.setMetrics(this.metrics);
 
     // Validate the target path for the serialization if there is any given.
     if (this.serializationPath != null) {
@@ -166,10 +267,77 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
 
     log.debug("Processing the service pipeline done.");
     log.debug("Time needed to process the service pipeline: " + length + "ms.");
+  }
 
-    log.debug("End of pipe: " + getClass().getSimpleName() + ".");
+  /**
+   * Computes the stages of the core pipe that are needed to serialize and visualize the units and
+   * semantic roles to extract.
+   *
+   * @return The stages of the core pipe to execute.
+   */
+  protected Set<PdfActCoreStage> planStages() {
+    Set<PdfActCoreStage> stages = EnumSet.noneOf(PdfActCoreStage.class);
+
+    boolean isToSerialize = this.serializationStream != null || this.serializationPath != null;
+    boolean isToVisualize = this.visualizationStream != null || this.visualizationPath != null;
+    // The serializers and the visualizer consider only the text units with a relevant role.
+    boolean hasRoles = this.roles != null && !this.roles.isEmpty();
+
+    // The pdf.js serializer serializes the text lines of the text blocks, regardless of the units.
+    if (isToSerialize && this.isPdfJsMode) {
+      stages.add(PdfActCoreStage.TEXT_BLOCKS);
+      isToSerialize = false;
+    }
 
-    return pdf;
+    if (this.extractionUnits != null) {
+      for (ExtractionUnit unit : this.extractionUnits) {
+        switch (unit) {
+          case CHARACTER:
+          case WORD:
+          case PARAGRAPH:
+            // The characters and words are serialized and visualized per paragraph.
+            if (hasRoles) {
+              stages.add(PdfActCoreStage.DEHYPHENATION);
+            }
+            break;
+          case TEXT_BLOCK:
+            if (hasRoles || isToVisualize) {
+              stages.add(PdfActCoreStage.SEMANTIC_ROLES);
+            }
+            break;
+          case TEXT_LINE:
+            // The text lines and text areas are only visualized, but not serialized.
+            if (isToVisualize) {
+              stages.add(PdfActCoreStage.TEXT_LINES);
+            }
+            break;
+          case TEXT_AREA:
+            if (isToVisualize) {
+              stages.add(PdfActCoreStage.TEXT_AREAS);
+            }
+            break;
+          case FIGURE:
+            stages.add(PdfActCoreStage.FIGURES);
+            break;
+          case SHAPE:
+            stages.add(PdfActCoreStage.SHAPES);
+            break;
+          case PAGE:
+          default:
+            break;
+        }
+
+        // The visualizer visualizes the paragraphs for all units it doesn't know.
+        if (isToVisualize && hasRoles && (unit == ExtractionUnit.FIGURE
+            || unit == ExtractionUnit.SHAPE || unit == ExtractionUnit.PAGE)) {
+          stages.add(PdfActCoreStage.DEHYPHENATION);
+        }
+      }
+    }
+
+    log.debug("Planned stages of the core pipe: " + stages);
+
+    return stages;
   }
 
   // ==============================================================================================
@@ -291,4 +459,157 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
   public void setIsPdfJsMode(boolean isPdfJsMode) {
     this.isPdfJsMode = isPdfJsMode;
   }
-}
\ No newline at end of file
+
+  // ==============================================================================================
+
+  @Override
+  public int getParallelism() {
+    return this.coreOptions.getParallelism();
+  }
+
+  @Override
+  public void setParallelism(int parallelism) {
+    this.coreOptions = this.coreOptions.withParallelism(parallelism);
+  }
+
+  @Override
+  public boolean isClassifyImages() {
+    return this.coreOptions.isToClassifyImages();
+  }
+
+  @Override
+  public void setIsClassifyImages(boolean isClassifyImages) {
+    this.coreOptions = this.coreOptions.withIsToClassifyImages(isClassifyImages);
+  }
+
+  @Override
+  public MemoryUsageSetting getMemoryUsageSetting() {
+    return this.coreOptions.getMemoryUsageSetting();
+  }
+
+  @Override
+  public void setMemoryUsageSetting(MemoryUsageSetting setting) {
+    this.coreOptions = this.coreOptions.withMemoryUsageSetting(setting);
+  }
+
+  @Override
+  public PageSelection getPageSelection() {
+    return this.coreOptions.getPageSelection();
+  }
+
+  @Override
+  public void setPageSelection(PageSelection pageSelection) {
+    this.coreOptions = this.coreOptions.withPageSelection(pageSelection);
+  }
+
+  @Override
+  public boolean isMergeShapesPerPaint() {
+    return this.coreOptions.isToMergeShapesPerPaint();
+  }
+
+  @Override
+  public void setIsMergeShapesPerPaint(boolean isMergeShapesPerPaint) {
+    this.coreOptions = this.coreOptions.withIsToMergeShapesPerPaint(isMergeShapesPerPaint);
+  }
+
+  @Override
+  public int getMaxNumShapesPerPage() {
+    return this.coreOptions.getMaxNumShapesPerPage();
+  }
+
+  @Override
+  public void setMaxNumShapesPerPage(int maxNumShapesPerPage) {
+    this.coreOptions = this.coreOptions.withMaxNumShapesPerPage(maxNumShapesPerPage);
+  }
+
+  @Override
+  public HiddenTextPolicy getHiddenTextPolicy(HiddenTextCategory category) {
+    return this.coreOptions.getHiddenTextPolicy(category);
+  }
+
+  @Override
+  public void setHiddenTextPolicy(HiddenTextCategory category, HiddenTextPolicy policy) {
+    this.coreOptions = this.coreOptions.withHiddenTextPolicy(category, policy);
+  }
+
+  @Override
+  public boolean isRemoveDuplicateCharacters() {
+    return this.coreOptions.isToRemoveDuplicateCharacters();
+  }
+
+  @Override
+  public void setIsRemoveDuplicateCharacters(boolean isRemoveDuplicateCharacters) {
+    this.coreOptions =
+        this.coreOptions.withIsToRemoveDuplicateCharacters(isRemoveDuplicateCharacters);
+  }
+
+  @Override
+  public boolean isNormalizeCharactersInSinglePass() {
+    return this.coreOptions.isToNormalizeCharactersInSinglePass();
+  }
+
+  @Override
+  public void setIsNormalizeCharactersInSinglePass(boolean isInSinglePass) {
+    this.coreOptions = this.coreOptions.withIsToNormalizeCharactersInSinglePass(isInSinglePass);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public PdfActCorePipe getCorePipe() {
+    return this.corePipe;
+  }
+
+  @Override
+  public void setCorePipe(PdfActCorePipe corePipe) {
+    this.corePipe = corePipe;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public PipelineListener getPipelineListener() {
+    return this.listener;
+  }
+
+  @Override
+  public void setPipelineListener(PipelineListener listener) {
+    this.listener = listener;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public PipelineMetrics getPipelineMetrics() {
+    return this.metrics;
+  }
+
+  @Override
+  public void setPipelineMetrics(PipelineMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean isPlanStages() {
+    return this.isPlanStages;
+  }
+
+  @Override
+  public void setIsPlanStages(boolean isPlanStages) {
+    this.isPlanStages = isPlanStages;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Path getSnapshotPath() {
+    return this.snapshotPath;
+  }
+
+  @Override
+  public void setSnapshotPath(Path path) {
+    this.snapshotPath = path;
+  }
+}
@@ -0,0 +1,151 @@
+package pdfact.cli.pipes.serialize;
+
+import static pdfact.core.PdfActCoreSettings.DEFAULT_ENCODING;
+
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import pdfact.core.util.pipeline.PageMetrics;
+import pdfact.core.util.pipeline.PipelineMetrics;
+import pdfact.core.util.pipeline.StageMetrics;
+
+/**
+ * A serializer to serialize the metrics recorded on processing a PDF document in JSON format.
+ *
+ * @author Claudius Korzen
+ */
+public class MetricsJsonSerializer {
+  /**
+   * The indentation length.
+   */
+  protected static final int INDENT_LENGTH = 2;
+
+  /**
+   * The name of the field with the metrics of the stages.
+   */
+  protected static final String STAGES = "stages";
+
+  /**
+   * The name of the field with the metrics of the pages.
+   */
+  protected static final String PAGES = "pages";
+
+  /**
+   * The name of the field with the name of a stage.
+   */
+  protected static final String NAME = "name";
+
+  /**
+   * The name of the field with the page number.
+   */
+  protected static final String PAGE = "page";
+
+  /**
+   * The name of the field with the wall time.
+   */
+  protected static final String WALL_TIME = "wallTimeNanos";
+
+  /**
+   * The name of the field with the CPU time.
+   */
+  protected static final String CPU_TIME = "cpuTimeNanos";
+
+  /**
+   * The name of the field with the allocated bytes.
+   */
+  protected static final String ALLOCATED_BYTES = "allocatedBytes";
+
+  /**
+   * The name of the field with the element counts.
+   */
+  protected static final String ELEMENT_COUNTS = "elementCounts";
+
+  // ==============================================================================================
+
+  /**
+   * Serializes the given metrics.
+   *
+   * @param metrics The metrics to serialize.
+   *
+   * @return The serialization.
+   */
+  public byte[] serialize(PipelineMetrics metrics) {
+    // The serialization to return.
+    String result = "";
+
+    if (metrics != null) {
+      JSONObject json = new JSONObject();
+      json.put(WALL_TIME, metrics.getWallTime());
+      json.put(CPU_TIME, metrics.getCpuTime());
+      json.put(ALLOCATED_BYTES, metrics.getAllocatedBytes());
+
+      JSONArray stagesJson = new JSONArray();
+      for (StageMetrics stage : metrics.getStageMetrics()) {
+        stagesJson.put(serializeStage(stage));
+      }
+      json.put(STAGES, stagesJson);
+
+      result = json.toString(INDENT_LENGTH);
+    }
+    return result.getBytes(DEFAULT_ENCODING);
+  }
+
+  /**
+   * Serializes the given metrics of a stage.
+   *
+   * @param stage The metrics of the stage.
+   *
+   * @return The metrics of the stage as a JSON object.
+   */
+  protected JSONObject serializeStage(StageMetrics stage) {
+    JSONObject json = new JSONObject();
+    json.put(NAME, stage.getName());
+    json.put(WALL_TIME, stage.getWallTime());
+    json.put(CPU_TIME, stage.getCpuTime());
+    json.put(ALLOCATED_BYTES, stage.getAllocatedBytes());
+    json.put(ELEMENT_COUNTS, serializeElementCounts(stage.getElementCounts()));
+
+    JSONArray pagesJson = new JSONArray();
+    for (PageMetrics page : stage.getPageMetrics()) {
+      pagesJson.put(serializePage(page));
+    }
+    if (pagesJson.length() > 0) {
+      json.put(PAGES, pagesJson);
+    }
+    return json;
+  }
+
+  /**
+   * Serializes the given metrics of a page.
+   *
+   * @param page The metrics of the page.
+   *
+   * @return The metrics of the page as a JSON object.
+   */
+  protected JSONObject serializePage(PageMetrics page) {
+    JSONObject json = new JSONObject();
+    json.put(PAGE, page.getPageNumber());
+    json.put(WALL_TIME, page.getWallTime());
+    json.put(CPU_TIME, page.getCpuTime());
+    json.put(ALLOCATED_BYTES, page.getAllocatedBytes());
+    json.put(ELEMENT_COUNTS, serializeElementCounts(page.getElementCounts()));
+    return json;
+  }
+
+  /**
+   * Serializes the given element counts.
+   *
+   * @param counts The numbers of the elements, per element type.
+   *
+   * @return The element counts as a JSON object.
+   */
+  protected JSONObject serializeElementCounts(Map<String, Integer> counts) {
+    JSONObject json = new JSONObject();
+    if (counts != null) {
+      for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+        json.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return json;
+  }
+}
@@ -63,6 +63,11 @@ public class PlainPdfVisualizer implements PdfVisualizer {
   @Override
   public byte[] visualize(Document pdf) throws PdfActVisualizeException {
     if (pdf != null) {
+      // The drawer reads the PDF file again, which is not possible for all contents.
+      if (pdf.getFile() == null) {
+        String message = "Only a PDF document given by a path can be visualized.";
+        throw new PdfActVisualizeException(message);
+      }
       try {
         PdfDrawer drawer = new PdfBoxDrawer(pdf.getFile());
 
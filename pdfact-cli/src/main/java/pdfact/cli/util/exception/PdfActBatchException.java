@@ -0,0 +1,43 @@
+package pdfact.cli.util.exception;
+
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * The exception to throw when some of the PDF files of a batch could not be processed, or when
+ * the PDF files of a batch could not be listed.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActBatchException extends PdfActException {
+  /**
+   * The serial id.
+   */
+  protected static final long serialVersionUID = 3180436205419947612L;
+
+  /**
+   * The default exit code of this exception.
+   */
+  protected static final int EXIT_CODE = 60;
+
+  /**
+   * Creates a new exception.
+   *
+   * @param message
+   *        The message of this exception.
+   */
+  public PdfActBatchException(String message) {
+    super(EXIT_CODE, message);
+  }
+
+  /**
+   * Creates a new Exception.
+   *
+   * @param message
+   *        The message of this exception.
+   * @param cause
+   *        The cause of this exception.
+   */
+  public PdfActBatchException(String message, Throwable cause) {
+    super(EXIT_CODE, message, cause);
+  }
+}
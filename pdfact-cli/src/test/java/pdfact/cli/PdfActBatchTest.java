@@ -0,0 +1,210 @@
+package pdfact.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pdfact.cli.PdfActBatch.Input;
+import pdfact.cli.PdfActBatch.Result;
+import pdfact.cli.PdfActBatch.Status;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.cli.util.exception.PdfActBatchException;
+import pdfact.core.model.Document;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the processing of multiple PDF files in batch mode.
+ */
+public class PdfActBatchTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  /**
+   * The temporary folder for the inputs and outputs.
+   */
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testBatchOfDirectoryIsProcessedAndResumable() throws Exception {
+    Path inputDir = this.folder.newFolder("in").toPath();
+    Files.createDirectories(inputDir.resolve("sub"));
+    Files.copy(Paths.get(PDF_PATH), inputDir.resolve("a.pdf"));
+    Files.copy(Paths.get(PDF_PATH), inputDir.resolve("sub/b.pdf"));
+    Files.write(inputDir.resolve("broken.pdf"), "no pdf".getBytes(StandardCharsets.UTF_8));
+    Files.write(inputDir.resolve("notes.txt"), "no pdf".getBytes(StandardCharsets.UTF_8));
+    Path outputDir = this.folder.getRoot().toPath().resolve("out");
+
+    PdfActBatch batch = new PdfActBatch(createPdfAct(), outputDir.toString(), 2);
+    List<Input> inputs = batch.listInputs(inputDir.toString(), null);
+    Assert.assertEquals(3, inputs.size());
+
+    List<Result> results = batch.process(inputs);
+    Assert.assertEquals(Status.PROCESSED, results.get(0).getStatus());
+    Assert.assertEquals(Status.FAILED, results.get(1).getStatus());
+    Assert.assertEquals(Status.PROCESSED, results.get(2).getStatus());
+    Assert.assertNotNull(results.get(1).getMessage());
+
+    // The outputs are identical to the output of processing the PDF file on its own.
+    String expected = extract();
+    Assert.assertEquals(expected, read(outputDir.resolve("a.json")));
+    Assert.assertEquals(expected, read(outputDir.resolve("sub/b.json")));
+    Assert.assertFalse(Files.exists(outputDir.resolve("broken.json")));
+    try (Stream<Path> files = Files.list(outputDir)) {
+      Assert.assertFalse(files.anyMatch(file -> file.toString().endsWith(".part")));
+    }
+
+    // The PDF files with existing outputs are skipped on resuming.
+    results = batch.process(batch.listInputs(inputDir.toString(), null));
+    Assert.assertEquals(Status.SKIPPED, results.get(0).getStatus());
+    Assert.assertEquals(Status.FAILED, results.get(1).getStatus());
+    Assert.assertEquals(Status.SKIPPED, results.get(2).getStatus());
+
+    ByteArrayOutputStream summary = new ByteArrayOutputStream();
+    batch.writeSummary(results, new PrintStream(summary, true, "UTF-8"));
+    Assert.assertTrue(summary.toString("UTF-8").contains("skipped: 2, failed: 1"));
+  }
+
+  @Test
+  public void testBatchOfListAndGlobWithTemplate() throws Exception {
+    Path inputDir = this.folder.newFolder("in").toPath();
+    Files.copy(Paths.get(PDF_PATH), inputDir.resolve("a.pdf"));
+    Files.copy(Paths.get(PDF_PATH), inputDir.resolve("b.pdf"));
+    String template = this.folder.getRoot().toPath().resolve("out/{name}-x.{format}").toString();
+    PdfActBatch batch = new PdfActBatch(createPdfAct(), template, 2);
+
+    String list = inputDir.resolve("b.pdf") + "\n\n" + inputDir.resolve("a.pdf") + "\n";
+    List<Input> inputs = batch.listInputs(PdfActBatch.STDIN,
+        new ByteArrayInputStream(list.getBytes(StandardCharsets.UTF_8)));
+    Assert.assertEquals(2, inputs.size());
+    Assert.assertEquals(inputDir.resolve("b.pdf"), inputs.get(0).getPath());
+
+    inputs = batch.listInputs(inputDir.resolve("*.pdf").toString(), null);
+    Assert.assertEquals(2, inputs.size());
+    Assert.assertEquals(inputDir.resolve("a.pdf"), inputs.get(0).getPath());
+
+    for (Result result : batch.process(inputs)) {
+      Assert.assertEquals(Status.PROCESSED, result.getStatus());
+    }
+    Path outputDir = this.folder.getRoot().toPath().resolve("out");
+    Assert.assertTrue(Files.exists(outputDir.resolve("a-x.json")));
+    Assert.assertTrue(Files.exists(outputDir.resolve("b-x.json")));
+  }
+
+  @Test
+  public void testBatchOfListWithSameFileNamesInDifferentDirectories() throws Exception {
+    Path inputDir = this.folder.newFolder("in").toPath();
+    Files.createDirectories(inputDir.resolve("a"));
+    Files.createDirectories(inputDir.resolve("b"));
+    Files.copy(Paths.get(PDF_PATH), inputDir.resolve("a/x.pdf"));
+    Files.copy(Paths.get(PDF_PATH), inputDir.resolve("b/x.pdf"));
+    String list = inputDir.resolve("a/x.pdf") + "\n" + inputDir.resolve("b/x.pdf") + "\n";
+    Path outputDir = this.folder.getRoot().toPath().resolve("out");
+
+    // The relative paths are relative to the directory containing all listed PDF files.
+    PdfActBatch batch = new PdfActBatch(createPdfAct(), outputDir.toString(), 2);
+    List<Input> inputs = batch.listInputs(PdfActBatch.STDIN,
+        new ByteArrayInputStream(list.getBytes(StandardCharsets.UTF_8)));
+    Assert.assertEquals(Paths.get("a/x.pdf"), inputs.get(0).getRelativePath());
+    Assert.assertEquals(Paths.get("b/x.pdf"), inputs.get(1).getRelativePath());
+
+    for (Result result : batch.process(inputs)) {
+      Assert.assertEquals(Status.PROCESSED, result.getStatus());
+    }
+    Assert.assertTrue(Files.exists(outputDir.resolve("a/x.json")));
+    Assert.assertTrue(Files.exists(outputDir.resolve("b/x.json")));
+
+    // The file names alone would collide.
+    String template = outputDir.resolve("{name}.{format}").toString();
+    try {
+      new PdfActBatch(createPdfAct(), template, 2).listInputs(PdfActBatch.STDIN,
+          new ByteArrayInputStream(list.getBytes(StandardCharsets.UTF_8)));
+      Assert.fail("The colliding output files were not detected.");
+    } catch (PdfActBatchException e) {
+      Assert.assertTrue(e.getMessage().contains("the same output file"));
+    }
+  }
+
+  @Test
+  public void testErrorOfSinglePdfFileDoesNotAbortBatch() throws Exception {
+    Path inputDir = this.folder.newFolder("in").toPath();
+    Files.copy(Paths.get(PDF_PATH), inputDir.resolve("a.pdf"));
+    Files.copy(Paths.get(PDF_PATH), inputDir.resolve("b.pdf"));
+    Path outputDir = this.folder.getRoot().toPath().resolve("out");
+
+    PdfAct pdfAct = new PdfAct() {
+      @Override
+      public Document parseTo(Path pdfPath, OutputStream stream) throws PdfActException {
+        if (pdfPath.getFileName().toString().equals("a.pdf")) {
+          throw new StackOverflowError();
+        }
+        return super.parseTo(pdfPath, stream);
+      }
+    };
+    pdfAct.setSerializationFormat(SerializationFormat.JSON);
+    pdfAct.setParallelism(1);
+
+    PdfActBatch batch = new PdfActBatch(pdfAct, outputDir.toString(), 2);
+    List<Result> results = batch.process(batch.listInputs(inputDir.toString(), null));
+    Assert.assertEquals(Status.FAILED, results.get(0).getStatus());
+    Assert.assertEquals("StackOverflowError", results.get(0).getMessage());
+    Assert.assertEquals(Status.PROCESSED, results.get(1).getStatus());
+    Assert.assertFalse(Files.exists(outputDir.resolve("a.json")));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates an instance of PdfAct that extracts the paragraphs in JSON format.
+   *
+   * @return The created instance.
+   */
+  protected PdfAct createPdfAct() {
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setSerializationFormat(SerializationFormat.JSON);
+    pdfAct.setParallelism(1);
+    pdfAct.setIsPlanStages(true);
+    return pdfAct;
+  }
+
+  /**
+   * Extracts the paragraphs from the PDF file on its own.
+   *
+   * @return The serialization.
+   *
+   * @throws Exception If something went wrong on extraction.
+   */
+  protected String extract() throws Exception {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    PdfAct pdfAct = createPdfAct();
+    pdfAct.setSerializationStream(stream);
+    pdfAct.parse(PDF_PATH);
+    return stream.toString("UTF-8");
+  }
+
+  /**
+   * Reads the given file.
+   *
+   * @param path The file to read.
+   *
+   * @return The content of the file.
+   *
+   * @throws IOException If reading the file failed.
+   */
+  protected String read(Path path) throws IOException {
+    return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+  }
+}
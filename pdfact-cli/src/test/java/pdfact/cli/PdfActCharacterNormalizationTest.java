@@ -0,0 +1,101 @@
+package pdfact.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumSet;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.core.TestPdfBuilder;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests that normalizing the characters in a single pass yields the same output as
+ * normalizing them by a separate pipe per step.
+ */
+public class PdfActCharacterNormalizationTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  @Test
+  public void testSinglePassOutputIsIdenticalToSeparatePipesOutput() throws PdfActException {
+    byte[] separate = extract(new Document(PDF_PATH), false, 1);
+    byte[] singlePass = extract(new Document(PDF_PATH), true, 1);
+
+    Assert.assertTrue(separate.length > 0);
+    Assert.assertArrayEquals(separate, singlePass);
+    Assert.assertArrayEquals(separate, extract(new Document(PDF_PATH), true, 4));
+  }
+
+  @Test
+  public void testNormalizeCharacters() throws Exception {
+    byte[] pdf = createPdf();
+    for (boolean isInSinglePass : new boolean[] { false, true }) {
+      PdfAct pdfAct = new PdfAct();
+      pdfAct.setSerializationStream(new ByteArrayOutputStream());
+      pdfAct.setIsNormalizeCharactersInSinglePass(isInSinglePass);
+      Page page = pdfAct.parse(pdf).getPages().get(0);
+
+      // The acute accent is merged with the "e", the space is filtered and the ligature is split.
+      StringBuilder sb = new StringBuilder();
+      for (Character character : page.getCharacters()) {
+        sb.append(character.getText()).append("|");
+      }
+      Assert.assertEquals("c|a|f|\u00e9|s|AE|", sb.toString());
+    }
+
+    Assert.assertArrayEquals(extract(new Document(pdf), false, 1),
+        extract(new Document(pdf), true, 1));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Extracts the characters and words from the given PDF document.
+   *
+   * @param pdf            The PDF document.
+   * @param isInSinglePass True if the characters should be normalized in a single pass.
+   * @param parallelism    The maximum number of pages to process in parallel.
+   *
+   * @return The serialization.
+   *
+   * @throws PdfActException If something went wrong on extraction.
+   */
+  protected byte[] extract(Document pdf, boolean isInSinglePass, int parallelism)
+      throws PdfActException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setSerializationFormat(SerializationFormat.JSON);
+    pdfAct.setSerializationStream(stream);
+    pdfAct.setExtractionUnits(EnumSet.of(ExtractionUnit.CHARACTER, ExtractionUnit.WORD));
+    pdfAct.setIsNormalizeCharactersInSinglePass(isInSinglePass);
+    pdfAct.setParallelism(parallelism);
+    pdfAct.parse(pdf);
+
+    return stream.toByteArray();
+  }
+
+  /**
+   * Creates a PDF file with a page that shows "caf", an "e" with an acute accent drawn as a
+   * separate character, an "s", a space and the ligature "AE".
+   *
+   * @return The content of the created PDF file.
+   *
+   * @throws IOException If something went wrong on creating the PDF file.
+   */
+  protected byte[] createPdf() throws IOException {
+    try (TestPdfBuilder builder = new TestPdfBuilder()) {
+      // Move back by 6pt to draw the accent above the "e", and forward by 2pt after it.
+      return builder.addPage(PDType1Font.HELVETICA, null,
+          "BT /F1 12 Tf 100 700 Td [(cafe) 500 (\\264) -167 (s \\306)] TJ ET").toByteArray();
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package pdfact.cli;
+
+import static pdfact.cli.TestSerializationUtils.serialize;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.model.PageSelection;
+import pdfact.core.pipes.PdfActCoreOptions;
+import pdfact.core.pipes.PdfActCorePipe;
+import pdfact.core.pipes.PdfActCoreStage;
+import pdfact.core.pipes.PlainPdfActCorePipe;
+
+/**
+ * A class that tests that a single instance of {@link PdfAct} can parse multiple PDF documents
+ * concurrently, and that the resources shared by the parsings are released on closing.
+ */
+public class PdfActConcurrencyTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  /**
+   * The number of PDF documents to parse concurrently.
+   */
+  protected static final int NUM_DOCUMENTS = 4;
+
+  @Test
+  public void testConcurrentParsingsYieldIdenticalOutputs() throws Exception {
+    final PdfAct pdfAct = new PdfAct();
+    pdfAct.setParallelism(2);
+
+    String expected = serialize(pdfAct.parse(PDF_PATH));
+
+    ExecutorService executor = Executors.newFixedThreadPool(NUM_DOCUMENTS);
+    try {
+      List<Future<Document>> futures = new ArrayList<>();
+      for (int i = 0; i < NUM_DOCUMENTS; i++) {
+        futures.add(executor.submit(new Callable<Document>() {
+          @Override
+          public Document call() throws Exception {
+            return pdfAct.parse(PDF_PATH);
+          }
+        }));
+      }
+
+      for (Future<Document> future : futures) {
+        Assert.assertEquals(expected, serialize(future.get()));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testConcurrentExecutionsWithDifferentOptions() throws Exception {
+    final PdfActCorePipe corePipe = new PlainPdfActCorePipe();
+    final Set<PdfActCoreStage> stages = EnumSet.allOf(PdfActCoreStage.class);
+    final PdfActCoreOptions[] options = new PdfActCoreOptions[] {
+        PdfActCoreOptions.DEFAULT.withParallelism(1).withPageSelection(PageSelection.firstPages(1)),
+        PdfActCoreOptions.DEFAULT.withParallelism(4) };
+
+    String[] expected = new String[options.length];
+    for (int i = 0; i < options.length; i++) {
+      expected[i] = serialize(corePipe.execute(new Document(PDF_PATH), stages, null, null,
+          options[i]));
+    }
+    Assert.assertNotEquals(expected[0], expected[1]);
+
+    ExecutorService executor = Executors.newFixedThreadPool(NUM_DOCUMENTS);
+    try {
+      List<Future<Document>> futures = new ArrayList<>();
+      for (int i = 0; i < NUM_DOCUMENTS; i++) {
+        final PdfActCoreOptions opts = options[i % options.length];
+        futures.add(executor.submit(new Callable<Document>() {
+          @Override
+          public Document call() throws Exception {
+            return corePipe.execute(new Document(PDF_PATH), stages, null, null, opts);
+          }
+        }));
+      }
+
+      // Each execution is processed with its own options.
+      for (int i = 0; i < NUM_DOCUMENTS; i++) {
+        Assert.assertEquals(expected[i % options.length], serialize(futures.get(i).get()));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testCloseShutsDownThePool() throws Exception {
+    final List<ForkJoinPool> pools = new ArrayList<>();
+    PdfActCorePipe corePipe = new PlainPdfActCorePipe(2) {
+      @Override
+      protected synchronized ForkJoinPool getPool() {
+        ForkJoinPool pool = super.getPool();
+        if (!pools.contains(pool)) {
+          pools.add(pool);
+        }
+        return pool;
+      }
+    };
+    Set<PdfActCoreStage> stages = EnumSet.allOf(PdfActCoreStage.class);
+    PdfActCoreOptions options = PdfActCoreOptions.DEFAULT.withParallelism(2);
+
+    String expected = serialize(corePipe.execute(new Document(PDF_PATH), stages, null, null,
+        options));
+    corePipe.close();
+    Assert.assertEquals(1, pools.size());
+    Assert.assertTrue(pools.get(0).isShutdown());
+
+    // The pipe can still be used after closing, with a new pool.
+    Assert.assertEquals(expected, serialize(corePipe.execute(new Document(PDF_PATH), stages,
+        null, null, options)));
+    corePipe.close();
+    Assert.assertEquals(2, pools.size());
+    Assert.assertTrue(pools.get(1).isShutdown());
+  }
+}
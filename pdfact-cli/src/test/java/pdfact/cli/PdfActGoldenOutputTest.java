@@ -0,0 +1,67 @@
+package pdfact.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.core.model.SemanticRole;
+
+/**
+ * A class that tests that the words and paragraphs extracted from a PDF file are identical to
+ * the expected (golden) output. In particular, the characters of a word that have equal minX
+ * values (for example, the "t" and the "." of "abstract." in ACL_2004.pdf, which are drawn at
+ * the same position) must be ordered deterministically, by their extraction ranks.
+ */
+public class PdfActGoldenOutputTest {
+  /**
+   * The path to the PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  @Test
+  public void testWords() throws Exception {
+    assertGoldenOutput(ExtractionUnit.WORD, "src/test/resources/ACL_2004.words.txt");
+  }
+
+  @Test
+  public void testParagraphs() throws Exception {
+    assertGoldenOutput(ExtractionUnit.PARAGRAPH, "src/test/resources/ACL_2004.paragraphs.txt");
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Extracts the given unit from the PDF file as TXT and compares the output with the given
+   * golden file, line by line.
+   *
+   * @param unit       The unit to extract.
+   * @param goldenPath The path to the file with the expected output.
+   *
+   * @throws Exception If something went wrong on extracting the unit or on reading the file.
+   */
+  protected void assertGoldenOutput(ExtractionUnit unit, String goldenPath) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setSerializationFormat(SerializationFormat.TXT);
+    pdfAct.setExtractionUnits(EnumSet.of(unit));
+    pdfAct.setSemanticRoles(EnumSet.allOf(SemanticRole.class));
+    pdfAct.setSerializationStream(out);
+    pdfAct.parse(PDF_PATH);
+
+    byte[] golden = Files.readAllBytes(Paths.get(goldenPath));
+    List<String> expected = Arrays.asList(new String(golden, StandardCharsets.UTF_8).split("\n"));
+    List<String> actual = Arrays.asList(
+        new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n"));
+    for (int i = 0; i < Math.min(expected.size(), actual.size()); i++) {
+      Assert.assertEquals("Line " + (i + 1) + " of " + goldenPath, expected.get(i), actual.get(i));
+    }
+    Assert.assertEquals(expected.size(), actual.size());
+  }
+}
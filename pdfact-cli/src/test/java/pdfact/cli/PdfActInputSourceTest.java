@@ -0,0 +1,93 @@
+package pdfact.cli;
+
+import static pdfact.cli.TestSerializationUtils.serialize;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests parsing PDF documents given by their content instead of by a path.
+ */
+public class PdfActInputSourceTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final Path PDF_PATH = Paths.get("src/test/resources/ACL_2004.pdf");
+
+  /**
+   * The serialization of the PDF document parsed from the path.
+   */
+  protected static String expected;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    expected = serialize(new PdfAct().parse(PDF_PATH));
+  }
+
+  @Test
+  public void testParseFromBytes() throws Exception {
+    byte[] bytes = Files.readAllBytes(PDF_PATH);
+    Assert.assertEquals(expected, serialize(parse(new Document(bytes), 1)));
+    Assert.assertEquals(expected, serialize(parse(new Document(bytes), 4)));
+  }
+
+  @Test
+  public void testParseFromDirectBuffer() throws Exception {
+    byte[] bytes = Files.readAllBytes(PDF_PATH);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 3);
+    buffer.put(new byte[3]).put(bytes).flip().position(3);
+
+    Assert.assertEquals(expected, serialize(parse(new Document(buffer), 4)));
+    // The position of the buffer is not modified.
+    Assert.assertEquals(3, buffer.position());
+  }
+
+  @Test
+  public void testParseFromStreamWithScratchFiles() throws Exception {
+    try (InputStream stream = Files.newInputStream(PDF_PATH)) {
+      PdfAct pdfAct = new PdfAct();
+      pdfAct.setMemoryUsageSetting(MemoryUsageSetting.setupTempFileOnly());
+      Assert.assertEquals(expected, serialize(pdfAct.parse(new Document(stream))));
+    }
+  }
+
+  @Test
+  public void testParseFromChannel() throws Exception {
+    try (FileChannel channel = FileChannel.open(PDF_PATH, StandardOpenOption.READ)) {
+      Assert.assertEquals(expected, serialize(parse(new Document(channel), 4)));
+    }
+  }
+
+  @Test(expected = PdfActException.class)
+  public void testParseInvalidBytes() throws PdfActException {
+    new PdfAct().parse("no pdf".getBytes());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the given PDF document with the given parallelism.
+   *
+   * @param pdf         The PDF document to parse.
+   * @param parallelism The maximum number of pages to process in parallel.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF document.
+   */
+  protected Document parse(Document pdf, int parallelism) throws PdfActException {
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setParallelism(parallelism);
+    return pdfAct.parse(pdf);
+  }
+}
@@ -0,0 +1,121 @@
+package pdfact.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.core.model.Document;
+import pdfact.core.util.pipeline.PageMetrics;
+import pdfact.core.util.pipeline.PipelineMetrics;
+import pdfact.core.util.pipeline.StageMetrics;
+
+/**
+ * A class that tests the metrics recorded on processing a PDF document.
+ */
+public class PdfActMetricsTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  @Test
+  public void testMetricsArePerStageAndPerPage() throws Exception {
+    for (int parallelism : new int[] { 1, 4 }) {
+      PdfAct pdfAct = new PdfAct();
+      pdfAct.setParallelism(parallelism);
+      pdfAct.setSerializationStream(new ByteArrayOutputStream());
+      PipelineMetrics metrics = new PipelineMetrics();
+      Document pdf = pdfAct.parse(Paths.get(PDF_PATH), null, metrics);
+      int numPages = pdf.getPages().size();
+
+      List<StageMetrics> stages = metrics.getStageMetrics();
+      Assert.assertEquals("PlainValidatePdfPathPipe", stages.get(0).getName());
+      Assert.assertEquals("PlainSerializePdfPipe", stages.get(stages.size() - 1).getName());
+
+      boolean hasTextLinesStage = false;
+      for (StageMetrics stage : stages) {
+        Assert.assertTrue(stage.getWallTime() >= 0);
+        Assert.assertNotNull(stage.getElementCounts());
+
+        if (stage.getName().equals("PlainTokenizeToTextLinesPipe")) {
+          hasTextLinesStage = true;
+          List<PageMetrics> pages = stage.getPageMetrics();
+          Assert.assertEquals(numPages, pages.size());
+
+          int numTextLines = 0;
+          for (int i = 0; i < pages.size(); i++) {
+            Assert.assertEquals(i + 1, pages.get(i).getPageNumber());
+            numTextLines += pages.get(i).getElementCounts().get(PipelineMetrics.TEXT_LINES);
+          }
+          Assert.assertTrue(numTextLines > 0);
+          Assert.assertEquals(numTextLines,
+              (int) stage.getElementCounts().get(PipelineMetrics.TEXT_LINES));
+        }
+      }
+      Assert.assertTrue(hasTextLinesStage);
+    }
+  }
+
+  @Test
+  public void testParseStageIncludesThreadsParsingInParallel() throws Exception {
+    long sequential = getParseStage(1).getAllocatedBytes();
+    Assume.assumeTrue(sequential > 0);
+
+    // The threads parsing the pages allocate about the bytes of the sequential parsing, while the
+    // thread executing the pipe only waits for them.
+    StageMetrics parallel = getParseStage(4);
+    Assert.assertTrue(parallel.getAllocatedBytes() > sequential / 2);
+    Assert.assertTrue(parallel.getCpuTime() > 0);
+  }
+
+  @Test
+  public void testMetricsAreWrittenAsJson() throws Exception {
+    File file = File.createTempFile("pdfact-metrics", ".json");
+    file.deleteOnExit();
+
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setSerializationFormat(SerializationFormat.TXT);
+    pdfAct.setSerializationStream(new ByteArrayOutputStream());
+    pdfAct.setMetricsPath(file.toPath());
+    pdfAct.parse(PDF_PATH);
+
+    JSONObject json = new JSONObject(new String(Files.readAllBytes(file.toPath()), "UTF-8"));
+    JSONArray stages = json.getJSONArray("stages");
+    Assert.assertTrue(stages.length() > 0);
+    Assert.assertTrue(json.getLong("wallTimeNanos") > 0);
+    Assert.assertTrue(stages.getJSONObject(0).has("elementCounts"));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Processes the PDF file with the given parallelism and returns the metrics of the parsing.
+   *
+   * @param parallelism The maximum number of pages to process in parallel.
+   *
+   * @return The metrics of the stage that parses the PDF file.
+   *
+   * @throws Exception If something went wrong on processing the PDF file.
+   */
+  protected StageMetrics getParseStage(int parallelism) throws Exception {
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setParallelism(parallelism);
+    pdfAct.setSerializationStream(new ByteArrayOutputStream());
+    PipelineMetrics metrics = new PipelineMetrics();
+    pdfAct.parse(Paths.get(PDF_PATH), null, metrics);
+
+    for (StageMetrics stage : metrics.getStageMetrics()) {
+      if (stage.getName().equals("PlainParseDocumentPipe")) {
+        return stage;
+      }
+    }
+    throw new AssertionError("No metrics of the parsing.");
+  }
+}
@@ -0,0 +1,96 @@
+package pdfact.cli;
+
+import static pdfact.core.TestPdfUtils.text;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.PageSelection;
+import pdfact.core.util.exception.PdfActValidateException;
+
+/**
+ * A class that tests processing a selection of the pages of a PDF document.
+ */
+public class PdfActPageSelectionTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  @Test
+  public void testPageNumbersOfSelection() throws Exception {
+    Assert.assertArrayEquals(new int[] { 1, 2, 3, 10 },
+        PageSelection.fromString("3, 1-2,r1").getPageNumbers(10));
+    Assert.assertArrayEquals(new int[] { 10, 11, 12 },
+        PageSelection.fromString("10-").getPageNumbers(12));
+    Assert.assertArrayEquals(new int[] { 1 }, PageSelection.fromString("r2-r1").getPageNumbers(1));
+    Assert.assertArrayEquals(new int[] {}, PageSelection.fromString("5-6").getPageNumbers(4));
+    Assert.assertArrayEquals(new int[] { 1, 2 }, PageSelection.firstPages(2).getPageNumbers(5));
+    Assert.assertArrayEquals(new int[] { 4, 5 }, PageSelection.lastPages(2).getPageNumbers(5));
+    Assert.assertArrayEquals(new int[] {}, PageSelection.lastPages(0).getPageNumbers(5));
+    Assert.assertNull(PageSelection.fromString(" "));
+    Assert.assertEquals("3,1-2,r2-r1", PageSelection.fromString("3,1-2,r2-").toString());
+  }
+
+  @Test
+  public void testInvalidSelections() {
+    for (String selection : new String[] { "0", "a", "1-2-3", "1,,2", "r", "-3" }) {
+      try {
+        PageSelection.fromString(selection);
+        Assert.fail("The selection '" + selection + "' should not be valid.");
+      } catch (PdfActValidateException e) {
+        // Expected.
+      }
+    }
+  }
+
+  @Test
+  public void testSelectedPagesAreIdenticalToPagesOfWholeDocument() throws Exception {
+    List<Page> allPages = parse(null, 1).getPages();
+    int numPages = allPages.size();
+    Assert.assertTrue(numPages > 3);
+
+    for (int parallelism : new int[] { 1, 4 }) {
+      PageSelection selection = PageSelection.fromString("2,r2-");
+      List<Page> pages = parse(selection, parallelism).getPages();
+      Assert.assertEquals(3, pages.size());
+
+      int[] pageNums = { 2, numPages - 1, numPages };
+      for (int i = 0; i < pages.size(); i++) {
+        // The selected pages keep their page numbers.
+        Assert.assertEquals(pageNums[i], pages.get(i).getPageNumber());
+        Assert.assertEquals(text(allPages.get(pageNums[i] - 1)), text(pages.get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void testFirstPages() throws Exception {
+    List<Page> pages = parse(PageSelection.firstPages(2), 4).getPages();
+    Assert.assertEquals(2, pages.size());
+    Assert.assertEquals(1, pages.get(0).getPageNumber());
+    Assert.assertEquals(2, pages.get(1).getPageNumber());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the PDF file.
+   *
+   * @param selection   The selection of the pages to process; null to process all pages.
+   * @param parallelism The maximum number of pages to process in parallel.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws Exception If something went wrong on parsing the PDF file.
+   */
+  protected Document parse(PageSelection selection, int parallelism) throws Exception {
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setSerializationStream(new ByteArrayOutputStream());
+    pdfAct.setPageSelection(selection);
+    pdfAct.setParallelism(parallelism);
+    return pdfAct.parse(PDF_PATH);
+  }
+}
@@ -0,0 +1,119 @@
+package pdfact.cli;
+
+import static pdfact.cli.TestSerializationUtils.serialize;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Document;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.pipes.parse.ParseDocumentPipe;
+import pdfact.core.pipes.parse.PlainParseDocumentPipe;
+
+/**
+ * A class that tests parsing the pages of a PDF document in parallel.
+ */
+public class PdfActParallelParsingTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  @Test
+  public void testParallelParsingIsIdenticalToSequentialParsing() throws Exception {
+    Document sequential = parse(1);
+    Document parallel = parse(4);
+
+    Assert.assertEquals(serialize(sequential), serialize(parallel));
+
+    List<Page> sequentialPages = sequential.getPages();
+    List<Page> parallelPages = parallel.getPages();
+    Assert.assertEquals(sequentialPages.size(), parallelPages.size());
+    for (int i = 0; i < sequentialPages.size(); i++) {
+      List<Character> sequentialChars = sequentialPages.get(i).getCharacters();
+      List<Character> parallelChars = parallelPages.get(i).getCharacters();
+      Assert.assertEquals(sequentialChars.size(), parallelChars.size());
+      for (int j = 0; j < sequentialChars.size(); j++) {
+        Assert.assertEquals(sequentialChars.get(j).getExtractionRank(),
+            parallelChars.get(j).getExtractionRank());
+      }
+      assertEquals(sequentialPages.get(i).getCharacterStatistic(),
+          parallelPages.get(i).getCharacterStatistic());
+    }
+    assertEquals(sequential.getCharacterStatistic(), parallel.getCharacterStatistic());
+  }
+
+  @Test
+  public void testParallelParsingSharesFontFacesBetweenPages() throws Exception {
+    Map<FontFace, FontFace> fontFaces = new HashMap<>();
+    for (Page page : parse(4).getPages()) {
+      for (Character character : page.getCharacters()) {
+        FontFace fontFace = character.getFontFace();
+        FontFace knownFontFace = fontFaces.putIfAbsent(fontFace, fontFace);
+        Assert.assertTrue(knownFontFace == null || knownFontFace == fontFace);
+      }
+    }
+  }
+
+  @Test
+  public void testParallelParsingUsesGivenPool() throws Exception {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      ParseDocumentPipe parsePipe = new PlainParseDocumentPipe();
+      parsePipe.setParallelism(4);
+      parsePipe.setPool(pool);
+      Document parallel = parsePipe.execute(new Document(PDF_PATH));
+
+      // The pages were parsed by the threads of the given pool, which is not shut down.
+      Assert.assertTrue(pool.getPoolSize() > 0);
+      Assert.assertFalse(pool.isShutdown());
+
+      parsePipe.setParallelism(1);
+      Document sequential = parsePipe.execute(new Document(PDF_PATH));
+      Assert.assertEquals(sequential.getPages().size(), parallel.getPages().size());
+      for (int i = 0; i < sequential.getPages().size(); i++) {
+        Assert.assertEquals(sequential.getPages().get(i).getCharacters().size(),
+            parallel.getPages().get(i).getCharacters().size());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the PDF file with the given parallelism.
+   *
+   * @param parallelism The maximum number of pages to process in parallel.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws Exception If something went wrong on parsing the PDF file.
+   */
+  protected Document parse(int parallelism) throws Exception {
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setParallelism(parallelism);
+    return pdfAct.parse(PDF_PATH);
+  }
+
+  /**
+   * Checks that the given character statistics are equal.
+   *
+   * @param expected The expected statistic.
+   * @param actual   The actual statistic.
+   */
+  protected void assertEquals(CharacterStatistic expected, CharacterStatistic actual) {
+    Assert.assertEquals(expected.getMostCommonFontFace(), actual.getMostCommonFontFace());
+    Assert.assertEquals(expected.getMostCommonColor(), actual.getMostCommonColor());
+    Assert.assertEquals(expected.getMostCommonHeight(), actual.getMostCommonHeight(), 0);
+    Assert.assertEquals(expected.getAverageFontsize(), actual.getAverageFontsize(), 0);
+    Assert.assertEquals(expected.getSmallestMinX(), actual.getSmallestMinX(), 0);
+    Assert.assertEquals(expected.getLargestMaxY(), actual.getLargestMaxY(), 0);
+  }
+}
@@ -0,0 +1,57 @@
+package pdfact.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.util.EnumSet;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests that processing the pages in parallel yields the same output as processing
+ * the pages sequentially.
+ */
+public class PdfActParallelismTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  @Test
+  public void testParallelOutputIsIdenticalToSequentialOutput() throws PdfActException {
+    for (SerializationFormat format : SerializationFormat.values()) {
+      byte[] sequential = extract(format, 1);
+      byte[] parallel = extract(format, 4);
+
+      Assert.assertTrue(sequential.length > 0);
+      Assert.assertArrayEquals("Outputs differ for format " + format, sequential, parallel);
+    }
+  }
+
+  /**
+   * Extracts all units from the PDF file in the given format, while processing up to the given
+   * number of pages in parallel.
+   *
+   * @param format      The serialization format.
+   * @param parallelism The maximum number of pages to process in parallel.
+   *
+   * @return The serialization.
+   *
+   * @throws PdfActException If something went wrong on extraction.
+   */
+  protected byte[] extract(SerializationFormat format, int parallelism) throws PdfActException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setSerializationFormat(format);
+    pdfAct.setSerializationStream(stream);
+    pdfAct.setExtractionUnits(EnumSet.allOf(ExtractionUnit.class));
+    pdfAct.setSemanticRoles(EnumSet.allOf(SemanticRole.class));
+    pdfAct.setParallelism(parallelism);
+    pdfAct.parse(PDF_PATH);
+
+    return stream.toByteArray();
+  }
+}
@@ -0,0 +1,86 @@
+package pdfact.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.util.EnumSet;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests that executing only the stages needed for the units to extract yields the
+ * same output as executing all stages.
+ */
+public class PdfActPlanStagesTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  @Test
+  public void testPlannedOutputIsIdenticalToFullOutput() throws PdfActException {
+    for (ExtractionUnit unit : ExtractionUnit.values()) {
+      String full = extract(unit, false);
+      String planned = extract(unit, true);
+
+      Assert.assertEquals("Outputs differ for unit " + unit, full, planned);
+    }
+  }
+
+  @Test
+  public void testShapesAreExtractedWithoutText() throws PdfActException {
+    PdfAct pdfAct = createPdfAct(ExtractionUnit.SHAPE, true);
+    pdfAct.setSerializationStream(new ByteArrayOutputStream());
+    Document pdf = pdfAct.parse(PDF_PATH);
+
+    int numShapes = 0;
+    for (Page page : pdf.getPages()) {
+      Assert.assertTrue(page.getFigures().isEmpty());
+      Assert.assertTrue(page.getTextBlocks().isEmpty());
+      numShapes += page.getShapes().size();
+    }
+    Assert.assertTrue(numShapes > 0);
+    Assert.assertTrue(pdf.getParagraphs().isEmpty());
+  }
+
+  /**
+   * Extracts the given unit from the PDF file in JSON format.
+   *
+   * @param unit         The unit to extract.
+   * @param isPlanStages True if only the needed stages should be executed, false otherwise.
+   *
+   * @return The serialization.
+   *
+   * @throws PdfActException If something went wrong on extraction.
+   */
+  protected String extract(ExtractionUnit unit, boolean isPlanStages) throws PdfActException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+    PdfAct pdfAct = createPdfAct(unit, isPlanStages);
+    pdfAct.setSerializationStream(stream);
+    pdfAct.parse(PDF_PATH);
+
+    return stream.toString();
+  }
+
+  /**
+   * Creates an instance of PdfAct that extracts the given unit with all semantic roles.
+   *
+   * @param unit         The unit to extract.
+   * @param isPlanStages True if only the needed stages should be executed, false otherwise.
+   *
+   * @return The created instance.
+   */
+  protected PdfAct createPdfAct(ExtractionUnit unit, boolean isPlanStages) {
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setSerializationFormat(SerializationFormat.JSON);
+    pdfAct.setExtractionUnits(EnumSet.of(unit));
+    pdfAct.setSemanticRoles(EnumSet.allOf(SemanticRole.class));
+    pdfAct.setIsPlanStages(isPlanStages);
+    return pdfAct;
+  }
+}
@@ -0,0 +1,130 @@
+package pdfact.cli;
+
+import static pdfact.cli.TestSerializationUtils.serialize;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.core.model.Document;
+import pdfact.core.pipes.PdfActCoreStage;
+import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.exception.PdfActSnapshotException;
+import pdfact.core.util.snapshot.Snapshot;
+import pdfact.core.util.snapshot.SnapshotReader;
+import pdfact.core.util.snapshot.SnapshotWriter;
+
+/**
+ * A class that tests that resuming the processing of a PDF document from a snapshot yields the
+ * same output as processing the PDF document without a snapshot.
+ */
+public class PdfActSnapshotTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  /**
+   * The temporary folder for the snapshot files.
+   */
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testResumedOutputIsIdenticalToFullOutput() throws Exception {
+    PlainPdfActCorePipe corePipe = new PlainPdfActCorePipe();
+    Set<PdfActCoreStage> allStages = EnumSet.allOf(PdfActCoreStage.class);
+    String full = serialize(corePipe.execute(new Document(PDF_PATH), allStages, null));
+
+    for (PdfActCoreStage stage : PdfActCoreStage.values()) {
+      Set<PdfActCoreStage> stages = EnumSet.of(stage, PdfActCoreStage.FIGURES,
+          PdfActCoreStage.SHAPES);
+      Document pdf = corePipe.execute(new Document(PDF_PATH), stages, null);
+
+      Snapshot snapshot = readSnapshot(writeSnapshot(new Snapshot(pdf, stages)));
+      Assert.assertEquals(PdfActCoreStage.withRequiredStages(stages), snapshot.getStages());
+
+      String resumed = serialize(corePipe.resume(snapshot, allStages, null));
+      Assert.assertEquals("Outputs differ for stage " + stage, full, resumed);
+    }
+  }
+
+  @Test
+  public void testResumeFromSnapshotFile() throws Exception {
+    Path snapshotPath = this.folder.newFile().toPath();
+
+    // Write a snapshot on extracting the words, and extract all units from the snapshot.
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setSerializationFormat(SerializationFormat.JSON);
+    pdfAct.setSerializationStream(new ByteArrayOutputStream());
+    pdfAct.setExtractionUnits(EnumSet.of(ExtractionUnit.WORD));
+    pdfAct.setIsPlanStages(true);
+    pdfAct.setSnapshotPath(snapshotPath);
+    pdfAct.parse(PDF_PATH);
+
+    ByteArrayOutputStream resumed = new ByteArrayOutputStream();
+    pdfAct.setSnapshotPath(null);
+    pdfAct.setSerializationStream(resumed);
+    pdfAct.setExtractionUnits(EnumSet.allOf(ExtractionUnit.class));
+    pdfAct.resume(snapshotPath);
+
+    ByteArrayOutputStream full = new ByteArrayOutputStream();
+    pdfAct.setSerializationStream(full);
+    pdfAct.parse(PDF_PATH);
+
+    Assert.assertTrue(full.size() > 0);
+    Assert.assertEquals(full.toString("UTF-8"), resumed.toString("UTF-8"));
+  }
+
+  @Test(expected = PdfActSnapshotException.class)
+  public void testResumingShapesWithoutShapesFails() throws PdfActException {
+    PlainPdfActCorePipe corePipe = new PlainPdfActCorePipe();
+    Set<PdfActCoreStage> stages = EnumSet.of(PdfActCoreStage.CHARACTERS);
+    Document pdf = corePipe.execute(new Document(PDF_PATH), stages, null);
+
+    Snapshot snapshot = readSnapshot(writeSnapshot(new Snapshot(pdf, stages)));
+    corePipe.resume(snapshot, EnumSet.of(PdfActCoreStage.SHAPES), null);
+  }
+
+  @Test(expected = PdfActSnapshotException.class)
+  public void testReadingInvalidSnapshotFails() throws PdfActException {
+    readSnapshot(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given snapshot to a byte array.
+   *
+   * @param snapshot The snapshot to write.
+   *
+   * @return The written bytes.
+   *
+   * @throws PdfActException If something went wrong on writing the snapshot.
+   */
+  protected byte[] writeSnapshot(Snapshot snapshot) throws PdfActException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    new SnapshotWriter().write(snapshot, stream);
+    return stream.toByteArray();
+  }
+
+  /**
+   * Reads a snapshot from the given bytes.
+   *
+   * @param bytes The bytes to read from.
+   *
+   * @return The snapshot.
+   *
+   * @throws PdfActException If something went wrong on reading the snapshot.
+   */
+  protected Snapshot readSnapshot(byte[] bytes) throws PdfActException {
+    return new SnapshotReader().read(new ByteArrayInputStream(bytes));
+  }
+}
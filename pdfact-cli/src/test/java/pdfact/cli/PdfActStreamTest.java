@@ -0,0 +1,82 @@
+package pdfact.cli;
+
+import static pdfact.cli.TestSerializationUtils.serialize;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.pipeline.PageStream;
+import pdfact.core.util.pipeline.PipelineListener;
+
+/**
+ * A class that tests streaming the pages of a PDF document.
+ */
+public class PdfActStreamTest {
+  /**
+   * The PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  @Test
+  public void testStreamedPagesAreInOrderAndProcessed() throws PdfActException {
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setParallelism(2);
+    PageStream stream = pdfAct.stream(Paths.get(PDF_PATH), 1);
+
+    int numPages = 0;
+    Page page;
+    while ((page = stream.nextPage()) != null) {
+      numPages++;
+      Assert.assertEquals(numPages, page.getPageNumber());
+      Assert.assertNotNull(page.getTextLines());
+      Assert.assertNotNull(page.getTextBlocks());
+    }
+    Assert.assertNull(stream.nextPage());
+
+    Document pdf = stream.getDocument();
+    Assert.assertEquals(pdf.getPages().size(), numPages);
+    Assert.assertTrue(numPages > 0);
+  }
+
+  @Test
+  public void testStreamedDocumentIsIdenticalToParsedDocument() throws Exception {
+    PdfAct pdfAct = new PdfAct();
+    Document streamed = pdfAct.stream(Paths.get(PDF_PATH), 1).getDocument();
+    Document parsed = pdfAct.parse(PDF_PATH);
+
+    Assert.assertEquals(serialize(parsed), serialize(streamed));
+  }
+
+  @Test
+  public void testListenerIsNotifiedByCallingThread() throws PdfActException {
+    final Thread callingThread = Thread.currentThread();
+    final List<Integer> pageNumbers = new ArrayList<>();
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setParallelism(4);
+    pdfAct.parse(Paths.get(PDF_PATH), new PipelineListener() {
+      @Override
+      public void handlePageProcessed(Document pdf, Page page) {
+        // A slow listener must not block the threads processing the pages.
+        Assert.assertSame(callingThread, Thread.currentThread());
+        pageNumbers.add(page.getPageNumber());
+      }
+
+      @Override
+      public void handleDocumentProcessed(Document pdf) {}
+    });
+
+    Assert.assertFalse(pageNumbers.isEmpty());
+    for (int i = 0; i < pageNumbers.size(); i++) {
+      Assert.assertEquals(i + 1, (int) pageNumbers.get(i));
+    }
+  }
+
+  @Test(expected = PdfActException.class)
+  public void testStreamThrowsOnInvalidPath() throws PdfActException {
+    new PdfAct().stream(Paths.get("does-not-exist.pdf")).nextPage();
+  }
+}
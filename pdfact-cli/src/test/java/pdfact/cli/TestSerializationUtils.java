@@ -0,0 +1,27 @@
+package pdfact.cli;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.pipes.serialize.PdfJsonSerializer;
+import pdfact.core.model.Document;
+import pdfact.core.model.SemanticRole;
+
+/**
+ * A collection of utility methods to compare the extraction results in the tests by their
+ * serializations.
+ */
+public class TestSerializationUtils {
+  /**
+   * Serializes all units of the given PDF document to JSON.
+   *
+   * @param pdf The PDF document to serialize.
+   *
+   * @return The serialization.
+   */
+  public static String serialize(Document pdf) {
+    PdfJsonSerializer serializer = new PdfJsonSerializer(EnumSet.allOf(ExtractionUnit.class),
+        EnumSet.allOf(SemanticRole.class));
+    return new String(serializer.serialize(pdf), StandardCharsets.UTF_8);
+  }
+}
@@ -34,6 +34,12 @@ public class Character extends Element implements HasText, HasPosition, HasFontF
    */
   protected int extractionRank;
 
+  /**
+   * The category of hidden characters this character belongs to, if it was flagged as hidden;
+   * null otherwise.
+   */
+  protected HiddenTextCategory hiddenTextCategory;
+
   // ==============================================================================================
 
   public String getText() {
@@ -86,6 +92,22 @@ public class Character extends Element implements HasText, HasPosition, HasFontF
 
   // ==============================================================================================
 
+  /**
+   * Returns the category of hidden characters this character belongs to. A character is only
+   * flagged with its category if the policy of the category is {@link HiddenTextPolicy#FLAG}.
+   * 
+   * @return The category; null if the character was not flagged as hidden.
+   */
+  public HiddenTextCategory getHiddenTextCategory() {
+    return this.hiddenTextCategory;
+  }
+
+  public void setHiddenTextCategory(HiddenTextCategory category) {
+    this.hiddenTextCategory = category;
+  }
+
+  // ==============================================================================================
+
   @Override
   public String toString() {
     return "Character(" + getText() + ", " + getPosition() + ")";
@@ -1,6 +1,9 @@
 package pdfact.core.model;
 
 import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -20,6 +23,23 @@ public class Document implements HasParagraphs {
    */
   protected Path path;
 
+  /**
+   * The content of the underlying file, if the document is given in memory; null otherwise.
+   */
+  protected ByteBuffer buffer;
+
+  /**
+   * The stream from which the underlying file can be read, if the document is given by a stream;
+   * null otherwise.
+   */
+  protected InputStream stream;
+
+  /**
+   * The channel from which the underlying file can be read, if the document is given by a
+   * channel; null otherwise.
+   */
+  protected SeekableByteChannel channel;
+
   /**
    * The pages of this document.
    */
@@ -71,6 +91,51 @@ public class Document implements HasParagraphs {
     this.path = path;
   }
 
+  /**
+   * Creates a new document from the content of a PDF file. The content is not copied, so it must
+   * not be modified while the document is parsed.
+   * 
+   * @param bytes The content of the PDF file.
+   */
+  public Document(byte[] bytes) {
+    this(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Creates a new document from the content of a PDF file, given by the remaining bytes of the
+   * given buffer (which may be a direct or a memory-mapped buffer). The content is not copied, so
+   * it must not be modified while the document is parsed. The position of the buffer is not
+   * modified.
+   * 
+   * @param buffer The content of the PDF file.
+   */
+  public Document(ByteBuffer buffer) {
+    this((Path) null);
+    this.buffer = buffer;
+  }
+
+  /**
+   * Creates a new document from a stream from which a PDF file can be read. The stream can be
+   * read only once and is not closed.
+   * 
+   * @param stream The stream from which the PDF file can be read.
+   */
+  public Document(InputStream stream) {
+    this((Path) null);
+    this.stream = stream;
+  }
+
+  /**
+   * Creates a new document from a channel from which a PDF file can be read, starting at
+   * position 0. The channel is not closed.
+   * 
+   * @param channel The channel from which the PDF file can be read.
+   */
+  public Document(SeekableByteChannel channel) {
+    this((Path) null);
+    this.channel = channel;
+  }
+
   // ==============================================================================================
 
   /**
@@ -113,6 +178,47 @@ public class Document implements HasParagraphs {
 
   // ==============================================================================================
 
+  /**
+   * Returns the content of the underlying file, if this document is given in memory.
+   * 
+   * @return The content of the underlying file; null if this document is not given in memory.
+   */
+  public ByteBuffer getBuffer() {
+    return this.buffer;
+  }
+
+  /**
+   * Returns the stream from which the underlying file can be read, if this document is given by
+   * a stream.
+   * 
+   * @return The stream; null if this document is not given by a stream.
+   */
+  public InputStream getStream() {
+    return this.stream;
+  }
+
+  /**
+   * Returns the channel from which the underlying file can be read, if this document is given by
+   * a channel.
+   * 
+   * @return The channel; null if this document is not given by a channel.
+   */
+  public SeekableByteChannel getChannel() {
+    return this.channel;
+  }
+
+  /**
+   * Returns true if the underlying file is given by its content (in memory, by a stream or by a
+   * channel) instead of by a path.
+   * 
+   * @return True if the underlying file is given by its content, false otherwise.
+   */
+  public boolean isGivenByContent() {
+    return this.buffer != null || this.stream != null || this.channel != null;
+  }
+
+  // ==============================================================================================
+
   /**
    * Returns the pages of this document.
    * 
@@ -0,0 +1,68 @@
+package pdfact.core.model;
+
+/**
+ * An enumeration of the categories of characters that are shown by a PDF document, but are not
+ * visible when the PDF document is rendered.
+ * 
+ * @author Claudius Korzen
+ */
+public enum HiddenTextCategory {
+  /**
+   * A character shown with a text rendering mode that neither fills nor strokes the glyph (for
+   * example, the text layer of a scanned page added by OCR).
+   */
+  INVISIBLE("invisible"),
+  /**
+   * A character that lies completely outside the crop box of its page.
+   */
+  OFF_PAGE("off-page"),
+  /**
+   * A character that lies completely outside the (bounding box of the) current clipping path.
+   */
+  CLIPPED("clipped");
+
+  // ==============================================================================================
+
+  /**
+   * The name of this category.
+   */
+  protected String name;
+
+  /**
+   * Creates a new category.
+   * 
+   * @param name The name of the category.
+   */
+  HiddenTextCategory(String name) {
+    this.name = name;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the name of this category.
+   * 
+   * @return The name of this category.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Returns the category with the given name.
+   * 
+   * @param name The name of the category.
+   * 
+   * @return The category with the given name; null if there is no such category.
+   */
+  public static HiddenTextCategory fromString(String name) {
+    if (name != null) {
+      for (HiddenTextCategory category : values()) {
+        if (category.getName().equalsIgnoreCase(name.trim())) {
+          return category;
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,22 @@
+package pdfact.core.model;
+
+/**
+ * An enumeration of the ways to deal with characters of a {@link HiddenTextCategory}.
+ * 
+ * @author Claudius Korzen
+ */
+public enum HiddenTextPolicy {
+  /**
+   * Drop the characters on extraction, before they are converted to {@link Character} objects.
+   */
+  DROP,
+  /**
+   * Keep the characters, without checking if they are hidden at all.
+   */
+  KEEP,
+  /**
+   * Keep the characters, but flag them with their category, see
+   * {@link Character#getHiddenTextCategory()}.
+   */
+  FLAG;
+}
@@ -68,6 +68,11 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
    */
   protected TextLineStatistic textLineStatistic;
 
+  /**
+   * The number of the duplicate characters removed from this page on extraction.
+   */
+  protected int numDuplicateCharacters;
+
   // ==============================================================================================
 
   /**
@@ -326,6 +331,27 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
 
   // ==============================================================================================
 
+  /**
+   * Returns the number of the duplicate characters (characters drawn multiple times at nearly the
+   * same position) removed from this page on extraction.
+   *
+   * @return The number of the removed duplicate characters.
+   */
+  public int getNumDuplicateCharacters() {
+    return this.numDuplicateCharacters;
+  }
+
+  /**
+   * Sets the number of the duplicate characters removed from this page on extraction.
+   *
+   * @param numDuplicateCharacters The number of the removed duplicate characters.
+   */
+  public void setNumDuplicateCharacters(int numDuplicateCharacters) {
+    this.numDuplicateCharacters = numDuplicateCharacters;
+  }
+
+  // ==============================================================================================
+
   /**
    * Returns the width of this page.
    *
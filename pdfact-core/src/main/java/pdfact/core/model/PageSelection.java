@@ -0,0 +1,224 @@
+package pdfact.core.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import pdfact.core.util.exception.PdfActValidateException;
+
+/**
+ * A selection of the pages of a PDF document to process, given by one or more page ranges. The
+ * bounds of a range are page numbers, either counted from the first page (1 is the first page) or
+ * from the last page (r1 is the last page, r2 the second last page, and so on), so a selection can
+ * be defined without knowing the number of pages of the PDF document.
+ *
+ * <p>
+ * A selection is given by a string of comma-separated ranges, for example:
+ * <ul>
+ * <li>"1-2": the first two pages,</li>
+ * <li>"r2-r1": the last two pages,</li>
+ * <li>"3,5-7,10-": the pages 3, 5, 6, 7 and all pages from page 10 on,</li>
+ * <li>"1,r1": the first and the last page.</li>
+ * </ul>
+ *
+ * <p>
+ * Pages beyond the last page of a PDF document are ignored and the selected pages are always
+ * processed in the order of the PDF document, regardless of the order of the ranges.
+ *
+ * @author Claudius Korzen
+ */
+public class PageSelection {
+  /**
+   * The separator of the ranges in a string representation of a selection.
+   */
+  protected static final String RANGE_SEPARATOR = ",";
+
+  /**
+   * The separator of the bounds of a range in a string representation of a selection.
+   */
+  protected static final String BOUND_SEPARATOR = "-";
+
+  /**
+   * The prefix of a page number that is counted from the last page.
+   */
+  protected static final String REVERSE_PREFIX = "r";
+
+  /**
+   * The ranges of this selection, given as [from, to]. A positive bound is a page number counted
+   * from the first page, a negative bound -k is the k-th page counted from the last page.
+   */
+  protected List<int[]> ranges;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new page selection.
+   *
+   * @param ranges The ranges of the selection, given as [from, to].
+   */
+  protected PageSelection(List<int[]> ranges) {
+    this.ranges = ranges;
+  }
+
+  /**
+   * Creates a selection of the first n pages.
+   *
+   * @param n The number of pages to select.
+   *
+   * @return The page selection.
+   */
+  public static PageSelection firstPages(int n) {
+    return new PageSelection(Collections.singletonList(new int[] { 1, Math.max(n, 0) }));
+  }
+
+  /**
+   * Creates a selection of the last n pages.
+   *
+   * @param n The number of pages to select.
+   *
+   * @return The page selection.
+   */
+  public static PageSelection lastPages(int n) {
+    if (n < 1) {
+      return firstPages(0);
+    }
+    return new PageSelection(Collections.singletonList(new int[] { -n, -1 }));
+  }
+
+  /**
+   * Creates a selection of the pages in the given range.
+   *
+   * @param from The number of the first page to select (1 is the first page).
+   * @param to   The number of the last page to select (inclusive).
+   *
+   * @return The page selection.
+   */
+  public static PageSelection range(int from, int to) {
+    return new PageSelection(Collections.singletonList(new int[] { from, to }));
+  }
+
+  /**
+   * Parses the given string representation of a page selection, for example: "1-2,5,r1".
+   *
+   * @param string The string to parse.
+   *
+   * @return The page selection; null if the given string is null or empty (meaning: all pages).
+   *
+   * @throws PdfActValidateException If the given string is not a valid page selection.
+   */
+  public static PageSelection fromString(String string) throws PdfActValidateException {
+    if (string == null || string.trim().isEmpty()) {
+      return null;
+    }
+
+    List<int[]> ranges = new ArrayList<>();
+    for (String range : string.split(RANGE_SEPARATOR, -1)) {
+      range = range.trim();
+      int separatorIndex = range.indexOf(BOUND_SEPARATOR);
+      if (separatorIndex < 0) {
+        int page = parseBound(range, string);
+        ranges.add(new int[] { page, page });
+      } else {
+        int from = parseBound(range.substring(0, separatorIndex).trim(), string);
+        String toStr = range.substring(separatorIndex + 1).trim();
+        // An open range ("10-") ends at the last page.
+        int to = toStr.isEmpty() ? -1 : parseBound(toStr, string);
+        ranges.add(new int[] { from, to });
+      }
+    }
+    return new PageSelection(ranges);
+  }
+
+  /**
+   * Parses the given bound of a page range.
+   *
+   * @param bound     The bound to parse, for example: "3" or "r1".
+   * @param selection The whole page selection, for the error message.
+   *
+   * @return The parsed bound, positive if counted from the first page, negative if counted from
+   *         the last page.
+   *
+   * @throws PdfActValidateException If the given bound is not a valid page number.
+   */
+  protected static int parseBound(String bound, String selection)
+      throws PdfActValidateException {
+    boolean isReverse = bound.startsWith(REVERSE_PREFIX);
+    String number = isReverse ? bound.substring(REVERSE_PREFIX.length()) : bound;
+    int pageNum = -1;
+    if (number.matches("\\d{1,9}")) {
+      pageNum = Integer.parseInt(number);
+    }
+    if (pageNum < 1) {
+      throw new PdfActValidateException("The page selection '" + selection + "' is not valid. "
+          + "Expected comma-separated page numbers or ranges like '1-2', '5', '10-' or 'r2-r1' "
+          + "(r1 is the last page).");
+    }
+    return isReverse ? -pageNum : pageNum;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the numbers of the selected pages of a PDF document with the given number of pages.
+   *
+   * @param numPages The number of pages of the PDF document.
+   *
+   * @return The numbers of the selected pages (1 is the first page), in ascending order and
+   *         without duplicates.
+   */
+  public int[] getPageNumbers(int numPages) {
+    BitSet selected = new BitSet(numPages + 1);
+    for (int[] range : this.ranges) {
+      int from = resolve(range[0], numPages);
+      int to = resolve(range[1], numPages);
+      // Ignore the pages beyond the PDF document.
+      from = Math.max(from, 1);
+      to = Math.min(to, numPages);
+      if (from <= to) {
+        selected.set(from, to + 1);
+      }
+    }
+    return selected.stream().toArray();
+  }
+
+  /**
+   * Resolves the given bound of a page range to a page number counted from the first page.
+   *
+   * @param bound    The bound to resolve.
+   * @param numPages The number of pages of the PDF document.
+   *
+   * @return The page number counted from the first page.
+   */
+  protected static int resolve(int bound, int numPages) {
+    return bound >= 0 ? bound : numPages + 1 + bound;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int[] range : this.ranges) {
+      if (sb.length() > 0) {
+        sb.append(RANGE_SEPARATOR);
+      }
+      sb.append(boundToString(range[0]));
+      if (range[1] != range[0]) {
+        sb.append(BOUND_SEPARATOR);
+        sb.append(boundToString(range[1]));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the string representation of the given bound of a page range.
+   *
+   * @param bound The bound.
+   *
+   * @return The string representation of the bound.
+   */
+  protected static String boundToString(int bound) {
+    return bound > 0 ? String.valueOf(bound) : REVERSE_PREFIX + (-bound);
+  }
+}
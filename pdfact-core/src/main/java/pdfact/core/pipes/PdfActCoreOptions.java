@@ -0,0 +1,368 @@
+package pdfact.core.pipes;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
+import pdfact.core.model.PageSelection;
+
+/**
+ * The options of a single execution of a {@link PdfActCorePipe}.
+ *
+ * <p>
+ * The options are immutable: each of the with*() methods returns a copy of the options with the
+ * given option changed, so that the options of an execution can't be changed by other executions
+ * running concurrently on the same core pipe. The fields are assigned only on creating a copy,
+ * before it is returned.
+ *
+ * @author Claudius Korzen
+ */
+public final class PdfActCoreOptions {
+  /**
+   * The default options.
+   */
+  public static final PdfActCoreOptions DEFAULT = new PdfActCoreOptions();
+
+  /**
+   * The maximum number of pages to process in parallel.
+   */
+  protected int parallelism;
+
+  /**
+   * The boolean flag indicating whether or not the images should be classified into shapes and
+   * figures.
+   */
+  protected boolean isToClassifyImages;
+
+  /**
+   * The setting that defines where PDFBox keeps its scratch data while parsing; null if all
+   * scratch data is kept in main memory.
+   */
+  protected MemoryUsageSetting memoryUsageSetting;
+
+  /**
+   * The selection of the pages to process; null if all pages should be processed.
+   */
+  protected PageSelection pageSelection;
+
+  /**
+   * The boolean flag indicating whether the shapes resulting from a single paint operation should
+   * be merged into a single shape.
+   */
+  protected boolean isToMergeShapesPerPaint;
+
+  /**
+   * The maximum number of shapes per page; 0 if the number of shapes is not limited.
+   */
+  protected int maxNumShapesPerPage;
+
+  /**
+   * The policies how to deal with hidden characters, per category. Categories without a policy
+   * are kept.
+   */
+  protected Map<HiddenTextCategory, HiddenTextPolicy> hiddenTextPolicies;
+
+  /**
+   * The boolean flag indicating whether duplicate characters should be removed.
+   */
+  protected boolean isToRemoveDuplicateCharacters;
+
+  /**
+   * The boolean flag indicating whether the characters should be normalized in a single pass.
+   */
+  protected boolean isToNormalizeCharactersInSinglePass;
+
+  // ==============================================================================================
+
+  /**
+   * Creates the default options.
+   */
+  private PdfActCoreOptions() {
+    this.parallelism = Runtime.getRuntime().availableProcessors();
+    this.isToClassifyImages = true;
+    this.hiddenTextPolicies = Collections.emptyMap();
+    this.isToNormalizeCharactersInSinglePass = true;
+  }
+
+  /**
+   * Creates a copy of the given options, to be changed by one of the with*() methods before it
+   * is returned.
+   *
+   * @param options
+   *        The options to copy.
+   */
+  private PdfActCoreOptions(PdfActCoreOptions options) {
+    this.parallelism = options.parallelism;
+    this.isToClassifyImages = options.isToClassifyImages;
+    this.memoryUsageSetting = options.memoryUsageSetting;
+    this.pageSelection = options.pageSelection;
+    this.isToMergeShapesPerPaint = options.isToMergeShapesPerPaint;
+    this.maxNumShapesPerPage = options.maxNumShapesPerPage;
+    this.hiddenTextPolicies = options.hiddenTextPolicies;
+    this.isToRemoveDuplicateCharacters = options.isToRemoveDuplicateCharacters;
+    this.isToNormalizeCharactersInSinglePass = options.isToNormalizeCharactersInSinglePass;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the maximum number of pages to process in parallel.
+   *
+   * @return The maximum number of pages to process in parallel.
+   */
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Returns a copy of these options with the given maximum number of pages to process in
+   * parallel. The result of processing a PDF document does not depend on the parallelism.
+   *
+   * @param parallelism
+   *        The maximum number of pages to process in parallel; 1 to process the pages
+   *        sequentially.
+   *
+   * @return The changed copy of these options.
+   */
+  public PdfActCoreOptions withParallelism(int parallelism) {
+    PdfActCoreOptions options = new PdfActCoreOptions(this);
+    options.parallelism = parallelism;
+    return options;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if the images should be classified into shapes (images with a single color) and
+   * figures, false if all images should be considered as figures.
+   *
+   * @return True if the images should be classified, false otherwise.
+   */
+  public boolean isToClassifyImages() {
+    return this.isToClassifyImages;
+  }
+
+  /**
+   * Returns a copy of these options with the given flag indicating whether or not the images
+   * should be classified into shapes (images with a single color) and figures. Classifying an
+   * image may require to decode the image, so it is faster to consider all images as figures.
+   *
+   * @param isToClassifyImages
+   *        True if the images should be classified, false if all images should be considered as
+   *        figures.
+   *
+   * @return The changed copy of these options.
+   */
+  public PdfActCoreOptions withIsToClassifyImages(boolean isToClassifyImages) {
+    PdfActCoreOptions options = new PdfActCoreOptions(this);
+    options.isToClassifyImages = isToClassifyImages;
+    return options;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the setting that defines where PDFBox keeps its scratch data while parsing.
+   *
+   * @return The memory usage setting; null if all scratch data is kept in main memory.
+   */
+  public MemoryUsageSetting getMemoryUsageSetting() {
+    return this.memoryUsageSetting;
+  }
+
+  /**
+   * Returns a copy of these options with the given setting that defines where PDFBox keeps its
+   * scratch data while parsing (for example, the decoded streams or the content of a PDF file
+   * given by a stream), such that very large PDF files can use scratch files instead of main
+   * memory.
+   *
+   * @param setting
+   *        The memory usage setting; null to keep all scratch data in main memory.
+   *
+   * @return The changed copy of these options.
+   */
+  public PdfActCoreOptions withMemoryUsageSetting(MemoryUsageSetting setting) {
+    PdfActCoreOptions options = new PdfActCoreOptions(this);
+    options.memoryUsageSetting = setting;
+    return options;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the selection of the pages to process.
+   *
+   * @return The page selection; null if all pages are processed.
+   */
+  public PageSelection getPageSelection() {
+    return this.pageSelection;
+  }
+
+  /**
+   * Returns a copy of these options with the given selection of the pages to process, for example
+   * the first pages of a PDF document to extract its title and abstract. The other pages are
+   * neither parsed nor added to the processed document, but the selected pages keep their page
+   * numbers.
+   *
+   * @param pageSelection
+   *        The page selection; null to process all pages.
+   *
+   * @return The changed copy of these options.
+   */
+  public PdfActCoreOptions withPageSelection(PageSelection pageSelection) {
+    PdfActCoreOptions options = new PdfActCoreOptions(this);
+    options.pageSelection = pageSelection;
+    return options;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if the shapes resulting from a single paint operation should be merged into a
+   * single shape.
+   *
+   * @return True if the shapes of a paint operation should be merged, false otherwise.
+   */
+  public boolean isToMergeShapesPerPaint() {
+    return this.isToMergeShapesPerPaint;
+  }
+
+  /**
+   * Returns a copy of these options with the given flag indicating whether the shapes resulting
+   * from a single paint operation should be merged into a single shape (the bounding box of the
+   * painted path), instead of extracting a shape per path segment.
+   *
+   * @param isToMergeShapesPerPaint
+   *        True if the shapes of a paint operation should be merged, false otherwise.
+   *
+   * @return The changed copy of these options.
+   */
+  public PdfActCoreOptions withIsToMergeShapesPerPaint(boolean isToMergeShapesPerPaint) {
+    PdfActCoreOptions options = new PdfActCoreOptions(this);
+    options.isToMergeShapesPerPaint = isToMergeShapesPerPaint;
+    return options;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the maximum number of shapes per page.
+   *
+   * @return The maximum number of shapes per page; 0 if the number of shapes is not limited.
+   */
+  public int getMaxNumShapesPerPage() {
+    return this.maxNumShapesPerPage;
+  }
+
+  /**
+   * Returns a copy of these options with the given maximum number of shapes per page. If a page
+   * contains more shapes, neighboring shapes with the same color are merged until the page
+   * contains at most the given number of shapes.
+   *
+   * @param maxNumShapesPerPage
+   *        The maximum number of shapes per page; 0 if the number of shapes should not be limited.
+   *
+   * @return The changed copy of these options.
+   */
+  public PdfActCoreOptions withMaxNumShapesPerPage(int maxNumShapesPerPage) {
+    PdfActCoreOptions options = new PdfActCoreOptions(this);
+    options.maxNumShapesPerPage = maxNumShapesPerPage;
+    return options;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the policy how to deal with hidden characters of the given category.
+   *
+   * @param category
+   *        The category of hidden characters.
+   *
+   * @return The policy.
+   */
+  public HiddenTextPolicy getHiddenTextPolicy(HiddenTextCategory category) {
+    return this.hiddenTextPolicies.getOrDefault(category, HiddenTextPolicy.KEEP);
+  }
+
+  /**
+   * Returns a copy of these options with the given policy how to deal with hidden characters of
+   * the given category (for example, invisible characters on scanned pages with a text layer
+   * added by OCR). By default, all characters are kept.
+   *
+   * @param category
+   *        The category of hidden characters.
+   * @param policy
+   *        The policy; null to keep the characters.
+   *
+   * @return The changed copy of these options.
+   */
+  public PdfActCoreOptions withHiddenTextPolicy(HiddenTextCategory category,
+      HiddenTextPolicy policy) {
+    Map<HiddenTextCategory, HiddenTextPolicy> policies = new EnumMap<>(HiddenTextCategory.class);
+    policies.putAll(this.hiddenTextPolicies);
+    policies.put(category, policy != null ? policy : HiddenTextPolicy.KEEP);
+    PdfActCoreOptions options = new PdfActCoreOptions(this);
+    options.hiddenTextPolicies = Collections.unmodifiableMap(policies);
+    return options;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if characters drawn multiple times at nearly the same position should be
+   * removed.
+   *
+   * @return True if duplicate characters should be removed, false otherwise.
+   */
+  public boolean isToRemoveDuplicateCharacters() {
+    return this.isToRemoveDuplicateCharacters;
+  }
+
+  /**
+   * Returns a copy of these options with the given flag indicating whether characters drawn
+   * multiple times at nearly the same position (for example, by producers that simulate bold
+   * text or draw shadows) should be removed on extraction, such that only the first drawn copy
+   * is kept.
+   *
+   * @param isToRemove
+   *        True if duplicate characters should be removed, false otherwise.
+   *
+   * @return The changed copy of these options.
+   */
+  public PdfActCoreOptions withIsToRemoveDuplicateCharacters(boolean isToRemove) {
+    PdfActCoreOptions options = new PdfActCoreOptions(this);
+    options.isToRemoveDuplicateCharacters = isToRemove;
+    return options;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if the characters are normalized (that is: the diacritics are merged, the
+   * ligatures are split, and the characters are standardized and filtered) in a single pass.
+   *
+   * @return True if the characters are normalized in a single pass, false if they are normalized
+   *         by a separate pipe per step.
+   */
+  public boolean isToNormalizeCharactersInSinglePass() {
+    return this.isToNormalizeCharactersInSinglePass;
+  }
+
+  /**
+   * Returns a copy of these options with the given flag indicating whether the characters should
+   * be normalized in a single pass over the characters of each page (which is the default), or
+   * by a separate pipe per step. Both produce the same result.
+   *
+   * @param isInSinglePass
+   *        True if the characters should be normalized in a single pass, false otherwise.
+   *
+   * @return The changed copy of these options.
+   */
+  public PdfActCoreOptions withIsToNormalizeCharactersInSinglePass(boolean isInSinglePass) {
+    PdfActCoreOptions options = new PdfActCoreOptions(this);
+    options.isToNormalizeCharactersInSinglePass = isInSinglePass;
+    return options;
+  }
+}
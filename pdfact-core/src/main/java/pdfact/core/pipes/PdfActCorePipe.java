@@ -1,13 +1,177 @@
 package pdfact.core.pipes;
 
+import java.util.Set;
+import pdfact.core.model.Document;
+import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.pipeline.Pipe;
+import pdfact.core.util.pipeline.PipelineListener;
+import pdfact.core.util.pipeline.PipelineMetrics;
+import pdfact.core.util.snapshot.Snapshot;
 
 /**
  * A pipe that wires up all necessary steps to identify the document structure
  * of PDF documents.
  * 
+ * <p>
+ * A core pipe may hold resources shared by its executions (like the threads to process the pages
+ * in parallel), which are released on {@link #close()}.
+ * 
  * @author Claudius Korzen
  */
-public interface PdfActCorePipe extends Pipe {
-  
+public interface PdfActCorePipe extends Pipe, AutoCloseable {
+  /**
+   * Processes the given PDF document in the given stages (and in the stages needed by them) and
+   * notifies the given listener about each page as soon as the page was processed by all
+   * page-local pipes.
+   * 
+   * @param pdf
+   *        The PDF document to process.
+   * @param stages
+   *        The stages to execute; the stages needed by the given stages are executed as well.
+   * @param listener
+   *        The listener to notify about the processed pages and the processed document; null if
+   *        there is no such listener.
+   * 
+   * @return The PDF document after processing.
+   * 
+   * @throws PdfActException
+   *         If something went wrong on processing the PDF document.
+   */
+  Document execute(Document pdf, Set<PdfActCoreStage> stages, PipelineListener listener)
+      throws PdfActException;
+
+  /**
+   * Processes the given PDF document in the given stages (and in the stages needed by them),
+   * notifies the given listener about each page as soon as the page was processed by all
+   * page-local pipes and adds the measurements of the executed pipes to the given metrics.
+   * 
+   * @param pdf
+   *        The PDF document to process.
+   * @param stages
+   *        The stages to execute; the stages needed by the given stages are executed as well.
+   * @param listener
+   *        The listener to notify about the processed pages and the processed document; null if
+   *        there is no such listener.
+   * @param metrics
+   *        The metrics to which the measurements of the executed pipes should be added; null if
+   *        no metrics should be recorded.
+   * 
+   * @return The PDF document after processing.
+   * 
+   * @throws PdfActException
+   *         If something went wrong on processing the PDF document.
+   */
+  Document execute(Document pdf, Set<PdfActCoreStage> stages, PipelineListener listener,
+      PipelineMetrics metrics) throws PdfActException;
+
+  /**
+   * Resumes the processing of the PDF document of the given snapshot: processes the PDF document
+   * in the given stages (and in the stages needed by them), except in the stages that were
+   * already executed before the snapshot was taken. The PDF document is not parsed again. The
+   * figures and shapes are extracted on parsing, so they can only be requested if the snapshot
+   * contains them.
+   * 
+   * @param snapshot
+   *        The snapshot of the PDF document to process.
+   * @param stages
+   *        The stages to execute; the stages needed by the given stages are executed as well.
+   * @param listener
+   *        The listener to notify about the processed pages and the processed document; null if
+   *        there is no such listener.
+   * 
+   * @return The PDF document after processing.
+   * 
+   * @throws PdfActException
+   *         If something went wrong on processing the PDF document, or if the snapshot doesn't
+   *         contain the figures or shapes, while they were requested.
+   */
+  Document resume(Snapshot snapshot, Set<PdfActCoreStage> stages, PipelineListener listener)
+      throws PdfActException;
+
+  /**
+   * Resumes the processing of the PDF document of the given snapshot, like
+   * {@link #resume(Snapshot, Set, PipelineListener)}, and adds the measurements of the executed
+   * pipes to the given metrics.
+   * 
+   * @param snapshot
+   *        The snapshot of the PDF document to process.
+   * @param stages
+   *        The stages to execute; the stages needed by the given stages are executed as well.
+   * @param listener
+   *        The listener to notify about the processed pages and the processed document; null if
+   *        there is no such listener.
+   * @param metrics
+   *        The metrics to which the measurements of the executed pipes should be added; null if
+   *        no metrics should be recorded.
+   * 
+   * @return The PDF document after processing.
+   * 
+   * @throws PdfActException
+   *         If something went wrong on processing the PDF document, or if the snapshot doesn't
+   *         contain the figures or shapes, while they were requested.
+   */
+  Document resume(Snapshot snapshot, Set<PdfActCoreStage> stages, PipelineListener listener,
+      PipelineMetrics metrics) throws PdfActException;
+
+  /**
+   * Processes the given PDF document like
+   * {@link #execute(Document, Set, PipelineListener, PipelineMetrics)}, with the given options
+   * instead of the default options. The options apply to this execution only, so executions with
+   * different options can run concurrently.
+   * 
+   * @param pdf
+   *        The PDF document to process.
+   * @param stages
+   *        The stages to execute; the stages needed by the given stages are executed as well.
+   * @param listener
+   *        The listener to notify about the processed pages and the processed document; null if
+   *        there is no such listener.
+   * @param metrics
+   *        The metrics to which the measurements of the executed pipes should be added; null if
+   *        no metrics should be recorded.
+   * @param options
+   *        The options of this execution; null to use the default options.
+   * 
+   * @return The PDF document after processing.
+   * 
+   * @throws PdfActException
+   *         If something went wrong on processing the PDF document.
+   */
+  Document execute(Document pdf, Set<PdfActCoreStage> stages, PipelineListener listener,
+      PipelineMetrics metrics, PdfActCoreOptions options) throws PdfActException;
+
+  /**
+   * Resumes the processing of the PDF document of the given snapshot like
+   * {@link #resume(Snapshot, Set, PipelineListener, PipelineMetrics)}, with the given options
+   * instead of the default options. The options apply to this execution only.
+   * 
+   * @param snapshot
+   *        The snapshot of the PDF document to process.
+   * @param stages
+   *        The stages to execute; the stages needed by the given stages are executed as well.
+   * @param listener
+   *        The listener to notify about the processed pages and the processed document; null if
+   *        there is no such listener.
+   * @param metrics
+   *        The metrics to which the measurements of the executed pipes should be added; null if
+   *        no metrics should be recorded.
+   * @param options
+   *        The options of this execution; null to use the default options.
+   * 
+   * @return The PDF document after processing.
+   * 
+   * @throws PdfActException
+   *         If something went wrong on processing the PDF document, or if the snapshot doesn't
+   *         contain the figures or shapes, while they were requested.
+   */
+  Document resume(Snapshot snapshot, Set<PdfActCoreStage> stages, PipelineListener listener,
+      PipelineMetrics metrics, PdfActCoreOptions options) throws PdfActException;
+
+  /**
+   * Releases the resources shared by the executions of this pipe. It should be called when all
+   * executions have finished, for example when a long-running service shuts down. The pipe can
+   * still be used afterwards; the resources are created again as needed.
+   */
+  @Override
+  void close();
 }
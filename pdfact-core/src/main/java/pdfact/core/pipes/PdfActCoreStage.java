@@ -0,0 +1,112 @@
+package pdfact.core.pipes;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * An enumeration of the optional stages of the core pipeline, in the order of their execution.
+ * The PDF document is always parsed for characters; all other stages can be skipped if their
+ * results are not needed.
+ *
+ * @author Claudius Korzen
+ */
+public enum PdfActCoreStage {
+  /**
+   * The stage that merges the diacritics, splits the ligatures, standardizes and filters the
+   * characters.
+   */
+  CHARACTERS(null),
+
+  /**
+   * The stage that extracts and filters the figures.
+   */
+  FIGURES(null),
+
+  /**
+   * The stage that extracts and filters the shapes.
+   */
+  SHAPES(null),
+
+  /**
+   * The stage that tokenizes the pages into text areas.
+   */
+  TEXT_AREAS(CHARACTERS),
+
+  /**
+   * The stage that tokenizes the text areas into text lines.
+   */
+  TEXT_LINES(TEXT_AREAS),
+
+  /**
+   * The stage that tokenizes the text lines into words.
+   */
+  WORDS(TEXT_LINES),
+
+  /**
+   * The stage that tokenizes the text lines into text blocks.
+   */
+  TEXT_BLOCKS(WORDS),
+
+  /**
+   * The stage that identifies the semantic roles of the text blocks.
+   */
+  SEMANTIC_ROLES(TEXT_BLOCKS),
+
+  /**
+   * The stage that tokenizes the text blocks into paragraphs.
+   */
+  PARAGRAPHS(SEMANTIC_ROLES),
+
+  /**
+   * The stage that dehyphenates the words of the paragraphs.
+   */
+  DEHYPHENATION(PARAGRAPHS);
+
+  // ==============================================================================================
+
+  /**
+   * The stage whose results are needed by this stage; null if there is no such stage.
+   */
+  protected PdfActCoreStage requiredStage;
+
+  /**
+   * Creates a new stage.
+   *
+   * @param requiredStage
+   *        The stage whose results are needed by this stage; null if there is no such stage.
+   */
+  PdfActCoreStage(PdfActCoreStage requiredStage) {
+    this.requiredStage = requiredStage;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the stage whose results are needed by this stage.
+   *
+   * @return The stage whose results are needed by this stage; null if there is no such stage.
+   */
+  public PdfActCoreStage getRequiredStage() {
+    return this.requiredStage;
+  }
+
+  /**
+   * Returns the given stages, together with all stages needed by them (transitively).
+   *
+   * @param stages
+   *        The stages.
+   *
+   * @return The given stages, together with all stages needed by them.
+   */
+  public static Set<PdfActCoreStage> withRequiredStages(Set<PdfActCoreStage> stages) {
+    Set<PdfActCoreStage> result = EnumSet.noneOf(PdfActCoreStage.class);
+    if (stages != null) {
+      for (PdfActCoreStage stage : stages) {
+        for (PdfActCoreStage s = stage; s != null && result.add(s); s = s.requiredStage) {
+          // Nothing to do, the stage was added to the result.
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -1,12 +1,28 @@
 package pdfact.core.pipes;
 
+import static pdfact.core.pipes.PdfActCoreStage.CHARACTERS;
+import static pdfact.core.pipes.PdfActCoreStage.DEHYPHENATION;
+import static pdfact.core.pipes.PdfActCoreStage.FIGURES;
+import static pdfact.core.pipes.PdfActCoreStage.PARAGRAPHS;
+import static pdfact.core.pipes.PdfActCoreStage.SEMANTIC_ROLES;
+import static pdfact.core.pipes.PdfActCoreStage.SHAPES;
+import static pdfact.core.pipes.PdfActCoreStage.TEXT_AREAS;
+import static pdfact.core.pipes.PdfActCoreStage.TEXT_BLOCKS;
+import static pdfact.core.pipes.PdfActCoreStage.TEXT_LINES;
+import static pdfact.core.pipes.PdfActCoreStage.WORDS;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Document;
+import pdfact.core.model.HiddenTextCategory;
 import pdfact.core.pipes.dehyphenate.PlainDehyphenateWordsPipe;
 import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
 import pdfact.core.pipes.filter.figures.PlainFilterFiguresPipe;
 import pdfact.core.pipes.filter.shapes.PlainFilterShapesPipe;
+import pdfact.core.pipes.normalize.PlainNormalizeCharactersPipe;
+import pdfact.core.pipes.parse.ParseDocumentPipe;
 import pdfact.core.pipes.parse.PlainParseDocumentPipe;
 import pdfact.core.pipes.semanticize.PlainDetectSemanticsPipe;
 import pdfact.core.pipes.tokenize.areas.XYCutTokenizeToTextAreasPipe;
@@ -19,12 +35,22 @@ import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
 import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
 import pdfact.core.pipes.validate.PlainValidatePdfPathPipe;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.exception.PdfActSnapshotException;
 import pdfact.core.util.pipeline.Pipeline;
+import pdfact.core.util.pipeline.PipelineListener;
+import pdfact.core.util.pipeline.PipelineMetrics;
 import pdfact.core.util.pipeline.PlainPipeline;
+import pdfact.core.util.snapshot.Snapshot;
 
 /**
  * A plain implementation of {@link PdfActCorePipe}.
  * 
+ * <p>
+ * An instance of this pipe can be reused to process any number of PDF documents, also
+ * concurrently from multiple threads. The per-document state is kept in the pipes created on
+ * each execution and the options are passed to each execution, while the pool used to process
+ * the pages in parallel is shared by all executions.
+ * 
  * @author Claudius Korzen
  */
 public class PlainPdfActCorePipe implements PdfActCorePipe {
@@ -33,10 +59,43 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
    */
   protected static Logger log = LogManager.getLogger(PlainPdfActCorePipe.class);
 
+  /**
+   * The number of threads of the pool to process the pages in parallel, which is the maximum
+   * number of pages processed in parallel by all executions of this pipe.
+   */
+  protected final int poolSize;
+
+  /**
+   * The pool to process the pages in parallel, shared by all executions of this pipe; null if it
+   * was not created yet or if it was shut down on closing this pipe.
+   */
+  protected ForkJoinPool pool;
+
   // ==============================================================================================
 
   /**
-   * Processes the given PDF document.
+   * Creates a new core pipe that processes as many pages in parallel as there are processors.
+   */
+  public PlainPdfActCorePipe() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a new core pipe that processes up to the given number of pages in parallel, over all
+   * of its executions. The parallelism given by the options of an execution limits the number of
+   * pages of the execution processed in parallel, but it does not change the size of the pool.
+   * 
+   * @param poolSize
+   *        The maximum number of pages to process in parallel by all executions of this pipe.
+   */
+  public PlainPdfActCorePipe(int poolSize) {
+    this.poolSize = poolSize;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Processes the given PDF document in all stages.
    * 
    * @param pdf
    *        The PDF document to process.
@@ -47,48 +106,183 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
    *         If something went wrong on processing the PDF document.
    */
   public Document execute(Document pdf) throws PdfActException {
+    return execute(pdf, EnumSet.allOf(PdfActCoreStage.class), null);
+  }
+
+  @Override
+  public Document execute(Document pdf, Set<PdfActCoreStage> stages, PipelineListener listener)
+      throws PdfActException {
+    return execute(pdf, stages, listener, null);
+  }
+
+  @Override
+  public Document execute(Document pdf, Set<PdfActCoreStage> stages, PipelineListener listener,
+      PipelineMetrics metrics) throws PdfActException {
+    return execute(pdf, stages, listener, metrics, null);
+  }
+
+  @Override
+  public Document execute(Document pdf, Set<PdfActCoreStage> stages, PipelineListener listener,
+      PipelineMetrics metrics, PdfActCoreOptions options) throws PdfActException {
+    return process(pdf, null, stages, listener, metrics, options);
+  }
+
+  @Override
+  public Document resume(Snapshot snapshot, Set<PdfActCoreStage> stages,
+      PipelineListener listener) throws PdfActException {
+    return resume(snapshot, stages, listener, null);
+  }
+
+  @Override
+  public Document resume(Snapshot snapshot, Set<PdfActCoreStage> stages,
+      PipelineListener listener, PipelineMetrics metrics) throws PdfActException {
+    return resume(snapshot, stages, listener, metrics, null);
+  }
+
+  @Override
+  public Document resume(Snapshot snapshot, Set<PdfActCoreStage> stages,
+      PipelineListener listener, PipelineMetrics metrics, PdfActCoreOptions options)
+      throws PdfActException {
+    if (snapshot == null || snapshot.getDocument() == null) {
+      throw new PdfActSnapshotException("No snapshot of a PDF document given.");
+    }
+
+    Set<PdfActCoreStage> executedStages = snapshot.getStages();
+    stages = PdfActCoreStage.withRequiredStages(stages);
+    // The figures and shapes are extracted on parsing the PDF document, which is not repeated.
+    for (PdfActCoreStage stage : EnumSet.of(FIGURES, SHAPES)) {
+      if (stages.contains(stage) && !executedStages.contains(stage)) {
+        throw new PdfActSnapshotException("The stage " + stage + " can't be resumed from a "
+            + "snapshot that was created without it.");
+      }
+    }
+    return process(snapshot.getDocument(), executedStages, stages, listener, metrics, options);
+  }
+
+  /**
+   * Processes the given PDF document in the given stages (and in the stages needed by them),
+   * skipping the stages that were already executed.
+   * 
+   * @param pdf
+   *        The PDF document to process.
+   * @param executedStages
+   *        The stages that were already executed; null if the PDF document wasn't even parsed.
+   * @param stages
+   *        The stages to execute.
+   * @param listener
+   *        The listener to notify about the processed pages and the processed document; null if
+   *        there is no such listener.
+   * @param metrics
+   *        The metrics to which the measurements of the executed pipes should be added; null if
+   *        no metrics should be recorded.
+   * @param options
+   *        The options of this execution; null to use the default options.
+   * 
+   * @return The PDF document after processing.
+   * 
+   * @throws PdfActException
+   *         If something went wrong on processing the PDF document.
+   */
+  protected Document process(Document pdf, Set<PdfActCoreStage> executedStages,
+      Set<PdfActCoreStage> stages, PipelineListener listener, PipelineMetrics metrics,
+      PdfActCoreOptions options) throws PdfActException {
     log.debug("Start of pipe: " + getClass().getSimpleName() + ".");
 
     log.debug("Process: Processing the core pipeline.");
 
+    if (options == null) {
+      options = PdfActCoreOptions.DEFAULT;
+    }
+
     // Fill the pipeline with the pipes to execute
-    Pipeline pipeline = new PlainPipeline();
-
-    // Validate the path to the PDF file.
-    pipeline.addPipe(new PlainValidatePdfPathPipe());
-    // Extract the characters, shapes and figures.
-    pipeline.addPipe(new PlainParseDocumentPipe());
-    // Merge the diacritics.
-    pipeline.addPipe(new PlainMergeDiacriticsPipe());
-    // Split the ligatures.
-    pipeline.addPipe(new PlainSplitLigaturesPipe());
-    // Standardize characters.
-    pipeline.addPipe(new PlainStandardizeCharactersPipe());
-    // Filter the characters.
-    pipeline.addPipe(new PlainFilterCharactersPipe());
-    // Filter the figures.
-    pipeline.addPipe(new PlainFilterFiguresPipe());
-    // Filter the shapes.
-    pipeline.addPipe(new PlainFilterShapesPipe());
-    // Tokenize the page into text areas.
-    pipeline.addPipe(new XYCutTokenizeToTextAreasPipe());
-    // Tokenize the text areas into text lines.
-    pipeline.addPipe(new PlainTokenizeToTextLinesPipe());
-    // Tokenize the text lines into words.
-    pipeline.addPipe(new XYCutTokenizeToWordsPipe());
-    // Tokenize the text lines into text blocks.
-    pipeline.addPipe(new PlainTokenizeToTextBlocksPipe());
-    // Identify the roles of the text blocks.
-    pipeline.addPipe(new PlainDetectSemanticsPipe());
-    // Tokenize the text blocks into paragraphs.
-    pipeline.addPipe(new PlainTokenizeToParagraphsPipe());
-    // Dehyphenate the words.
-    pipeline.addPipe(new PlainDehyphenateWordsPipe());
+    int parallelism = options.getParallelism();
+    ForkJoinPool pool = parallelism > 1 ? getPool() : null;
+    Pipeline pipeline = pool != null ? new PlainPipeline(pool, parallelism) : new PlainPipeline();
+    pipeline.setMetrics(metrics);
 
+    // Add the stages needed by the given stages.
+    stages = PdfActCoreStage.withRequiredStages(stages);
+
+    if (executedStages == null) {
+      // Validate the path to the PDF file.
+      pipeline.addPipe(new PlainValidatePdfPathPipe());
+      // Extract the characters and, if needed, the shapes and figures.
+      ParseDocumentPipe parsePipe = new PlainParseDocumentPipe();
+      parsePipe.setIsToExtractFigures(stages.contains(FIGURES));
+      parsePipe.setIsToExtractShapes(stages.contains(SHAPES));
+      parsePipe.setIsToClassifyImages(options.isToClassifyImages());
+      parsePipe.setParallelism(parallelism);
+      parsePipe.setPool(pool);
+      parsePipe.setMemoryUsageSetting(options.getMemoryUsageSetting());
+      parsePipe.setPageSelection(options.getPageSelection());
+      parsePipe.setIsToMergeShapesPerPaint(options.isToMergeShapesPerPaint());
+      parsePipe.setMaxNumShapesPerPage(options.getMaxNumShapesPerPage());
+      for (HiddenTextCategory category : HiddenTextCategory.values()) {
+        parsePipe.setHiddenTextPolicy(category, options.getHiddenTextPolicy(category));
+      }
+      parsePipe.setIsToRemoveDuplicateCharacters(options.isToRemoveDuplicateCharacters());
+      pipeline.addPipe(parsePipe);
+    } else {
+      // Don't execute the stages again.
+      stages.removeAll(executedStages);
+    }
+
+    if (stages.contains(CHARACTERS) && options.isToNormalizeCharactersInSinglePass()) {
+      // Merge the diacritics, split the ligatures, standardize and filter the characters.
+      pipeline.addPipe(new PlainNormalizeCharactersPipe());
+    } else if (stages.contains(CHARACTERS)) {
+      // Merge the diacritics.
+      pipeline.addPipe(new PlainMergeDiacriticsPipe());
+      // Split the ligatures.
+      pipeline.addPipe(new PlainSplitLigaturesPipe());
+      // Standardize characters.
+      pipeline.addPipe(new PlainStandardizeCharactersPipe());
+      // Filter the characters.
+      pipeline.addPipe(new PlainFilterCharactersPipe());
+    }
+    if (stages.contains(FIGURES)) {
+      // Filter the figures.
+      pipeline.addPipe(new PlainFilterFiguresPipe());
+    }
+    if (stages.contains(SHAPES)) {
+      // Filter the shapes.
+      pipeline.addPipe(new PlainFilterShapesPipe());
+    }
+    if (stages.contains(TEXT_AREAS)) {
+      // Tokenize the page into text areas.
+      pipeline.addPipe(new XYCutTokenizeToTextAreasPipe());
+    }
+    if (stages.contains(TEXT_LINES)) {
+      // Tokenize the text areas into text lines.
+      pipeline.addPipe(new PlainTokenizeToTextLinesPipe());
+    }
+    if (stages.contains(WORDS)) {
+      // Tokenize the text lines into words.
+      pipeline.addPipe(new XYCutTokenizeToWordsPipe());
+    }
+    if (stages.contains(TEXT_BLOCKS)) {
+      // Tokenize the text lines into text blocks.
+      pipeline.addPipe(new PlainTokenizeToTextBlocksPipe());
+    }
+    if (stages.contains(SEMANTIC_ROLES)) {
+      // Identify the roles of the text blocks.
+      pipeline.addPipe(new PlainDetectSemanticsPipe());
+    }
+    if (stages.contains(PARAGRAPHS)) {
+      // Tokenize the text blocks into paragraphs.
+      pipeline.addPipe(new PlainTokenizeToParagraphsPipe());
+    }
+    if (stages.contains(DEHYPHENATION)) {
+      // Dehyphenate the words.
+      pipeline.addPipe(new PlainDehyphenateWordsPipe());
+    }
+
+    log.debug("Stages to execute: " + stages);
     log.debug("# pipes in the pipeline: " + pipeline.size());
+    log.debug("# pages processed in parallel: " + pipeline.getParallelism());
 
     long start = System.currentTimeMillis();
-    pipeline.process(pdf);
+    pipeline.process(pdf, listener);
     long length = System.currentTimeMillis() - start;
 
     log.debug("Processing the core pipeline done.");
@@ -97,4 +291,30 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
     log.debug("End of pipe: " + getClass().getSimpleName() + ".");
     return pdf;
   }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the pool to process the pages in parallel and creates it if it does not exist yet.
+   * The pool is not replaced while it exists, as it may be used by running executions.
+   * 
+   * @return The pool to process the pages in parallel.
+   */
+  protected synchronized ForkJoinPool getPool() {
+    if (this.pool == null) {
+      this.pool = new ForkJoinPool(this.poolSize);
+    }
+    return this.pool;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public synchronized void close() {
+    if (this.pool != null) {
+      // Executions still using the pool can finish the tasks they have already submitted.
+      this.pool.shutdown();
+      this.pool = null;
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package pdfact.core.pipes.filter.figures;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Document;
@@ -8,13 +9,14 @@ import pdfact.core.model.Figure;
 import pdfact.core.model.Page;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.pipeline.PagePipe;
 
 /**
  * A plain implementation of {@link FilterFiguresPipe}.
  * 
  * @author Claudius Korzen
  */
-public class PlainFilterFiguresPipe implements FilterFiguresPipe {
+public class PlainFilterFiguresPipe implements FilterFiguresPipe, PagePipe {
   /**
    * The logger.
    */
@@ -23,12 +25,12 @@ public class PlainFilterFiguresPipe implements FilterFiguresPipe {
   /**
    * The number of processed figures.
    */
-  protected int numProcessedFigures;
+  protected AtomicInteger numProcessedFigures = new AtomicInteger();
 
   /**
    * The number of filtered figures.
    */
-  protected int numFilteredFigures;
+  protected AtomicInteger numFilteredFigures = new AtomicInteger();
 
   // ==============================================================================================
 
@@ -39,6 +41,16 @@ public class PlainFilterFiguresPipe implements FilterFiguresPipe {
     log.debug("Process: Filtering figures.");
     filterFigures(pdf);
 
+    return executeAfterPages(pdf);
+  }
+
+  @Override
+  public void execute(Document pdf, Page page) throws PdfActException {
+    filterFigures(page);
+  }
+
+  @Override
+  public Document executeAfterPages(Document pdf) throws PdfActException {
     log.debug("Filtering figures done.");
     log.debug("# processed figures: " + this.numProcessedFigures);
     log.debug("# filtered figures : " + this.numFilteredFigures);
@@ -59,22 +71,33 @@ public class PlainFilterFiguresPipe implements FilterFiguresPipe {
     if (pdf != null) {
       List<Page> pages = pdf.getPages();
       for (Page page : pages) {
-        ElementList<Figure> before = page.getFigures();
-        // Create a new list of figures which should not be filtered.
-        ElementList<Figure> after = new ElementList<>(before.size());
-        for (Figure figure : before) {
-          this.numProcessedFigures++;
-
-          if (isFilterFigure(figure)) {
-            this.numFilteredFigures++;
-            continue;
-          }
-
-          after.add(figure);
-        }
-        page.setFigures(after);
+        filterFigures(page);
+      }
+    }
+  }
+
+  /**
+   * Filters those figures of the given page that should not be considered.
+   * 
+   * @param page
+   *        The page to process.
+   */
+  protected void filterFigures(Page page) {
+    ElementList<Figure> before = page.getFigures();
+    // Create a new list of figures which should not be filtered.
+    ElementList<Figure> after = new ElementList<>(before.size());
+    int numFilteredFigures = 0;
+    for (Figure figure : before) {
+      if (isFilterFigure(figure)) {
+        numFilteredFigures++;
+        continue;
       }
+
+      after.add(figure);
     }
+    page.setFigures(after);
+    this.numProcessedFigures.addAndGet(before.size());
+    this.numFilteredFigures.addAndGet(numFilteredFigures);
   }
 
   /**
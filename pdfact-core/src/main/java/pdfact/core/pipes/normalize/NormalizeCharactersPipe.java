@@ -0,0 +1,13 @@
+package pdfact.core.pipes.normalize;
+
+import pdfact.core.util.pipeline.Pipe;
+
+/**
+ * A pipe that merges the diacritics, splits the ligatures, standardizes and filters the
+ * characters of a PDF document in a single pass over the characters of each page.
+ *
+ * @author Claudius Korzen
+ */
+public interface NormalizeCharactersPipe extends Pipe {
+
+}
@@ -0,0 +1,183 @@
+package pdfact.core.pipes.normalize;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
+import pdfact.core.pipes.translate.characters.PlainStandardizeCharactersPipe;
+import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
+import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.pipeline.PagePipe;
+
+/**
+ * A plain implementation of {@link NormalizeCharactersPipe}.
+ *
+ * <p>
+ * The result is the same as executing {@link PlainMergeDiacriticsPipe},
+ * {@link PlainSplitLigaturesPipe}, {@link PlainStandardizeCharactersPipe} and
+ * {@link PlainFilterCharactersPipe} one after another (the handling of the single characters is
+ * delegated to them), but the characters of a page are traversed only once and the list of
+ * characters of the page is compacted in place instead of creating new lists.
+ *
+ * <p>
+ * A character can only be modified by a diacritic directly following it. So the ligatures of a
+ * character are split, and the character is standardized and filtered, one step later, after the
+ * next character was checked for being a diacritic.
+ *
+ * @author Claudius Korzen
+ */
+public class PlainNormalizeCharactersPipe implements NormalizeCharactersPipe, PagePipe {
+  /**
+   * The logger.
+   */
+  protected final Logger log = LogManager.getLogger("char-extraction");
+
+  /**
+   * The pipe to which merging the diacritics is delegated.
+   */
+  protected PlainMergeDiacriticsPipe diacriticsMerger = new PlainMergeDiacriticsPipe();
+
+  /**
+   * The pipe to which splitting the ligatures is delegated.
+   */
+  protected PlainSplitLigaturesPipe ligaturesSplitter = new PlainSplitLigaturesPipe();
+
+  /**
+   * The pipe to which standardizing the characters is delegated.
+   */
+  protected PlainStandardizeCharactersPipe standardizer = new PlainStandardizeCharactersPipe();
+
+  /**
+   * The number of processed characters.
+   */
+  protected AtomicInteger numProcessedCharacters = new AtomicInteger();
+
+  /**
+   * The number of merged diacritics.
+   */
+  protected AtomicInteger numMergedDiacritics = new AtomicInteger();
+
+  /**
+   * The number of filtered characters.
+   */
+  protected AtomicInteger numFilteredCharacters = new AtomicInteger();
+
+  // ==============================================================================================
+
+  @Override
+  public Document execute(Document pdf) throws PdfActException {
+    normalizeCharacters(pdf);
+    return executeAfterPages(pdf);
+  }
+
+  @Override
+  public void execute(Document pdf, Page page) throws PdfActException {
+    normalizeCharacters(page);
+  }
+
+  @Override
+  public Document executeAfterPages(Document pdf) throws PdfActException {
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Normalizes the characters of the given PDF document.
+   *
+   * @param pdf The PDF document to process.
+   */
+  protected void normalizeCharacters(Document pdf) {
+    if (pdf != null) {
+      List<Page> pages = pdf.getPages();
+      if (pages != null) {
+        for (Page page : pages) {
+          normalizeCharacters(page);
+        }
+      }
+    }
+  }
+
+  /**
+   * Normalizes the characters of the given page.
+   *
+   * @param page The page to process.
+   */
+  protected void normalizeCharacters(Page page) {
+    ElementList<Character> characters = page.getCharacters();
+    if (characters == null) {
+      return;
+    }
+
+    int numCharacters = characters.size();
+    // The number of the characters kept so far, which are moved to the front of the list. Only
+    // positions before the current character are overwritten, so the predecessor and the
+    // successor of the current character are still at their original positions.
+    int numKept = 0;
+    // The index of the last character that isn't a diacritic and wasn't finished yet; -1 if
+    // there is no such character.
+    int pendingIndex = -1;
+    int numMergedDiacritics = 0;
+    int numFilteredCharacters = 0;
+    for (int i = 0; i < numCharacters; i++) {
+      Character prev = i > 0 ? characters.get(i - 1) : null;
+      Character character = characters.get(i);
+      Character next = i < numCharacters - 1 ? characters.get(i + 1) : null;
+
+      boolean isDiacritic = PlainMergeDiacriticsPipe.isDiacritic(character);
+      if (isDiacritic) {
+        this.diacriticsMerger.mergeDiacritic(prev, character, next);
+        numMergedDiacritics++;
+      }
+
+      // The pending character can't be modified by any diacritic anymore.
+      if (pendingIndex >= 0) {
+        Character pending = characters.get(pendingIndex);
+        if (finishCharacter(pending)) {
+          characters.set(numKept++, pending);
+        } else {
+          numFilteredCharacters++;
+        }
+      }
+      pendingIndex = isDiacritic ? -1 : i;
+    }
+
+    if (pendingIndex >= 0) {
+      Character pending = characters.get(pendingIndex);
+      if (finishCharacter(pending)) {
+        characters.set(numKept++, pending);
+      } else {
+        numFilteredCharacters++;
+      }
+    }
+
+    // Remove the characters that were not kept from the end of the list.
+    for (int i = characters.size() - 1; i >= numKept; i--) {
+      characters.remove(i);
+    }
+
+    this.numProcessedCharacters.addAndGet(numCharacters);
+    this.numMergedDiacritics.addAndGet(numMergedDiacritics);
+    this.numFilteredCharacters.addAndGet(numFilteredCharacters);
+  }
+
+  /**
+   * Splits the given character if it is a ligature, standardizes it and checks if it should be
+   * kept.
+   *
+   * @param character The character to process.
+   *
+   * @return True if the character should be kept; false if it should be filtered out.
+   */
+  protected boolean finishCharacter(Character character) {
+    this.ligaturesSplitter.splitLigature(character);
+    this.standardizer.standardizeCharacter(character);
+    return !PlainFilterCharactersPipe.isFilterCharacter(character);
+  }
+}
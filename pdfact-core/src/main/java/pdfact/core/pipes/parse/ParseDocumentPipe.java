@@ -1,6 +1,11 @@
 package pdfact.core.pipes.parse;
 
-import pdfact.core.util.pipeline.Pipe;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
+import pdfact.core.model.PageSelection;
+import pdfact.core.util.pipeline.MeasuredPipe;
 
 /**
  * A pipe that parses a document for layout information and structural information, for example:
@@ -8,6 +13,192 @@ import pdfact.core.util.pipeline.Pipe;
  * 
  * @author Claudius Korzen
  */
-public interface ParseDocumentPipe extends Pipe {
-  
+public interface ParseDocumentPipe extends MeasuredPipe {
+  /**
+   * Returns true if the figures should be extracted, false otherwise.
+   * 
+   * @return True if the figures should be extracted, false otherwise.
+   */
+  boolean isToExtractFigures();
+
+  /**
+   * Sets whether or not the figures should be extracted.
+   * 
+   * @param isToExtractFigures
+   *        True if the figures should be extracted, false otherwise.
+   */
+  void setIsToExtractFigures(boolean isToExtractFigures);
+
+  /**
+   * Returns true if the shapes should be extracted, false otherwise.
+   * 
+   * @return True if the shapes should be extracted, false otherwise.
+   */
+  boolean isToExtractShapes();
+
+  /**
+   * Sets whether or not the shapes should be extracted.
+   * 
+   * @param isToExtractShapes
+   *        True if the shapes should be extracted, false otherwise.
+   */
+  void setIsToExtractShapes(boolean isToExtractShapes);
+
+  /**
+   * Returns true if the images should be classified into shapes (images with a single color) and
+   * figures, false if all images should be considered as figures.
+   * 
+   * @return True if the images should be classified, false otherwise.
+   */
+  boolean isToClassifyImages();
+
+  /**
+   * Sets whether or not the images should be classified into shapes (images with a single color)
+   * and figures. Classifying an image may require to decode the image, so it is faster to
+   * consider all images as figures.
+   * 
+   * @param isToClassifyImages
+   *        True if the images should be classified, false if all images should be considered as
+   *        figures.
+   */
+  void setIsToClassifyImages(boolean isToClassifyImages);
+
+  /**
+   * Returns the maximum number of pages to parse in parallel.
+   * 
+   * @return The maximum number of pages to parse in parallel.
+   */
+  int getParallelism();
+
+  /**
+   * Sets the maximum number of pages to parse in parallel. The parsed document does not depend
+   * on the parallelism.
+   * 
+   * @param parallelism
+   *        The maximum number of pages to parse in parallel.
+   */
+  void setParallelism(int parallelism);
+
+  /**
+   * Returns the pool to parse the pages in parallel.
+   * 
+   * @return The pool to parse the pages in parallel; null if a pool is created per document.
+   */
+  ForkJoinPool getPool();
+
+  /**
+   * Sets the pool to parse the pages in parallel, for example a pool shared by the executions of
+   * a core pipe. The pool is not shut down after parsing.
+   * 
+   * @param pool
+   *        The pool to parse the pages in parallel; null to create a pool per document.
+   */
+  void setPool(ForkJoinPool pool);
+
+  /**
+   * Returns the setting that defines where PDFBox keeps its scratch data while parsing.
+   * 
+   * @return The memory usage setting; null if all scratch data is kept in main memory.
+   */
+  MemoryUsageSetting getMemoryUsageSetting();
+
+  /**
+   * Sets the setting that defines where PDFBox keeps its scratch data while parsing (for example,
+   * the decoded streams or the content of a PDF file given by a stream).
+   * 
+   * @param setting
+   *        The memory usage setting; null to keep all scratch data in main memory.
+   */
+  void setMemoryUsageSetting(MemoryUsageSetting setting);
+
+  /**
+   * Returns the selection of the pages to parse.
+   * 
+   * @return The page selection; null if all pages are parsed.
+   */
+  PageSelection getPageSelection();
+
+  /**
+   * Sets the selection of the pages to parse. The other pages are not added to the document and
+   * their content streams are never decoded.
+   * 
+   * @param pageSelection
+   *        The page selection; null to parse all pages.
+   */
+  void setPageSelection(PageSelection pageSelection);
+
+  /**
+   * Returns true if the shapes resulting from a single paint operation should be merged into a
+   * single shape.
+   * 
+   * @return True if the shapes of a paint operation should be merged, false otherwise.
+   */
+  boolean isToMergeShapesPerPaint();
+
+  /**
+   * Sets the boolean flag indicating whether the shapes resulting from a single paint operation
+   * should be merged into a single shape (the bounding box of the painted path), instead of
+   * extracting a shape per path segment.
+   * 
+   * @param isToMergeShapesPerPaint
+   *        True if the shapes of a paint operation should be merged, false otherwise.
+   */
+  void setIsToMergeShapesPerPaint(boolean isToMergeShapesPerPaint);
+
+  /**
+   * Returns the maximum number of shapes per page.
+   * 
+   * @return The maximum number of shapes per page; 0 if the number of shapes is not limited.
+   */
+  int getMaxNumShapesPerPage();
+
+  /**
+   * Sets the maximum number of shapes per page. If a page contains more shapes, neighboring
+   * shapes with the same color are merged until the page contains at most the given number of
+   * shapes.
+   * 
+   * @param maxNumShapesPerPage
+   *        The maximum number of shapes per page; 0 if the number of shapes should not be limited.
+   */
+  void setMaxNumShapesPerPage(int maxNumShapesPerPage);
+
+  /**
+   * Returns the policy how to deal with hidden characters of the given category.
+   * 
+   * @param category
+   *        The category of hidden characters.
+   * 
+   * @return The policy.
+   */
+  HiddenTextPolicy getHiddenTextPolicy(HiddenTextCategory category);
+
+  /**
+   * Sets the policy how to deal with hidden characters of the given category (for example,
+   * invisible characters on scanned pages with a text layer added by OCR). By default, all
+   * characters are kept.
+   * 
+   * @param category
+   *        The category of hidden characters.
+   * @param policy
+   *        The policy; null to keep the characters.
+   */
+  void setHiddenTextPolicy(HiddenTextCategory category, HiddenTextPolicy policy);
+
+  /**
+   * Returns true if characters drawn multiple times at nearly the same position should be
+   * removed.
+   * 
+   * @return True if duplicate characters should be removed, false otherwise.
+   */
+  boolean isToRemoveDuplicateCharacters();
+
+  /**
+   * Sets the boolean flag indicating whether characters drawn multiple times at nearly the same
+   * position (for example, by producers that simulate bold text or draw shadows) should be
+   * removed on extraction, such that only the first drawn copy is kept.
+   * 
+   * @param isToRemove
+   *        True if duplicate characters should be removed, false otherwise.
+   */
+  void setIsToRemoveDuplicateCharacters(boolean isToRemove);
 }
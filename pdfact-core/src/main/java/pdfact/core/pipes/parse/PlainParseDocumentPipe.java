@@ -1,8 +1,16 @@
 package pdfact.core.pipes.parse;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import pdfact.core.model.Document;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
+import pdfact.core.model.PageSelection;
 import pdfact.core.pipes.parse.stream.pdfbox.PdfBoxPdfStreamsParser;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.pipeline.StageMetrics;
 
 /**
  * A plain implementation of {@link ParseDocumentPipe}.
@@ -10,6 +18,72 @@ import pdfact.core.util.exception.PdfActException;
  * @author Claudius Korzen
  */
 public class PlainParseDocumentPipe implements ParseDocumentPipe {
+  /**
+   * The boolean flag indicating whether or not the figures should be extracted.
+   */
+  protected boolean isToExtractFigures = true;
+
+  /**
+   * The boolean flag indicating whether or not the shapes should be extracted.
+   */
+  protected boolean isToExtractShapes = true;
+
+  /**
+   * The boolean flag indicating whether or not the images should be classified into shapes and
+   * figures.
+   */
+  protected boolean isToClassifyImages = true;
+
+  /**
+   * The maximum number of pages to parse in parallel.
+   */
+  protected int parallelism = 1;
+
+  /**
+   * The pool to parse the pages in parallel; null if a pool is created per document.
+   */
+  protected ForkJoinPool pool;
+
+  /**
+   * The setting that defines where PDFBox keeps its scratch data while parsing; null if all
+   * scratch data is kept in main memory.
+   */
+  protected MemoryUsageSetting memoryUsageSetting;
+
+  /**
+   * The selection of the pages to parse; null if all pages should be parsed.
+   */
+  protected PageSelection pageSelection;
+
+  /**
+   * The boolean flag indicating whether the shapes resulting from a single paint operation should
+   * be merged into a single shape.
+   */
+  protected boolean isToMergeShapesPerPaint;
+
+  /**
+   * The maximum number of shapes per page; 0 if the number of shapes is not limited.
+   */
+  protected int maxNumShapesPerPage;
+
+  /**
+   * The policies how to deal with hidden characters, per category.
+   */
+  protected Map<HiddenTextCategory, HiddenTextPolicy> hiddenTextPolicies =
+      new EnumMap<>(HiddenTextCategory.class);
+
+  /**
+   * The boolean flag indicating whether duplicate characters should be removed.
+   */
+  protected boolean isToRemoveDuplicateCharacters;
+
+  /**
+   * The metrics of the stage of this pipe; null if no metrics are recorded.
+   */
+  protected StageMetrics stage;
+
+  // ==============================================================================================
+
   @Override
   public Document execute(Document doc) throws PdfActException {
     parseDocument(doc);
@@ -26,6 +100,138 @@ public class PlainParseDocumentPipe implements ParseDocumentPipe {
    *         If something went wrong while parsing the document.
    */
   protected void parseDocument(Document doc) throws PdfActException {
-    new PdfBoxPdfStreamsParser().parse(doc);
+    PdfBoxPdfStreamsParser parser = new PdfBoxPdfStreamsParser(this.isToExtractFigures,
+        this.isToExtractShapes, this.isToClassifyImages);
+    parser.setParallelism(this.parallelism);
+    parser.setPool(this.pool);
+    parser.setStageMetrics(this.stage);
+    parser.setMemoryUsageSetting(this.memoryUsageSetting);
+    parser.setPageSelection(this.pageSelection);
+    parser.setIsToMergeShapesPerPaint(this.isToMergeShapesPerPaint);
+    parser.setMaxNumShapesPerPage(this.maxNumShapesPerPage);
+    for (HiddenTextCategory category : HiddenTextCategory.values()) {
+      parser.setHiddenTextPolicy(category, getHiddenTextPolicy(category));
+    }
+    parser.setIsToRemoveDuplicateCharacters(this.isToRemoveDuplicateCharacters);
+    parser.parse(doc);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean isToExtractFigures() {
+    return this.isToExtractFigures;
+  }
+
+  @Override
+  public void setIsToExtractFigures(boolean isToExtractFigures) {
+    this.isToExtractFigures = isToExtractFigures;
+  }
+
+  @Override
+  public boolean isToExtractShapes() {
+    return this.isToExtractShapes;
+  }
+
+  @Override
+  public void setIsToExtractShapes(boolean isToExtractShapes) {
+    this.isToExtractShapes = isToExtractShapes;
+  }
+
+  @Override
+  public boolean isToClassifyImages() {
+    return this.isToClassifyImages;
+  }
+
+  @Override
+  public void setIsToClassifyImages(boolean isToClassifyImages) {
+    this.isToClassifyImages = isToClassifyImages;
+  }
+
+  @Override
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  @Override
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  @Override
+  public ForkJoinPool getPool() {
+    return this.pool;
+  }
+
+  @Override
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  @Override
+  public MemoryUsageSetting getMemoryUsageSetting() {
+    return this.memoryUsageSetting;
+  }
+
+  @Override
+  public void setMemoryUsageSetting(MemoryUsageSetting setting) {
+    this.memoryUsageSetting = setting;
+  }
+
+  @Override
+  public PageSelection getPageSelection() {
+    return this.pageSelection;
+  }
+
+  @Override
+  public void setPageSelection(PageSelection pageSelection) {
+    this.pageSelection = pageSelection;
+  }
+
+  @Override
+  public boolean isToMergeShapesPerPaint() {
+    return this.isToMergeShapesPerPaint;
+  }
+
+  @Override
+  public void setIsToMergeShapesPerPaint(boolean isToMergeShapesPerPaint) {
+    this.isToMergeShapesPerPaint = isToMergeShapesPerPaint;
+  }
+
+  @Override
+  public int getMaxNumShapesPerPage() {
+    return this.maxNumShapesPerPage;
+  }
+
+  @Override
+  public void setMaxNumShapesPerPage(int maxNumShapesPerPage) {
+    this.maxNumShapesPerPage = maxNumShapesPerPage;
+  }
+
+  @Override
+  public HiddenTextPolicy getHiddenTextPolicy(HiddenTextCategory category) {
+    return this.hiddenTextPolicies.getOrDefault(category, HiddenTextPolicy.KEEP);
+  }
+
+  @Override
+  public void setHiddenTextPolicy(HiddenTextCategory category, HiddenTextPolicy policy) {
+    this.hiddenTextPolicies.put(category, policy != null ? policy : HiddenTextPolicy.KEEP);
+  }
+
+  @Override
+  public boolean isToRemoveDuplicateCharacters() {
+    return this.isToRemoveDuplicateCharacters;
+  }
+
+  @Override
+  public void setIsToRemoveDuplicateCharacters(boolean isToRemove) {
+    this.isToRemoveDuplicateCharacters = isToRemove;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public void setStageMetrics(StageMetrics stage) {
+    this.stage = stage;
   }
 }
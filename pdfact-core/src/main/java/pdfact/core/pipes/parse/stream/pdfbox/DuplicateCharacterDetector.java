@@ -0,0 +1,161 @@
+package pdfact.core.pipes.parse.stream.pdfbox;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import pdfact.core.model.Character;
+import pdfact.core.model.Rectangle;
+
+/**
+ * A detector of characters that are drawn multiple times at (nearly) the same position, for
+ * example by producers that simulate bold text by drawing the same glyph two or three times with
+ * tiny offsets, or that draw a shadow below a text. Two characters are duplicates if they have
+ * the same text and the same font face, and the coordinates of their bounding boxes differ by at
+ * most a small tolerance.
+ *
+ * <p>
+ * The characters of a page are hashed by the grid cell of the lower left point of their bounding
+ * boxes, with cells as large as the maximum tolerance. So checking a character requires to look
+ * up only the cell of the character and the neighboring cells, regardless of the number of
+ * characters on the page.
+ *
+ * @author Claudius Korzen
+ */
+public class DuplicateCharacterDetector {
+  /**
+   * The maximum tolerance (in pt) of the coordinates of duplicates, which is also the size of
+   * the grid cells.
+   */
+  protected static final float MAX_TOLERANCE = 1f;
+
+  /**
+   * The tolerance of the coordinates of duplicates, relative to the font size. Ensures that
+   * repeated glyphs of very small fonts (like "ii") are not considered as duplicates.
+   */
+  protected static final float RELATIVE_TOLERANCE = 0.1f;
+
+  /**
+   * The characters of the current page per grid cell.
+   */
+  protected TLongObjectMap<List<Character>> characters;
+
+  /**
+   * The number of the duplicates detected on the current page.
+   */
+  protected int numDuplicates;
+
+  /**
+   * Creates a new detector.
+   */
+  public DuplicateCharacterDetector() {
+    this.characters = new TLongObjectHashMap<>();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Starts a new page, such that the characters of the previous page are forgotten.
+   */
+  public void startPage() {
+    this.characters.clear();
+    this.numDuplicates = 0;
+  }
+
+  /**
+   * Checks if the given character is a duplicate of a character of the current page checked
+   * before. If not, the character is registered, such that later duplicates of it are detected.
+   *
+   * @param character The character to check.
+   *
+   * @return True if the given character is a duplicate; false otherwise.
+   */
+  public boolean isDuplicate(Character character) {
+    Rectangle rect = character.getPosition().getRectangle();
+    long cellX = getCell(rect.getMinX());
+    long cellY = getCell(rect.getMinY());
+    float tolerance = Math.min(MAX_TOLERANCE,
+        RELATIVE_TOLERANCE * character.getFontFace().getFontSize());
+
+    for (long x = cellX - 1; x <= cellX + 1; x++) {
+      for (long y = cellY - 1; y <= cellY + 1; y++) {
+        List<Character> candidates = this.characters.get(getKey(x, y));
+        if (candidates == null) {
+          continue;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+          if (isDuplicate(character, candidates.get(i), tolerance)) {
+            this.numDuplicates++;
+            return true;
+          }
+        }
+      }
+    }
+
+    long key = getKey(cellX, cellY);
+    List<Character> cellCharacters = this.characters.get(key);
+    if (cellCharacters == null) {
+      cellCharacters = new ArrayList<>(1);
+      this.characters.put(key, cellCharacters);
+    }
+    cellCharacters.add(character);
+    return false;
+  }
+
+  /**
+   * Returns the number of the duplicates detected on the current page.
+   *
+   * @return The number of the duplicates.
+   */
+  public int getNumDuplicates() {
+    return this.numDuplicates;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Checks if the given characters are duplicates.
+   *
+   * @param c1        The first character.
+   * @param c2        The second character.
+   * @param tolerance The tolerance of the coordinates.
+   *
+   * @return True if the characters are duplicates; false otherwise.
+   */
+  protected static boolean isDuplicate(Character c1, Character c2, float tolerance) {
+    if (!Objects.equals(c1.getText(), c2.getText())
+        || !Objects.equals(c1.getFontFace(), c2.getFontFace())) {
+      return false;
+    }
+    Rectangle r1 = c1.getPosition().getRectangle();
+    Rectangle r2 = c2.getPosition().getRectangle();
+    return Math.abs(r1.getMinX() - r2.getMinX()) <= tolerance
+        && Math.abs(r1.getMinY() - r2.getMinY()) <= tolerance
+        && Math.abs(r1.getMaxX() - r2.getMaxX()) <= tolerance
+        && Math.abs(r1.getMaxY() - r2.getMaxY()) <= tolerance;
+  }
+
+  /**
+   * Returns the index of the grid cell that contains the given coordinate.
+   *
+   * @param coordinate The coordinate.
+   *
+   * @return The index of the grid cell.
+   */
+  protected static long getCell(float coordinate) {
+    return (long) Math.floor(coordinate / MAX_TOLERANCE);
+  }
+
+  /**
+   * Returns the key of the grid cell with the given indexes.
+   *
+   * @param cellX The index of the cell in x-direction.
+   * @param cellY The index of the cell in y-direction.
+   *
+   * @return The key of the grid cell.
+   */
+  protected static long getKey(long cellX, long cellY) {
+    return (cellX << 32) ^ (cellY & 0xffffffffL);
+  }
+}
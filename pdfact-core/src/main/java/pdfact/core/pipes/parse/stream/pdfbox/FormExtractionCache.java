@@ -0,0 +1,425 @@
+package pdfact.core.pipes.parse.stream.pdfbox;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColor;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.state.PDGraphicsState;
+import org.apache.pdfbox.pdmodel.graphics.state.PDTextState;
+import org.apache.pdfbox.util.Matrix;
+import pdfact.core.model.Color;
+import pdfact.core.model.Element;
+import pdfact.core.model.Font;
+
+/**
+ * A cache of the elements extracted from form XObjects, such that a form that is painted again
+ * (for example, a logo or a page header painted on each page) doesn't need to be interpreted
+ * again, but its elements can be replayed.
+ *
+ * <p>
+ * The elements extracted from a form do not only depend on the form, but also on the graphics
+ * state the form inherits (the transformation matrix, the text state, the colors and, if hidden
+ * characters are checked, the clipping path). So the extractions are cached per form and
+ * inherited state, and a form is replayed only if it is painted with the same state as on its
+ * interpretation. The only exception is the translation of the transformation matrix: unless
+ * hidden characters are checked (which depends on the absolute positions of the characters), a
+ * form painted at another position (for example, a logo placed differently on odd and even
+ * pages) is replayed as well, by translating the cached elements by the difference of the
+ * translations. Forms painted with another scaling, shearing or rotation are interpreted again,
+ * because their elements (like the bounding boxes of rotated glyphs) can't be derived exactly
+ * from the cached elements.
+ *
+ * @author Claudius Korzen
+ */
+public class FormExtractionCache {
+  /**
+   * The cached extractions per form and inherited state.
+   */
+  protected Map<Key, Extraction> extractions;
+
+  /**
+   * Creates a new, empty cache.
+   */
+  public FormExtractionCache() {
+    this.extractions = new HashMap<>();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the cached extraction of the form with the given key.
+   *
+   * @param key The key of the form, see {@link #createKey}.
+   *
+   * @return The cached extraction; null if there is no such extraction.
+   */
+  public Extraction get(Key key) {
+    return this.extractions.get(key);
+  }
+
+  /**
+   * Caches the given extraction of the form with the given key.
+   *
+   * @param key        The key of the form, see {@link #createKey}.
+   * @param extraction The extraction to cache.
+   */
+  public void put(Key key, Extraction extraction) {
+    this.extractions.put(key, extraction);
+  }
+
+  /**
+   * Creates the key of the given form, painted with the given state.
+   *
+   * @param form           The form.
+   * @param state          The graphics state inherited by the form.
+   * @param textMatrix     The current text matrix; null if there is no such matrix.
+   * @param textLineMatrix The current text line matrix; null if there is no such matrix.
+   * @param cropBox        The crop box of the page, if the extracted elements depend on the crop
+   *                       box and the clipping path (because hidden characters are checked);
+   *                       null otherwise.
+   *
+   * @return The key of the form.
+   */
+  public static Key createKey(PDFormXObject form, PDGraphicsState state, Matrix textMatrix,
+      Matrix textLineMatrix, PDRectangle cropBox) {
+    return new Key(form, state, textMatrix, textLineMatrix, cropBox);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The key of a form painted with a specific inherited state. The PDF objects (the form, the
+   * font and the color spaces) are compared by the identity of their COS objects, which are
+   * shared by all pages, while the wrapping PD objects may differ per page.
+   */
+  public static class Key {
+    /**
+     * The COS object of the form.
+     */
+    protected COSBase form;
+
+    /**
+     * The values of the current transformation matrix, without the translation if the extracted
+     * elements do not depend on their absolute positions.
+     */
+    protected float[] ctm;
+
+    /**
+     * The horizontal translation of the current transformation matrix.
+     */
+    protected float translateX;
+
+    /**
+     * The vertical translation of the current transformation matrix.
+     */
+    protected float translateY;
+
+    /**
+     * The values of the text matrix; null if there is no text matrix.
+     */
+    protected float[] textMatrix;
+
+    /**
+     * The values of the text line matrix; null if there is no text line matrix.
+     */
+    protected float[] textLineMatrix;
+
+    /**
+     * The COS object of the font; null if there is no font.
+     */
+    protected COSBase font;
+
+    /**
+     * The numeric parameters of the text state.
+     */
+    protected float[] textState;
+
+    /**
+     * The text rendering mode.
+     */
+    protected Object renderingMode;
+
+    /**
+     * The components of the stroking and the non-stroking color.
+     */
+    protected float[][] colorComponents;
+
+    /**
+     * The pattern names of the stroking and the non-stroking color.
+     */
+    protected COSBase[] colorPatterns;
+
+    /**
+     * The COS objects of the stroking and the non-stroking color spaces.
+     */
+    protected COSBase[] colorSpaces;
+
+    /**
+     * The bounds of the crop box and of the clipping path; null if the extracted elements do not
+     * depend on them.
+     */
+    protected double[] bounds;
+
+    /**
+     * The hash code of this key.
+     */
+    protected int hashCode;
+
+    /**
+     * Creates the key of the given form, painted with the given state.
+     *
+     * @param form           The form.
+     * @param state          The graphics state inherited by the form.
+     * @param textMatrix     The current text matrix; null if there is no such matrix.
+     * @param textLineMatrix The current text line matrix; null if there is no such matrix.
+     * @param cropBox        The crop box of the page, if the extracted elements depend on the
+     *                       crop box and the clipping path; null otherwise.
+     */
+    protected Key(PDFormXObject form, PDGraphicsState state, Matrix textMatrix,
+        Matrix textLineMatrix, PDRectangle cropBox) {
+      this.form = form.getCOSObject();
+      Matrix ctm = state.getCurrentTransformationMatrix();
+      this.translateX = ctm.getTranslateX();
+      this.translateY = ctm.getTranslateY();
+      if (cropBox != null) {
+        this.ctm = getValues(ctm);
+      } else {
+        // The elements can be translated on replaying.
+        this.ctm = new float[] { ctm.getScaleX(), ctm.getShearY(), ctm.getShearX(),
+            ctm.getScaleY() };
+      }
+      this.textMatrix = getValues(textMatrix);
+      this.textLineMatrix = getValues(textLineMatrix);
+
+      PDTextState ts = state.getTextState();
+      PDFont font = ts.getFont();
+      this.font = font != null ? font.getCOSObject() : null;
+      this.textState = new float[] { ts.getFontSize(), ts.getCharacterSpacing(),
+          ts.getWordSpacing(), ts.getHorizontalScaling(), ts.getLeading(), ts.getRise(),
+          ts.getKnockoutFlag() ? 1 : 0 };
+      this.renderingMode = ts.getRenderingMode();
+
+      PDColor[] colors = { state.getStrokingColor(), state.getNonStrokingColor() };
+      PDColorSpace[] spaces = { state.getStrokingColorSpace(), state.getNonStrokingColorSpace() };
+      this.colorComponents = new float[2][];
+      this.colorPatterns = new COSBase[2];
+      this.colorSpaces = new COSBase[2];
+      for (int i = 0; i < 2; i++) {
+        this.colorComponents[i] = colors[i] != null ? colors[i].getComponents() : null;
+        this.colorPatterns[i] = colors[i] != null ? colors[i].getPatternName() : null;
+        this.colorSpaces[i] = spaces[i] != null ? spaces[i].getCOSObject() : null;
+      }
+
+      if (cropBox != null) {
+        Rectangle2D clip = state.getCurrentClippingPath().getBounds2D();
+        this.bounds = new double[] { cropBox.getLowerLeftX(), cropBox.getLowerLeftY(),
+            cropBox.getUpperRightX(), cropBox.getUpperRightY(), clip.getMinX(), clip.getMinY(),
+            clip.getMaxX(), clip.getMaxY() };
+      }
+
+      this.hashCode = Objects.hash(System.identityHashCode(this.form), Arrays.hashCode(this.ctm),
+          System.identityHashCode(this.font), Arrays.hashCode(this.textState),
+          Arrays.deepHashCode(this.colorComponents));
+    }
+
+    /**
+     * Returns the horizontal translation of the current transformation matrix.
+     *
+     * @return The horizontal translation.
+     */
+    public float getTranslateX() {
+      return this.translateX;
+    }
+
+    /**
+     * Returns the vertical translation of the current transformation matrix.
+     *
+     * @return The vertical translation.
+     */
+    public float getTranslateY() {
+      return this.translateY;
+    }
+
+    /**
+     * Returns the values of the given matrix.
+     *
+     * @param matrix The matrix.
+     *
+     * @return The values of the given matrix; null if the given matrix is null.
+     */
+    protected static float[] getValues(Matrix matrix) {
+      if (matrix == null) {
+        return null;
+      }
+      return new float[] { matrix.getScaleX(), matrix.getShearY(), matrix.getShearX(),
+          matrix.getScaleY(), matrix.getTranslateX(), matrix.getTranslateY() };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return this.form == key.form
+          && this.font == key.font
+          && this.renderingMode == key.renderingMode
+          && Arrays.equals(this.ctm, key.ctm)
+          && Arrays.equals(this.textMatrix, key.textMatrix)
+          && Arrays.equals(this.textLineMatrix, key.textLineMatrix)
+          && Arrays.equals(this.textState, key.textState)
+          && Arrays.deepEquals(this.colorComponents, key.colorComponents)
+          && Arrays.equals(this.colorPatterns, key.colorPatterns)
+          && Arrays.equals(this.bounds, key.bounds)
+          && this.colorSpaces[0] == key.colorSpaces[0]
+          && this.colorSpaces[1] == key.colorSpaces[1];
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The elements extracted from a form, together with the side effects of the interpretation
+   * that must be replayed.
+   */
+  public static class Extraction {
+    /**
+     * The extracted characters, figures and shapes, in the order they were painted.
+     */
+    protected List<Element> elements;
+
+    /**
+     * The colors requested on the interpretation, in the order of their first request.
+     */
+    protected List<Color> requestedColors;
+
+    /**
+     * The fonts requested on the interpretation, in the order of their first request.
+     */
+    protected List<Font> requestedFonts;
+
+    /**
+     * The text matrix after the interpretation; null if there was no text matrix.
+     */
+    protected Matrix textMatrix;
+
+    /**
+     * The text line matrix after the interpretation; null if there was no text line matrix.
+     */
+    protected Matrix textLineMatrix;
+
+    /**
+     * The horizontal translation of the transformation matrix on the interpretation.
+     */
+    protected float translateX;
+
+    /**
+     * The vertical translation of the transformation matrix on the interpretation.
+     */
+    protected float translateY;
+
+    /**
+     * Creates a new extraction.
+     *
+     * @param elements        The extracted characters, figures and shapes, in the order they
+     *                        were painted.
+     * @param requestedColors The colors requested on the interpretation, in the order of their
+     *                        first request.
+     * @param requestedFonts  The fonts requested on the interpretation, in the order of their
+     *                        first request.
+     * @param textMatrix      The text matrix after the interpretation.
+     * @param textLineMatrix  The text line matrix after the interpretation.
+     * @param translateX      The horizontal translation of the transformation matrix on the
+     *                        interpretation.
+     * @param translateY      The vertical translation of the transformation matrix on the
+     *                        interpretation.
+     */
+    public Extraction(List<Element> elements, List<Color> requestedColors,
+        List<Font> requestedFonts, Matrix textMatrix, Matrix textLineMatrix, float translateX,
+        float translateY) {
+      this.elements = elements;
+      this.requestedColors = requestedColors;
+      this.requestedFonts = requestedFonts;
+      this.textMatrix = textMatrix != null ? textMatrix.clone() : null;
+      this.textLineMatrix = textLineMatrix != null ? textLineMatrix.clone() : null;
+      this.translateX = translateX;
+      this.translateY = translateY;
+    }
+
+    /**
+     * Returns the extracted characters, figures and shapes, in the order they were painted.
+     *
+     * @return The extracted elements.
+     */
+    public List<Element> getElements() {
+      return this.elements;
+    }
+
+    /**
+     * Returns the colors requested on the interpretation, in the order of their first request.
+     *
+     * @return The requested colors.
+     */
+    public List<Color> getRequestedColors() {
+      return this.requestedColors;
+    }
+
+    /**
+     * Returns the fonts requested on the interpretation, in the order of their first request.
+     *
+     * @return The requested fonts.
+     */
+    public List<Font> getRequestedFonts() {
+      return this.requestedFonts;
+    }
+
+    /**
+     * Returns a copy of the text matrix after the interpretation.
+     *
+     * @return The text matrix; null if there was no text matrix.
+     */
+    public Matrix getTextMatrix() {
+      return this.textMatrix != null ? this.textMatrix.clone() : null;
+    }
+
+    /**
+     * Returns a copy of the text line matrix after the interpretation.
+     *
+     * @return The text line matrix; null if there was no text line matrix.
+     */
+    public Matrix getTextLineMatrix() {
+      return this.textLineMatrix != null ? this.textLineMatrix.clone() : null;
+    }
+
+    /**
+     * Returns the horizontal translation of the transformation matrix on the interpretation.
+     *
+     * @return The horizontal translation.
+     */
+    public float getTranslateX() {
+      return this.translateX;
+    }
+
+    /**
+     * Returns the vertical translation of the transformation matrix on the interpretation.
+     *
+     * @return The vertical translation.
+     */
+    public float getTranslateY() {
+      return this.translateY;
+    }
+  }
+}
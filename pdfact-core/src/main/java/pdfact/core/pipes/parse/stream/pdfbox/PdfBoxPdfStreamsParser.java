@@ -4,33 +4,56 @@ import static pdfact.core.PdfActCoreSettings.FLOATING_NUMBER_PRECISION;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Point2D;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.pdfbox.contentstream.PDContentStream;
 import org.apache.pdfbox.contentstream.operator.Operator;
 import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdfparser.PDFStreamParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType3CharProc;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.state.PDGraphicsState;
 import org.apache.pdfbox.util.Matrix;
 import pdfact.core.model.Character;
+import pdfact.core.model.Color;
 import pdfact.core.model.Document;
+import pdfact.core.model.Element;
 import pdfact.core.model.Figure;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
 import pdfact.core.model.Page;
+import pdfact.core.model.PageSelection;
 import pdfact.core.model.Point;
+import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
 import pdfact.core.model.Shape;
 import pdfact.core.pipes.parse.stream.PdfStreamsParser;
+import pdfact.core.pipes.parse.stream.pdfbox.convert.PDFontConverter;
+import pdfact.core.pipes.parse.stream.pdfbox.convert.PDFontFaceConverter;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.color.SetNonStrokingColor;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.color.SetNonStrokingColorN;
@@ -52,6 +75,7 @@ import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.ClosePath;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.CurveTo;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.CurveToReplicateFinalPoint;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.CurveToReplicateInitialPoint;
+import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.DiscardPath;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.DrawObject;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.EndPath;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.graphic.FillEvenOddAndStrokePath;
@@ -83,9 +107,15 @@ import pdfact.core.pipes.parse.stream.pdfbox.operators.text.SetType3GlyphWidthAn
 import pdfact.core.pipes.parse.stream.pdfbox.operators.text.SetWordSpacing;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.text.ShowText;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.text.ShowTextWithIndividualGlyphPositioning;
+import pdfact.core.pipes.parse.stream.pdfbox.utils.PDDocumentUtils;
+import pdfact.core.pipes.parse.stream.pdfbox.utils.ShapeUtils;
 import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.color.ColorRegistry;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.exception.PdfActParseException;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.pipeline.PipelineMetrics;
+import pdfact.core.util.pipeline.StageMetrics;
 import pdfact.core.util.statistician.CharacterStatistician;
 
 // TODO: Refactor all the PDFBox utils (remove unnecessary stuff).
@@ -102,6 +132,12 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    */
   protected static Logger log = LogManager.getFormatterLogger("pdf-parsing");
 
+  /**
+   * The minimum number of pages to parse per worker on parsing in parallel, such that loading the
+   * PDF document once per worker pays off.
+   */
+  protected static final int MIN_NUM_PAGES_PER_WORKER = 2;
+
   /**
    * The map of operator processors.
    */
@@ -168,6 +204,16 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    */
   protected Rectangle currentType3GlyphBoundingBox;
 
+  /**
+   * The current type3 glyph bounding box in glyph space, given as [llx, lly, urx, ury].
+   */
+  protected float[] currentType3GlyphSpaceBoundingBox;
+
+  /**
+   * The transformation matrix that was applied to the current type3 glyph bounding box.
+   */
+  protected Matrix currentType3GlyphMatrix;
+
   /**
    * Flag to indicate, whether the current stream is a type3 stream.
    */
@@ -194,9 +240,147 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
   protected int numShapes;
 
   /**
-   * Creates a new stream engine.
+   * The boolean flag indicating whether or not the figures should be extracted.
+   */
+  protected boolean isToExtractFigures;
+
+  /**
+   * The boolean flag indicating whether or not the shapes should be extracted.
+   */
+  protected boolean isToExtractShapes;
+
+  /**
+   * The boolean flag indicating whether or not the images should be classified into shapes
+   * (images with a single color) and figures. If false, all images are considered as figures.
+   */
+  protected boolean isToClassifyImages;
+
+  /**
+   * The registry of the colors of the extracted elements.
+   */
+  protected ColorRegistry colorRegistry;
+
+  /**
+   * The converter to convert PDFont objects to font objects.
+   */
+  protected PDFontConverter fontConverter;
+
+  /**
+   * The converter to convert fonts and font sizes to font faces.
+   */
+  protected PDFontFaceConverter fontFaceConverter;
+
+  /**
+   * The maximum number of pages to parse in parallel.
+   */
+  protected int parallelism = 1;
+
+  /**
+   * The pool to parse the pages in parallel, shared with other parsers; null if a pool should be
+   * created per PDF document.
+   */
+  protected ForkJoinPool pool;
+
+  /**
+   * The metrics of the stage of the parsing, to which the measurements of the threads parsing
+   * the pages in parallel are added; null if no metrics are recorded.
+   */
+  protected StageMetrics stageMetrics;
+
+  /**
+   * The setting that defines where PDFBox keeps its scratch data.
+   */
+  protected MemoryUsageSetting memoryUsageSetting = MemoryUsageSetting.setupMainMemoryOnly();
+
+  /**
+   * The selection of the pages to parse; null if all pages should be parsed.
+   */
+  protected PageSelection pageSelection;
+
+  /**
+   * The extraction rank of the next extracted character.
+   */
+  protected int nextExtractionRank;
+
+  /**
+   * The cache of the elements extracted from form XObjects.
+   */
+  protected FormExtractionCache formExtractionCache;
+
+  /**
+   * The elements extracted from the forms that are currently interpreted to be cached, one list
+   * per form (forms can be nested).
+   */
+  protected List<List<Element>> formElements;
+
+  /**
+   * The boolean flag indicating whether the shapes resulting from a single paint operation should
+   * be merged into a single shape (the bounding box of the painted path).
+   */
+  protected boolean isToMergeShapesPerPaint;
+
+  /**
+   * The maximum number of shapes per page; 0 if the number of shapes is not limited.
+   */
+  protected int maxNumShapesPerPage;
+
+  /**
+   * The policies how to deal with hidden characters, per category.
+   */
+  protected Map<HiddenTextCategory, HiddenTextPolicy> hiddenTextPolicies;
+
+  /**
+   * The crop box of the page currently parsed.
+   */
+  protected PDRectangle cropBox;
+
+  /**
+   * The detector of duplicate characters; null if duplicate characters should not be removed.
+   */
+  protected DuplicateCharacterDetector duplicateDetector;
+
+  /**
+   * Creates a new stream engine that extracts the characters, figures and shapes.
    */
   public PdfBoxPdfStreamsParser() {
+    this(true, true);
+  }
+
+  /**
+   * Creates a new stream engine that extracts the characters and, if requested, the figures and
+   * shapes.
+   * 
+   * @param isToExtractFigures True if the figures should be extracted, false otherwise.
+   * @param isToExtractShapes  True if the shapes should be extracted, false otherwise.
+   */
+  public PdfBoxPdfStreamsParser(boolean isToExtractFigures, boolean isToExtractShapes) {
+    this(isToExtractFigures, isToExtractShapes, true);
+  }
+
+  /**
+   * Creates a new stream engine that extracts the characters and, if requested, the figures and
+   * shapes.
+   * 
+   * @param isToExtractFigures True if the figures should be extracted, false otherwise.
+   * @param isToExtractShapes  True if the shapes should be extracted, false otherwise.
+   * @param isToClassifyImages True if the images should be classified into shapes (images with a
+   *                           single color) and figures; false if all images should be
+   *                           considered as figures.
+   */
+  public PdfBoxPdfStreamsParser(boolean isToExtractFigures, boolean isToExtractShapes,
+          boolean isToClassifyImages) {
+    this.isToExtractFigures = isToExtractFigures;
+    this.isToExtractShapes = isToExtractShapes;
+    this.isToClassifyImages = isToClassifyImages;
+    this.colorRegistry = new ColorRegistry();
+    this.fontConverter = new PDFontConverter();
+    this.fontFaceConverter = new PDFontFaceConverter();
+    this.formExtractionCache = new FormExtractionCache();
+    this.formElements = new ArrayList<>();
+    this.hiddenTextPolicies = new EnumMap<>(HiddenTextCategory.class);
+    for (HiddenTextCategory category : HiddenTextCategory.values()) {
+      this.hiddenTextPolicies.put(category, HiddenTextPolicy.KEEP);
+    }
     this.operatorProcessors = new HashMap<>();
 
     // Install the text operator modules.
@@ -220,27 +404,12 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     registerOperatorProcessor(new ShowTextWithIndividualGlyphPositioning()); // TJ
 
     // Install the graphics operator modules.
-    registerOperatorProcessor(new AppendRectangleToPath()); // re
     registerOperatorProcessor(new BeginInlineImage()); // BI
-    registerOperatorProcessor(new ClipEvenOddRule()); // W*
-    registerOperatorProcessor(new ClipNonZeroRule()); // W
-    registerOperatorProcessor(new ClosePath()); // h
-    registerOperatorProcessor(new CurveTo()); // c
-    registerOperatorProcessor(new CurveToReplicateFinalPoint()); // y
-    registerOperatorProcessor(new CurveToReplicateInitialPoint()); // v
-    registerOperatorProcessor(new EndPath()); // n
-    registerOperatorProcessor(new FillEvenOddAndStrokePath()); // B*
-    registerOperatorProcessor(new FillEvenOddRule()); // f*
-    registerOperatorProcessor(new FillNonZeroAndStrokePath()); // B
-    registerOperatorProcessor(new FillNonZeroRule()); // f
     registerOperatorProcessor(new DrawObject()); // Do
-    registerOperatorProcessor(new LineTo()); // l
     registerOperatorProcessor(new ModifyCurrentTransformationMatrix()); // cm
-    registerOperatorProcessor(new MoveTo()); // m
     registerOperatorProcessor(new RestoreGraphicsState()); // Q
     registerOperatorProcessor(new SaveGraphicsState()); // q
     registerOperatorProcessor(new SetGraphicsStateParameters()); // gs
-    registerOperatorProcessor(new StrokePath()); // S
 
     // Install the color operator modules.
     registerOperatorProcessor(new SetNonStrokingColor()); // sc
@@ -256,6 +425,14 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     registerOperatorProcessor(new SetStrokingDeviceGrayColor()); // G
     registerOperatorProcessor(new SetStrokingDeviceRGBColor()); // RG
 
+    // Install the operator modules that construct, clip and paint paths.
+    registerPathOperatorProcessors();
+
+    // An inline image results in either a figure or a shape (if it consists of a single color).
+    if (!isToExtractFigures && !isToExtractShapes) {
+      unregisterOperatorProcessors("BI");
+    }
+
     this.statistician = new CharacterStatistician();
     this.graphicsStack = new Stack<PDGraphicsState>();
     this.linePath = new GeneralPath();
@@ -265,35 +442,380 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     this.operatorProcessors.put(processor.getName(), processor);
   }
 
+  /**
+   * Registers the operator processors that construct, clip and paint paths. The paths are needed
+   * to extract the shapes and to compute the clipping paths. The clipping paths only affect the
+   * extraction if the clipped characters should not be kept. So the paths are not constructed if
+   * neither is needed, and the paths are not painted if only the clipping paths are needed.
+   */
+  protected void registerPathOperatorProcessors() {
+    boolean isToComputeClippingPaths =
+        getHiddenTextPolicy(HiddenTextCategory.CLIPPED) != HiddenTextPolicy.KEEP;
+
+    unregisterOperatorProcessors("re", "h", "c", "y", "v", "m", "l", "n", "W", "W*", "S", "f",
+        "f*", "B", "B*");
+    if (this.isToExtractShapes || isToComputeClippingPaths) {
+      registerOperatorProcessor(new AppendRectangleToPath()); // re
+      registerOperatorProcessor(new ClipEvenOddRule()); // W*
+      registerOperatorProcessor(new ClipNonZeroRule()); // W
+      registerOperatorProcessor(new ClosePath()); // h
+      registerOperatorProcessor(new CurveTo()); // c
+      registerOperatorProcessor(new CurveToReplicateFinalPoint()); // y
+      registerOperatorProcessor(new CurveToReplicateInitialPoint()); // v
+      registerOperatorProcessor(new EndPath()); // n
+      registerOperatorProcessor(new LineTo()); // l
+      registerOperatorProcessor(new MoveTo()); // m
+    }
+    if (this.isToExtractShapes) {
+      registerOperatorProcessor(new FillEvenOddAndStrokePath()); // B*
+      registerOperatorProcessor(new FillEvenOddRule()); // f*
+      registerOperatorProcessor(new FillNonZeroAndStrokePath()); // B
+      registerOperatorProcessor(new FillNonZeroRule()); // f
+      registerOperatorProcessor(new StrokePath()); // S
+    } else if (isToComputeClippingPaths) {
+      for (String name : new String[] { "B*", "f*", "B", "f", "S" }) {
+        registerOperatorProcessor(new DiscardPath(name));
+      }
+    }
+  }
+
+  /**
+   * Unregisters the operator processors of the given operators, such that the operators are
+   * ignored on parsing.
+   * 
+   * @param names The names of the operators.
+   */
+  protected void unregisterOperatorProcessors(String... names) {
+    for (String name : names) {
+      this.operatorProcessors.remove(name);
+    }
+  }
+
   // ==============================================================================================
   // Methods to process the file.
 
   @Override
   public void parse(Document pdf) throws PdfActException {
-    try (PDDocument doc = PDDocument.load(pdf.getFile())) {
-      handlePdfFileStart(pdf);
-      for (int i = 0; i < doc.getPages().getCount(); i++) {
-        log.debug("==================== Page %d ====================", i + 1);
-        processPage(pdf, doc.getPages().get(i), i + 1);
+    try {
+      // The workers load their own PDDocument objects from a buffer with the content of the PDF
+      // file, which is read (or memory-mapped) only once and not copied by the workers.
+      ByteBuffer buffer = this.parallelism > 1 ? PDDocumentUtils.toSharedBuffer(pdf) : null;
+      if (buffer == null) {
+        try (PDDocument doc = PDDocumentUtils.load(pdf, getMemoryUsageSetting())) {
+          parse(pdf, getSelectedPages(doc));
+        }
+        return;
+      }
+
+      try (PDDocument doc = PDDocumentUtils.load(buffer, getMemoryUsageSetting())) {
+        SelectedPages pages = getSelectedPages(doc);
+        int numWorkers = pages.size() / MIN_NUM_PAGES_PER_WORKER;
+        numWorkers = Math.min(numWorkers, this.parallelism);
+        if (numWorkers < 2) {
+          parse(pdf, pages);
+        } else {
+          parseInParallel(pdf, pages, buffer, numWorkers);
+        }
       }
-      handlePdfFileEnd(pdf);
     } catch (IOException e) {
       throw new PdfActParseException("Couldn't parse the PDF.", e);
     }
   }
 
+  /**
+   * Parses the given pages one after another.
+   * 
+   * @param pdf   The PDF document to which the parsed pages should be added.
+   * @param pages The pages to parse.
+   * 
+   * @throws IOException If something went wrong while parsing the PDF document.
+   */
+  protected void parse(Document pdf, SelectedPages pages) throws IOException {
+    handlePdfFileStart(pdf);
+    for (int i = 0; i < pages.size(); i++) {
+      log.debug("==================== Page %d ====================", pages.getPageNumber(i));
+      processPage(pdf, pages.getPage(i), pages.getPageNumber(i));
+    }
+    handlePdfFileEnd(pdf);
+  }
+
+  /**
+   * Parses the given pages in parallel. Each worker owns a parser (with its own graphics state,
+   * colors and fonts) and a PDDocument loaded from the given buffer, and claims the pages to parse
+   * one after another. Afterwards, the parsed pages are added to the given PDF document in their
+   * order. Thereby, the colors and fonts of the workers are replaced by the colors and fonts of
+   * this parser (which are compared by identity by the later pipes) and the characters get the
+   * extraction ranks they would have got on parsing the pages one after another.
+   * 
+   * @param pdf        The PDF document to which the parsed pages should be added.
+   * @param pages      The pages to parse, to be used by the first worker.
+   * @param buffer     The content of the PDF file, to load the PDF document for the other
+   *                   workers.
+   * @param numWorkers The number of workers.
+   * 
+   * @throws IOException If something went wrong while parsing the PDF document.
+   */
+  protected void parseInParallel(Document pdf, SelectedPages pages, ByteBuffer buffer,
+      int numWorkers) throws IOException {
+    int numPages = pages.size();
+    Page[] parsedPages = new Page[numPages];
+    List<List<Color>> requestedColors = new ArrayList<>(Collections.nCopies(numPages, null));
+    List<List<Font>> requestedFonts = new ArrayList<>(Collections.nCopies(numPages, null));
+    AtomicInteger nextIndex = new AtomicInteger();
+    // The scratch data of the workers must not exceed the limits of the memory usage setting.
+    MemoryUsageSetting workerSetting = getMemoryUsageSetting().getPartitionedCopy(numWorkers);
+
+    List<Callable<Void>> workers = new ArrayList<>();
+    for (int i = 0; i < numWorkers; i++) {
+      boolean isFirstWorker = i == 0;
+      workers.add(measure(() -> {
+        PdfBoxPdfStreamsParser parser = new PdfBoxPdfStreamsParser(this.isToExtractFigures,
+            this.isToExtractShapes, this.isToClassifyImages);
+        parser.setIsToMergeShapesPerPaint(this.isToMergeShapesPerPaint);
+        parser.setMaxNumShapesPerPage(this.maxNumShapesPerPage);
+        for (HiddenTextCategory category : HiddenTextCategory.values()) {
+          parser.setHiddenTextPolicy(category, getHiddenTextPolicy(category));
+        }
+        parser.setIsToRemoveDuplicateCharacters(isToRemoveDuplicateCharacters());
+        // The pages are added to a document of the worker, to not modify the given document.
+        Document workerPdf = new Document(pdf.getPath());
+        try (PDDocument workerDoc = isFirstWorker ? null
+            : PDDocumentUtils.load(buffer, workerSetting)) {
+          SelectedPages workerPages = isFirstWorker ? pages
+              : getSelectedPages(workerDoc, pages.pageNums);
+          int index;
+          while ((index = nextIndex.getAndIncrement()) < numPages) {
+            int pageNum = workerPages.getPageNumber(index);
+            log.debug("==================== Page %d ====================", pageNum);
+            parser.getColorRegistry().startRecordingRequestedColors();
+            parser.getFontConverter().startRecordingRequestedFonts();
+            parsedPages[index] = parser.processPage(workerPdf, workerPages.getPage(index),
+                pageNum);
+            requestedColors.set(index, parser.getColorRegistry().stopRecordingRequestedColors());
+            requestedFonts.set(index, parser.getFontConverter().stopRecordingRequestedFonts());
+          }
+        }
+        return null;
+      }, Thread.currentThread()));
+    }
+
+    // The workers don't wait for other tasks, so they can't block each other in a shared pool.
+    ForkJoinPool pool = this.pool != null ? this.pool : new ForkJoinPool(numWorkers);
+    try {
+      for (Future<Void> worker : pool.invokeAll(workers)) {
+        worker.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("The parsing of the pages was interrupted.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      if (pool != this.pool) {
+        pool.shutdown();
+      }
+    }
+
+    handlePdfFileStart(pdf);
+    Map<Color, Color> colors = new IdentityHashMap<>();
+    Map<Font, Font> fonts = new IdentityHashMap<>();
+    Map<FontFace, FontFace> fontFaces = new IdentityHashMap<>();
+    int extractionRank = 0;
+    for (int i = 0; i < numPages; i++) {
+      // Register the colors and fonts in the order they were requested on parsing sequentially,
+      // such that they get the same ids.
+      for (Color color : requestedColors.get(i)) {
+        colors.put(color, this.colorRegistry.registerColor(color));
+      }
+      for (Font font : requestedFonts.get(i)) {
+        fonts.put(font, this.fontConverter.registerFont(font));
+      }
+
+      // The characters of a page are in the order of their extraction ranks.
+      for (Character character : parsedPages[i].getCharacters()) {
+        character.setExtractionRank(extractionRank++);
+        character.setColor(colors.get(character.getColor()));
+        FontFace fontFace = fontFaces.get(character.getFontFace());
+        if (fontFace == null) {
+          FontFace workerFontFace = character.getFontFace();
+          fontFace = this.fontFaceConverter.convert(fonts.get(workerFontFace.getFont()),
+              workerFontFace.getFontSize());
+          fontFaces.put(workerFontFace, fontFace);
+        }
+        character.setFontFace(fontFace);
+      }
+      for (Shape shape : parsedPages[i].getShapes()) {
+        shape.setColor(colors.get(shape.getColor()));
+      }
+
+      handlePdfPageStart(pdf, parsedPages[i]);
+      // Compute the statistics again, as they refer to the colors and fonts of the worker.
+      handlePdfPageEnd(pdf, parsedPages[i]);
+    }
+    handlePdfFileEnd(pdf);
+  }
+
+  /**
+   * Returns a worker that executes the given worker and adds the CPU time and the allocated bytes
+   * of its thread to the metrics of the stage, if there are any. The thread that executes the
+   * parser is measured by the pipeline, so it is not measured again if it executes the worker.
+   * 
+   * @param worker         The worker to measure.
+   * @param measuredThread The thread that is measured by the pipeline.
+   * 
+   * @return The measured worker.
+   */
+  protected Callable<Void> measure(Callable<Void> worker, Thread measuredThread) {
+    StageMetrics stage = this.stageMetrics;
+    if (stage == null) {
+      return worker;
+    }
+    return () -> {
+      if (Thread.currentThread() == measuredThread) {
+        return worker.call();
+      }
+      long cpuStart = PipelineMetrics.getCurrentThreadCpuTime();
+      long bytesStart = PipelineMetrics.getCurrentThreadAllocatedBytes();
+      try {
+        return worker.call();
+      } finally {
+        stage.addCpuTime(PipelineMetrics.getDifference(cpuStart,
+            PipelineMetrics.getCurrentThreadCpuTime()));
+        stage.addAllocatedBytes(PipelineMetrics.getDifference(bytesStart,
+            PipelineMetrics.getCurrentThreadAllocatedBytes()));
+      }
+    };
+  }
+
+  /**
+   * Returns the pages of the given PDF document that are selected by the page selection.
+   * 
+   * @param doc The PDF document.
+   * 
+   * @return The selected pages.
+   */
+  protected SelectedPages getSelectedPages(PDDocument doc) {
+    int numPages = doc.getNumberOfPages();
+    int[] pageNums;
+    if (this.pageSelection != null) {
+      pageNums = this.pageSelection.getPageNumbers(numPages);
+    } else {
+      pageNums = new int[numPages];
+      for (int i = 0; i < numPages; i++) {
+        pageNums[i] = i + 1;
+      }
+    }
+    return getSelectedPages(doc, pageNums);
+  }
+
+  /**
+   * Returns the pages of the given PDF document with the given numbers. The page tree is iterated
+   * only once (instead of walking it from its root for each page) and only up to the last given
+   * page. The content streams of the pages are not decoded.
+   * 
+   * @param doc      The PDF document.
+   * @param pageNums The numbers of the pages, in ascending order.
+   * 
+   * @return The pages with the given numbers.
+   */
+  protected static SelectedPages getSelectedPages(PDDocument doc, int[] pageNums) {
+    List<PDPage> pages = new ArrayList<>(pageNums.length);
+    Iterator<PDPage> itr = doc.getPages().iterator();
+    int pageNum = 0;
+    for (int selectedPageNum : pageNums) {
+      PDPage page = null;
+      while (pageNum < selectedPageNum && itr.hasNext()) {
+        page = itr.next();
+        pageNum++;
+      }
+      if (pageNum < selectedPageNum) {
+        // The page tree contains fewer pages than stated by the document.
+        break;
+      }
+      pages.add(page);
+    }
+    return new SelectedPages(pages, Arrays.copyOf(pageNums, pages.size()));
+  }
+
+  /**
+   * The pages of a PDF document to parse, together with their page numbers.
+   */
+  protected static class SelectedPages {
+    /**
+     * The pages.
+     */
+    protected List<PDPage> pages;
+
+    /**
+     * The numbers of the pages in the PDF document.
+     */
+    protected int[] pageNums;
+
+    /**
+     * Creates new selected pages.
+     * 
+     * @param pages    The pages.
+     * @param pageNums The numbers of the pages in the PDF document.
+     */
+    protected SelectedPages(List<PDPage> pages, int[] pageNums) {
+      this.pages = pages;
+      this.pageNums = pageNums;
+    }
+
+    /**
+     * Returns the number of the pages.
+     * 
+     * @return The number of the pages.
+     */
+    protected int size() {
+      return this.pages.size();
+    }
+
+    /**
+     * Returns the i-th page.
+     * 
+     * @param i The index of the page.
+     * 
+     * @return The i-th page.
+     */
+    protected PDPage getPage(int i) {
+      return this.pages.get(i);
+    }
+
+    /**
+     * Returns the number of the i-th page in the PDF document.
+     * 
+     * @param i The index of the page.
+     * 
+     * @return The number of the i-th page in the PDF document.
+     */
+    protected int getPageNumber(int i) {
+      return this.pageNums[i];
+    }
+  }
+
   /**
    * Processes the given page.
    * 
    * @param pdf     The PDF document to which the given page belongs to.
    * @param page    The page to process
    * @param pageNum The number of the page in the PDF document.
+   * 
+   * @return The parsed page.
+   * 
    * @throws IOException If something went wrong while parsing the page.
    */
-  protected void processPage(Document pdf, PDPage page, int pageNum) throws IOException {
+  protected Page processPage(Document pdf, PDPage page, int pageNum) throws IOException {
     this.page = page;
     this.graphicsStack.clear();
-    this.graphicsStack.push(new PDGraphicsState(page.getCropBox()));
+    this.cropBox = page.getCropBox();
+    this.graphicsStack.push(new PDGraphicsState(this.cropBox));
     this.resources = null;
     this.textMatrix = null;
     this.textLineMatrix = null;
@@ -303,6 +825,8 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     this.linePathLastMoveToPosition = null;
     this.clippingWindingRule = -1;
     this.currentType3GlyphBoundingBox = null;
+    this.currentType3GlyphSpaceBoundingBox = null;
+    this.currentType3GlyphMatrix = null;
     this.isType3Stream = false;
 
     Page pdfPage = new Page(pageNum);
@@ -319,8 +843,22 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     }
 
     handlePdfPageStart(pdf, pdfPage);
+    if (this.duplicateDetector != null) {
+      this.duplicateDetector.startPage();
+    }
     processStream(pdf, pdfPage, page);
+    if (this.duplicateDetector != null) {
+      pdfPage.setNumDuplicateCharacters(this.duplicateDetector.getNumDuplicates());
+      log.debug("Removed %d duplicate characters from page %d.",
+          pdfPage.getNumDuplicateCharacters(), pageNum);
+    }
+    if (this.isToExtractShapes) {
+      pdfPage.setShapes(ShapeUtils.aggregate(pdfPage, pdfPage.getShapes(),
+          this.maxNumShapesPerPage));
+    }
     handlePdfPageEnd(pdf, pdfPage);
+
+    return pdfPage;
   }
 
   /**
@@ -353,6 +891,126 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     }
   }
 
+  /**
+   * Processes the content stream of the given form XObject. If the form was already interpreted
+   * with the same inherited state (for example, a logo painted on each page, possibly at another
+   * position), the elements extracted on the interpretation are replayed instead of interpreting
+   * the form again. The forms in Type3 glyphs and the forms without own resources (which use the
+   * resources of the page) are always interpreted.
+   * 
+   * @param pdf  The PDF document to which the form belongs to.
+   * @param page The PDF page to which the form belongs to.
+   * @param form The form.
+   * @throws IOException if there is an exception while processing the form.
+   */
+  public void processForm(Document pdf, Page page, PDFormXObject form) throws IOException {
+    if (this.isType3Stream || form.getResources() == null) {
+      processStream(pdf, page, form);
+      return;
+    }
+
+    // The hidden characters of the form depend on the crop box and the clipping path, if they are
+    // checked at all.
+    boolean isToCheckPosition = getHiddenTextPolicy(HiddenTextCategory.OFF_PAGE)
+        != HiddenTextPolicy.KEEP || getHiddenTextPolicy(HiddenTextCategory.CLIPPED)
+        != HiddenTextPolicy.KEEP;
+    FormExtractionCache.Key key = FormExtractionCache.createKey(form, getGraphicsState(),
+        this.textMatrix, this.textLineMatrix, isToCheckPosition ? this.cropBox : null);
+    FormExtractionCache.Extraction extraction = this.formExtractionCache.get(key);
+    if (extraction != null) {
+      replayForm(pdf, page, extraction, key.getTranslateX() - extraction.getTranslateX(),
+          key.getTranslateY() - extraction.getTranslateY());
+      return;
+    }
+
+    int windingRule = this.clippingWindingRule;
+    boolean isPathConstructed = this.linePath.getCurrentPoint() != null;
+    List<Element> elements = new ArrayList<>();
+    this.formElements.add(elements);
+    this.colorRegistry.startRecordingRequestedColors();
+    this.fontConverter.startRecordingRequestedFonts();
+    List<Color> colors;
+    List<Font> fonts;
+    try {
+      processStream(pdf, page, form);
+    } finally {
+      this.formElements.remove(this.formElements.size() - 1);
+      colors = this.colorRegistry.stopRecordingRequestedColors();
+      fonts = this.fontConverter.stopRecordingRequestedFonts();
+    }
+
+    // Cache the extraction only if the form has no effects on the path construction, which
+    // would not be replayed.
+    if (!isPathConstructed && this.linePath.getCurrentPoint() == null
+        && this.clippingWindingRule == windingRule) {
+      this.formExtractionCache.put(key, new FormExtractionCache.Extraction(elements, colors,
+          fonts, this.textMatrix, this.textLineMatrix, key.getTranslateX(),
+          key.getTranslateY()));
+    }
+  }
+
+  /**
+   * Replays the given extraction of a form, that is: adds copies of the extracted elements,
+   * translated by the given distances, to the given page (the characters with new extraction
+   * ranks) and replays the requests of colors and fonts and the changes of the text matrices.
+   * 
+   * @param pdf        The PDF document to which the form belongs to.
+   * @param page       The PDF page to which the form belongs to.
+   * @param extraction The extraction of the form.
+   * @param dx         The horizontal distance by which to translate the elements.
+   * @param dy         The vertical distance by which to translate the elements.
+   */
+  protected void replayForm(Document pdf, Page page, FormExtractionCache.Extraction extraction,
+      float dx, float dy) {
+    this.colorRegistry.recordRequests(extraction.getRequestedColors());
+    this.fontConverter.recordRequests(extraction.getRequestedFonts());
+
+    for (Element element : extraction.getElements()) {
+      if (element instanceof Character) {
+        Character character = (Character) element;
+        Character copy = new Character();
+        copy.setText(character.getText());
+        copy.setFontFace(character.getFontFace());
+        copy.setColor(character.getColor());
+        copy.setPosition(copyPosition(page, character.getPosition(), dx, dy));
+        copy.setHiddenTextCategory(character.getHiddenTextCategory());
+        handlePdfCharacter(pdf, page, copy);
+      } else if (element instanceof Shape) {
+        Shape shape = (Shape) element;
+        Shape copy = new Shape();
+        copy.setColor(shape.getColor());
+        copy.setPosition(copyPosition(page, shape.getPosition(), dx, dy));
+        handlePdfShape(pdf, page, copy);
+      } else if (element instanceof Figure) {
+        Figure copy = new Figure();
+        copy.setPosition(copyPosition(page, ((Figure) element).getPosition(), dx, dy));
+        handlePdfFigure(pdf, page, copy);
+      }
+    }
+
+    this.textMatrix = extraction.getTextMatrix();
+    this.textLineMatrix = extraction.getTextLineMatrix();
+  }
+
+  /**
+   * Copies the given position to the given page, translated by the given distances.
+   * 
+   * @param page     The page.
+   * @param position The position to copy.
+   * @param dx       The horizontal distance by which to translate the position.
+   * @param dy       The vertical distance by which to translate the position.
+   * 
+   * @return The copied position.
+   */
+  protected static Position copyPosition(Page page, Position position, float dx, float dy) {
+    Rectangle rect = position.getRectangle();
+    if (dx == 0 && dy == 0) {
+      return new Position(page, new Rectangle(rect));
+    }
+    return new Position(page, new Rectangle(rect.getMinX() + dx, rect.getMinY() + dy,
+        rect.getMaxX() + dx, rect.getMaxY() + dy));
+  }
+
   /**
    * Processes a type 3 character stream.
    * 
@@ -379,6 +1037,9 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     Matrix oldTextLineMatrix = getTextLineMatrix();
     setTextLineMatrix(new Matrix());
 
+    // Reset the bounding box in glyph space, to be able to tell whether the stream defines one.
+    setCurrentType3GlyphSpaceBoundingBox(null, null);
+
     setIsType3Stream(true);
     processStreamOperators(pdf, page, proc);
     setIsType3Stream(false);
@@ -392,7 +1053,10 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
   }
 
   /**
-   * Processes the operators of the given content stream.
+   * Processes the operators of the given content stream. The tokens are pulled from the stream
+   * one at a time and each operator is processed as soon as it was read, so the tokens of the
+   * stream are never held in memory at once. The list of arguments is reused for all operators
+   * of the stream, so the operator processors must not keep a reference to it.
    * 
    * @param pdf    The PDF document to which the stream belongs to.
    * @param page   The PDF page to which the stream belongs to.
@@ -404,14 +1068,14 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     List<COSBase> arguments = new ArrayList<COSBase>();
 
     PDFStreamParser parser = new PDFStreamParser(stream);
-    parser.parse();
 
-    for (Object token : parser.getTokens()) {
+    Object token;
+    while ((token = parser.parseNextToken()) != null) {
       if (token instanceof COSObject) {
         arguments.add(((COSObject) token).getObject());
       } else if (token instanceof Operator) {
         processOperator(pdf, page, (Operator) token, arguments);
-        arguments = new ArrayList<COSBase>();
+        arguments.clear();
       } else {
         arguments.add((COSBase) token);
       }
@@ -651,6 +1315,20 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     }
   }
 
+  /**
+   * Transforms the given coordinates by applying the given matrix, in the same way as
+   * {@link #transform(Point, Matrix)}, but without the need of a Point object.
+   * 
+   * @param p The point to transform, given as [x, y].
+   * @param m The matrix to apply.
+   */
+  public void transform(float[] p, Matrix m) {
+    if (p != null && m != null) {
+      p[0] = p[0] * m.getScaleX() + p[1] * m.getShearX() + m.getTranslateX();
+      p[1] = p[0] * m.getShearY() + p[1] * m.getScaleY() + m.getTranslateY();
+    }
+  }
+
   // ==============================================================================================
   // Methods related to text matrices.
 
@@ -690,6 +1368,23 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     this.textMatrix = value;
   }
 
+  /**
+   * Translates the text matrix by the given offsets, that is, replaces the text matrix by the
+   * product of the translation matrix and the text matrix. In contrast to
+   * {@link Matrix#translate(float, float)}, the text matrix is updated in place, without creating
+   * any intermediate matrices.
+   * 
+   * @param tx The offset in x direction, in text space.
+   * @param ty The offset in y direction, in text space.
+   */
+  public void translateTextMatrix(float tx, float ty) {
+    Matrix tm = this.textMatrix;
+    float translateX = tx * tm.getScaleX() + ty * tm.getShearX() + tm.getTranslateX();
+    float translateY = tx * tm.getShearY() + ty * tm.getScaleY() + tm.getTranslateY();
+    tm.setValue(2, 0, translateX);
+    tm.setValue(2, 1, translateY);
+  }
+
   // ==============================================================================================
   // Methods related to Type 3 fonts.
 
@@ -729,6 +1424,38 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     return this.currentType3GlyphBoundingBox;
   }
 
+  /**
+   * Sets the current type3 glyph bounding box in glyph space.
+   * 
+   * @param boundingBox The bounding box, given as [llx, lly, urx, ury].
+   * @param matrix      The matrix that was applied to transform the bounding box into the device
+   *                    space.
+   */
+  public void setCurrentType3GlyphSpaceBoundingBox(float[] boundingBox, Matrix matrix) {
+    this.currentType3GlyphSpaceBoundingBox = boundingBox;
+    this.currentType3GlyphMatrix = matrix;
+  }
+
+  /**
+   * Returns the current type3 glyph bounding box in glyph space, or null if the current type3
+   * stream didn't define a bounding box.
+   * 
+   * @return The current type3 glyph bounding box in glyph space, given as [llx, lly, urx, ury].
+   */
+  public float[] getCurrentType3GlyphSpaceBoundingBox() {
+    return this.currentType3GlyphSpaceBoundingBox;
+  }
+
+  /**
+   * Returns the matrix that was applied to transform the current type3 glyph bounding box into
+   * the device space.
+   * 
+   * @return The matrix.
+   */
+  public Matrix getCurrentType3GlyphMatrix() {
+    return this.currentType3GlyphMatrix;
+  }
+
   // ==============================================================================================
   // Methods related to the line path.
 
@@ -809,6 +1536,275 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     this.clippingWindingRule = rule;
   }
 
+  // ==============================================================================================
+  // Methods related to the elements to extract.
+
+  /**
+   * Returns true if the figures should be extracted, false otherwise.
+   * 
+   * @return True if the figures should be extracted, false otherwise.
+   */
+  public boolean isToExtractFigures() {
+    return this.isToExtractFigures;
+  }
+
+  /**
+   * Returns true if the shapes should be extracted, false otherwise.
+   * 
+   * @return True if the shapes should be extracted, false otherwise.
+   */
+  public boolean isToExtractShapes() {
+    return this.isToExtractShapes;
+  }
+
+  /**
+   * Returns true if the images should be classified into shapes (images with a single color) and
+   * figures, false if all images should be considered as figures.
+   * 
+   * @return True if the images should be classified, false otherwise.
+   */
+  public boolean isToClassifyImages() {
+    return this.isToClassifyImages;
+  }
+
+  /**
+   * Returns true if the shapes resulting from a single paint operation should be merged into a
+   * single shape (the bounding box of the painted path), false if a shape should be extracted
+   * per path segment.
+   * 
+   * @return True if the shapes of a paint operation should be merged, false otherwise.
+   */
+  public boolean isToMergeShapesPerPaint() {
+    return this.isToMergeShapesPerPaint;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether the shapes resulting from a single paint operation
+   * should be merged into a single shape (the bounding box of the painted path).
+   * 
+   * @param isToMergeShapesPerPaint True if the shapes of a paint operation should be merged,
+   *                                false if a shape should be extracted per path segment.
+   */
+  public void setIsToMergeShapesPerPaint(boolean isToMergeShapesPerPaint) {
+    this.isToMergeShapesPerPaint = isToMergeShapesPerPaint;
+  }
+
+  /**
+   * Returns the maximum number of shapes per page.
+   * 
+   * @return The maximum number of shapes per page; 0 if the number of shapes is not limited.
+   */
+  public int getMaxNumShapesPerPage() {
+    return this.maxNumShapesPerPage;
+  }
+
+  /**
+   * Sets the maximum number of shapes per page. If a page contains more shapes, neighboring
+   * shapes are merged, see {@link ShapeUtils#aggregate(Page, ElementList, int)}.
+   * 
+   * @param maxNumShapesPerPage The maximum number of shapes per page; 0 if the number of shapes
+   *                            should not be limited.
+   */
+  public void setMaxNumShapesPerPage(int maxNumShapesPerPage) {
+    this.maxNumShapesPerPage = maxNumShapesPerPage;
+  }
+
+  /**
+   * Returns true if characters drawn multiple times at nearly the same position (for example, to
+   * simulate bold text) should be removed, such that only the first drawn copy is kept.
+   * 
+   * @return True if duplicate characters should be removed, false otherwise.
+   */
+  public boolean isToRemoveDuplicateCharacters() {
+    return this.duplicateDetector != null;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether characters drawn multiple times at nearly the same
+   * position should be removed, see {@link DuplicateCharacterDetector}.
+   * 
+   * @param isToRemove True if duplicate characters should be removed, false otherwise.
+   */
+  public void setIsToRemoveDuplicateCharacters(boolean isToRemove) {
+    this.duplicateDetector = isToRemove ? new DuplicateCharacterDetector() : null;
+  }
+
+  /**
+   * Returns the policy how to deal with hidden characters of the given category.
+   * 
+   * @param category The category of hidden characters.
+   * 
+   * @return The policy.
+   */
+  public HiddenTextPolicy getHiddenTextPolicy(HiddenTextCategory category) {
+    return this.hiddenTextPolicies.get(category);
+  }
+
+  /**
+   * Sets the policy how to deal with hidden characters of the given category.
+   * 
+   * @param category The category of hidden characters.
+   * @param policy   The policy; null to keep the characters.
+   */
+  public void setHiddenTextPolicy(HiddenTextCategory category, HiddenTextPolicy policy) {
+    this.hiddenTextPolicies.put(category, policy != null ? policy : HiddenTextPolicy.KEEP);
+    if (category == HiddenTextCategory.CLIPPED) {
+      registerPathOperatorProcessors();
+    }
+  }
+
+  /**
+   * Returns the crop box of the page currently parsed.
+   * 
+   * @return The crop box of the page currently parsed.
+   */
+  public PDRectangle getCropBox() {
+    return this.cropBox;
+  }
+
+  /**
+   * Returns the registry of the colors of the extracted elements.
+   * 
+   * @return The color registry.
+   */
+  public ColorRegistry getColorRegistry() {
+    return this.colorRegistry;
+  }
+
+  /**
+   * Returns the converter to convert PDFont objects to font objects.
+   * 
+   * @return The font converter.
+   */
+  public PDFontConverter getFontConverter() {
+    return this.fontConverter;
+  }
+
+  /**
+   * Returns the converter to convert fonts and font sizes to font faces.
+   * 
+   * @return The font face converter.
+   */
+  public PDFontFaceConverter getFontFaceConverter() {
+    return this.fontFaceConverter;
+  }
+
+  /**
+   * Returns the setting that defines where PDFBox keeps its scratch data (for example, the
+   * decoded streams or the content of a PDF file given by a stream).
+   * 
+   * @return The memory usage setting.
+   */
+  public MemoryUsageSetting getMemoryUsageSetting() {
+    return this.memoryUsageSetting;
+  }
+
+  /**
+   * Sets the setting that defines where PDFBox keeps its scratch data (for example, the decoded
+   * streams or the content of a PDF file given by a stream), such that very large PDF files can
+   * use scratch files instead of main memory.
+   * 
+   * @param setting The memory usage setting; null to keep all scratch data in main memory.
+   */
+  public void setMemoryUsageSetting(MemoryUsageSetting setting) {
+    this.memoryUsageSetting = setting != null ? setting : MemoryUsageSetting.setupMainMemoryOnly();
+  }
+
+  /**
+   * Returns the maximum number of pages to parse in parallel.
+   * 
+   * @return The maximum number of pages to parse in parallel.
+   */
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Sets the maximum number of pages to parse in parallel. The extracted elements do not depend on
+   * the parallelism.
+   * 
+   * @param parallelism The maximum number of pages to parse in parallel.
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Returns the pool to parse the pages in parallel.
+   * 
+   * @return The pool to parse the pages in parallel; null if a pool is created per PDF document.
+   */
+  public ForkJoinPool getPool() {
+    return this.pool;
+  }
+
+  /**
+   * Sets the pool to parse the pages in parallel, shared with other parsers. The pool is not shut
+   * down after parsing. The number of pages parsed in parallel is still limited by the
+   * parallelism.
+   * 
+   * @param pool The pool to parse the pages in parallel; null to create a pool per PDF document.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Returns the metrics of the stage of the parsing.
+   * 
+   * @return The metrics of the stage; null if no metrics are recorded.
+   */
+  public StageMetrics getStageMetrics() {
+    return this.stageMetrics;
+  }
+
+  /**
+   * Sets the metrics of the stage of the parsing, to which the CPU time and the allocated bytes
+   * of the threads parsing the pages in parallel are added.
+   * 
+   * @param stageMetrics The metrics of the stage; null if no metrics should be recorded.
+   */
+  public void setStageMetrics(StageMetrics stageMetrics) {
+    this.stageMetrics = stageMetrics;
+  }
+
+  /**
+   * Returns the selection of the pages to parse.
+   * 
+   * @return The page selection; null if all pages are parsed.
+   */
+  public PageSelection getPageSelection() {
+    return this.pageSelection;
+  }
+
+  /**
+   * Sets the selection of the pages to parse. The content streams of the other pages are never
+   * decoded.
+   * 
+   * @param pageSelection The page selection; null to parse all pages.
+   */
+  public void setPageSelection(PageSelection pageSelection) {
+    this.pageSelection = pageSelection;
+  }
+
+  /**
+   * Returns the extraction rank of the next extracted character and increments it.
+   * 
+   * @return The extraction rank of the next extracted character.
+   */
+  public int nextExtractionRank() {
+    return this.nextExtractionRank++;
+  }
+
+  /**
+   * Returns the number of the characters, figures and shapes extracted so far.
+   * 
+   * @return The number of the extracted elements.
+   */
+  public int getNumExtractedElements() {
+    return this.numCharacters + this.numFigures + this.numShapes;
+  }
+
   // ==============================================================================================
   // Handler methods.
 
@@ -861,6 +1857,14 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    * @param c    The character to process.
    */
   public void handlePdfCharacter(Document pdf, Page page, Character c) {
+    // Add the character to the elements of the forms before checking for duplicates, as a replayed
+    // form may be painted on a page without the character duplicated here.
+    addFormElement(c);
+    if (this.duplicateDetector != null && this.duplicateDetector.isDuplicate(c)) {
+      return;
+    }
+    // Set the extraction rank only for characters added to the page.
+    c.setExtractionRank(nextExtractionRank());
     page.addCharacter(c);
     this.numCharacters++;
   }
@@ -873,7 +1877,11 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    * @param figure The figure to process.
    */
   public void handlePdfFigure(Document pdf, Page page, Figure figure) {
+    if (!this.isToExtractFigures) {
+      return;
+    }
     page.addFigure(figure);
+    addFormElement(figure);
     this.numFigures++;
   }
 
@@ -885,7 +1893,22 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    * @param shape The shape to process.
    */
   public void handlePdfShape(Document pdf, Page page, Shape shape) {
+    if (!this.isToExtractShapes) {
+      return;
+    }
     page.addShape(shape);
+    addFormElement(shape);
     this.numShapes++;
   }
+
+  /**
+   * Adds the given element to the elements of the forms that are currently interpreted.
+   * 
+   * @param element The extracted element.
+   */
+  protected void addFormElement(Element element) {
+    for (int i = 0; i < this.formElements.size(); i++) {
+      this.formElements.get(i).add(element);
+    }
+  }
 }
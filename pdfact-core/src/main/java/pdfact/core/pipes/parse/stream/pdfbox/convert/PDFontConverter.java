@@ -7,10 +7,16 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType3Font;
 import pdfact.core.model.Font;
@@ -18,6 +24,11 @@ import pdfact.core.model.Font;
 /**
  * A converter that converts PDFont objects to {@link Font} objects.
  * 
+ * <p>
+ * The well-known fonts are read from the AFM file only once per JVM and are shared by all
+ * converters. The fonts registered while converting are kept per converter, so a converter
+ * should be used for a single PDF document only.
+ * 
  * @author Claudius Korzen
  */
 public class PDFontConverter {
@@ -27,15 +38,42 @@ public class PDFontConverter {
   protected static Logger log = LogManager.getLogger(PDFontConverter.class);
 
   /**
-   * A map of the already known fonts per name.
+   * The well-known fonts per name, read from the AFM file. This map is shared by all converters
+   * and must not be modified.
+   */
+  protected static final Map<String, Font> WELL_KNOWN_FONTS =
+      Collections.unmodifiableMap(readWellKnownFontsFromFile());
+
+  /**
+   * A map of the fonts registered by this converter per name.
    */
   protected Map<String, Font> knownFonts;
 
+  /**
+   * A map of the already converted fonts per font dictionary, to resolve the font of a glyph
+   * without computing the normalized name of the font again.
+   */
+  protected Map<COSDictionary, Font> convertedFonts;
+
+  /**
+   * The fonts requested per active recording, in the order of their first request. The last list
+   * belongs to the recording that was started last.
+   */
+  protected List<List<Font>> requestedFonts;
+
+  /**
+   * The fonts requested per active recording, to check if a font was already requested.
+   */
+  protected List<Set<Font>> requestedFontsSets;
+
   /**
    * Creates a new font converter.
    */
   public PDFontConverter() {
-    this.knownFonts = readWellKnownFontsFromFile();
+    this.knownFonts = new HashMap<>();
+    this.convertedFonts = new IdentityHashMap<>();
+    this.requestedFonts = new ArrayList<>();
+    this.requestedFontsSets = new ArrayList<>();
   }
 
   // ==============================================================================================
@@ -54,26 +92,130 @@ public class PDFontConverter {
       return null;
     }
 
+    // Check if the font was already converted.
+    Font convertedFont = this.convertedFonts.get(font.getCOSObject());
+    if (convertedFont != null) {
+      return recordRequest(convertedFont);
+    }
+
     // Check if the font is already known.
     Font knownFont = getKnownFont(font);
     if (knownFont != null) {
-      return knownFont;
+      this.convertedFonts.put(font.getCOSObject(), knownFont);
+      return recordRequest(knownFont);
     }
 
     // The font is not known. Create a new font.
     Font newFont = new Font();
-    newFont.setId("font-" + this.knownFonts.size());
     newFont.setNormalizedName(computeNormalizedName(font));
     newFont.setBasename(computeBasename(newFont));
     newFont.setIsBold(computeIsBold(newFont));
     newFont.setIsItalic(computeIsItalic(newFont));
     newFont.setIsType3Font(computeIsType3Font(font));
+    addKnownFont(newFont);
+    this.convertedFonts.put(font.getCOSObject(), newFont);
+
+    return recordRequest(newFont);
+  }
+
+  /**
+   * Registers the given font, which was converted by another converter, as if it was converted
+   * by this converter: If a font with the normalized name of the given font is already known,
+   * returns the known font. Otherwise, gives the given font a new id and adds it to the known
+   * fonts. Registering the fonts of multiple converters in the order of their first request
+   * results in the same fonts (and ids) as converting all of them by a single converter.
+   * 
+   * @param font
+   *        The font to register.
+   * 
+   * @return The known font with the normalized name of the given font.
+   */
+  public Font registerFont(Font font) {
+    if (font == null) {
+      return null;
+    }
+
+    Font knownFont = WELL_KNOWN_FONTS.get(font.getNormalizedName());
+    if (knownFont == null) {
+      knownFont = this.knownFonts.get(font.getNormalizedName());
+    }
+    if (knownFont != null) {
+      return knownFont;
+    }
+    addKnownFont(font);
+
+    return font;
+  }
 
-    // Add the new font to the map of known fonts.
-    this.knownFonts.put(newFont.getNormalizedName(), newFont);
-    log.debug("A new font was registered: " + newFont);
+  // ==============================================================================================
 
-    return newFont;
+  /**
+   * Starts a new recording of the requested fonts. Recordings can be nested, a request is
+   * recorded by all active recordings.
+   */
+  public void startRecordingRequestedFonts() {
+    this.requestedFonts.add(new ArrayList<>());
+    this.requestedFontsSets.add(Collections.newSetFromMap(new IdentityHashMap<>()));
+  }
+
+  /**
+   * Stops the recording of the requested fonts that was started last.
+   * 
+   * @return The fonts requested since the recording was started, in the order of their first
+   *         request; null if no recording was started.
+   */
+  public List<Font> stopRecordingRequestedFonts() {
+    int last = this.requestedFonts.size() - 1;
+    if (last < 0) {
+      return null;
+    }
+    this.requestedFontsSets.remove(last);
+    return this.requestedFonts.remove(last);
+  }
+
+  /**
+   * Records requests of the given fonts, which were converted by this converter before, as if
+   * they were converted again.
+   * 
+   * @param fonts
+   *        The requested fonts, in the order of their first request.
+   */
+  public void recordRequests(List<Font> fonts) {
+    if (this.requestedFonts.isEmpty()) {
+      return;
+    }
+    for (Font font : fonts) {
+      recordRequest(font);
+    }
+  }
+
+  /**
+   * Records a request of the given font by all active recordings.
+   * 
+   * @param font
+   *        The requested font.
+   * 
+   * @return The given font.
+   */
+  protected Font recordRequest(Font font) {
+    for (int i = 0; i < this.requestedFonts.size(); i++) {
+      if (this.requestedFontsSets.get(i).add(font)) {
+        this.requestedFonts.get(i).add(font);
+      }
+    }
+    return font;
+  }
+
+  /**
+   * Gives the given font a new id and adds it to the known fonts.
+   * 
+   * @param font
+   *        The font to add.
+   */
+  protected void addKnownFont(Font font) {
+    font.setId("font-" + (WELL_KNOWN_FONTS.size() + this.knownFonts.size()));
+    this.knownFonts.put(font.getNormalizedName(), font);
+    log.debug("A new font was registered: " + font);
   }
 
   // ==============================================================================================
@@ -85,11 +227,12 @@ public class PDFontConverter {
    * 
    * @return The well-known fonts per name.
    */
-  protected Map<String, Font> readWellKnownFontsFromFile() {
+  protected static Map<String, Font> readWellKnownFontsFromFile() {
     Map<String, Font> knownFonts = new HashMap<>();
 
-    // Read the AFM file that contains some metadata about common fonts.
-    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    // Read the AFM file that contains some metadata about common fonts. Use the class loader of
+    // this class (and not the one of the current thread), as the file is read only once.
+    ClassLoader classLoader = PDFontConverter.class.getClassLoader();
     InputStream afm = classLoader.getResourceAsStream(AFM_FILE_PATH);
 
     log.debug("Reading the AFM file '" + AFM_FILE_PATH + "'.");
@@ -152,7 +295,9 @@ public class PDFontConverter {
    *         already known; null otherwise.
    */
   protected Font getKnownFont(PDFont font) {
-    return this.knownFonts.get(computeNormalizedName(font));
+    String normalizedName = computeNormalizedName(font);
+    Font knownFont = WELL_KNOWN_FONTS.get(normalizedName);
+    return knownFont != null ? knownFont : this.knownFonts.get(normalizedName);
   }
 
   // ==============================================================================================
@@ -196,7 +341,7 @@ public class PDFontConverter {
    *
    * @return The basename of the given font.
    */
-  public String computeBasename(Font font) {
+  public static String computeBasename(Font font) {
     // Compute the basename from the name: "LTSLOS+NimbusSanL-Bold"
     String basename = font.getNormalizedName();
 
@@ -1,6 +1,8 @@
 package pdfact.core.pipes.parse.stream.pdfbox.convert;
 
-import java.util.HashMap;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -20,15 +22,17 @@ public class PDFontFaceConverter {
   protected static Logger log = LogManager.getLogger(PDFontFaceConverter.class);
 
   /**
-   * The already known {@link FontFace} objects per name.
+   * The already known {@link FontFace} objects per font and font size. The fonts are given by the
+   * font converter, which returns a single {@link Font} object per font, so they are compared by
+   * identity. The font sizes are given by their bit representations.
    */
-  protected Map<String, FontFace> knownFontFaces;
+  protected Map<Font, TIntObjectMap<FontFace>> knownFontFaces;
 
   /**
    * Creates a new font face converter.
    */
   public PDFontFaceConverter() {
-    this.knownFontFaces = new HashMap<>();
+    this.knownFontFaces = new IdentityHashMap<>();
   }
 
   // ==============================================================================================
@@ -59,7 +63,12 @@ public class PDFontFaceConverter {
     FontFace newFontFace = new FontFace(font, fontSize);
 
     // Add the new font face to the map of known font faces.
-    this.knownFontFaces.put(font.getId() + ":" + fontSize, newFontFace);
+    TIntObjectMap<FontFace> fontFaces = this.knownFontFaces.get(font);
+    if (fontFaces == null) {
+      fontFaces = new TIntObjectHashMap<>();
+      this.knownFontFaces.put(font, fontFaces);
+    }
+    fontFaces.put(Float.floatToIntBits(fontSize), newFontFace);
     log.debug("A new font face was registered: " + newFontFace);
 
     return newFontFace;
@@ -78,6 +87,7 @@ public class PDFontFaceConverter {
    *         if the font is already known; null otherwise.
    */
   protected FontFace getKnownFontFace(Font font, float fontSize) {
-    return this.knownFontFaces.get(font.getId() + ":" + fontSize);
+    TIntObjectMap<FontFace> fontFaces = this.knownFontFaces.get(font);
+    return fontFaces != null ? fontFaces.get(Float.floatToIntBits(fontSize)) : null;
   }
 }
@@ -22,7 +22,6 @@ import pdfact.core.model.Shape;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
 import pdfact.core.pipes.parse.stream.pdfbox.utils.ColorUtils;
 import pdfact.core.util.PdfActUtils;
-import pdfact.core.util.color.ColorManager;
 
 /**
  * BI: Begin inline image.
@@ -66,7 +65,10 @@ public class BeginInlineImage extends OperatorProcessor {
 
       // If the image consists of only one color, consider it as a shape.
       // TODO: Manage the colors.
-      int[] exclusiveColor = ColorUtils.getExclusiveColor(image.getImage());
+      int[] exclusiveColor = null;
+      if (this.engine.isToClassifyImages()) {
+        exclusiveColor = ColorUtils.getExclusiveColor(image);
+      }
 
       Point ll = new Point(minX, minY);
       Point ur = new Point(maxX, maxY);
@@ -74,7 +76,7 @@ public class BeginInlineImage extends OperatorProcessor {
       Position position = new Position(page, ll, ur);
 
       if (exclusiveColor != null) {
-        Color color = ColorManager.getColor(exclusiveColor);
+        Color color = this.engine.getColorRegistry().getColor(exclusiveColor);
 
         log.debug("The inline image consists only of the color " + color + ". "
             + "Considering it as a shape.");
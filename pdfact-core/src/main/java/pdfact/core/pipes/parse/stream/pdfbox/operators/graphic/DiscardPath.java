@@ -0,0 +1,44 @@
+package pdfact.core.pipes.parse.stream.pdfbox.operators.graphic;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
+
+/**
+ * S, f, f*, B, B*: Ends the current path without painting it. Used instead of the actual paint
+ * operators if the paths are only needed to compute the clipping paths (but no shapes are
+ * needed), such that the painted paths don't become part of the next clipping path.
+ *
+ * @author Claudius Korzen
+ */
+public class DiscardPath extends OperatorProcessor {
+  /**
+   * The name of the paint operator.
+   */
+  protected String name;
+
+  /**
+   * Creates a new processor for the paint operator with the given name.
+   *
+   * @param name
+   *        The name of the paint operator.
+   */
+  public DiscardPath(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public void process(Document pdf, Page page, Operator op,
+      List<COSBase> args) throws IOException {
+    this.engine.getLinePath().reset();
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+}
@@ -26,7 +26,6 @@ import pdfact.core.model.Position;
 import pdfact.core.model.Shape;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
 import pdfact.core.pipes.parse.stream.pdfbox.utils.ColorUtils;
-import pdfact.core.util.color.ColorManager;
 
 /**
  * Do: Invoke a named xobject.
@@ -72,9 +71,9 @@ public class DrawObject extends OperatorProcessor {
         graphicsState.intersectClippingPath(bboxPath);
       }
 
-      // Parse the stream of the form.
+      // Parse the stream of the form (or replay the elements extracted from it before).
       if (form.getCOSObject().getLength() > 0) {
-        this.engine.processStream(pdf, page, form);
+        this.engine.processForm(pdf, page, form);
       }
 
       // Restore the graphics state.
@@ -83,8 +82,11 @@ public class DrawObject extends OperatorProcessor {
       return;
     }
 
-    // Consider the object as an image.
-    if (xobject instanceof PDImageXObject) {
+    // Consider the object as an image. Don't decode the image if neither figures nor shapes (an
+    // image with a single color is considered as a shape) should be extracted.
+    boolean isToExtractImages = this.engine.isToExtractFigures()
+        || this.engine.isToExtractShapes();
+    if (isToExtractImages && xobject instanceof PDImageXObject) {
       PDImageXObject image = (PDImageXObject) xobject;
 
       int width = image.getWidth();
@@ -107,10 +109,13 @@ public class DrawObject extends OperatorProcessor {
 
       // If the image consists of only one color, consider it as a shape.
       // TODO: Manage the colors.
-      int[] exclusiveColor = ColorUtils.getExclusiveColor(image.getImage());
+      int[] exclusiveColor = null;
+      if (this.engine.isToClassifyImages()) {
+        exclusiveColor = ColorUtils.getExclusiveColor(image);
+      }
 
       if (exclusiveColor != null) {
-        Color color = ColorManager.getColor(exclusiveColor);
+        Color color = this.engine.getColorRegistry().getColor(exclusiveColor);
         Shape shape = new Shape();
         shape.setPosition(position);
         shape.setColor(color);
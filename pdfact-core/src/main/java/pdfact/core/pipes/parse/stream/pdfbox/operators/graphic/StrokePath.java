@@ -4,7 +4,6 @@ import static pdfact.core.PdfActCoreSettings.FLOATING_NUMBER_PRECISION;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.PathIterator;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.List;
 import org.apache.pdfbox.contentstream.operator.Operator;
 import org.apache.pdfbox.cos.COSBase;
@@ -14,12 +13,10 @@ import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
 import pdfact.core.model.Color;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
-import pdfact.core.model.Point;
 import pdfact.core.model.Position;
 import pdfact.core.model.Shape;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
 import pdfact.core.util.PdfActUtils;
-import pdfact.core.util.color.ColorManager;
 
 /**
  * S: Stroke the path.
@@ -27,6 +24,11 @@ import pdfact.core.util.color.ColorManager;
  * @author Claudius Korzen
  */
 public class StrokePath extends OperatorProcessor {
+  /**
+   * The coordinates of the current path segment, reused for all segments.
+   */
+  protected float[] coordinates = new float[6];
+
   @Override
   public void process(Document pdf, Page page, Operator op,
       List<COSBase> args) throws IOException {
@@ -35,12 +37,6 @@ public class StrokePath extends OperatorProcessor {
       windingRule = ((COSNumber) args.get(0)).intValue();
     }
 
-    // Compute the bounding box of path to stroke.
-    float minX = Float.MAX_VALUE;
-    float minY = Float.MAX_VALUE;
-    float maxX = -Float.MAX_VALUE;
-    float maxY = -Float.MAX_VALUE;
-
     PDColor c;
     PDColorSpace cs;
     if (windingRule < 0) {
@@ -52,115 +48,105 @@ public class StrokePath extends OperatorProcessor {
     }
 
     // Convert the color.
-    Color color = ColorManager.getColor(c, cs);
+    Color color = this.engine.getColorRegistry().getColor(c, cs);
     GeneralPath linePath = this.engine.getLinePath();
+    boolean isToMerge = this.engine.isToMergeShapesPerPaint();
+
+    // Track the current position and the position of the last MOVETO operation in local
+    // variables, to not allocate any arrays or points per segment.
+    float[] position = this.engine.getLinePathPosition();
+    float[] lastMoveTo = this.engine.getLinePathLastMoveToPosition();
+    boolean hasPosition = position != null;
+    float x = hasPosition ? position[0] : 0;
+    float y = hasPosition ? position[1] : 0;
+    boolean hasMoveTo = lastMoveTo != null;
+    float moveToX = hasMoveTo ? lastMoveTo[0] : 0;
+    float moveToY = hasMoveTo ? lastMoveTo[1] : 0;
+
+    // The bounding box of all segments, if the shapes of this operation should be merged.
+    float minX = Float.MAX_VALUE;
+    float minY = Float.MAX_VALUE;
+    float maxX = -Float.MAX_VALUE;
+    float maxY = -Float.MAX_VALUE;
 
-    PathIterator itr;
-    int previousSegment = -1;
-    for (itr = linePath.getPathIterator(null); !itr.isDone(); itr.next()) {
-      float[] coordinates = new float[6];
-      int currentSegment = itr.currentSegment(coordinates);
-
-      // Don't consider a MOVETO operation, if it is the last operation in
-      // path.
-      if (previousSegment == PathIterator.SEG_MOVETO
-          && currentSegment != PathIterator.SEG_MOVETO) {
-        if (this.engine.getLinePathLastMoveToPosition()[0] < minX) {
-          minX = this.engine.getLinePathLastMoveToPosition()[0];
-        }
-        if (this.engine.getLinePathLastMoveToPosition()[0] > maxX) {
-          maxX = this.engine.getLinePathLastMoveToPosition()[0];
-        }
-        if (this.engine.getLinePathLastMoveToPosition()[1] < minY) {
-          minY = this.engine.getLinePathLastMoveToPosition()[1];
-        }
-        if (this.engine.getLinePathLastMoveToPosition()[1] > maxY) {
-          maxY = this.engine.getLinePathLastMoveToPosition()[1];
-        }
-      }
-
-      float[] pathPosition = this.engine.getLinePathPosition();
-
-      switch (currentSegment) {
+    float[] coords = this.coordinates;
+    for (PathIterator itr = linePath.getPathIterator(null); !itr.isDone(); itr.next()) {
+      float endX;
+      float endY;
+      switch (itr.currentSegment(coords)) {
         case PathIterator.SEG_CLOSE:
-          float[] lastMoveTo = this.engine.getLinePathLastMoveToPosition();
-          this.engine.setLinePathPosition(lastMoveTo);
-          break;
-        case PathIterator.SEG_CUBICTO:
-          float[] curveEnd = Arrays.copyOfRange(coordinates, 4, 6);
-
-          Point ll = new Point(pathPosition[0], pathPosition[1]);
-          Point ur = new Point(curveEnd[0], curveEnd[1]);
-
-          // Round the values.
-          ll.setX(PdfActUtils.round(ll.getX(), FLOATING_NUMBER_PRECISION));
-          ll.setY(PdfActUtils.round(ll.getY(), FLOATING_NUMBER_PRECISION));
-          ur.setX(PdfActUtils.round(ur.getX(), FLOATING_NUMBER_PRECISION));
-          ur.setY(PdfActUtils.round(ur.getY(), FLOATING_NUMBER_PRECISION));
-
-          Position position = new Position(page, ll, ur);
-
-          Shape shape = new Shape();
-          shape.setPosition(position);
-          shape.setColor(color);
-          this.engine.handlePdfShape(pdf, page, shape);
-
-          this.engine.setLinePathPosition(curveEnd);
-          break;
-        case PathIterator.SEG_LINETO:
-          float[] lineEnd = Arrays.copyOf(coordinates, 2);
-
-          ll = new Point(pathPosition[0], pathPosition[1]);
-          ur = new Point(lineEnd[0], lineEnd[1]);
-
-          // Round the values.
-          ll.setX(PdfActUtils.round(ll.getX(), FLOATING_NUMBER_PRECISION));
-          ll.setY(PdfActUtils.round(ll.getY(), FLOATING_NUMBER_PRECISION));
-          ur.setX(PdfActUtils.round(ur.getX(), FLOATING_NUMBER_PRECISION));
-          ur.setY(PdfActUtils.round(ur.getY(), FLOATING_NUMBER_PRECISION));
-
-          position = new Position(page, ll, ur);
-
-          shape = new Shape();
-          shape.setPosition(position);
-          shape.setColor(color);
-          this.engine.handlePdfShape(pdf, page, shape);
-
-          this.engine.setLinePathPosition(lineEnd);
-          break;
+          hasPosition = hasMoveTo;
+          x = moveToX;
+          y = moveToY;
+          continue;
         case PathIterator.SEG_MOVETO:
-          float[] pos = Arrays.copyOf(coordinates, 2);
-          this.engine.setLinePathLastMoveToPosition(pos);
-          this.engine.setLinePathPosition(pos);
+          hasPosition = hasMoveTo = true;
+          x = moveToX = coords[0];
+          y = moveToY = coords[1];
+          continue;
+        case PathIterator.SEG_LINETO:
+          endX = coords[0];
+          endY = coords[1];
           break;
         case PathIterator.SEG_QUADTO:
-          float[] quadEnd = Arrays.copyOfRange(coordinates, 2, 4);
-
-          ll = new Point(pathPosition[0], pathPosition[1]);
-          ur = new Point(quadEnd[0], quadEnd[1]);
-
-          // Round the values.
-          ll.setX(PdfActUtils.round(ll.getX(), FLOATING_NUMBER_PRECISION));
-          ll.setY(PdfActUtils.round(ll.getY(), FLOATING_NUMBER_PRECISION));
-          ur.setX(PdfActUtils.round(ur.getX(), FLOATING_NUMBER_PRECISION));
-          ur.setY(PdfActUtils.round(ur.getY(), FLOATING_NUMBER_PRECISION));
-
-          position = new Position(page, ll, ur);
-
-          shape = new Shape();
-          shape.setPosition(position);
-          shape.setColor(color);
-          this.engine.handlePdfShape(pdf, page, shape);
-
-          this.engine.setLinePathPosition(quadEnd);
+          endX = coords[2];
+          endY = coords[3];
           break;
-        default:
+        case PathIterator.SEG_CUBICTO:
+          endX = coords[4];
+          endY = coords[5];
           break;
+        default:
+          continue;
+      }
+
+      if (hasPosition) {
+        if (isToMerge) {
+          minX = Math.min(minX, Math.min(x, endX));
+          minY = Math.min(minY, Math.min(y, endY));
+          maxX = Math.max(maxX, Math.max(x, endX));
+          maxY = Math.max(maxY, Math.max(y, endY));
+        } else {
+          // A shape from the start to the end point of the segment.
+          handleShape(pdf, page, color, x, y, endX, endY);
+        }
       }
-      previousSegment = currentSegment;
+      hasPosition = true;
+      x = endX;
+      y = endY;
+    }
+
+    if (isToMerge && minX <= maxX) {
+      // A single shape for all segments painted by this operation.
+      handleShape(pdf, page, color, minX, minY, maxX, maxY);
     }
+
+    this.engine.setLinePathPosition(hasPosition ? new float[] { x, y } : null);
+    this.engine.setLinePathLastMoveToPosition(hasMoveTo ? new float[] { moveToX, moveToY } : null);
     linePath.reset();
+  }
 
+  /**
+   * Creates a shape with the given color and (rounded) coordinates and passes it to the engine.
+   * 
+   * @param pdf   The PDF document to which the shape belongs to.
+   * @param page  The PDF page to which the shape belongs to.
+   * @param color The color of the shape.
+   * @param minX  The x-coordinate of the lower left point of the shape.
+   * @param minY  The y-coordinate of the lower left point of the shape.
+   * @param maxX  The x-coordinate of the upper right point of the shape.
+   * @param maxY  The y-coordinate of the upper right point of the shape.
+   */
+  protected void handleShape(Document pdf, Page page, Color color, float minX, float minY,
+      float maxX, float maxY) {
+    Shape shape = new Shape();
+    shape.setPosition(new Position(page,
+        PdfActUtils.round(minX, FLOATING_NUMBER_PRECISION),
+        PdfActUtils.round(minY, FLOATING_NUMBER_PRECISION),
+        PdfActUtils.round(maxX, FLOATING_NUMBER_PRECISION),
+        PdfActUtils.round(maxY, FLOATING_NUMBER_PRECISION)));
+    shape.setColor(color);
+    this.engine.handlePdfShape(pdf, page, shape);
   }
 
   @Override
@@ -40,6 +40,12 @@ public class SetType3GlyphWidthAndBoundingBox extends OperatorProcessor {
     COSNumber urx = (COSNumber) args.get(4);
     COSNumber ury = (COSNumber) args.get(5);
 
+    // Remember the bounding box in glyph space, so that it can be reused for further occurrences
+    // of the glyph without processing the type3 stream again.
+    this.engine.setCurrentType3GlyphSpaceBoundingBox(new float[] { llx.floatValue(),
+        lly.floatValue(), urx.floatValue(), ury.floatValue() },
+        this.engine.getCurrentTransformationMatrix().clone());
+
     Point ll = new Point(llx.floatValue(), lly.floatValue());
     Point ur = new Point(urx.floatValue(), ury.floatValue());
 
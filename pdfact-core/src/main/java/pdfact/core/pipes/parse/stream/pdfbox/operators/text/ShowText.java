@@ -1,12 +1,15 @@
 package pdfact.core.pipes.parse.stream.pdfbox.operators.text;
 
 import static pdfact.core.PdfActCoreSettings.FLOATING_NUMBER_PRECISION;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import java.awt.geom.Rectangle2D;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.fontbox.afm.CharMetric;
@@ -18,7 +21,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.pdfbox.contentstream.operator.Operator;
 import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDFontFactory;
 import org.apache.pdfbox.pdmodel.font.PDSimpleFont;
@@ -31,6 +36,7 @@ import org.apache.pdfbox.pdmodel.graphics.color.PDColor;
 import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
 import org.apache.pdfbox.pdmodel.graphics.state.PDGraphicsState;
 import org.apache.pdfbox.pdmodel.graphics.state.PDTextState;
+import org.apache.pdfbox.pdmodel.graphics.state.RenderingMode;
 import org.apache.pdfbox.util.Matrix;
 import org.apache.pdfbox.util.Vector;
 import pdfact.core.model.Character;
@@ -38,17 +44,15 @@ import pdfact.core.model.Color;
 import pdfact.core.model.Document;
 import pdfact.core.model.Font;
 import pdfact.core.model.FontFace;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
 import pdfact.core.model.Page;
-import pdfact.core.model.Point;
 import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
-import pdfact.core.pipes.parse.stream.pdfbox.convert.PDFontConverter;
-import pdfact.core.pipes.parse.stream.pdfbox.convert.PDFontFaceConverter;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
 import pdfact.core.pipes.parse.stream.pdfbox.utils.PdfBoxAFMUtils;
 import pdfact.core.pipes.parse.stream.pdfbox.utils.PdfBoxGlyphUtils;
 import pdfact.core.util.PdfActUtils;
-import pdfact.core.util.color.ColorManager;
 
 /**
  * Tj: Show a text string.
@@ -56,39 +60,64 @@ import pdfact.core.util.color.ColorManager;
  * @author Claudius Korzen
  */
 public class ShowText extends OperatorProcessor {
+  /**
+   * The marker for glyphs without a computable bounding box in the cache of bounding boxes.
+   */
+  protected static final float[] NO_BOUNDING_BOX = new float[0];
+
   /**
    * The logger.
    */
   protected final Logger log = LogManager.getFormatterLogger("char-extraction");
 
   /**
-   * The translator to translate PDFont objects to PdfFont objects.
+   * The util to read the specifications of special glyphs.
    */
-  protected PDFontConverter fontTranslator;
+  protected PdfBoxGlyphUtils glyphUtils;
 
   /**
-   * The converter to create instances of {@link FontFace}.
+   * The bounding boxes of the already processed glyphs in glyph space, per font and code. The
+   * fonts are identified by their dictionaries, since the PDFont objects may differ per page.
    */
-  protected PDFontFaceConverter fontFaceConverter;
+  protected Map<COSDictionary, TIntObjectMap<float[]>> glyphBoundingBoxes;
 
   /**
-   * The util to read the specifications of special glyphs.
+   * The font to use if the text state has no current font; null if it was not needed yet. It is
+   * created only once, because each created default font has its own dictionary and would add a
+   * new entry to the cached bounding boxes.
    */
-  protected PdfBoxGlyphUtils glyphUtils;
+  protected PDFont defaultFont;
+
+  /**
+   * The text rendering matrix, reused for all glyphs not given in a Type3 font.
+   */
+  protected Matrix trm;
+
+  /**
+   * The product of the text state parameters and the text matrix, reused for all glyphs.
+   */
+  protected Matrix paramsTimesTextMatrix;
+
+  /**
+   * The lower left point of the bounding box to transform, reused for all glyphs.
+   */
+  protected float[] lowerLeft;
 
   /**
-   * The number of already processed characters (needed to define the sequence number of a
-   * character).
+   * The upper right point of the bounding box to transform, reused for all glyphs.
    */
-  protected int sequenceNumber;
+  protected float[] upperRight;
 
   /**
    * Creates a new OperatorProcessor to process the operation "ShowText".
    */
   public ShowText() {
-    this.fontTranslator = new PDFontConverter();
-    this.fontFaceConverter = new PDFontFaceConverter();
     this.glyphUtils = new PdfBoxGlyphUtils();
+    this.glyphBoundingBoxes = new IdentityHashMap<>();
+    this.trm = new Matrix();
+    this.paramsTimesTextMatrix = new Matrix();
+    this.lowerLeft = new float[2];
+    this.upperRight = new float[2];
   }
 
   // ==============================================================================================
@@ -119,7 +148,7 @@ public class ShowText extends OperatorProcessor {
     PDFont font = textState.getFont();
     if (font == null) {
       // No current font available, use a default one.
-      font = PDFontFactory.createDefaultFont();
+      font = getDefaultFont();
     }
 
     // Get the text to show.
@@ -143,9 +172,14 @@ public class ShowText extends OperatorProcessor {
           wordSpacing += textState.getWordSpacing();
         }
 
-        // Define the text rendering matrix (text space -> device space)
+        // Define the text rendering matrix (text space -> device space). The matrix is reused for
+        // all glyphs, except for glyphs in a Type3 font, since the Type3 stream of the glyph uses
+        // the matrix as its CTM and may show text itself.
+        boolean isType3Font = font instanceof PDType3Font;
         Matrix ctm = state.getCurrentTransformationMatrix();
-        Matrix trm = params.multiply(this.engine.getTextMatrix()).multiply(ctm);
+        Matrix trm = isType3Font ? new Matrix() : this.trm;
+        params.multiply(this.engine.getTextMatrix(), this.paramsTimesTextMatrix);
+        this.paramsTimesTextMatrix.multiply(ctm, trm);
 
         // get glyph's position vector if this is vertical text
         // changes to vertical text should be tested with PDFBOX-2294 and
@@ -159,14 +193,18 @@ public class ShowText extends OperatorProcessor {
           trm.translate(v);
         }
 
-        // Process the glyph.
-        this.engine.saveGraphicsState();
-        showGlyph(pdf, page, unicode, code, font, trm);
-        this.engine.restoreGraphicsState();
-
         // Get glyph's horizontal and vertical displacements, in text space
         Vector w = font.getDisplacement(code);
 
+        // Process the glyph. Only the Type3 stream of a glyph may change the graphics state.
+        if (isType3Font) {
+          this.engine.saveGraphicsState();
+        }
+        showGlyph(pdf, page, unicode, code, font, trm, w);
+        if (isType3Font) {
+          this.engine.restoreGraphicsState();
+        }
+
         // Calculate the displacements.
         float tx, ty;
         if (font.isVertical()) {
@@ -178,8 +216,7 @@ public class ShowText extends OperatorProcessor {
         }
 
         // Update the text matrix.
-        Matrix translate = Matrix.getTranslateInstance(tx, ty);
-        this.engine.getTextMatrix().concatenate(translate);
+        this.engine.translateTextMatrix(tx, ty);
       }
     } catch (Exception e) {
       log.warn("An error occurred on processing the character " + text, e);
@@ -198,10 +235,28 @@ public class ShowText extends OperatorProcessor {
    * @param code   The internal PDF character code for the glyph
    * @param pdFont The font of the glyph.
    * @param trm    The current text rendering matrix
+   * @param w      The displacement of the glyph, in text space.
    * @throws IOException if something went wrong on processing the glyph.
    */
-  public void showGlyph(Document pdf, Page page, String glyph, int code, PDFont pdFont, Matrix trm)
-          throws IOException {
+  public void showGlyph(Document pdf, Page page, String glyph, int code, PDFont pdFont, Matrix trm,
+          Vector w) throws IOException {
+    // Check if the glyph is invisible before computing its bounding box, font and color, such
+    // that invisible glyphs to drop (for example, the text layer of a scanned page) are discarded
+    // as early as possible.
+    HiddenTextCategory hiddenCategory = null;
+    RenderingMode renderingMode = this.engine.getGraphicsState().getTextState()
+        .getRenderingMode();
+    if (!renderingMode.isFill() && !renderingMode.isStroke()) {
+      HiddenTextPolicy policy = this.engine.getHiddenTextPolicy(HiddenTextCategory.INVISIBLE);
+      if (policy == HiddenTextPolicy.DROP) {
+        log.debug("Dropped invisible char with code %d", code);
+        return;
+      }
+      if (policy == HiddenTextPolicy.FLAG) {
+        hiddenCategory = HiddenTextCategory.INVISIBLE;
+      }
+    }
+
     // Compute a bounding box that indeed surrounds the whole glyph, even in
     // case of ascenders (e.g., "l") and descenders (e.g., "g").
     // TODO: Make it faster.
@@ -211,7 +266,7 @@ public class ShowText extends OperatorProcessor {
     // bounding boxes in a text line share the same baseline, even in case of
     // ascenders and descenders.
     // TODO: Make it faster.
-    Rectangle pdfBoxBoundBox = computePdfBoxGlyphBoundingBox(code, pdFont, trm);
+    Rectangle pdfBoxBoundBox = computePdfBoxGlyphBoundingBox(w, pdFont, trm);
 
     if (box != null) {
       // Bounding boxes need some adjustments.
@@ -232,6 +287,16 @@ public class ShowText extends OperatorProcessor {
       box = pdfBoxBoundBox;
     }
 
+    // Check if the glyph lies outside the page or the clipping path.
+    if (hiddenCategory == null) {
+      hiddenCategory = getHiddenTextCategory(box);
+      if (hiddenCategory != null
+          && this.engine.getHiddenTextPolicy(hiddenCategory) == HiddenTextPolicy.DROP) {
+        log.debug("Dropped %s char with code %d", hiddenCategory.getName(), code);
+        return;
+      }
+    }
+
     // Compute the fontsize. 
     // See https://stackoverflow.com/questions/48010235/pdf-specification-get-font-size-in-points
     // for an explanation why we can't use engine.getGraphicsState().getTextState().getFontSize().
@@ -301,13 +366,13 @@ public class ShowText extends OperatorProcessor {
     PDColorSpace pdColorSpace = graphicsState.getNonStrokingColorSpace();
 
     // Convert the color.
-    Color color = ColorManager.getColor(pdColor, pdColorSpace);
+    Color color = this.engine.getColorRegistry().getColor(pdColor, pdColorSpace);
 
     // Convert the font.
-    Font font = this.fontTranslator.convert(pdFont);
+    Font font = this.engine.getFontConverter().convert(pdFont);
     // Round the font size.
     fontSize = PdfActUtils.round(fontSize, FLOATING_NUMBER_PRECISION);
-    FontFace fontFace = this.fontFaceConverter.convert(font, fontSize);
+    FontFace fontFace = this.engine.getFontFaceConverter().convert(font, fontSize);
 
     // Round the values of boundingbox.
     box.setMinX(PdfActUtils.round(box.getMinX(), FLOATING_NUMBER_PRECISION));
@@ -322,6 +387,7 @@ public class ShowText extends OperatorProcessor {
     character.setFontFace(fontFace);
     character.setColor(color);
     character.setPosition(position);
+    character.setHiddenTextCategory(hiddenCategory);
 
     log.debug("---------------------------------------------");
     log.debug("Extracted char:   \"%s\"", character.getText());
@@ -351,15 +417,48 @@ public class ShowText extends OperatorProcessor {
       return;
     }
 
-    // Set the extraction rank only for non-ignored characters.
-    character.setExtractionRank(this.sequenceNumber++);
-    log.debug("... rank:         %s", character.getExtractionRank());    
-
     this.engine.handlePdfCharacter(pdf, page, character);
+    log.debug("... rank:         %s", character.getExtractionRank());
   }
 
   // ==============================================================================================
 
+  /**
+   * Checks if a glyph with the given bounding box lies completely outside the crop box of the page
+   * or outside the bounding box of the current clipping path. Only the categories whose policy is
+   * not {@link HiddenTextPolicy#KEEP} are checked.
+   * 
+   * @param box The bounding box of the glyph.
+   * 
+   * @return The category of the glyph, if it is hidden; null otherwise.
+   */
+  protected HiddenTextCategory getHiddenTextCategory(Rectangle box) {
+    if (box.getWidth() <= 0 || box.getHeight() <= 0) {
+      // Such glyphs are ignored anyway.
+      return null;
+    }
+
+    PDRectangle cropBox = this.engine.getCropBox();
+    if (cropBox != null
+        && this.engine.getHiddenTextPolicy(HiddenTextCategory.OFF_PAGE) != HiddenTextPolicy.KEEP) {
+      if (box.getMaxX() <= cropBox.getLowerLeftX() || box.getMinX() >= cropBox.getUpperRightX()
+          || box.getMaxY() <= cropBox.getLowerLeftY()
+          || box.getMinY() >= cropBox.getUpperRightY()) {
+        return HiddenTextCategory.OFF_PAGE;
+      }
+    }
+
+    if (this.engine.getHiddenTextPolicy(HiddenTextCategory.CLIPPED) != HiddenTextPolicy.KEEP) {
+      // Use the bounds of the clipping path, to not intersect the glyph with arbitrary paths.
+      Rectangle2D clip = this.engine.getGraphicsState().getCurrentClippingPath().getBounds2D();
+      if (box.getMaxX() <= clip.getMinX() || box.getMinX() >= clip.getMaxX()
+          || box.getMaxY() <= clip.getMinY() || box.getMinY() >= clip.getMaxY()) {
+        return HiddenTextCategory.CLIPPED;
+      }
+    }
+    return null;
+  }
+
   /**
    * Computes the bounding box for the given glyph in any font.
    * 
@@ -399,10 +498,62 @@ public class ShowText extends OperatorProcessor {
   protected Rectangle computeType3GlyphBoundingBox(Document pdf, Page page, int code, PDFont font,
           Matrix trm) throws IOException {
     PDType3Font type3Font = (PDType3Font) font;
+
+    TIntObjectMap<float[]> boundingBoxes = getGlyphBoundingBoxes(font);
+    float[] box = boundingBoxes.get(code);
+    if (box != null) {
+      // Apply the font matrix to the text rendering matrix, as processing the stream would do.
+      trm.concatenate(type3Font.getFontMatrix());
+      return transformType3BoundingBox(box, trm);
+    }
+
+    Matrix expectedTrm = trm.clone();
+    expectedTrm.concatenate(type3Font.getFontMatrix());
+    int numExtractedElements = this.engine.getNumExtractedElements();
+
     this.engine.processType3Stream(pdf, page, type3Font.getCharProc(code), trm);
+
+    // Cache the bounding box in glyph space, but only if the stream defines a bounding box and
+    // has no other effects than applying the font matrix. Otherwise, the stream must be processed
+    // again on the next occurrence of the glyph.
+    box = this.engine.getCurrentType3GlyphSpaceBoundingBox();
+    if (box != null && trm.equals(expectedTrm)
+        && trm.equals(this.engine.getCurrentType3GlyphMatrix())
+        && this.engine.getNumExtractedElements() == numExtractedElements
+        && this.engine.getLinePath().getCurrentPoint() == null) {
+      boundingBoxes.put(code, box);
+    }
+
     return this.engine.getCurrentType3GlyphBoundingBox();
   }
 
+  /**
+   * Transforms the given bounding box of a Type3 glyph into the device space.
+   * 
+   * @param box The bounding box in glyph space, given as [llx, lly, urx, ury].
+   * @param trm The text rendering matrix, with the font matrix already applied.
+   * 
+   * @return The transformed bounding box.
+   */
+  protected Rectangle transformType3BoundingBox(float[] box, Matrix trm) {
+    float[] ll = this.lowerLeft;
+    float[] ur = this.upperRight;
+    ll[0] = box[0];
+    ll[1] = box[1];
+    ur[0] = box[2];
+    ur[1] = box[3];
+
+    this.engine.transform(ll, trm);
+    this.engine.transform(ur, trm);
+
+    float minX = Math.min(ll[0], ur[0]);
+    float minY = Math.min(ll[1], ur[1]);
+    float maxX = Math.max(ll[0], ur[0]);
+    float maxY = Math.max(ll[1], ur[1]);
+
+    return new Rectangle(minX, minY, maxX, maxY);
+  }
+
   /**
    * Computes the bounding box for the given glyph, given in any font, different from a Type3 font.
    * 
@@ -424,16 +575,41 @@ public class ShowText extends OperatorProcessor {
       return null;
     }
 
-    PDSimpleFont simpleFont = (PDSimpleFont) font;
+    // The bounding box in glyph space only depends on the font and the code, so compute it only
+    // once per font and code. Only the transformation into device space depends on the occurrence.
+    TIntObjectMap<float[]> boundingBoxes = getGlyphBoundingBoxes(font);
+
+    float[] box = boundingBoxes.get(code);
+    if (box == null) {
+      box = computeGlyphSpaceBoundingBox(code, (PDSimpleFont) font);
+      boundingBoxes.put(code, box != null ? box : NO_BOUNDING_BOX);
+    }
+
+    if (box == null || box == NO_BOUNDING_BOX) {
+      return null;
+    }
+    return transformBoundingBox(box[0], box[1], box[2], box[3], font, trm);
+  }
 
+  /**
+   * Computes the bounding box for the given glyph in glyph space, given in any simple font.
+   * 
+   * @param code The internal PDF character code for the glyph
+   * @param font The font of the glyph.
+   * 
+   * @return The bounding box of the glyph, given as [minX, minY, maxX, maxY], or null, if the
+   *         bounding box could not be computed.
+   * @throws IOException if something went wrong on computing the bounding box.
+   */
+  protected float[] computeGlyphSpaceBoundingBox(int code, PDSimpleFont font) throws IOException {
     // Obtain the associated glyph name.
-    Encoding encoding = simpleFont.getEncoding();
+    Encoding encoding = font.getEncoding();
     if (encoding != null) {
       String glyphName = encoding.getName(code);
       if (glyphName != null) {
         // Check, if the font is a type1 font.
-        if (simpleFont instanceof PDType1Font) {
-          PDType1Font t1Font = (PDType1Font) simpleFont;
+        if (font instanceof PDType1Font) {
+          PDType1Font t1Font = (PDType1Font) font;
 
           // Check, if the font contains an embedded FontFile.
           Type1Font afmFont = t1Font.getType1Font();
@@ -441,11 +617,8 @@ public class ShowText extends OperatorProcessor {
             Type1CharString charString = afmFont.getType1CharString(glyphName);
             if (charString != null) {
               Rectangle2D boundingBox = charString.getBounds();
-              float minX = (float) boundingBox.getMinX();
-              float minY = (float) boundingBox.getMinY();
-              float maxX = (float) boundingBox.getMaxX();
-              float maxY = (float) boundingBox.getMaxY();
-              return transformBoundingBox(minX, minY, maxX, maxY, font, trm);
+              return new float[] { (float) boundingBox.getMinX(), (float) boundingBox.getMinY(),
+                  (float) boundingBox.getMaxX(), (float) boundingBox.getMaxY() };
             }
           }
 
@@ -453,30 +626,24 @@ public class ShowText extends OperatorProcessor {
           CharMetric metric = PdfBoxAFMUtils.getCharMetric(glyphName, t1Font);
           if (metric != null) {
             BoundingBox boundingBox = metric.getBoundingBox();
-            float minX = boundingBox.getLowerLeftX();
-            float minY = boundingBox.getLowerLeftY();
-            float maxX = boundingBox.getUpperRightX();
-            float maxY = boundingBox.getUpperRightY();
-            return transformBoundingBox(minX, minY, maxX, maxY, font, trm);
+            return new float[] { boundingBox.getLowerLeftX(), boundingBox.getLowerLeftY(),
+                boundingBox.getUpperRightX(), boundingBox.getUpperRightY() };
           }
         }
 
         // Check, if the font contains an embedded FontFile3.
-        if (simpleFont instanceof PDType1CFont) {
+        if (font instanceof PDType1CFont) {
           // This font has an embedded font program represented in the Compact
           // Font Format (CFF).
-          PDType1CFont type1CFont = (PDType1CFont) simpleFont;
+          PDType1CFont type1CFont = (PDType1CFont) font;
           CFFType1Font cffFont = type1CFont.getCFFType1Font();
           if (cffFont != null) {
             Type1CharString charString = cffFont.getType1CharString(glyphName);
 
             if (charString != null) {
               Rectangle2D boundingBox = charString.getBounds();
-              float minX = (float) boundingBox.getMinX();
-              float minY = (float) boundingBox.getMinY();
-              float maxX = (float) boundingBox.getMaxX();
-              float maxY = (float) boundingBox.getMaxY();
-              return transformBoundingBox(minX, minY, maxX, maxY, font, trm);
+              return new float[] { (float) boundingBox.getMinX(), (float) boundingBox.getMinY(),
+                  (float) boundingBox.getMaxX(), (float) boundingBox.getMaxY() };
             }
           }
         }
@@ -485,6 +652,36 @@ public class ShowText extends OperatorProcessor {
     return null;
   }
 
+  /**
+   * Returns the font to use if the text state has no current font, and creates it on first use.
+   * 
+   * @return The default font.
+   * 
+   * @throws IOException If the default font could not be created.
+   */
+  protected PDFont getDefaultFont() throws IOException {
+    if (this.defaultFont == null) {
+      this.defaultFont = PDFontFactory.createDefaultFont();
+    }
+    return this.defaultFont;
+  }
+
+  /**
+   * Returns the cached bounding boxes in glyph space of the glyphs in the given font.
+   * 
+   * @param font The font.
+   * 
+   * @return The bounding boxes in glyph space, per code.
+   */
+  protected TIntObjectMap<float[]> getGlyphBoundingBoxes(PDFont font) {
+    TIntObjectMap<float[]> boundingBoxes = this.glyphBoundingBoxes.get(font.getCOSObject());
+    if (boundingBoxes == null) {
+      boundingBoxes = new TIntObjectHashMap<>();
+      this.glyphBoundingBoxes.put(font.getCOSObject(), boundingBoxes);
+    }
+    return boundingBoxes;
+  }
+
   /**
    * Transforms the given bounding box into the device space.
    * 
@@ -503,8 +700,12 @@ public class ShowText extends OperatorProcessor {
       return null;
     }
 
-    Point lowerLeft = new Point(minX, minY);
-    Point upperRight = new Point(maxX, maxY);
+    float[] lowerLeft = this.lowerLeft;
+    float[] upperRight = this.upperRight;
+    lowerLeft[0] = minX;
+    lowerLeft[1] = minY;
+    upperRight[0] = maxX;
+    upperRight[1] = maxY;
 
     Matrix fontMatrix = font.getFontMatrix();
 
@@ -516,47 +717,46 @@ public class ShowText extends OperatorProcessor {
     this.engine.transform(lowerLeft, trm);
     this.engine.transform(upperRight, trm);
 
-    return new Rectangle(lowerLeft, upperRight);
+    return new Rectangle(lowerLeft[0], lowerLeft[1], upperRight[0], upperRight[1]);
   }
 
   /**
    * Computes the bounding box for the given glyph by the method of PdfBox, that is computing an
    * approximate bounding box, without respecting ascenders (like "l") or descenders (like "g").
    * 
-   * @param code The character
-   * @param font The font.
-   * @param trm  The current text rendering matrix.
+   * @param displacement The displacement of the glyph, in text space.
+   * @param font         The font.
+   * @param trm          The current text rendering matrix.
    * @return The bounding box.
    * @throws IOException if obtaining the default bounding box fails.
    */
-  protected Rectangle computePdfBoxGlyphBoundingBox(int code, PDFont font, Matrix trm)
+  protected Rectangle computePdfBoxGlyphBoundingBox(Vector displacement, PDFont font, Matrix trm)
           throws IOException {
     PDGraphicsState state = this.engine.getGraphicsState();
     Matrix ctm = state.getCurrentTransformationMatrix();
     Matrix textMatrix = this.engine.getTextMatrix();
 
-    Vector displacement = font.getDisplacement(code);
     float fontSize = state.getTextState().getFontSize();
     float horizScaling = state.getTextState().getHorizontalScaling() / 100f;
 
     float tx = displacement.getX() * fontSize * horizScaling;
-    float ty = 0;
 
-    // (modified) combined displacement matrix
-    Matrix td = Matrix.getTranslateInstance(tx, ty);
-
-    // (modified) text rendering matrix
-    Matrix nextTrm = td.multiply(textMatrix).multiply(ctm);
+    // The translation of the (modified) text rendering matrix, that is td * textMatrix * ctm,
+    // with td being the (modified) combined displacement matrix translating by (tx, 0).
+    float nextX = tx * textMatrix.getScaleX() + textMatrix.getTranslateX();
+    float nextY = tx * textMatrix.getShearY() + textMatrix.getTranslateY();
+    float nextTrmX = nextX * ctm.getScaleX() + nextY * ctm.getShearX() + ctm.getTranslateX();
 
     // 1/2 the bbox is used as the height todo: why?
     float glyphHeight = font.getBoundingBox().getHeight() / 2;
     // transformPoint from glyph space -> text space
-    float height = font.getFontMatrix().transformPoint(0, glyphHeight).y;
+    Matrix fontMatrix = font.getFontMatrix();
+    float height = glyphHeight * fontMatrix.getScaleY() + fontMatrix.getTranslateY();
     float dyDisplay = height * trm.getScalingFactorY();
 
     float minX = trm.getTranslateX();
     float minY = trm.getTranslateY();
-    float maxX = nextTrm.getTranslateX();
+    float maxX = nextTrmX;
     float maxY = minY + dyDisplay;
 
     return new Rectangle(minX, minY, maxX, maxY);
@@ -0,0 +1,146 @@
+package pdfact.core.pipes.parse.stream.pdfbox.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.pdfbox.io.RandomAccessRead;
+
+/**
+ * A {@link RandomAccessRead} that reads the remaining bytes of a byte buffer (which may be a
+ * direct or a memory-mapped buffer), without copying them. The position of the given buffer is
+ * not modified, so multiple instances can read the same buffer concurrently.
+ * 
+ * @author Claudius Korzen
+ */
+public class ByteBufferRandomAccessRead implements RandomAccessRead {
+  /**
+   * The buffer to read from, with its own position.
+   */
+  protected ByteBuffer buffer;
+
+  /**
+   * The boolean flag indicating whether or not this instance is closed.
+   */
+  protected boolean isClosed;
+
+  /**
+   * Creates a new instance that reads the remaining bytes of the given buffer.
+   * 
+   * @param buffer
+   *        The buffer to read from.
+   */
+  public ByteBufferRandomAccessRead(ByteBuffer buffer) {
+    this.buffer = buffer.slice();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int read() throws IOException {
+    checkClosed();
+    if (!this.buffer.hasRemaining()) {
+      return -1;
+    }
+    return this.buffer.get() & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b) throws IOException {
+    return read(b, 0, b.length);
+  }
+
+  @Override
+  public int read(byte[] b, int offset, int length) throws IOException {
+    checkClosed();
+    if (!this.buffer.hasRemaining()) {
+      return -1;
+    }
+    int num = Math.min(length, this.buffer.remaining());
+    this.buffer.get(b, offset, num);
+    return num;
+  }
+
+  @Override
+  public long getPosition() throws IOException {
+    checkClosed();
+    return this.buffer.position();
+  }
+
+  @Override
+  public void seek(long position) throws IOException {
+    checkClosed();
+    if (position < 0) {
+      throw new IOException("Invalid position " + position + ".");
+    }
+    this.buffer.position((int) Math.min(position, this.buffer.limit()));
+  }
+
+  @Override
+  public long length() throws IOException {
+    checkClosed();
+    return this.buffer.limit();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return this.isClosed;
+  }
+
+  @Override
+  public int peek() throws IOException {
+    checkClosed();
+    if (!this.buffer.hasRemaining()) {
+      return -1;
+    }
+    return this.buffer.get(this.buffer.position()) & 0xff;
+  }
+
+  @Override
+  public void rewind(int bytes) throws IOException {
+    seek(getPosition() - bytes);
+  }
+
+  @Override
+  public byte[] readFully(int length) throws IOException {
+    checkClosed();
+    if (this.buffer.remaining() < length) {
+      throw new EOFException("Premature end of buffer reached.");
+    }
+    byte[] bytes = new byte[length];
+    this.buffer.get(bytes);
+    return bytes;
+  }
+
+  @Override
+  public boolean isEOF() throws IOException {
+    return peek() == -1;
+  }
+
+  @Override
+  public int available() throws IOException {
+    checkClosed();
+    return this.buffer.remaining();
+  }
+
+  /**
+   * Closes this instance. The buffer is not released, as it is owned by the caller.
+   */
+  @Override
+  public void close() throws IOException {
+    this.isClosed = true;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Checks if this instance is closed.
+   * 
+   * @throws IOException
+   *         If this instance is closed.
+   */
+  protected void checkClosed() throws IOException {
+    if (this.isClosed) {
+      throw new IOException("The buffer is already closed.");
+    }
+  }
+}
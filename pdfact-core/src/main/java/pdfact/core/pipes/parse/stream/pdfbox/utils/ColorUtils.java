@@ -1,7 +1,15 @@
 package pdfact.core.pipes.parse.stream.pdfbox.utils;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSNumber;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.color.PDIndexed;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImage;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 
 /**
  * A collection of utility methods that deal with colors.
@@ -9,6 +17,12 @@ import java.io.IOException;
  * @author Claudius Korzen
  */
 public class ColorUtils {
+  /**
+   * The maximum width and height of the subsampled version of an image, decoded to check if the
+   * image could consist of a single color, before decoding the image in full.
+   */
+  protected static final int PROBE_SIZE = 32;
+
   /**
    * Transforms the given packed RGB value into an array of three values in
    * range [0,255] representing the R, G and B values.
@@ -26,6 +40,46 @@ public class ColorUtils {
     return new int[] { red, green, blue, alpha };
   }
 
+  /**
+   * Checks if the given image consists only of a single color and returns the color if so.
+   * Returns null if there are at least two different colors. In contrast to
+   * {@link #getExclusiveColor(BufferedImage)}, the image is decoded in full only if necessary:
+   * 
+   * <ul>
+   * <li>If the image is given in an indexed color space with a single entry (and has no masks),
+   * only a single pixel is decoded.</li>
+   * <li>Otherwise, if the image is larger than {@link #PROBE_SIZE} pixels in any dimension, a
+   * subsampled version of the image is decoded first. If it contains two different colors, the
+   * image can't consist of a single color.</li>
+   * </ul>
+   * 
+   * @param image
+   *        The image to process.
+   * 
+   * @return The color, if the image consists only of a single color; null otherwise.
+   * @throws IOException
+   *         If something went wrong on reading the image.
+   */
+  public static int[] getExclusiveColor(PDImage image) throws IOException {
+    if (image == null) {
+      return null;
+    }
+
+    int width = image.getWidth();
+    int height = image.getHeight();
+
+    if (width > 0 && height > 0 && hasSingleColorPalette(image)) {
+      return getExclusiveColor(image.getImage(new Rectangle(0, 0, 1, 1), 1));
+    }
+
+    int subsampling = Math.max(width, height) / PROBE_SIZE;
+    if (subsampling > 1 && getExclusiveColor(image.getImage(null, subsampling)) == null) {
+      return null;
+    }
+
+    return getExclusiveColor(image.getImage());
+  }
+
   /**
    * Checks if the given image consists only of a single color and returns the
    * color if so. Returns null if there a at least two different colors.
@@ -39,25 +93,60 @@ public class ColorUtils {
    *         If something went wrong on reading the image.
    */
   public static int[] getExclusiveColor(BufferedImage im) throws IOException {
-    if (im == null) {
+    if (im == null || im.getWidth() == 0 || im.getHeight() == 0) {
       return null;
     }
 
-    int lastRgb = Integer.MAX_VALUE;
-    for (int i = 0; i < im.getWidth(); i++) {
-      for (int j = 0; j < im.getHeight(); j++) {
-        int rgb = im.getRGB(i, j);
-        if (lastRgb != Integer.MAX_VALUE && lastRgb != rgb) {
+    int width = im.getWidth();
+    int[] row = new int[width];
+    int firstRgb = im.getRGB(0, 0);
+    for (int j = 0; j < im.getHeight(); j++) {
+      im.getRGB(0, j, width, 1, row, 0, width);
+      for (int i = 0; i < width; i++) {
+        if (row[i] != firstRgb) {
           return null;
         }
-        lastRgb = rgb;
       }
     }
 
-    if (lastRgb == Integer.MAX_VALUE) {
-      return null;
+    return toRgbArray(firstRgb);
+  }
+
+  /**
+   * Checks if the given image is given in an indexed color space with a single entry, and has no
+   * masks, such that all pixels of the image have the same color.
+   * 
+   * @param image
+   *        The image to check.
+   * 
+   * @return True, if all pixels of the image have the same color; false otherwise.
+   * @throws IOException
+   *         If something went wrong on reading the color space of the image.
+   */
+  protected static boolean hasSingleColorPalette(PDImage image) throws IOException {
+    if (image.isStencil()) {
+      return false;
     }
 
-    return toRgbArray(lastRgb);
+    if (image instanceof PDImageXObject) {
+      PDImageXObject xobject = (PDImageXObject) image;
+      if (xobject.getSoftMask() != null || xobject.getMask() != null
+          || xobject.getColorKeyMask() != null) {
+        return false;
+      }
+    }
+
+    PDColorSpace colorSpace = image.getColorSpace();
+    if (!(colorSpace instanceof PDIndexed)) {
+      return false;
+    }
+
+    // The highest index of the color table is given by the third element of the color space.
+    COSBase array = colorSpace.getCOSObject();
+    if (!(array instanceof COSArray) || ((COSArray) array).size() < 3) {
+      return false;
+    }
+    COSBase hival = ((COSArray) array).getObject(2);
+    return hival instanceof COSNumber && ((COSNumber) hival).intValue() == 0;
   }
 }
@@ -0,0 +1,136 @@
+package pdfact.core.pipes.parse.stream.pdfbox.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdfparser.PDFParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import pdfact.core.model.Document;
+
+/**
+ * A collection of utility methods that deal with loading PDDocument objects.
+ * 
+ * @author Claudius Korzen
+ */
+public class PDDocumentUtils {
+  /**
+   * Loads the given PDF document from its underlying file, stream, channel or buffer.
+   * 
+   * @param pdf
+   *        The PDF document to load.
+   * @param setting
+   *        The setting that defines where PDFBox keeps its scratch data (for example, the
+   *        decoded streams or the content of a PDF file given by a stream).
+   * 
+   * @return The loaded PDF document.
+   * 
+   * @throws IOException
+   *         If something went wrong while loading the PDF document.
+   */
+  public static PDDocument load(Document pdf, MemoryUsageSetting setting) throws IOException {
+    if (pdf.getBuffer() != null) {
+      return load(pdf.getBuffer(), setting);
+    }
+    if (pdf.getStream() != null) {
+      return PDDocument.load(pdf.getStream(), setting);
+    }
+    if (pdf.getChannel() != null) {
+      return load(toBuffer(pdf.getChannel()), setting);
+    }
+    return PDDocument.load(pdf.getFile(), setting);
+  }
+
+  /**
+   * Loads a PDF document from the remaining bytes of the given buffer, without copying them.
+   * 
+   * @param buffer
+   *        The content of the PDF file.
+   * @param setting
+   *        The setting that defines where PDFBox keeps its scratch data.
+   * 
+   * @return The loaded PDF document.
+   * 
+   * @throws IOException
+   *         If something went wrong while loading the PDF document.
+   */
+  public static PDDocument load(ByteBuffer buffer, MemoryUsageSetting setting)
+      throws IOException {
+    ScratchFile scratchFile = new ScratchFile(setting);
+    try {
+      PDFParser parser = new PDFParser(new ByteBufferRandomAccessRead(buffer), scratchFile);
+      parser.parse();
+      return parser.getPDDocument();
+    } catch (IOException e) {
+      IOUtils.closeQuietly(scratchFile);
+      throw e;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns a buffer with the content of the given PDF document that can be shared by multiple
+   * PDDocument objects, without reading the content more than once. The underlying file of a
+   * document given by a path is memory-mapped.
+   * 
+   * @param pdf
+   *        The PDF document.
+   * 
+   * @return The buffer with the content of the PDF document; null if the PDF document is given by
+   *         a stream (which can be read only once, possibly to scratch files) or if its
+   *         underlying file is too large to be mapped into a single buffer.
+   * 
+   * @throws IOException
+   *         If something went wrong while reading the PDF document.
+   */
+  public static ByteBuffer toSharedBuffer(Document pdf) throws IOException {
+    if (pdf.getBuffer() != null) {
+      return pdf.getBuffer();
+    }
+    if (pdf.getChannel() != null) {
+      return toBuffer(pdf.getChannel());
+    }
+    if (pdf.getStream() != null || pdf.getPath() == null) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(pdf.getPath(), StandardOpenOption.READ)) {
+      return channel.size() <= Integer.MAX_VALUE ? toBuffer(channel) : null;
+    }
+  }
+
+  /**
+   * Reads the content of the given channel (from position 0) into a buffer. The content of a
+   * file channel is memory-mapped instead of being read.
+   * 
+   * @param channel
+   *        The channel to read.
+   * 
+   * @return The buffer with the content of the channel.
+   * 
+   * @throws IOException
+   *         If something went wrong while reading the channel or if the content of the channel
+   *         is too large to be kept in a single buffer.
+   */
+  public static ByteBuffer toBuffer(SeekableByteChannel channel) throws IOException {
+    long size = channel.size();
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("The channel is too large (" + size + " bytes) to be read.");
+    }
+    if (channel instanceof FileChannel) {
+      return ((FileChannel) channel).map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate((int) size);
+    channel.position(0);
+    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+      // Read until the buffer is full or the end of the channel is reached.
+    }
+    buffer.flip();
+    return buffer;
+  }
+}
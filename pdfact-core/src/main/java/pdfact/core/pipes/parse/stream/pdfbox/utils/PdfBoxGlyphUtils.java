@@ -18,6 +18,12 @@ public class PdfBoxGlyphUtils {
    */
   protected static Logger log = LogManager.getLogger(PdfBoxGlyphUtils.class);
 
+  /**
+   * The additional glyphs, read only once per JVM and shared by all instances of this class.
+   */
+  protected static final GlyphList ADDITIONAL_GLYPHS = readAdditionalGlyphs(
+      "org/apache/pdfbox/resources/glyphlist/additional.txt");
+
   /**
    * The additional glyphs.
    */
@@ -27,8 +33,7 @@ public class PdfBoxGlyphUtils {
    * A utility class to read the specifications of special characters.
    */
   public PdfBoxGlyphUtils() {
-    this.additionalGlyphs = readAdditionalGlyphs(
-        "org/apache/pdfbox/resources/glyphlist/additional.txt");
+    this.additionalGlyphs = ADDITIONAL_GLYPHS;
   }
 
   // ==============================================================================================
@@ -0,0 +1,150 @@
+package pdfact.core.pipes.parse.stream.pdfbox.utils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import pdfact.core.model.Color;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.Shape;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A collection of utility methods that deal with shapes.
+ *
+ * @author Claudius Korzen
+ */
+public class ShapeUtils {
+  /**
+   * Aggregates the given shapes of the given page into at most the given number of shapes. If
+   * there are more shapes than allowed, the page is divided into a grid of cells and all shapes
+   * with the same color whose midpoints lie in the same cell are merged into a single shape (the
+   * bounding box of the shapes). The grid is coarsened until the number of shapes is small
+   * enough. If there are still too many shapes (because of too many colors), all shapes are
+   * merged into a single shape, with the color of the first shape.
+   *
+   * <p>
+   * The given shapes are not modified; the merged shapes are new shapes, in the order of the
+   * first shape merged into them.
+   *
+   * @param page
+   *        The page to which the shapes belong to.
+   * @param shapes
+   *        The shapes to aggregate.
+   * @param maxNumShapes
+   *        The maximum number of shapes; 0 (or any negative number) if the number of shapes
+   *        should not be limited.
+   *
+   * @return The given shapes, if there are not more shapes than allowed; the aggregated shapes
+   *         otherwise.
+   */
+  public static ElementList<Shape> aggregate(Page page, ElementList<Shape> shapes,
+      int maxNumShapes) {
+    if (shapes == null || maxNumShapes <= 0 || shapes.size() <= maxNumShapes) {
+      return shapes;
+    }
+
+    // The bounding box of all shapes, to be divided into the grid cells.
+    Rectangle bounds = new Rectangle(Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE,
+        -Float.MAX_VALUE);
+    for (Shape shape : shapes) {
+      bounds.extend(normalize(shape.getPosition().getRectangle()));
+    }
+
+    int numCellsPerAxis = Math.max(1, (int) Math.ceil(Math.sqrt(maxNumShapes)));
+    while (true) {
+      ElementList<Shape> merged = merge(page, shapes, bounds, numCellsPerAxis, true);
+      if (merged.size() <= maxNumShapes) {
+        return merged;
+      }
+      if (numCellsPerAxis == 1) {
+        return merge(page, shapes, bounds, 1, false);
+      }
+      numCellsPerAxis /= 2;
+    }
+  }
+
+  /**
+   * Merges the given shapes per grid cell (and color).
+   *
+   * @param page
+   *        The page to which the shapes belong to.
+   * @param shapes
+   *        The shapes to merge.
+   * @param bounds
+   *        The bounding box of all shapes.
+   * @param numCellsPerAxis
+   *        The number of grid cells per axis.
+   * @param isToSeparateColors
+   *        True if only shapes with the same color should be merged; false if the colors should
+   *        be ignored.
+   *
+   * @return The merged shapes.
+   */
+  protected static ElementList<Shape> merge(Page page, ElementList<Shape> shapes,
+      Rectangle bounds, int numCellsPerAxis, boolean isToSeparateColors) {
+    Map<List<Object>, Shape> groups = new LinkedHashMap<>();
+    for (Shape shape : shapes) {
+      Rectangle rect = normalize(shape.getPosition().getRectangle());
+      int cellX = getCell(rect.getXMidpoint(), bounds.getMinX(), bounds.getWidth(),
+          numCellsPerAxis);
+      int cellY = getCell(rect.getYMidpoint(), bounds.getMinY(), bounds.getHeight(),
+          numCellsPerAxis);
+      Color color = isToSeparateColors ? shape.getColor() : null;
+      List<Object> key = Arrays.asList(color, cellX * numCellsPerAxis + cellY);
+
+      Shape group = groups.get(key);
+      if (group == null) {
+        group = new Shape();
+        group.setPosition(new Position(page, rect));
+        group.setColor(shape.getColor());
+        groups.put(key, group);
+      } else {
+        group.getPosition().getRectangle().extend(rect);
+      }
+    }
+
+    ElementList<Shape> merged = new ElementList<>(groups.size());
+    merged.addAll(groups.values());
+    return merged;
+  }
+
+  /**
+   * Returns the index of the grid cell that contains the given coordinate.
+   *
+   * @param coordinate
+   *        The coordinate.
+   * @param min
+   *        The minimum coordinate of the grid.
+   * @param length
+   *        The length of the grid.
+   * @param numCells
+   *        The number of the grid cells.
+   *
+   * @return The index of the grid cell, in [0, numCells - 1].
+   */
+  protected static int getCell(float coordinate, float min, float length, int numCells) {
+    if (length <= 0) {
+      return 0;
+    }
+    int cell = (int) ((coordinate - min) / length * numCells);
+    return Math.max(0, Math.min(cell, numCells - 1));
+  }
+
+  /**
+   * Returns a copy of the given rectangle with minX <= maxX and minY <= maxY (the rectangles of
+   * shapes that stem from lines are given by their start and end point, in any order).
+   *
+   * @param rect
+   *        The rectangle to normalize.
+   *
+   * @return The normalized rectangle.
+   */
+  protected static Rectangle normalize(Rectangle rect) {
+    return new Rectangle(Math.min(rect.getMinX(), rect.getMaxX()),
+        Math.min(rect.getMinY(), rect.getMaxY()), Math.max(rect.getMinX(), rect.getMaxX()),
+        Math.max(rect.getMinY(), rect.getMaxY()));
+  }
+}
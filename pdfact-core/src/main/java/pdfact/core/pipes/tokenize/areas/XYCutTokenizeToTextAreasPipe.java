@@ -1,8 +1,8 @@
 package pdfact.core.pipes.tokenize.areas;
 
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
@@ -15,7 +15,9 @@ import pdfact.core.model.TextArea;
 import pdfact.core.util.PdfActUtils;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.pipeline.PagePipe;
 import pdfact.core.util.statistician.CharacterStatistician;
+import pdfact.core.util.xycut.Cut;
 import pdfact.core.util.xycut.XYCut;
 
 /**
@@ -23,7 +25,7 @@ import pdfact.core.util.xycut.XYCut;
  * 
  * @author Claudius Korzen
  */
-public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTextAreasPipe {
+public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTextAreasPipe, PagePipe {
   /**
    * The logger.
    */
@@ -37,12 +39,12 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
   /**
    * The number of processed pages.
    */
-  protected int numProcessedPages;
+  protected AtomicInteger numProcessedPages = new AtomicInteger();
 
   /**
    * The number of tokenized text areas.
    */
-  protected int numTokenizedTextAreas;
+  protected AtomicInteger numTokenizedTextAreas = new AtomicInteger();
 
   /**
    * Creates a new pipe that tokenizes the pages of a PDF document into text
@@ -61,6 +63,21 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
     log.debug("Process: Tokenizing the pages into text areas.");
     tokenizeToTextAreas(pdf);
 
+    return executeAfterPages(pdf);
+  }
+
+  @Override
+  public void execute(Document pdf, Page page) throws PdfActException {
+    this.numProcessedPages.incrementAndGet();
+
+    ElementList<TextArea> textAreas = tokenizeToTextAreas(pdf, page);
+
+    page.setTextAreas(textAreas);
+    this.numTokenizedTextAreas.addAndGet(textAreas.size());
+  }
+
+  @Override
+  public Document executeAfterPages(Document pdf) throws PdfActException {
     log.debug("Tokenizing the pages into text areas done.");
     log.debug("# processed pages     : " + this.numProcessedPages);
     log.debug("# tokenized text areas: " + this.numTokenizedTextAreas);
@@ -95,12 +112,7 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
         continue;
       }
 
-      this.numProcessedPages++;
-
-      ElementList<TextArea> textAreas = tokenizeToTextAreas(pdf, page);
-
-      page.setTextAreas(textAreas);
-      this.numTokenizedTextAreas += textAreas.size();
+      execute(pdf, page);
     }
   }
 
@@ -174,17 +186,12 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
   // ==============================================================================================
 
   @Override
-  public float assessVerticalCut(Document pdf, Page page,
-      List<ElementList<Character>> halves) {
-    // Compute the statistics for the characters in the left half.
-    ElementList<Character> left = halves.get(0);
-    CharacterStatistic leftStats = this.characterStatistician.compute(left);
-    Rectangle leftRectangle = new Rectangle(left);
-
-    // Compute the statistics for the characters in the right half.
-    ElementList<Character> right = halves.get(1);
-    CharacterStatistic rightStats = this.characterStatistician.compute(right);
-    Rectangle rightRectangle = new Rectangle(right);
+  public float assessVerticalCut(Document pdf, Page page, Cut cut) {
+    // Get the statistics for the characters in the left half.
+    CharacterStatistic leftStats = cut.getFirstHalfStatistic();
+
+    // Get the statistics for the characters in the right half.
+    CharacterStatistic rightStats = cut.getSecondHalfStatistic();
 
     // Compute the (fictive) lane between the left and right half.
     float laneMinX = leftStats.getLargestMaxX();
@@ -203,13 +210,15 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
 
     // Don't allow the lane, if the resulting areas are too low. This should prevent to split 
     // single text lines into multiple areas, for example the page headers in PDF0008.
-    if (leftRectangle.getHeight() < 2 * leftStats.getMostCommonHeight() 
-        || rightRectangle.getHeight() < 2 * rightStats.getMostCommonHeight()) {
+    float leftHeight = leftStats.getLargestMaxY() - leftStats.getSmallestMinY();
+    float rightHeight = rightStats.getLargestMaxY() - rightStats.getSmallestMinY();
+    if (leftHeight < 2 * leftStats.getMostCommonHeight() 
+        || rightHeight < 2 * rightStats.getMostCommonHeight()) {
       return -1;
     }
 
     // Don't allow the lane, if it separates consecutive chars.
-    if (separatesConsecutiveCharacters(left, leftStats, right, rightStats)) {
+    if (separatesConsecutiveCharacters(cut, leftStats, rightStats)) {
       return -1;
     }
 
@@ -219,15 +228,12 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
   // ==============================================================================================
 
   @Override
-  public float assessHorizontalCut(Document pdf, Page page,
-      List<ElementList<Character>> halves) {
-    // Compute the statistics for the characters in the upper half.
-    ElementList<Character> upper = halves.get(0);
-    CharacterStatistic upperStats = this.characterStatistician.compute(upper);
+  public float assessHorizontalCut(Document pdf, Page page, Cut cut) {
+    // Get the statistics for the characters in the upper half.
+    CharacterStatistic upperStats = cut.getFirstHalfStatistic();
 
-    // Compute the statistics for the characters in the lower half.
-    ElementList<Character> lower = halves.get(1);
-    CharacterStatistic lowerStats = this.characterStatistician.compute(lower);
+    // Get the statistics for the characters in the lower half.
+    CharacterStatistic lowerStats = cut.getSecondHalfStatistic();
 
     // Compute the (fictive) lane between the lower and upper half.
     float laneMinY = lowerStats.getLargestMaxY();
@@ -254,38 +260,42 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
   // Utility methods.
 
   /**
-   * Checks if there is a character in the first given list of characters with
-   * an extraction order number i and a character in the second given list of
-   * characters with extraction order number i + 1, where both characters
-   * overlap vertically.
+   * Checks if there is a character in the left half of the given cut with an extraction order
+   * number i and a character in the right half with extraction order number i + 1, where both
+   * characters overlap vertically. The characters of the halves are read from the sweep order of
+   * the cut, without creating lists of the halves.
    * 
-   * @param left
-   *        The characters in the left half.
+   * @param cut
+   *        The cut to check.
    * @param leftStats
    *        The statistics about the characters in the left half.
-   * @param right
-   *        The characters in the right half.
    * @param rightStats
    *        The statistics about the characters in the right half.
    * @return True if there is such a character pair, false otherwise.
    */
-  protected boolean separatesConsecutiveCharacters(ElementList<Character> left,
-      CharacterStatistic leftStats, ElementList<Character> right,
+  protected boolean separatesConsecutiveCharacters(Cut cut, CharacterStatistic leftStats,
       CharacterStatistic rightStats) {
     float largestMaxX = leftStats.getLargestMaxX();
-    Set<Character> leftChars = new HashSet<>();
-    for (Character c : left) {
+    float leftTolerance = 3 * leftStats.getMostCommonWidth();
+    List<Character> leftChars = new ArrayList<>();
+    for (int i = 0; i < cut.getIndex(); i++) {
+      Character c = cut.get(i);
       Rectangle rect = c.getPosition().getRectangle();
-      if (PdfActUtils.isEqual(rect.getMaxX(), largestMaxX, 3 * leftStats.getMostCommonWidth())) {
+      if (PdfActUtils.isEqual(rect.getMaxX(), largestMaxX, leftTolerance)) {
         leftChars.add(c);
       }
     }
+    if (leftChars.isEmpty()) {
+      return false;
+    }
 
     float smallestMinX = rightStats.getSmallestMinX();
-    Set<Character> rightChars = new HashSet<>();
-    for (Character c : right) {
+    float rightTolerance = 3 * rightStats.getMostCommonWidth();
+    List<Character> rightChars = new ArrayList<>();
+    for (int i = cut.getIndex(); i < cut.size(); i++) {
+      Character c = cut.get(i);
       Rectangle rect = c.getPosition().getRectangle();
-      if (PdfActUtils.isEqual(rect.getMinX(), smallestMinX, 3 * rightStats.getMostCommonWidth())) {
+      if (PdfActUtils.isEqual(rect.getMinX(), smallestMinX, rightTolerance)) {
         rightChars.add(c);
       }
     }
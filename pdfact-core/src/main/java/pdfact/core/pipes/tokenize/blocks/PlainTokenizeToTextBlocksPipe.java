@@ -2,6 +2,7 @@ package pdfact.core.pipes.tokenize.blocks;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.LogManager;
@@ -22,6 +23,7 @@ import pdfact.core.model.TextLineStatistic;
 import pdfact.core.util.PdfActUtils;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.pipeline.PagePipe;
 import pdfact.core.util.statistician.CharacterStatistician;
 import pdfact.core.util.statistician.TextLineStatistician;
 
@@ -30,7 +32,7 @@ import pdfact.core.util.statistician.TextLineStatistician;
  *
  * @author Claudius Korzen
  */
-public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
+public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe, PagePipe {
   /**
    * The logger.
    */
@@ -49,12 +51,12 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
   /**
    * The number of processed text lines.
    */
-  protected int numProcessedTextLines;
+  protected AtomicInteger numProcessedTextLines = new AtomicInteger();
 
   /**
    * The number of tokenized text blocks.
    */
-  protected int numTokenizedTextBlocks;
+  protected AtomicInteger numTokenizedTextBlocks = new AtomicInteger();
 
   /**
    * The default constructor.
@@ -70,6 +72,16 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
   public Document execute(Document doc) throws PdfActException {
     tokenizeToTextBlocks(doc);
 
+    return executeAfterPages(doc);
+  }
+
+  @Override
+  public void execute(Document pdf, Page page) throws PdfActException {
+    page.setTextBlocks(tokenizeToTextBlocks(pdf, page));
+  }
+
+  @Override
+  public Document executeAfterPages(Document doc) throws PdfActException {
     // Print the debug info for line detection here (and not in PlainTokenizeToTextLines.class),
     // because the text of text lines is only known after words were detected.
     if (log.isDebugEnabled()) {
@@ -125,8 +137,7 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
         continue;
       }
 
-      log.debug("====================== Page %d ======================", page.getPageNumber());
-      page.setTextBlocks(tokenizeToTextBlocks(pdf, page));
+      execute(pdf, page);
     }
   }
 
@@ -153,7 +164,6 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
       TextLine line = lines.get(i);
       TextLine next = i < lines.size() - 1 ? lines.get(i + 1) : null;
 
-      this.numProcessedTextLines++;
 
       if (introducesNewTextBlock(pdf, page, textBlock, prev, line, next)) {
         if (!textBlock.getTextLines().isEmpty()) {
@@ -179,7 +189,8 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
       block.setText(computeText(block));
     }
 
-    this.numTokenizedTextBlocks += textBlocks.size();
+    this.numProcessedTextLines.addAndGet(lines.size());
+    this.numTokenizedTextBlocks.addAndGet(textBlocks.size());
 
     return textBlocks;
   }
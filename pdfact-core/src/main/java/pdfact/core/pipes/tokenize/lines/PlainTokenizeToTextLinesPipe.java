@@ -2,6 +2,7 @@ package pdfact.core.pipes.tokenize.lines;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
@@ -18,8 +19,10 @@ import pdfact.core.util.counter.FloatCounter;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.lexicon.CharacterLexicon;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.pipeline.PagePipe;
 import pdfact.core.util.statistician.CharacterStatistician;
 import pdfact.core.util.statistician.TextLineStatistician;
+import pdfact.core.util.xycut.Cut;
 import pdfact.core.util.xycut.XYCut;
 
 /**
@@ -27,7 +30,7 @@ import pdfact.core.util.xycut.XYCut;
  * 
  * @author Claudius Korzen
  */
-public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTextLinesPipe {
+public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTextLinesPipe, PagePipe {
   /**
    * The logger.
    */
@@ -46,12 +49,12 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
   /**
    * The number of processed text areas.
    */
-  protected int numProcessedTextAreas;
+  protected AtomicInteger numProcessedTextAreas = new AtomicInteger();
 
   /**
    * The number of tokenized text lines.
    */
-  protected int numTokenizedTextLines;
+  protected AtomicInteger numTokenizedTextLines = new AtomicInteger();
 
   /**
    * Creates a new text line tokenizer.
@@ -67,7 +70,22 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
   public Document execute(Document doc) throws PdfActException {
     tokenizeToTextLines(doc);
 
-    return doc;
+    return executeAfterPages(doc);
+  }
+
+  @Override
+  public void execute(Document pdf, Page page) throws PdfActException {
+    ElementList<TextLine> textLines = tokenizeToTextLines(pdf, page);
+    page.setTextLineStatistic(this.textLineStatistician.compute(textLines));
+    page.setTextLines(textLines);
+  }
+
+  @Override
+  public Document executeAfterPages(Document pdf) throws PdfActException {
+    if (pdf != null && pdf.getPages() != null) {
+      pdf.setTextLineStatistic(this.textLineStatistician.aggregate(pdf.getPages()));
+    }
+    return pdf;
   }
 
   // ==============================================================================================
@@ -94,11 +112,8 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
         continue;
       }
 
-      ElementList<TextLine> textLines = tokenizeToTextLines(pdf, page);
-      page.setTextLineStatistic(this.textLineStatistician.compute(textLines));
-      page.setTextLines(textLines);
+      execute(pdf, page);
     }
-    pdf.setTextLineStatistic(this.textLineStatistician.aggregate(pages));
   }
 
   /**
@@ -119,7 +134,6 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
       ElementList<Character> characters = area.getCharacters();
       List<ElementList<Character>> charLists = cut(pdf, page, characters);
 
-      this.numProcessedTextAreas++;
 
       for (ElementList<Character> charList : charLists) {
         // Create a PdfTextLine object.
@@ -132,7 +146,8 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
       }
     }
 
-    this.numTokenizedTextLines += result.size();
+    this.numProcessedTextAreas.addAndGet(page.getTextAreas().size());
+    this.numTokenizedTextLines.addAndGet(result.size());
 
     return result;
   }
@@ -197,20 +212,18 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
   // ==============================================================================================
 
   @Override
-  public float assessVerticalCut(Document pdf, Page page, List<ElementList<Character>> halves) {
+  public float assessVerticalCut(Document pdf, Page page, Cut cut) {
     return -1;
   }
 
   // ==============================================================================================
 
   @Override
-  public float assessHorizontalCut(Document pdf, Page page, List<ElementList<Character>> halves) {
-    ElementList<Character> upper = halves.get(0);
-    CharacterStatistic upperStats = this.characterStatistician.compute(upper);
+  public float assessHorizontalCut(Document pdf, Page page, Cut cut) {
+    CharacterStatistic upperStats = cut.getFirstHalfStatistic();
     float upperMinY = upperStats.getSmallestMinY();
 
-    ElementList<Character> lower = halves.get(1);
-    CharacterStatistic lowerStats = this.characterStatistician.compute(lower);
+    CharacterStatistic lowerStats = cut.getSecondHalfStatistic();
     float lowerMaxY = lowerStats.getLargestMaxY();
 
     return upperMinY - lowerMaxY;
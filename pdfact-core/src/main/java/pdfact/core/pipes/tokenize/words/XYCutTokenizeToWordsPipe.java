@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
@@ -21,7 +22,9 @@ import pdfact.core.util.comparator.MinXComparator;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.lexicon.CharacterLexicon;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.pipeline.PagePipe;
 import pdfact.core.util.statistician.CharacterStatistician;
+import pdfact.core.util.xycut.Cut;
 import pdfact.core.util.xycut.XYCut;
 
 /**
@@ -29,7 +32,7 @@ import pdfact.core.util.xycut.XYCut;
  * 
  * @author Claudius Korzen
  */
-public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPipe {
+public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPipe, PagePipe {
   /**
    * The loggers.
    */
@@ -44,12 +47,12 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
   /**
    * The number of processed text lines.
    */
-  protected int numProcessedTextLines;
+  protected AtomicInteger numProcessedTextLines = new AtomicInteger();
 
   /**
    * The number of tokenized words.
    */
-  protected int numTokenizedWords;
+  protected AtomicInteger numTokenizedWords = new AtomicInteger();
 
   /**
    * Creates a new word tokenizer.
@@ -64,6 +67,24 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
   public Document execute(Document doc) throws PdfActException {
     tokenizeToWords(doc);
 
+    return executeAfterPages(doc);
+  }
+
+  @Override
+  public void execute(Document pdf, Page page) throws PdfActException {
+    int numTokenizedWords = 0;
+    for (TextLine line : page.getTextLines()) {
+      ElementList<Word> words = tokenizeToWords(pdf, page, line);
+      line.setWords(words);
+      line.setText(PdfActUtils.join(words, " "));
+      numTokenizedWords += words.size();
+    }
+    this.numProcessedTextLines.addAndGet(page.getTextLines().size());
+    this.numTokenizedWords.addAndGet(numTokenizedWords);
+  }
+
+  @Override
+  public Document executeAfterPages(Document doc) throws PdfActException {
     // Print the debug info for line detection here (and not in PlainTokenizeToTextLines.class),
     // because the text of text lines is only known after words were detected.
     if (llog.isDebugEnabled()) {
@@ -142,14 +163,7 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
     }
 
     for (Page page : pdf.getPages()) {
-      for (TextLine line : page.getTextLines()) {
-        ElementList<Word> words = tokenizeToWords(pdf, page, line);
-        line.setWords(words);
-        line.setText(PdfActUtils.join(words, " "));
-
-        this.numProcessedTextLines++;
-        this.numTokenizedWords += words.size();
-      }
+      execute(pdf, page);
     }
   }
 
@@ -195,14 +209,11 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
   // ==============================================================================================
 
   @Override
-  public float assessVerticalCut(Document pdf, Page page,
-      List<ElementList<Character>> halves) {
-    ElementList<Character> left = halves.get(0);
-    CharacterStatistic leftStats = this.charStatistician.compute(left);
+  public float assessVerticalCut(Document pdf, Page page, Cut cut) {
+    CharacterStatistic leftStats = cut.getFirstHalfStatistic();
     float leftMaxX = leftStats.getLargestMaxX();
 
-    ElementList<Character> right = halves.get(1);
-    CharacterStatistic rightStats = this.charStatistician.compute(right);
+    CharacterStatistic rightStats = cut.getSecondHalfStatistic();
     float rightMinX = rightStats.getSmallestMinX();
 
     float width = rightMinX - leftMaxX;
@@ -215,8 +226,7 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
   // ==============================================================================================
 
   @Override
-  public float assessHorizontalCut(Document pdf, Page page,
-      List<ElementList<Character>> halves) {
+  public float assessHorizontalCut(Document pdf, Page page, Cut cut) {
     return -1;
   }
 
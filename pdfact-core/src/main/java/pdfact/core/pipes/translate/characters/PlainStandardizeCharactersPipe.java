@@ -3,12 +3,14 @@ package pdfact.core.pipes.translate.characters;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.pipeline.PagePipe;
 
 /**
  * A plain implementation of {@link StandardizeCharactersPipe}.
@@ -16,7 +18,7 @@ import pdfact.core.util.exception.PdfActException;
  * @author Claudius Korzen
  */
 public class PlainStandardizeCharactersPipe
-    implements StandardizeCharactersPipe {
+    implements StandardizeCharactersPipe, PagePipe {
   /**
    * The logger.
    */
@@ -31,12 +33,12 @@ public class PlainStandardizeCharactersPipe
   /**
    * The number of processed characters.
    */
-  protected int numProcessedCharacters;
+  protected AtomicInteger numProcessedCharacters = new AtomicInteger();
 
   /**
    * The number of standardized characters.
    */
-  protected int numStandardizedCharacters;
+  protected AtomicInteger numStandardizedCharacters = new AtomicInteger();
 
   // TODO: Move this to character lexicon.
   static {
@@ -58,6 +60,16 @@ public class PlainStandardizeCharactersPipe
   @Override
   public Document execute(Document pdf) throws PdfActException {
     standardizeCharacters(pdf);
+    return executeAfterPages(pdf);
+  }
+
+  @Override
+  public void execute(Document pdf, Page page) throws PdfActException {
+    standardizeCharacters(page);
+  }
+
+  @Override
+  public Document executeAfterPages(Document pdf) throws PdfActException {
     return pdf;
   }
 
@@ -107,11 +119,11 @@ public class PlainStandardizeCharactersPipe
    * @param ch
    *        The character to process.
    */
-  protected void standardizeCharacter(Character ch) {
+  public void standardizeCharacter(Character ch) {
     if (ch == null) {
       return;
     }
 
-    this.numProcessedCharacters++;
+    this.numProcessedCharacters.incrementAndGet();
   }
 }
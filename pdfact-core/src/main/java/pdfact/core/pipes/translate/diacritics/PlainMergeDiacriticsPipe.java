@@ -4,6 +4,7 @@ import java.text.Normalizer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
@@ -13,13 +14,14 @@ import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.pipeline.PagePipe;
 
 /**
  * A plain implementation of {@link MergeDiacriticsPipe}.
  * 
  * @author Claudius Korzen
  */
-public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
+public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe, PagePipe {
   /**
    * The logger.
    */
@@ -28,18 +30,28 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
   /**
    * The number of processed characters.
    */
-  protected int numProcessedCharacters;
+  protected AtomicInteger numProcessedCharacters = new AtomicInteger();
 
   /**
    * The number of merged characters.
    */
-  protected int numMergedDiacritics;
+  protected AtomicInteger numMergedDiacritics = new AtomicInteger();
 
   // ==============================================================================================
 
   @Override
   public Document execute(Document pdf) throws PdfActException {
     mergeDiacritics(pdf);
+    return executeAfterPages(pdf);
+  }
+
+  @Override
+  public void execute(Document pdf, Page page) throws PdfActException {
+    mergeDiacritics(page);
+  }
+
+  @Override
+  public Document executeAfterPages(Document pdf) throws PdfActException {
     return pdf;
   }
 
@@ -55,27 +67,38 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
       List<Page> pages = pdf.getPages();
       if (pages != null) {
         for (Page page : pages) {
-          ElementList<Character> before = page.getCharacters();
-          ElementList<Character> after = new ElementList<>(before.size());
-          if (before != null) {
-            for (int i = 0; i < before.size(); i++) {
-              Character prev = i > 0 ? before.get(i - 1) : null;
-              Character character = before.get(i);
-              Character next = i < before.size() - 1 ? before.get(i + 1) : null;
-
-              // Don't proceed if the character in question is not a diacritic.
-              if (isDiacritic(character)) {
-                mergeDiacritic(prev, character, next);
-                this.numMergedDiacritics++;
-              } else {
-                after.add(character);
-              }
-              this.numProcessedCharacters++;
-            }
-            page.setCharacters(after);
-          }
+          mergeDiacritics(page);
+        }
+      }
+    }
+  }
+
+  /**
+   * Merges the diacritical marks in the given page with their related characters.
+   * 
+   * @param page The page to process.
+   */
+  protected void mergeDiacritics(Page page) {
+    ElementList<Character> before = page.getCharacters();
+    ElementList<Character> after = new ElementList<>(before.size());
+    if (before != null) {
+      int numMergedDiacritics = 0;
+      for (int i = 0; i < before.size(); i++) {
+        Character prev = i > 0 ? before.get(i - 1) : null;
+        Character character = before.get(i);
+        Character next = i < before.size() - 1 ? before.get(i + 1) : null;
+
+        // Don't proceed if the character in question is not a diacritic.
+        if (isDiacritic(character)) {
+          mergeDiacritic(prev, character, next);
+          numMergedDiacritics++;
+        } else {
+          after.add(character);
         }
       }
+      page.setCharacters(after);
+      this.numProcessedCharacters.addAndGet(before.size());
+      this.numMergedDiacritics.addAndGet(numMergedDiacritics);
     }
   }
 
@@ -10,6 +10,7 @@ import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.model.Position;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.pipeline.PagePipe;
 
 // FIXME: Adjust bounding box.
 
@@ -18,7 +19,7 @@ import pdfact.core.util.exception.PdfActException;
  * 
  * @author Claudius Korzen
  */
-public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
+public class PlainSplitLigaturesPipe implements SplitLigaturesPipe, PagePipe {
   /**
    * The logger.
    */
@@ -68,6 +69,16 @@ public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
   @Override
   public Document execute(Document pdf) throws PdfActException {
     splitLigatures(pdf);
+    return executeAfterPages(pdf);
+  }
+
+  @Override
+  public void execute(Document pdf, Page page) throws PdfActException {
+    splitLigatures(page);
+  }
+
+  @Override
+  public Document executeAfterPages(Document pdf) throws PdfActException {
     return pdf;
   }
 
@@ -85,17 +96,27 @@ public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
       List<Page> pages = pdf.getPages();
       if (pages != null) {
         for (Page page : pages) {
-          List<Character> characters = page.getCharacters();
-          if (characters != null) {
-            for (Character character : characters) {
-              splitLigature(character);
-            }
-          }
+          splitLigatures(page);
         }
       }
     }
   }
 
+  /**
+   * Splits the ligatures of the given page into its individual characters.
+   * 
+   * @param page
+   *        The page to process.
+   */
+  protected void splitLigatures(Page page) {
+    List<Character> characters = page.getCharacters();
+    if (characters != null) {
+      for (Character character : characters) {
+        splitLigature(character);
+      }
+    }
+  }
+
   /**
    * Checks if the given character is a ligature and if so, translates it into
    * its individual characters and changes the textual content of the given
@@ -104,7 +125,7 @@ public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
    * @param character
    *        The PDF character to process.
    */
-  protected void splitLigature(Character character) {
+  public void splitLigature(Character character) {
     if (isLigature(character)) {
       String resolved = getResolvedLigatureText(character);
 
@@ -29,10 +29,13 @@ public class PlainValidatePdfPathPipe implements ValidatePdfPathPipe {
       throw new PdfActValidateException(message);
     }
 
-    log.debug("Validating the PDF path done.");
-    log.debug("validated PDF path: " + pdf.getPath());
-    // Validate the path to the PDF file.
-    validatePdfPath(pdf.getPath());
+    // A document given by its content doesn't need a path.
+    if (!pdf.isGivenByContent()) {
+      log.debug("Validating the PDF path done.");
+      log.debug("validated PDF path: " + pdf.getPath());
+      // Validate the path to the PDF file.
+      validatePdfPath(pdf.getPath());
+    }
 
     log.debug("End of pipe: " + getClass().getSimpleName() + ".");
     return pdf;
@@ -0,0 +1,382 @@
+package pdfact.core.util.color;
+
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColor;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import pdfact.core.model.Color;
+
+/**
+ * A registry that converts PDColor objects to {@link Color} objects and interns the converted
+ * colors, such that each RGB value is represented by a single {@link Color} object.
+ *
+ * <p>
+ * The colors are registered per registry, so a registry should be used for a single PDF document
+ * only. A registry is not thread-safe; each parser (and each worker parsing pages in parallel)
+ * uses its own registry.
+ *
+ * @author Claudius Korzen
+ */
+public class ColorRegistry {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(ColorRegistry.class);
+
+  /**
+   * The number of conversions from PDColor objects to {@link Color} objects to cache. Must be a
+   * power of two.
+   */
+  protected static final int NUM_CACHED_CONVERSIONS = 256;
+
+  /**
+   * The already known colors per RGB value, packed into a single int.
+   */
+  protected TIntObjectMap<Color> knownColors;
+
+  /**
+   * The already known colors with RGB values that can't be packed into a single int, per name.
+   */
+  protected Map<String, Color> knownUnpackableColors;
+
+  /**
+   * The PDColor object that was converted last. PDColor objects are immutable and the graphics
+   * state keeps the same object until the color is changed, so consecutive glyphs and paths
+   * usually request the same object.
+   */
+  protected PDColor lastColor;
+
+  /**
+   * The color space of the PDColor object that was converted last.
+   */
+  protected PDColorSpace lastColorSpace;
+
+  /**
+   * The color converted from the PDColor object that was converted last.
+   */
+  protected Color lastConvertedColor;
+
+  /**
+   * The color spaces of the cached conversions.
+   */
+  protected PDColorSpace[] cachedColorSpaces;
+
+  /**
+   * The color components of the cached conversions.
+   */
+  protected float[][] cachedComponents;
+
+  /**
+   * The colors of the cached conversions.
+   */
+  protected Color[] cachedColors;
+
+  /**
+   * The colors requested per active recording, in the order of their first request. The last
+   * list belongs to the recording that was started last.
+   */
+  protected List<List<Color>> requestedColors;
+
+  /**
+   * The colors requested per active recording, to check if a color was already requested.
+   */
+  protected List<Set<Color>> requestedColorsSets;
+
+  /**
+   * Creates a new color registry.
+   */
+  public ColorRegistry() {
+    this.knownColors = new TIntObjectHashMap<>();
+    this.knownUnpackableColors = new HashMap<>();
+    this.cachedColorSpaces = new PDColorSpace[NUM_CACHED_CONVERSIONS];
+    this.cachedComponents = new float[NUM_CACHED_CONVERSIONS][];
+    this.cachedColors = new Color[NUM_CACHED_CONVERSIONS];
+    this.requestedColors = new ArrayList<>();
+    this.requestedColorsSets = new ArrayList<>();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Converts the given PDColor object to a related {@link Color} object.
+   *
+   * @param color      The color to convert.
+   * @param colorSpace The color space.
+   *
+   * @return The converted color.
+   */
+  public Color getColor(PDColor color, PDColorSpace colorSpace) {
+    if (color == null || colorSpace == null) {
+      return null;
+    }
+
+    // Check if the same color object was converted last. This doesn't allocate anything, unlike
+    // PDColor.getComponents(), which returns a copy of the components.
+    if (color == this.lastColor && colorSpace == this.lastColorSpace) {
+      return recordRequest(this.lastConvertedColor);
+    }
+    Color convertedColor = getColor(color, colorSpace, color.getComponents());
+    this.lastColor = color;
+    this.lastColorSpace = colorSpace;
+    this.lastConvertedColor = convertedColor;
+
+    return convertedColor;
+  }
+
+  /**
+   * Converts the given PDColor object with the given components to a related {@link Color}
+   * object, using the cache of recent conversions.
+   *
+   * @param color      The color to convert.
+   * @param colorSpace The color space.
+   * @param components The components of the color.
+   *
+   * @return The converted color.
+   */
+  protected Color getColor(PDColor color, PDColorSpace colorSpace, float[] components) {
+    // Check if the color was converted recently, to avoid the conversion to RGB.
+    int hash = 31 * System.identityHashCode(colorSpace) + Arrays.hashCode(components);
+    int slot = hash & (NUM_CACHED_CONVERSIONS - 1);
+    if (this.cachedColorSpaces[slot] == colorSpace
+        && Arrays.equals(this.cachedComponents[slot], components)) {
+      return recordRequest(this.cachedColors[slot]);
+    }
+
+    Color convertedColor = getColor(toRGB(color, colorSpace));
+
+    this.cachedColorSpaces[slot] = colorSpace;
+    this.cachedComponents[slot] = components;
+    this.cachedColors[slot] = convertedColor;
+
+    return convertedColor;
+  }
+
+  /**
+   * Converts the given RGB array to a related {@link Color} object.
+   *
+   * @param rgb The RGB array to convert.
+   *
+   * @return The converted color.
+   */
+  public Color getColor(int[] rgb) {
+    if (rgb == null) {
+      return null;
+    }
+
+    // Check if the color is already known.
+    Color knownColor = getKnownColor(rgb);
+    if (knownColor != null) {
+      return recordRequest(knownColor);
+    }
+
+    // The color is not known. Create a new color.
+    Color newColor = new Color();
+    newColor.setName(computeColorName(rgb));
+    newColor.setRGB(rgb);
+    addKnownColor(newColor);
+
+    return recordRequest(newColor);
+  }
+
+  /**
+   * Registers the given color, which was converted by another registry, as if it was converted
+   * by this registry: If an equal color is already known, returns the known color. Otherwise,
+   * gives the given color a new id and adds it to the known colors. Registering the colors of
+   * multiple registries in the order of their first request results in the same colors (and ids)
+   * as converting all of them by a single registry.
+   *
+   * @param color The color to register.
+   *
+   * @return The known color that is equal to the given color.
+   */
+  public Color registerColor(Color color) {
+    if (color == null) {
+      return null;
+    }
+
+    Color knownColor = getKnownColor(color.getRGB());
+    if (knownColor != null) {
+      return knownColor;
+    }
+    addKnownColor(color);
+
+    return color;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Starts a new recording of the requested colors. Recordings can be nested, a request is
+   * recorded by all active recordings.
+   */
+  public void startRecordingRequestedColors() {
+    this.requestedColors.add(new ArrayList<>());
+    this.requestedColorsSets.add(Collections.newSetFromMap(new IdentityHashMap<>()));
+  }
+
+  /**
+   * Stops the recording of the requested colors that was started last.
+   *
+   * @return The colors requested since the recording was started, in the order of their first
+   *         request; null if no recording was started.
+   */
+  public List<Color> stopRecordingRequestedColors() {
+    int last = this.requestedColors.size() - 1;
+    if (last < 0) {
+      return null;
+    }
+    this.requestedColorsSets.remove(last);
+    return this.requestedColors.remove(last);
+  }
+
+  /**
+   * Records requests of the given colors, which were converted by this registry before, as if
+   * they were converted again.
+   *
+   * @param colors The requested colors, in the order of their first request.
+   */
+  public void recordRequests(List<Color> colors) {
+    if (this.requestedColors.isEmpty()) {
+      return;
+    }
+    for (Color color : colors) {
+      recordRequest(color);
+    }
+  }
+
+  /**
+   * Records a request of the given color by all active recordings.
+   *
+   * @param color The requested color.
+   *
+   * @return The given color.
+   */
+  protected Color recordRequest(Color color) {
+    if (color == null) {
+      return null;
+    }
+    for (int i = 0; i < this.requestedColors.size(); i++) {
+      if (this.requestedColorsSets.get(i).add(color)) {
+        this.requestedColors.get(i).add(color);
+      }
+    }
+    return color;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Checks if the given color is an already known color.
+   *
+   * @param rgb The color to check.
+   *
+   * @return True, if the given color is a known color; false otherwise.
+   */
+  protected boolean isKnownColor(int[] rgb) {
+    return getKnownColor(rgb) != null;
+  }
+
+  /**
+   * Returns a {@link Color} object related to the given color if the color is already known; null
+   * otherwise.
+   *
+   * @param rgb The color to check.
+   *
+   * @return A {@link Color} object related to the given color if the color is already known; null
+   *         otherwise.
+   */
+  protected Color getKnownColor(int[] rgb) {
+    if (rgb == null) {
+      return null;
+    }
+    int packedRGB = packRGB(rgb);
+    if (packedRGB >= 0) {
+      return this.knownColors.get(packedRGB);
+    }
+    return this.knownUnpackableColors.get(computeColorName(rgb));
+  }
+
+  /**
+   * Gives the given color a new id and adds it to the known colors.
+   *
+   * @param color The color to add.
+   */
+  protected void addKnownColor(Color color) {
+    color.setId("color-" + (this.knownColors.size() + this.knownUnpackableColors.size()));
+
+    int packedRGB = packRGB(color.getRGB());
+    if (packedRGB >= 0) {
+      this.knownColors.put(packedRGB, color);
+    } else {
+      this.knownUnpackableColors.put(color.getName(), color);
+    }
+    log.debug("A new color was registered: " + color);
+  }
+
+  /**
+   * Packs the given RGB array into a single int, with 8 bits per component.
+   *
+   * @param rgb The RGB array to pack.
+   *
+   * @return The packed RGB value, or -1 if the array doesn't consist of exactly three values in
+   *         the range [0, 255].
+   */
+  protected static int packRGB(int[] rgb) {
+    if (rgb.length != 3) {
+      return -1;
+    }
+    if ((rgb[0] | rgb[1] | rgb[2]) < 0 || rgb[0] > 255 || rgb[1] > 255 || rgb[2] > 255) {
+      return -1;
+    }
+    return (rgb[0] << 16) | (rgb[1] << 8) | rgb[2];
+  }
+
+  /**
+   * Computes a name for the given color.
+   *
+   * @param rgb The color to process.
+   *
+   * @return A name for the given color.
+   */
+  protected static String computeColorName(int[] rgb) {
+    return Arrays.toString(rgb);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Translates the the given PDF color to an RGB-array.
+   *
+   * @param color      The color to process.
+   * @param colorSpace The color space of the color to process.
+   *
+   * @return An array of length 3, containing the R, G and B values.
+   */
+  protected static int[] toRGB(PDColor color, PDColorSpace colorSpace) {
+    if (color == null || colorSpace == null) {
+      return null;
+    }
+
+    int[] rgb = {0, 0, 0};
+
+    try {
+      float[] x = colorSpace.toRGB(color.getComponents());
+      rgb[0] = (int) (x[0] * 255);
+      rgb[1] = (int) (x[1] * 255);
+      rgb[2] = (int) (x[2] * 255);
+      return rgb;
+    } catch (Exception e) {
+      return rgb;
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package pdfact.core.util.comparator;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import pdfact.core.model.Character;
+
+/**
+ * A comparator that compares characters by their extraction ranks, that is: by the order in
+ * which they were drawn to the PDF document. It is used as the secondary key of the comparators
+ * that sort characters by their positions, such that characters with equal positions are sorted
+ * deterministically, regardless of the order in which they were given.
+ *
+ * @author Claudius Korzen
+ */
+public class ExtractionRankComparator implements Comparator<Character>, Serializable {
+  /**
+   * The serial id.
+   */
+  protected static final long serialVersionUID = 3527168519425764173L;
+
+  @Override
+  public int compare(Character character1, Character character2) {
+    if (character1 == null && character2 == null) {
+      return 0;
+    }
+    if (character1 == null) {
+      return 1;
+    }
+    if (character2 == null) {
+      return -1;
+    }
+    return Integer.compare(character1.getExtractionRank(), character2.getExtractionRank());
+  }
+}
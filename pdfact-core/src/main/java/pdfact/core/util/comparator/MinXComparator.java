@@ -3,13 +3,15 @@ package pdfact.core.util.comparator;
 import java.io.Serializable;
 import java.util.Comparator;
 
+import pdfact.core.model.Character;
 import pdfact.core.model.HasPosition;
 import pdfact.core.model.Page;
 import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
 
 /**
- * A comparator that compares rectangles by their minX values.
+ * A comparator that compares rectangles by their minX values. Characters with equal minX values
+ * are compared by their extraction ranks.
  * 
  * @author Claudius Korzen
  */
@@ -19,6 +21,12 @@ public class MinXComparator implements Comparator<HasPosition>, Serializable {
    */
   protected static final long serialVersionUID = 8095843011284188012L;
 
+  /**
+   * The comparator to compare characters with equal minX values.
+   */
+  protected static final ExtractionRankComparator RANK_COMPARATOR =
+      new ExtractionRankComparator();
+
   @Override
   public int compare(HasPosition element1, HasPosition element2) {
     if (element1 == null && element2 == null) {
@@ -73,6 +81,10 @@ public class MinXComparator implements Comparator<HasPosition>, Serializable {
       return -1;
     }
 
-    return Float.compare(rect1.getMinX(), rect2.getMinX());
+    int result = Float.compare(rect1.getMinX(), rect2.getMinX());
+    if (result == 0 && element1 instanceof Character && element2 instanceof Character) {
+      return RANK_COMPARATOR.compare((Character) element1, (Character) element2);
+    }
+    return result;
   }
 }
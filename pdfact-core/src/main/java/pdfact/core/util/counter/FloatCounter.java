@@ -1,7 +1,11 @@
 package pdfact.core.util.counter;
 
 import gnu.trove.iterator.TFloatIntIterator;
+import gnu.trove.list.array.TFloatArrayList;
 import gnu.trove.map.hash.TFloatIntHashMap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * A counter to compute some statistics about float values.
@@ -14,6 +18,16 @@ public class FloatCounter extends TFloatIntHashMap {
    */
   protected static final int DEFAULT_INITIAL_CAPACITY = 10;
 
+  /**
+   * The initial capacity of this counter.
+   */
+  protected int initialCapacity;
+
+  /**
+   * The floats in this counter, in the order in which they were added first.
+   */
+  protected TFloatArrayList insertionOrder = new TFloatArrayList();
+
   /**
    * The most common float.
    */
@@ -44,6 +58,7 @@ public class FloatCounter extends TFloatIntHashMap {
    */
   public FloatCounter(int initialCapacity) {
     super(initialCapacity, DEFAULT_LOAD_FACTOR, 0, 0);
+    this.initialCapacity = initialCapacity;
   }
 
   // ==============================================================================================
@@ -72,6 +87,52 @@ public class FloatCounter extends TFloatIntHashMap {
 
   // ==============================================================================================
 
+  @Override
+  public int put(float key, int value) {
+    int size = size();
+    int previous = super.put(key, value);
+    if (size() > size) {
+      this.insertionOrder.add(key);
+    }
+    return previous;
+  }
+
+  @Override
+  public int putIfAbsent(float key, int value) {
+    int size = size();
+    int previous = super.putIfAbsent(key, value);
+    if (size() > size) {
+      this.insertionOrder.add(key);
+    }
+    return previous;
+  }
+
+  @Override
+  public int adjustOrPutValue(float key, int adjustAmount, int putAmount) {
+    int size = size();
+    int value = super.adjustOrPutValue(key, adjustAmount, putAmount);
+    if (size() > size) {
+      this.insertionOrder.add(key);
+    }
+    return value;
+  }
+
+  @Override
+  public int remove(float key) {
+    if (containsKey(key)) {
+      this.insertionOrder.remove(key);
+    }
+    return super.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    this.insertionOrder.clear();
+  }
+
+  // ==============================================================================================
+
   /**
    * Returns the most common float.
    * 
@@ -159,4 +220,56 @@ public class FloatCounter extends TFloatIntHashMap {
     this.averageFloat = sumFreqs > 0 ? sumFloats / sumFreqs : 0;
     this.isStatisticsComputed = true;
   }
+
+  // ==============================================================================================
+
+  /**
+   * Writes this counter to the given output: its initial capacity and its floats with their
+   * frequencies, in the order in which the floats were added first. A counter read by
+   * {@link #readFrom(DataInput)} is created with the same initial capacity and gets the floats in
+   * the same order, so its hash table has the same layout and it iterates the floats in the same
+   * order as this counter. This matters, because the statistics depend on the iteration order
+   * (for example, if there are multiple most common floats).
+   * 
+   * @param out
+   *        The output to write to.
+   * 
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeInt(this.initialCapacity);
+    out.writeInt(this.insertionOrder.size());
+    for (int i = 0; i < this.insertionOrder.size(); i++) {
+      float f = this.insertionOrder.get(i);
+      out.writeFloat(f);
+      out.writeInt(get(f));
+    }
+  }
+
+  /**
+   * Reads a counter written by {@link #writeTo(DataOutput)} from the given input.
+   * 
+   * @param in
+   *        The input to read from.
+   * 
+   * @return The counter.
+   * 
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  public static FloatCounter readFrom(DataInput in) throws IOException {
+    int initialCapacity = in.readInt();
+    int size = in.readInt();
+    if (initialCapacity < 0 || size < 0) {
+      throw new IOException("Invalid capacity or number of floats: " + initialCapacity + ", "
+          + size);
+    }
+    FloatCounter counter = new FloatCounter(initialCapacity);
+    for (int i = 0; i < size; i++) {
+      float f = in.readFloat();
+      counter.put(f, in.readInt());
+    }
+    return counter;
+  }
 }
@@ -2,6 +2,12 @@ package pdfact.core.util.counter;
 
 import gnu.trove.iterator.TObjectIntIterator;
 import gnu.trove.map.hash.TObjectIntHashMap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A counter to compute some statistics about objects.
@@ -17,6 +23,21 @@ public class ObjectCounter<T> extends TObjectIntHashMap<T> {
    */
   protected static final int DEFAULT_INITIAL_CAPACITY = 10;
 
+  /**
+   * The index that marks the null object on writing this counter.
+   */
+  protected static final int NULL_OBJECT = -1;
+
+  /**
+   * The initial capacity of this counter.
+   */
+  protected int initialCapacity;
+
+  /**
+   * The objects in this counter, in the order in which they were added first.
+   */
+  protected List<T> insertionOrder = new ArrayList<>();
+
   /**
    * The most common object.
    */
@@ -42,6 +63,7 @@ public class ObjectCounter<T> extends TObjectIntHashMap<T> {
    */
   public ObjectCounter(int initialCapacity) {
     super(initialCapacity, DEFAULT_LOAD_FACTOR, 0);
+    this.initialCapacity = initialCapacity;
   }
 
   // ==============================================================================================
@@ -74,6 +96,52 @@ public class ObjectCounter<T> extends TObjectIntHashMap<T> {
 
   // ==============================================================================================
 
+  @Override
+  public int put(T key, int value) {
+    int size = size();
+    int previous = super.put(key, value);
+    if (size() > size) {
+      this.insertionOrder.add(key);
+    }
+    return previous;
+  }
+
+  @Override
+  public int putIfAbsent(T key, int value) {
+    int size = size();
+    int previous = super.putIfAbsent(key, value);
+    if (size() > size) {
+      this.insertionOrder.add(key);
+    }
+    return previous;
+  }
+
+  @Override
+  public int adjustOrPutValue(T key, int adjustAmount, int putAmount) {
+    int size = size();
+    int value = super.adjustOrPutValue(key, adjustAmount, putAmount);
+    if (size() > size) {
+      this.insertionOrder.add(key);
+    }
+    return value;
+  }
+
+  @Override
+  public int remove(Object key) {
+    if (containsKey(key)) {
+      this.insertionOrder.remove(key);
+    }
+    return super.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    this.insertionOrder.clear();
+  }
+
+  // ==============================================================================================
+
   /**
    * Returns the most common object.
    * 
@@ -139,4 +207,111 @@ public class ObjectCounter<T> extends TObjectIntHashMap<T> {
     }
     this.isStatisticsComputed = true;
   }
+
+  // ==============================================================================================
+
+  /**
+   * Writes this counter to the given output: its initial capacity and its objects with their
+   * frequencies, in the order in which the objects were added first. A counter read by
+   * {@link #readFrom(DataInput, List)} is created with the same initial capacity and gets the
+   * objects in the same order, so its hash table has the same layout and it iterates the objects
+   * in the same order as this counter. This matters, because the statistics depend on the
+   * iteration order (for example, if there are multiple most common objects). The objects are
+   * not written themselves, but their indexes in a table of objects that is written separately.
+   * 
+   * @param out
+   *        The output to write to.
+   * @param indexes
+   *        The indexes of the objects in the table of objects.
+   * 
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  public void writeTo(DataOutput out, Map<T, Integer> indexes) throws IOException {
+    out.writeInt(this.initialCapacity);
+    out.writeInt(this.insertionOrder.size());
+    for (T object : this.insertionOrder) {
+      out.writeInt(indexOf(object, indexes));
+      out.writeInt(get(object));
+    }
+  }
+
+  /**
+   * Reads a counter written by {@link #writeTo(DataOutput, Map)} from the given input.
+   * 
+   * @param <T>
+   *        The type of the objects to count.
+   * @param in
+   *        The input to read from.
+   * @param objects
+   *        The table of objects, referenced by the indexes written to the input.
+   * 
+   * @return The counter.
+   * 
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  public static <T> ObjectCounter<T> readFrom(DataInput in, List<T> objects) throws IOException {
+    int initialCapacity = in.readInt();
+    int size = in.readInt();
+    if (initialCapacity < 0 || size < 0) {
+      throw new IOException("Invalid capacity or number of objects: " + initialCapacity + ", "
+          + size);
+    }
+    ObjectCounter<T> counter = new ObjectCounter<>(initialCapacity);
+    for (int i = 0; i < size; i++) {
+      T object = objectAt(in.readInt(), objects);
+      counter.put(object, in.readInt());
+    }
+    return counter;
+  }
+
+  /**
+   * Returns the index of the given object in the table of objects.
+   * 
+   * @param object
+   *        The object.
+   * @param indexes
+   *        The indexes of the objects in the table of objects.
+   * 
+   * @return The index of the given object; {@link #NULL_OBJECT} if the object is null.
+   * 
+   * @throws IOException
+   *         If the object is not contained in the table of objects.
+   */
+  protected static int indexOf(Object object, Map<?, Integer> indexes) throws IOException {
+    if (object == null) {
+      return NULL_OBJECT;
+    }
+    Integer index = indexes.get(object);
+    if (index == null) {
+      throw new IOException("The object '" + object + "' is not contained in the table.");
+    }
+    return index;
+  }
+
+  /**
+   * Returns the object with the given index in the given table of objects.
+   * 
+   * @param <T>
+   *        The type of the objects.
+   * @param index
+   *        The index of the object.
+   * @param objects
+   *        The table of objects.
+   * 
+   * @return The object with the given index; null if the index is {@link #NULL_OBJECT}.
+   * 
+   * @throws IOException
+   *         If the index is out of the bounds of the table.
+   */
+  protected static <T> T objectAt(int index, List<T> objects) throws IOException {
+    if (index == NULL_OBJECT) {
+      return null;
+    }
+    if (index < 0 || index >= objects.size()) {
+      throw new IOException("Invalid object index: " + index);
+    }
+    return objects.get(index);
+  }
 }
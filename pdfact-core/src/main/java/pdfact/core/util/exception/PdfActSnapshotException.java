@@ -0,0 +1,40 @@
+package pdfact.core.util.exception;
+
+/**
+ * The exception to throw on errors while writing or reading a snapshot of a PDF document.
+ * 
+ * @author Claudius Korzen
+ */
+public class PdfActSnapshotException extends PdfActException {
+  /**
+   * The serial id.
+   */
+  protected static final long serialVersionUID = -2214750618375523671L;
+
+  /**
+   * The default exit code of this exception.
+   */
+  protected static final int EXIT_CODE = 50;
+
+  /**
+   * Creates a new snapshot exception.
+   * 
+   * @param message
+   *        The error message to show when the exception was caught.
+   */
+  public PdfActSnapshotException(String message) {
+    super(EXIT_CODE, message);
+  }
+
+  /**
+   * Creates a new snapshot exception.
+   * 
+   * @param message
+   *        The error message to show when the exception was caught.
+   * @param cause
+   *        The cause of this exception (can be used to trace the error).
+   */
+  public PdfActSnapshotException(String message, Throwable cause) {
+    super(EXIT_CODE, message, cause);
+  }
+}
@@ -0,0 +1,20 @@
+package pdfact.core.util.pipeline;
+
+/**
+ * A pipe that does (parts of) its work in other threads than the thread executing the pipe, for
+ * example a pipe that parses the pages of a PDF document in parallel. The pipeline measures only
+ * the thread executing a pipe, so such a pipe adds the CPU time and the allocated bytes of the
+ * other threads to the metrics of its stage itself.
+ * 
+ * @author Claudius Korzen
+ */
+public interface MeasuredPipe extends Pipe {
+  /**
+   * Sets the metrics of the stage of this pipe, to which the measurements of the threads other
+   * than the thread executing this pipe should be added.
+   * 
+   * @param stage
+   *        The metrics of the stage of this pipe; null if no metrics should be recorded.
+   */
+  void setStageMetrics(StageMetrics stage);
+}
@@ -0,0 +1,108 @@
+package pdfact.core.util.pipeline;
+
+import java.util.Map;
+
+/**
+ * The metrics recorded on executing a page-local pipe (see {@link PagePipe}) on a single page.
+ *
+ * @author Claudius Korzen
+ */
+public class PageMetrics {
+  /**
+   * The number of the page.
+   */
+  protected int pageNumber;
+
+  /**
+   * The wall time needed to process the page, in nanoseconds.
+   */
+  protected long wallTime;
+
+  /**
+   * The CPU time needed to process the page, in nanoseconds; -1 if not measurable.
+   */
+  protected long cpuTime;
+
+  /**
+   * The number of bytes allocated on processing the page; -1 if not measurable.
+   */
+  protected long allocatedBytes;
+
+  /**
+   * The numbers of the elements in the page after processing, per element type.
+   */
+  protected Map<String, Integer> elementCounts;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates new metrics of a page.
+   *
+   * @param pageNumber
+   *        The number of the page.
+   * @param wallTime
+   *        The wall time needed to process the page, in nanoseconds.
+   * @param cpuTime
+   *        The CPU time needed to process the page, in nanoseconds; -1 if not measurable.
+   * @param allocatedBytes
+   *        The number of bytes allocated on processing the page; -1 if not measurable.
+   * @param elementCounts
+   *        The numbers of the elements in the page after processing, per element type.
+   */
+  public PageMetrics(int pageNumber, long wallTime, long cpuTime, long allocatedBytes,
+      Map<String, Integer> elementCounts) {
+    this.pageNumber = pageNumber;
+    this.wallTime = wallTime;
+    this.cpuTime = cpuTime;
+    this.allocatedBytes = allocatedBytes;
+    this.elementCounts = elementCounts;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of the page.
+   *
+   * @return The number of the page.
+   */
+  public int getPageNumber() {
+    return this.pageNumber;
+  }
+
+  /**
+   * Returns the wall time needed to process the page.
+   *
+   * @return The wall time in nanoseconds.
+   */
+  public long getWallTime() {
+    return this.wallTime;
+  }
+
+  /**
+   * Returns the CPU time needed to process the page.
+   *
+   * @return The CPU time in nanoseconds; -1 if not measurable.
+   */
+  public long getCpuTime() {
+    return this.cpuTime;
+  }
+
+  /**
+   * Returns the number of bytes allocated on processing the page.
+   *
+   * @return The number of allocated bytes; -1 if not measurable.
+   */
+  public long getAllocatedBytes() {
+    return this.allocatedBytes;
+  }
+
+  /**
+   * Returns the numbers of the elements in the page after processing, per element type.
+   *
+   * @return The numbers of the elements, per element type.
+   */
+  public Map<String, Integer> getElementCounts() {
+    return this.elementCounts;
+  }
+}
@@ -0,0 +1,53 @@
+package pdfact.core.util.pipeline;
+
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A pipe that is page-local, that is: a pipe that processes each page of a PDF document
+ * independently from the other pages. A pipeline may thus process the pages in parallel.
+ *
+ * <p>
+ * On processing a page, a page-local pipe may read the document-global properties of the PDF
+ * document (computed by previous pipes) and may modify the given page and its elements, but must
+ * not modify the PDF document or other pages. Everything that depends on all pages (for example,
+ * document-wide statistics) is done in {@link #executeAfterPages(Document)}, which is called
+ * after all pages were processed. Pipes that are not page-local are document-global; the pipeline
+ * waits until all pages were processed before it executes such a pipe.
+ *
+ * <p>
+ * The method {@link #execute(Document)} of a page-local pipe processes the pages sequentially
+ * and must produce the same result as calling {@link #execute(Document, Page)} for each page,
+ * followed by a call of {@link #executeAfterPages(Document)}.
+ *
+ * @author Claudius Korzen
+ */
+public interface PagePipe extends Pipe {
+  /**
+   * Executes this pipe on the given page.
+   *
+   * @param pdf
+   *        The PDF document to which the given page belongs to.
+   * @param page
+   *        The page to process.
+   *
+   * @throws PdfActException
+   *         If something went wrong while executing this pipe.
+   */
+  void execute(Document pdf, Page page) throws PdfActException;
+
+  /**
+   * Executes the document-global part of this pipe, after all pages of the given PDF document
+   * were processed.
+   *
+   * @param pdf
+   *        The PDF document whose pages were processed.
+   *
+   * @return The state of the PDF document after executing this pipe.
+   *
+   * @throws PdfActException
+   *         If something went wrong while executing this pipe.
+   */
+  Document executeAfterPages(Document pdf) throws PdfActException;
+}
@@ -0,0 +1,186 @@
+package pdfact.core.util.pipeline;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.exception.PdfActParseException;
+
+/**
+ * A stream of the pages of a PDF document that is processed by a pipeline in another thread,
+ * from which the pages can be pulled as soon as they were processed by all page-local pipes.
+ *
+ * <p>
+ * The stream buffers at most a given number of processed pages. If the buffer is full, the
+ * processing of the PDF document is blocked until the next page is pulled from the stream.
+ * After all pages were pulled, the PDF document (which was processed by all pipes) can be
+ * obtained via {@link #getDocument()}.
+ *
+ * @author Claudius Korzen
+ */
+public class PageStream implements PipelineListener {
+  /**
+   * The object that marks the end of the stream in the buffer.
+   */
+  protected static final Object END = new Object();
+
+  /**
+   * The buffer of processed pages, followed by {@link #END} after the last page.
+   */
+  protected final BlockingQueue<Object> buffer;
+
+  /**
+   * The processed PDF document; null if the document was not processed yet.
+   */
+  protected volatile Document document;
+
+  /**
+   * The exception thrown while processing the PDF document; null if there is no such exception.
+   */
+  protected volatile PdfActException exception;
+
+  /**
+   * The flag indicating whether the end marker was put into the buffer.
+   */
+  protected volatile boolean isEndPut;
+
+  /**
+   * The flag indicating whether the end of the stream was reached.
+   */
+  protected boolean isEndReached;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new page stream.
+   *
+   * @param maxNumBufferedPages
+   *        The maximum number of processed pages to buffer.
+   */
+  public PageStream(int maxNumBufferedPages) {
+    // Reserve one additional slot for the end marker.
+    this.buffer = new ArrayBlockingQueue<>(Math.max(1, maxNumBufferedPages) + 1);
+  }
+
+  // ==============================================================================================
+  // Methods to pull from the stream.
+
+  /**
+   * Returns the next processed page, and waits until it was processed if necessary.
+   *
+   * @return The next processed page; null if all pages were returned.
+   *
+   * @throws PdfActException
+   *         If something went wrong while processing the PDF document.
+   */
+  public Page nextPage() throws PdfActException {
+    if (this.isEndReached) {
+      return pollException();
+    }
+
+    Object next;
+    try {
+      next = this.buffer.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PdfActParseException("Interrupted while waiting for the next page.", e);
+    }
+
+    if (next == END) {
+      this.isEndReached = true;
+      return pollException();
+    }
+    return (Page) next;
+  }
+
+  /**
+   * Returns the PDF document after it was processed by all pipes, and waits until it was
+   * processed if necessary. Skips all pages that were not pulled yet.
+   *
+   * @return The processed PDF document.
+   *
+   * @throws PdfActException
+   *         If something went wrong while processing the PDF document.
+   */
+  public Document getDocument() throws PdfActException {
+    while (nextPage() != null) {
+      // Skip the page.
+    }
+    return this.document;
+  }
+
+  /**
+   * Throws the exception thrown while processing the PDF document, if there is any.
+   *
+   * @return Always null.
+   *
+   * @throws PdfActException
+   *         The exception thrown while processing the PDF document.
+   */
+  protected Page pollException() throws PdfActException {
+    if (this.exception != null) {
+      throw this.exception;
+    }
+    return null;
+  }
+
+  // ==============================================================================================
+  // Methods to push to the stream.
+
+  @Override
+  public void handlePageProcessed(Document pdf, Page page) {
+    put(page);
+  }
+
+  @Override
+  public void handleDocumentProcessed(Document pdf) {
+    this.document = pdf;
+    putEnd();
+  }
+
+  /**
+   * Handles the given exception thrown while processing the PDF document. Ends the stream, such
+   * that the exception is thrown on pulling from the stream.
+   *
+   * @param e
+   *        The exception to handle.
+   */
+  public void handleException(PdfActException e) {
+    this.exception = e;
+    putEnd();
+  }
+
+  /**
+   * Puts the end marker into the buffer, if it was not put before.
+   */
+  protected void putEnd() {
+    if (!this.isEndPut) {
+      this.isEndPut = true;
+      put(END);
+    }
+  }
+
+  /**
+   * Puts the given object into the buffer and waits for free space if necessary. An interrupt
+   * while waiting doesn't discard the object, but is restored afterwards.
+   *
+   * @param object
+   *        The object to put into the buffer.
+   */
+  protected void put(Object object) {
+    boolean isInterrupted = false;
+    while (true) {
+      try {
+        this.buffer.put(object);
+        break;
+      } catch (InterruptedException e) {
+        isInterrupted = true;
+      }
+    }
+    if (isInterrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
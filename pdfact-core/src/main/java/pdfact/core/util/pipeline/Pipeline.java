@@ -23,6 +23,21 @@ public interface Pipeline {
    */
   Document process(Document pdf) throws PdfActException;
 
+  /**
+   * Processes the pipes of this pipeline sequentially, with the given PDF document as input, and
+   * notifies the given listener about the processed pages and the processed document.
+   * 
+   * @param pdf
+   *        The input PDF document.
+   * @param listener
+   *        The listener to notify; null if no listener should be notified.
+   * @return The state of the PDF document after processing the pipeline.
+   * 
+   * @throws PdfActException
+   *         If something went wrong while processing this pipeline.
+   */
+  Document process(Document pdf, PipelineListener listener) throws PdfActException;
+
   // ==============================================================================================
 
   /**
@@ -60,6 +75,48 @@ public interface Pipeline {
 
   // ==============================================================================================
 
+  /**
+   * Returns the maximum number of pages that are processed in parallel by the page-local pipes
+   * (see {@link PagePipe}) of this pipeline.
+   * 
+   * @return The maximum number of pages processed in parallel; 1 if the pages are processed
+   *         sequentially.
+   */
+  int getParallelism();
+
+  /**
+   * Sets the maximum number of pages that are processed in parallel by the page-local pipes (see
+   * {@link PagePipe}) of this pipeline. The result of processing this pipeline does not depend on
+   * the parallelism.
+   * 
+   * @param parallelism
+   *        The maximum number of pages to process in parallel; 1 to process the pages
+   *        sequentially.
+   */
+  void setParallelism(int parallelism);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the metrics to which the measurements of the pipes are added on processing this
+   * pipeline.
+   *
+   * @return The metrics; null if no metrics are recorded.
+   */
+  PipelineMetrics getMetrics();
+
+  /**
+   * Sets the metrics to which the measurements of the pipes (per pipe and, for the page-local
+   * pipes, per page) should be added on processing this pipeline. The same metrics can be passed
+   * to multiple pipelines that process the same PDF document.
+   *
+   * @param metrics
+   *        The metrics; null if no metrics should be recorded.
+   */
+  void setMetrics(PipelineMetrics metrics);
+
+  // ==============================================================================================
+
   /**
    * Returns the number of pipes in this pipeline.
    * 
@@ -0,0 +1,40 @@
+package pdfact.core.util.pipeline;
+
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+
+/**
+ * A listener that is notified about the progress of processing a PDF document in a pipeline.
+ *
+ * <p>
+ * The listener is notified about each page as soon as the page was processed by all page-local
+ * pipes (see {@link PagePipe}), in the order of the pages. Afterwards (after the document-global
+ * pipes were executed), the listener is notified about the processed document. Note that the
+ * document-global pipes may still modify the elements of a page after the listener was notified
+ * about the page (for example, by assigning the semantic roles to the text blocks).
+ *
+ * <p>
+ * The listener is notified from the threads that process the pages, but never concurrently. A
+ * listener that blocks on a notification also blocks the processing of further pages.
+ *
+ * @author Claudius Korzen
+ */
+public interface PipelineListener {
+  /**
+   * Handles the given page, after it was processed by all page-local pipes.
+   *
+   * @param pdf
+   *        The PDF document to which the given page belongs to.
+   * @param page
+   *        The processed page.
+   */
+  void handlePageProcessed(Document pdf, Page page);
+
+  /**
+   * Handles the given PDF document, after it was processed by all pipes.
+   *
+   * @param pdf
+   *        The processed PDF document.
+   */
+  void handleDocumentProcessed(Document pdf);
+}
@@ -0,0 +1,265 @@
+package pdfact.core.util.pipeline;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.TextLine;
+
+/**
+ * The metrics recorded on processing a PDF document in one or more pipelines: per stage (that
+ * is, per pipe) and per page, the wall time, the CPU time and the allocated bytes (both measured
+ * via the {@link ThreadMXBean} of the JVM, if supported), and the numbers of the elements after
+ * executing the stage.
+ *
+ * @author Claudius Korzen
+ */
+public class PipelineMetrics {
+  /**
+   * The key of the number of characters in the element counts.
+   */
+  public static final String CHARACTERS = "characters";
+
+  /**
+   * The key of the number of figures in the element counts.
+   */
+  public static final String FIGURES = "figures";
+
+  /**
+   * The key of the number of shapes in the element counts.
+   */
+  public static final String SHAPES = "shapes";
+
+  /**
+   * The key of the number of text areas in the element counts.
+   */
+  public static final String TEXT_AREAS = "textAreas";
+
+  /**
+   * The key of the number of text lines in the element counts.
+   */
+  public static final String TEXT_LINES = "textLines";
+
+  /**
+   * The key of the number of words in the element counts.
+   */
+  public static final String WORDS = "words";
+
+  /**
+   * The key of the number of text blocks in the element counts.
+   */
+  public static final String TEXT_BLOCKS = "textBlocks";
+
+  /**
+   * The key of the number of paragraphs in the element counts.
+   */
+  public static final String PARAGRAPHS = "paragraphs";
+
+  /**
+   * The bean to measure the CPU time and the allocated bytes of the threads.
+   */
+  protected static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+  /**
+   * The metrics of the executed stages, in the order of execution.
+   */
+  protected List<StageMetrics> stageMetrics;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates new, empty metrics.
+   */
+  public PipelineMetrics() {
+    this.stageMetrics = new ArrayList<>();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the metrics of the executed stages, in the order of execution.
+   *
+   * @return The metrics of the executed stages.
+   */
+  public synchronized List<StageMetrics> getStageMetrics() {
+    return new ArrayList<>(this.stageMetrics);
+  }
+
+  /**
+   * Adds the given metrics of an executed stage.
+   *
+   * @param metrics
+   *        The metrics of the executed stage.
+   */
+  public synchronized void addStageMetrics(StageMetrics metrics) {
+    this.stageMetrics.add(metrics);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the wall time needed to execute all stages.
+   *
+   * @return The wall time in nanoseconds.
+   */
+  public synchronized long getWallTime() {
+    long wallTime = 0;
+    for (StageMetrics metrics : this.stageMetrics) {
+      wallTime += metrics.getWallTime();
+    }
+    return wallTime;
+  }
+
+  /**
+   * Returns the CPU time needed to execute all stages.
+   *
+   * @return The CPU time in nanoseconds; -1 if not measurable.
+   */
+  public synchronized long getCpuTime() {
+    long cpuTime = 0;
+    for (StageMetrics metrics : this.stageMetrics) {
+      if (metrics.getCpuTime() < 0) {
+        return -1;
+      }
+      cpuTime += metrics.getCpuTime();
+    }
+    return cpuTime;
+  }
+
+  /**
+   * Returns the number of bytes allocated on executing all stages.
+   *
+   * @return The number of allocated bytes; -1 if not measurable.
+   */
+  public synchronized long getAllocatedBytes() {
+    long allocatedBytes = 0;
+    for (StageMetrics metrics : this.stageMetrics) {
+      if (metrics.getAllocatedBytes() < 0) {
+        return -1;
+      }
+      allocatedBytes += metrics.getAllocatedBytes();
+    }
+    return allocatedBytes;
+  }
+
+  // ==============================================================================================
+  // Methods to measure the current thread.
+
+  /**
+   * Returns the CPU time consumed by the current thread so far.
+   *
+   * @return The CPU time in nanoseconds; -1 if the CPU time is not measurable in this JVM.
+   */
+  public static long getCurrentThreadCpuTime() {
+    if (!THREAD_BEAN.isCurrentThreadCpuTimeSupported() || !THREAD_BEAN.isThreadCpuTimeEnabled()) {
+      return -1;
+    }
+    return THREAD_BEAN.getCurrentThreadCpuTime();
+  }
+
+  /**
+   * Returns the number of bytes allocated by the current thread so far.
+   *
+   * @return The number of allocated bytes; -1 if the allocated bytes are not measurable in this
+   *         JVM.
+   */
+  public static long getCurrentThreadAllocatedBytes() {
+    if (!(THREAD_BEAN instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+    if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+      return -1;
+    }
+    return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Returns the difference between the given measurements.
+   *
+   * @param start
+   *        The measurement at the start; -1 if not measurable.
+   * @param end
+   *        The measurement at the end; -1 if not measurable.
+   *
+   * @return The difference; -1 if one of the measurements is not measurable.
+   */
+  public static long getDifference(long start, long end) {
+    return start < 0 || end < 0 ? -1 : end - start;
+  }
+
+  // ==============================================================================================
+  // Methods to count the elements.
+
+  /**
+   * Counts the elements of the given PDF document, per element type.
+   *
+   * @param pdf
+   *        The PDF document.
+   *
+   * @return The numbers of the elements, per element type.
+   */
+  public static Map<String, Integer> countElements(Document pdf) {
+    Map<String, Integer> counts = countElements((Page) null);
+    if (pdf == null) {
+      return counts;
+    }
+
+    if (pdf.getPages() != null) {
+      for (Page page : pdf.getPages()) {
+        for (Map.Entry<String, Integer> entry : countElements(page).entrySet()) {
+          counts.put(entry.getKey(), counts.get(entry.getKey()) + entry.getValue());
+        }
+      }
+    }
+    counts.put(PARAGRAPHS, size(pdf.getParagraphs()));
+    return counts;
+  }
+
+  /**
+   * Counts the elements of the given page, per element type.
+   *
+   * @param page
+   *        The page.
+   *
+   * @return The numbers of the elements, per element type.
+   */
+  public static Map<String, Integer> countElements(Page page) {
+    Map<String, Integer> counts = new LinkedHashMap<>();
+    counts.put(CHARACTERS, page != null ? size(page.getCharacters()) : 0);
+    counts.put(FIGURES, page != null ? size(page.getFigures()) : 0);
+    counts.put(SHAPES, page != null ? size(page.getShapes()) : 0);
+    counts.put(TEXT_AREAS, page != null ? size(page.getTextAreas()) : 0);
+    counts.put(TEXT_LINES, page != null ? size(page.getTextLines()) : 0);
+
+    // The words are not stored in the page, but in the text lines.
+    int numWords = 0;
+    if (page != null && page.getTextLines() != null) {
+      for (TextLine line : page.getTextLines()) {
+        numWords += line != null ? size(line.getWords()) : 0;
+      }
+    }
+    counts.put(WORDS, numWords);
+
+    counts.put(TEXT_BLOCKS, page != null ? size(page.getTextBlocks()) : 0);
+    return counts;
+  }
+
+  /**
+   * Returns the size of the given collection.
+   *
+   * @param collection
+   *        The collection.
+   *
+   * @return The size of the collection; 0 if the collection is null.
+   */
+  protected static int size(Collection<?> collection) {
+    return collection != null ? collection.size() : 0;
+  }
+}
@@ -2,7 +2,11 @@ package pdfact.core.util.pipeline;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 import pdfact.core.model.Document;
+import pdfact.core.model.Page;
 import pdfact.core.util.exception.PdfActException;
 
 /**
@@ -17,21 +21,310 @@ public class PlainPipeline implements Pipeline {
   protected List<Pipe> pipes;
 
   /**
-   * Creates an empty pipeline.
+   * The maximum number of pages to process in parallel by the page-local pipes.
+   */
+  protected int parallelism;
+
+  /**
+   * The pool to use for processing the pages in parallel, shared with other pipelines; null if
+   * a pool should be created on each processing.
+   */
+  protected ForkJoinPool pool;
+
+  /**
+   * The metrics to which the measurements of the pipes are added; null if no metrics are
+   * recorded.
+   */
+  protected PipelineMetrics metrics;
+
+  /**
+   * Creates an empty pipeline that processes the pages sequentially.
    */
   public PlainPipeline() {
+    this(1);
+  }
+
+  /**
+   * Creates an empty pipeline that processes up to the given number of pages in parallel.
+   * 
+   * @param parallelism
+   *        The maximum number of pages to process in parallel.
+   */
+  public PlainPipeline(int parallelism) {
     this.pipes = new ArrayList<>();
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Creates an empty pipeline that processes the pages in parallel, using the given pool. The
+   * pool is not shut down after processing, so it can be shared by multiple pipelines.
+   * 
+   * @param pool
+   *        The pool to use for processing the pages in parallel.
+   */
+  public PlainPipeline(ForkJoinPool pool) {
+    this(pool, pool.getParallelism());
+  }
+
+  /**
+   * Creates an empty pipeline that processes up to the given number of pages in parallel, using
+   * the given pool. The pool is not shut down after processing, so it can be shared by multiple
+   * pipelines, each with its own parallelism.
+   * 
+   * @param pool
+   *        The pool to use for processing the pages in parallel.
+   * @param parallelism
+   *        The maximum number of pages to process in parallel.
+   */
+  public PlainPipeline(ForkJoinPool pool, int parallelism) {
+    this(parallelism);
+    this.pool = pool;
   }
 
   // ==============================================================================================
 
   @Override
   public Document process(Document pdf) throws PdfActException {
-    Document processed = pdf;
-    for (Pipe pipe : this.pipes) {
-      processed = pipe.execute(processed);
+    return process(pdf, null);
+  }
+
+  @Override
+  public Document process(Document pdf, PipelineListener listener) throws PdfActException {
+    // Identify the last page-local pipe, after which the listener is notified about the pages.
+    int lastPagePipeIndex = -1;
+    if (listener != null) {
+      for (int i = 0; i < this.pipes.size(); i++) {
+        if (this.pipes.get(i) instanceof PagePipe) {
+          lastPagePipeIndex = i;
+        }
+      }
     }
-    return processed;
+
+    ForkJoinPool pool = null;
+    try {
+      Document processed = pdf;
+      for (int i = 0; i < this.pipes.size(); i++) {
+        Pipe pipe = this.pipes.get(i);
+        PipelineListener pageListener = i == lastPagePipeIndex ? listener : null;
+        StageMetrics stage = this.metrics != null
+            ? new StageMetrics(pipe.getClass().getSimpleName()) : null;
+        long wallStart = stage != null ? System.nanoTime() : 0;
+        long cpuStart = stage != null ? PipelineMetrics.getCurrentThreadCpuTime() : 0;
+        long bytesStart = stage != null ? PipelineMetrics.getCurrentThreadAllocatedBytes() : 0;
+        boolean isParallel = false;
+
+        // The pipe adds the measurements of the threads it uses itself.
+        if (pipe instanceof MeasuredPipe) {
+          ((MeasuredPipe) pipe).setStageMetrics(stage);
+        }
+
+        // Decide per pipe, as the pages are not known before the document was parsed.
+        if (pipe instanceof PagePipe && isToProcessInParallel(processed)) {
+          if (pool == null) {
+            pool = this.pool != null ? this.pool : new ForkJoinPool(this.parallelism);
+          }
+          processed = executeInParallel((PagePipe) pipe, processed, pool, pageListener, stage);
+          isParallel = true;
+        } else if (pipe instanceof PagePipe && (pageListener != null || stage != null)) {
+          processed = executeSequentially((PagePipe) pipe, processed, pageListener, stage);
+        } else {
+          // A document-global pipe (or there is no need to process the pages in parallel). It
+          // is executed after all pages were processed by the previous pipes, because the pool
+          // was joined before.
+          processed = pipe.execute(processed);
+        }
+
+        if (stage != null) {
+          stage.addWallTime(System.nanoTime() - wallStart);
+          stage.addCpuTime(PipelineMetrics.getDifference(cpuStart,
+              PipelineMetrics.getCurrentThreadCpuTime()));
+          stage.addAllocatedBytes(PipelineMetrics.getDifference(bytesStart,
+              PipelineMetrics.getCurrentThreadAllocatedBytes()));
+          // The pages processed in parallel were measured in other threads.
+          if (isParallel) {
+            for (PageMetrics page : stage.getPageMetrics()) {
+              stage.addCpuTime(page.getCpuTime());
+              stage.addAllocatedBytes(page.getAllocatedBytes());
+            }
+          }
+          stage.setElementCounts(PipelineMetrics.countElements(processed));
+          this.metrics.addStageMetrics(stage);
+        }
+      }
+
+      if (listener != null) {
+        // Notify the listener about the pages, if there is no page-local pipe.
+        if (lastPagePipeIndex < 0 && processed != null && processed.getPages() != null) {
+          for (Page page : processed.getPages()) {
+            if (page != null) {
+              listener.handlePageProcessed(processed, page);
+            }
+          }
+        }
+        listener.handleDocumentProcessed(processed);
+      }
+      return processed;
+    } finally {
+      if (pool != null && pool != this.pool) {
+        pool.shutdown();
+      }
+    }
+  }
+
+  /**
+   * Checks if the pages of the given PDF document should be processed in parallel.
+   * 
+   * @param pdf
+   *        The PDF document to check.
+   * 
+   * @return True, if the parallelism of this pipeline is larger than 1 and the given PDF document
+   *         consists of at least two pages; false otherwise.
+   */
+  protected boolean isToProcessInParallel(Document pdf) {
+    if (this.parallelism < 2 || pdf == null) {
+      return false;
+    }
+    List<Page> pages = pdf.getPages();
+    return pages != null && pages.size() > 1;
+  }
+
+  /**
+   * Executes the given page-local pipe on the pages of the given PDF document one after another
+   * and notifies the given listener about each page after it was processed. Afterwards, executes
+   * the document-global part of the pipe.
+   * 
+   * @param pipe
+   *        The pipe to execute.
+   * @param pdf
+   *        The PDF document to process.
+   * @param listener
+   *        The listener to notify about the processed pages; null if no listener should be
+   *        notified.
+   * @param stage
+   *        The metrics to which the measurements of the pages should be added; null if no
+   *        metrics should be recorded.
+   * 
+   * @return The state of the PDF document after executing the pipe.
+   * 
+   * @throws PdfActException
+   *         If something went wrong while executing the pipe.
+   */
+  protected Document executeSequentially(PagePipe pipe, Document pdf, PipelineListener listener,
+      StageMetrics stage) throws PdfActException {
+    if (pdf == null || pdf.getPages() == null) {
+      return pipe.execute(pdf);
+    }
+
+    for (Page page : pdf.getPages()) {
+      if (page != null) {
+        execute(pipe, pdf, page, stage);
+        if (listener != null) {
+          listener.handlePageProcessed(pdf, page);
+        }
+      }
+    }
+
+    return pipe.executeAfterPages(pdf);
+  }
+
+  /**
+   * Executes the given page-local pipe on the pages of the given PDF document in parallel and
+   * waits until all pages were processed. Afterwards, executes the document-global part of the
+   * pipe.
+   * 
+   * @param pipe
+   *        The pipe to execute.
+   * @param pdf
+   *        The PDF document to process.
+   * @param pool
+   *        The pool to use for processing the pages.
+   * @param listener
+   *        The listener to notify about the processed pages (in the order of the pages); null
+   *        if no listener should be notified.
+   * @param stage
+   *        The metrics to which the measurements of the pages should be added; null if no
+   *        metrics should be recorded.
+   * 
+   * @return The state of the PDF document after executing the pipe.
+   * 
+   * @throws PdfActException
+   *         If something went wrong while executing the pipe. If the pipe failed on multiple
+   *         pages, the exception thrown on the first of these pages.
+   */
+  protected Document executeInParallel(PagePipe pipe, Document pdf, ForkJoinPool pool,
+      PipelineListener listener, StageMetrics stage) throws PdfActException {
+    if (pdf == null || pdf.getPages() == null) {
+      return pipe.execute(pdf);
+    }
+
+    List<Page> pages = pdf.getPages();
+    PdfActException[] exceptions = new PdfActException[pages.size()];
+    PageNotifier notifier = listener != null ? new PageNotifier(listener, pdf, pages) : null;
+    // Don't process more pages in parallel than given by the parallelism, even if the pool is
+    // larger (because it is shared with other pipelines).
+    int numTasks = Math.min(this.parallelism, pages.size());
+    ExecutePagesTask task = new ExecutePagesTask(pipe, pdf, pages, exceptions, notifier, stage,
+        new AtomicInteger(), numTasks);
+    if (notifier == null) {
+      pool.invoke(task);
+    } else {
+      // Pass the processed pages to the listener in this thread, such that a slow listener
+      // doesn't block the threads of the pool.
+      pool.execute(task);
+      try {
+        notifier.notifyListener();
+      } finally {
+        task.join();
+      }
+    }
+
+    // Throw the exception thrown on the first page, as it would be done on sequential execution.
+    for (PdfActException exception : exceptions) {
+      if (exception != null) {
+        throw exception;
+      }
+    }
+
+    return pipe.executeAfterPages(pdf);
+  }
+
+  /**
+   * Executes the given page-local pipe on the given page and adds the measurements of the page
+   * to the given metrics.
+   * 
+   * @param pipe
+   *        The pipe to execute.
+   * @param pdf
+   *        The PDF document to which the given page belongs to.
+   * @param page
+   *        The page to process.
+   * @param stage
+   *        The metrics to which the measurements of the page should be added; null if no metrics
+   *        should be recorded.
+   * 
+   * @throws PdfActException
+   *         If something went wrong while executing the pipe.
+   */
+  protected static void execute(PagePipe pipe, Document pdf, Page page, StageMetrics stage)
+      throws PdfActException {
+    if (stage == null) {
+      pipe.execute(pdf, page);
+      return;
+    }
+
+    long wallStart = System.nanoTime();
+    long cpuStart = PipelineMetrics.getCurrentThreadCpuTime();
+    long bytesStart = PipelineMetrics.getCurrentThreadAllocatedBytes();
+
+    pipe.execute(pdf, page);
+
+    long wallTime = System.nanoTime() - wallStart;
+    long cpuTime = PipelineMetrics.getDifference(cpuStart,
+        PipelineMetrics.getCurrentThreadCpuTime());
+    long allocatedBytes = PipelineMetrics.getDifference(bytesStart,
+        PipelineMetrics.getCurrentThreadAllocatedBytes());
+    stage.addPageMetrics(new PageMetrics(page.getPageNumber(), wallTime, cpuTime,
+        allocatedBytes, PipelineMetrics.countElements(page)));
   }
 
   // ==============================================================================================
@@ -58,8 +351,266 @@ public class PlainPipeline implements Pipeline {
 
   // ==============================================================================================
 
+  @Override
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  @Override
+  public void setParallelism(int parallelism) {
+    // A given pool is still used, as the number of pages processed in parallel is limited by
+    // this pipeline, regardless of the size of the pool.
+    this.parallelism = parallelism;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public PipelineMetrics getMetrics() {
+    return this.metrics;
+  }
+
+  @Override
+  public void setMetrics(PipelineMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  // ==============================================================================================
+
   @Override
   public int size() {
     return this.pipes != null ? this.pipes.size() : 0;
   }
+
+  // ==============================================================================================
+
+  /**
+   * A task that executes a page-local pipe on the pages of a PDF document, by splitting itself
+   * into the given number of tasks, each processing the next unprocessed page until all pages
+   * were processed.
+   */
+  protected static class ExecutePagesTask extends RecursiveAction {
+    /**
+     * The serial id.
+     */
+    protected static final long serialVersionUID = 1L;
+
+    /**
+     * The pipe to execute.
+     */
+    protected final PagePipe pipe;
+
+    /**
+     * The PDF document to which the pages belong to.
+     */
+    protected final Document pdf;
+
+    /**
+     * The pages of the PDF document.
+     */
+    protected final List<Page> pages;
+
+    /**
+     * The exceptions thrown by the pipe, per page index.
+     */
+    protected final PdfActException[] exceptions;
+
+    /**
+     * The notifier to notify about the processed pages; null if there is no listener to notify.
+     */
+    protected final PageNotifier notifier;
+
+    /**
+     * The metrics to which the measurements of the pages are added; null if no metrics are
+     * recorded.
+     */
+    protected final StageMetrics stage;
+
+    /**
+     * The index of the next page to process, shared by all tasks.
+     */
+    protected final AtomicInteger next;
+
+    /**
+     * The number of tasks to split this task into.
+     */
+    protected final int numTasks;
+
+    /**
+     * Creates a new task that executes the given pipe on the given pages.
+     * 
+     * @param pipe
+     *        The pipe to execute.
+     * @param pdf
+     *        The PDF document to which the pages belong to.
+     * @param pages
+     *        The pages of the PDF document.
+     * @param exceptions
+     *        The array to store the exceptions thrown by the pipe, per page index.
+     * @param notifier
+     *        The notifier to notify about the processed pages; null if there is no listener to
+     *        notify.
+     * @param stage
+     *        The metrics to which the measurements of the pages should be added; null if no
+     *        metrics should be recorded.
+     * @param next
+     *        The index of the next page to process, shared by all tasks.
+     * @param numTasks
+     *        The number of tasks to split this task into, that is: the maximum number of pages
+     *        to process in parallel.
+     */
+    protected ExecutePagesTask(PagePipe pipe, Document pdf, List<Page> pages,
+        PdfActException[] exceptions, PageNotifier notifier, StageMetrics stage,
+        AtomicInteger next, int numTasks) {
+      this.pipe = pipe;
+      this.pdf = pdf;
+      this.pages = pages;
+      this.exceptions = exceptions;
+      this.notifier = notifier;
+      this.stage = stage;
+      this.next = next;
+      this.numTasks = numTasks;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.numTasks > 1) {
+        int half = this.numTasks >>> 1;
+        invokeAll(new ExecutePagesTask(this.pipe, this.pdf, this.pages, this.exceptions,
+            this.notifier, this.stage, this.next, half), new ExecutePagesTask(this.pipe, this.pdf,
+                this.pages, this.exceptions, this.notifier, this.stage, this.next,
+                this.numTasks - half));
+        return;
+      }
+
+      int index;
+      while ((index = this.next.getAndIncrement()) < this.pages.size()) {
+        Page page = this.pages.get(index);
+        boolean isSuccessful = false;
+        try {
+          if (page != null) {
+            execute(this.pipe, this.pdf, page, this.stage);
+          }
+          isSuccessful = true;
+        } catch (PdfActException e) {
+          this.exceptions[index] = e;
+        } finally {
+          // Also on unchecked exceptions, such that the notifier doesn't wait for the page.
+          if (this.notifier != null) {
+            this.notifier.handlePageProcessed(index, isSuccessful);
+          }
+        }
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A class that notifies a listener about the pages processed in parallel, in the order of the
+   * pages: a page is passed to the listener as soon as it and all previous pages were processed.
+   * The threads processing the pages only mark the pages as processed, while the listener is
+   * notified by the thread that waits for the pages, outside of the lock of this notifier.
+   */
+  protected static class PageNotifier {
+    /**
+     * The listener to notify.
+     */
+    protected final PipelineListener listener;
+
+    /**
+     * The PDF document to which the pages belong to.
+     */
+    protected final Document pdf;
+
+    /**
+     * The pages of the PDF document.
+     */
+    protected final List<Page> pages;
+
+    /**
+     * The flags indicating whether a page was processed, per page index.
+     */
+    protected final boolean[] isProcessed;
+
+    /**
+     * The index of the next page to pass to the listener.
+     */
+    protected int next;
+
+    /**
+     * The flag indicating whether the processing of a page failed. If so, no further pages are
+     * passed to the listener.
+     */
+    protected boolean isFailed;
+
+    /**
+     * Creates a new notifier.
+     * 
+     * @param listener
+     *        The listener to notify.
+     * @param pdf
+     *        The PDF document to which the pages belong to.
+     * @param pages
+     *        The pages of the PDF document.
+     */
+    protected PageNotifier(PipelineListener listener, Document pdf, List<Page> pages) {
+      this.listener = listener;
+      this.pdf = pdf;
+      this.pages = pages;
+      this.isProcessed = new boolean[pages.size()];
+    }
+
+    /**
+     * Marks the page with the given index as processed and wakes up the thread waiting for it.
+     * 
+     * @param index
+     *        The index of the processed page.
+     * @param isSuccessful
+     *        True, if the page was processed successfully; false otherwise.
+     */
+    protected synchronized void handlePageProcessed(int index, boolean isSuccessful) {
+      this.isFailed |= !isSuccessful;
+      this.isProcessed[index] = true;
+      if (index == this.next || !isSuccessful) {
+        notifyAll();
+      }
+    }
+
+    /**
+     * Passes the pages to the listener in their order, each as soon as it and all previous pages
+     * were processed. Returns after all pages were passed, or after the processing of a page
+     * failed.
+     */
+    protected void notifyListener() {
+      boolean isInterrupted = false;
+      try {
+        while (true) {
+          Page page;
+          synchronized (this) {
+            while (!this.isFailed && this.next < this.pages.size()
+                && !this.isProcessed[this.next]) {
+              try {
+                wait();
+              } catch (InterruptedException e) {
+                // The pages are processed anyway, so keep waiting for them.
+                isInterrupted = true;
+              }
+            }
+            if (this.isFailed || this.next >= this.pages.size()) {
+              return;
+            }
+            page = this.pages.get(this.next++);
+          }
+          if (page != null) {
+            this.listener.handlePageProcessed(this.pdf, page);
+          }
+        }
+      } finally {
+        if (isInterrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,190 @@
+package pdfact.core.util.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The metrics recorded on executing a single pipe (a stage) of a pipeline.
+ *
+ * <p>
+ * The CPU time and the allocated bytes include the CPU time and the bytes of all threads that
+ * processed the pages of the pipe, so the CPU time may be larger than the wall time if the pages
+ * were processed in parallel.
+ *
+ * @author Claudius Korzen
+ */
+public class StageMetrics {
+  /**
+   * The name of the stage.
+   */
+  protected String name;
+
+  /**
+   * The wall time needed to execute the stage, in nanoseconds.
+   */
+  protected long wallTime;
+
+  /**
+   * The CPU time needed to execute the stage, in nanoseconds; -1 if not measurable.
+   */
+  protected long cpuTime;
+
+  /**
+   * The number of bytes allocated on executing the stage; -1 if not measurable.
+   */
+  protected long allocatedBytes;
+
+  /**
+   * The numbers of the elements in the PDF document after executing the stage, per element type.
+   */
+  protected Map<String, Integer> elementCounts;
+
+  /**
+   * The metrics of the pages processed by the stage; empty if the stage is not page-local.
+   */
+  protected List<PageMetrics> pageMetrics;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates new, empty metrics of a stage.
+   *
+   * @param name
+   *        The name of the stage.
+   */
+  public StageMetrics(String name) {
+    this.name = name;
+    this.pageMetrics = new ArrayList<>();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the name of the stage.
+   *
+   * @return The name of the stage.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the wall time needed to execute the stage.
+   *
+   * @return The wall time in nanoseconds.
+   */
+  public synchronized long getWallTime() {
+    return this.wallTime;
+  }
+
+  /**
+   * Adds the given wall time to the wall time of this stage.
+   *
+   * @param wallTime
+   *        The wall time to add, in nanoseconds.
+   */
+  public synchronized void addWallTime(long wallTime) {
+    this.wallTime += wallTime;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the CPU time needed to execute the stage.
+   *
+   * @return The CPU time in nanoseconds; -1 if not measurable.
+   */
+  public synchronized long getCpuTime() {
+    return this.cpuTime;
+  }
+
+  /**
+   * Adds the given CPU time to the CPU time of this stage.
+   *
+   * @param cpuTime
+   *        The CPU time to add, in nanoseconds; -1 if not measurable, in which case the CPU time
+   *        of this stage is not measurable either.
+   */
+  public synchronized void addCpuTime(long cpuTime) {
+    this.cpuTime = cpuTime < 0 || this.cpuTime < 0 ? -1 : this.cpuTime + cpuTime;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of bytes allocated on executing the stage.
+   *
+   * @return The number of allocated bytes; -1 if not measurable.
+   */
+  public synchronized long getAllocatedBytes() {
+    return this.allocatedBytes;
+  }
+
+  /**
+   * Adds the given number of bytes to the allocated bytes of this stage.
+   *
+   * @param allocatedBytes
+   *        The number of bytes to add; -1 if not measurable, in which case the allocated bytes of
+   *        this stage are not measurable either.
+   */
+  public synchronized void addAllocatedBytes(long allocatedBytes) {
+    this.allocatedBytes = allocatedBytes < 0 || this.allocatedBytes < 0 ? -1
+        : this.allocatedBytes + allocatedBytes;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the numbers of the elements in the PDF document after executing the stage.
+   *
+   * @return The numbers of the elements, per element type; null if they were not counted.
+   */
+  public synchronized Map<String, Integer> getElementCounts() {
+    return this.elementCounts;
+  }
+
+  /**
+   * Sets the numbers of the elements in the PDF document after executing the stage.
+   *
+   * @param elementCounts
+   *        The numbers of the elements, per element type.
+   */
+  public synchronized void setElementCounts(Map<String, Integer> elementCounts) {
+    this.elementCounts = elementCounts;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the metrics of the pages processed by the stage, in the order of the pages.
+   *
+   * @return The metrics of the pages; empty if the stage is not page-local.
+   */
+  public synchronized List<PageMetrics> getPageMetrics() {
+    List<PageMetrics> pageMetrics = new ArrayList<>(this.pageMetrics);
+    // The pages may be added in any order when they are processed in parallel.
+    Collections.sort(pageMetrics, new Comparator<PageMetrics>() {
+      @Override
+      public int compare(PageMetrics metrics1, PageMetrics metrics2) {
+        return Integer.compare(metrics1.getPageNumber(), metrics2.getPageNumber());
+      }
+    });
+    return pageMetrics;
+  }
+
+  /**
+   * Adds the given metrics of a page processed by the stage.
+   *
+   * @param metrics
+   *        The metrics of the page.
+   */
+  public synchronized void addPageMetrics(PageMetrics metrics) {
+    this.pageMetrics.add(metrics);
+  }
+}
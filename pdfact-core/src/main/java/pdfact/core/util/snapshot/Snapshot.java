@@ -0,0 +1,72 @@
+package pdfact.core.util.snapshot;
+
+import java.util.Set;
+import pdfact.core.model.Document;
+import pdfact.core.pipes.PdfActCoreStage;
+
+/**
+ * A snapshot of a PDF document, that is: the state of a PDF document after it was processed in
+ * some stages of the core pipeline. A snapshot can be written to a file by a
+ * {@link SnapshotWriter} and read from the file by a {@link SnapshotReader}, such that the
+ * processing of the PDF document can be resumed later, without parsing the PDF document again.
+ *
+ * @author Claudius Korzen
+ */
+public class Snapshot {
+  /**
+   * The magic number at the beginning of each snapshot file.
+   */
+  protected static final int MAGIC_NUMBER = 0x50444653;
+
+  /**
+   * The version of the snapshot format.
+   */
+  protected static final int VERSION = 2;
+
+  /**
+   * The PDF document.
+   */
+  protected Document document;
+
+  /**
+   * The stages in which the PDF document was processed.
+   */
+  protected Set<PdfActCoreStage> stages;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new snapshot.
+   *
+   * @param document
+   *        The PDF document.
+   * @param stages
+   *        The stages in which the PDF document was processed; the stages needed by the given
+   *        stages are added.
+   */
+  public Snapshot(Document document, Set<PdfActCoreStage> stages) {
+    this.document = document;
+    this.stages = PdfActCoreStage.withRequiredStages(stages);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the PDF document.
+   *
+   * @return The PDF document.
+   */
+  public Document getDocument() {
+    return this.document;
+  }
+
+  /**
+   * Returns the stages in which the PDF document was processed.
+   *
+   * @return The stages in which the PDF document was processed.
+   */
+  public Set<PdfActCoreStage> getStages() {
+    return this.stages;
+  }
+}
@@ -0,0 +1,724 @@
+package pdfact.core.util.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Character;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Color;
+import pdfact.core.model.Document;
+import pdfact.core.model.Element;
+import pdfact.core.model.Figure;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Line;
+import pdfact.core.model.Page;
+import pdfact.core.model.Paragraph;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.Shape;
+import pdfact.core.model.TextArea;
+import pdfact.core.model.TextBlock;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.TextLineStatistic;
+import pdfact.core.model.Word;
+import pdfact.core.pipes.PdfActCoreStage;
+import pdfact.core.util.counter.FloatCounter;
+import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.exception.PdfActSnapshotException;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A reader that reads snapshots of PDF documents written by a {@link SnapshotWriter}.
+ *
+ * <p>
+ * A reader is not thread-safe; use a separate reader per thread.
+ *
+ * @author Claudius Korzen
+ */
+public class SnapshotReader {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(SnapshotReader.class);
+
+  /**
+   * The fonts read so far.
+   */
+  protected List<Font> fonts;
+
+  /**
+   * The font faces read so far.
+   */
+  protected List<FontFace> fontFaces;
+
+  /**
+   * The colors read so far.
+   */
+  protected List<Color> colors;
+
+  /**
+   * The pages read so far.
+   */
+  protected List<Page> pages;
+
+  /**
+   * The characters read so far.
+   */
+  protected List<Character> characters;
+
+  /**
+   * The figures read so far.
+   */
+  protected List<Figure> figures;
+
+  /**
+   * The shapes read so far.
+   */
+  protected List<Shape> shapes;
+
+  /**
+   * The text areas read so far.
+   */
+  protected List<TextArea> textAreas;
+
+  /**
+   * The words read so far.
+   */
+  protected List<Word> words;
+
+  /**
+   * The text lines read so far.
+   */
+  protected List<TextLine> textLines;
+
+  /**
+   * The text blocks read so far.
+   */
+  protected List<TextBlock> textBlocks;
+
+  /**
+   * The paragraphs read so far.
+   */
+  protected List<Paragraph> paragraphs;
+
+  // ==============================================================================================
+
+  /**
+   * Reads a snapshot from the given file.
+   *
+   * @param path
+   *        The path to the file to read from.
+   *
+   * @return The snapshot.
+   *
+   * @throws PdfActSnapshotException
+   *         If something went wrong while reading the snapshot.
+   */
+  public Snapshot read(Path path) throws PdfActSnapshotException {
+    if (path == null) {
+      throw new PdfActSnapshotException("No path to the snapshot file given.");
+    }
+    if (!Files.isRegularFile(path)) {
+      throw new PdfActSnapshotException("The snapshot file '" + path + "' does not exist.");
+    }
+
+    try (InputStream stream = Files.newInputStream(path)) {
+      return read(stream);
+    } catch (IOException e) {
+      throw new PdfActSnapshotException("Could not read the snapshot from '" + path + "'.", e);
+    }
+  }
+
+  /**
+   * Reads a snapshot from the given stream. The stream is not closed.
+   *
+   * @param stream
+   *        The stream to read from.
+   *
+   * @return The snapshot.
+   *
+   * @throws PdfActSnapshotException
+   *         If something went wrong while reading the snapshot.
+   */
+  public Snapshot read(InputStream stream) throws PdfActSnapshotException {
+    if (stream == null) {
+      throw new PdfActSnapshotException("No stream to read the snapshot from given.");
+    }
+
+    long start = System.currentTimeMillis();
+    Snapshot snapshot;
+    try {
+      snapshot = readSnapshot(new DataInputStream(new BufferedInputStream(stream)));
+    } catch (IOException | IllegalArgumentException e) {
+      throw new PdfActSnapshotException("Could not read the snapshot.", e);
+    } finally {
+      this.fonts = null;
+      this.fontFaces = null;
+      this.colors = null;
+      this.pages = null;
+      this.characters = null;
+      this.figures = null;
+      this.shapes = null;
+      this.textAreas = null;
+      this.words = null;
+      this.textLines = null;
+      this.textBlocks = null;
+      this.paragraphs = null;
+    }
+    long length = System.currentTimeMillis() - start;
+
+    log.debug("Time needed to read the snapshot: " + length + "ms.");
+    return snapshot;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Reads a snapshot from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The snapshot.
+   *
+   * @throws IOException
+   *         If reading from the input failed or if the input is not a valid snapshot.
+   */
+  protected Snapshot readSnapshot(DataInputStream in) throws IOException {
+    if (in.readInt() != Snapshot.MAGIC_NUMBER) {
+      throw new IOException("The input is not a snapshot.");
+    }
+    int version = in.readInt();
+    if (version != Snapshot.VERSION) {
+      throw new IOException("Unsupported snapshot version: " + version);
+    }
+
+    Set<PdfActCoreStage> stages = EnumSet.noneOf(PdfActCoreStage.class);
+    int numStages = in.readInt();
+    for (int i = 0; i < numStages; i++) {
+      stages.add(PdfActCoreStage.valueOf(readString(in)));
+    }
+    String path = readString(in);
+    Document pdf = new Document(path != null ? Paths.get(path) : (Path) null);
+
+    int numFonts = readSize(in);
+    this.fonts = new ArrayList<>(numFonts);
+    for (int i = 0; i < numFonts; i++) {
+      this.fonts.add(readFont(in));
+    }
+    int numColors = readSize(in);
+    this.colors = new ArrayList<>(numColors);
+    for (int i = 0; i < numColors; i++) {
+      this.colors.add(readColor(in));
+    }
+    int numFontFaces = readSize(in);
+    this.fontFaces = new ArrayList<>(numFontFaces);
+    for (int i = 0; i < numFontFaces; i++) {
+      Font font = get(this.fonts, in.readInt());
+      this.fontFaces.add(new FontFace(font, in.readFloat()));
+    }
+    int numPages = readSize(in);
+    this.pages = new ArrayList<>(numPages);
+    for (int i = 0; i < numPages; i++) {
+      Page page = new Page(in.readInt());
+      page.setWidth(in.readFloat());
+      page.setHeight(in.readFloat());
+      this.pages.add(page);
+    }
+
+    int numCharacters = readSize(in);
+    this.characters = new ArrayList<>(numCharacters);
+    for (int i = 0; i < numCharacters; i++) {
+      this.characters.add(readCharacter(in));
+    }
+    int numFigures = readSize(in);
+    this.figures = new ArrayList<>(numFigures);
+    for (int i = 0; i < numFigures; i++) {
+      Figure figure = new Figure();
+      figure.setPosition(readPosition(in));
+      this.figures.add(figure);
+    }
+    int numShapes = readSize(in);
+    this.shapes = new ArrayList<>(numShapes);
+    for (int i = 0; i < numShapes; i++) {
+      Shape shape = new Shape();
+      shape.setPosition(readPosition(in));
+      shape.setColor(get(this.colors, in.readInt()));
+      this.shapes.add(shape);
+    }
+    int numTextAreas = readSize(in);
+    this.textAreas = new ArrayList<>(numTextAreas);
+    for (int i = 0; i < numTextAreas; i++) {
+      TextArea area = new TextArea();
+      area.setCharacters(readReferences(in, this.characters));
+      area.setPosition(readPosition(in));
+      area.setCharacterStatistic(readCharacterStatistic(in));
+      this.textAreas.add(area);
+    }
+    int numWords = readSize(in);
+    this.words = new ArrayList<>(numWords);
+    for (int i = 0; i < numWords; i++) {
+      this.words.add(readWord(in));
+    }
+    int numTextLines = readSize(in);
+    this.textLines = new ArrayList<>(numTextLines);
+    for (int i = 0; i < numTextLines; i++) {
+      this.textLines.add(readTextLine(in));
+    }
+    int numTextBlocks = readSize(in);
+    this.textBlocks = new ArrayList<>(numTextBlocks);
+    for (int i = 0; i < numTextBlocks; i++) {
+      this.textBlocks.add(readTextBlock(in));
+    }
+    int numParagraphs = readSize(in);
+    this.paragraphs = new ArrayList<>(numParagraphs);
+    for (int i = 0; i < numParagraphs; i++) {
+      this.paragraphs.add(readParagraph(in));
+    }
+
+    for (Page page : this.pages) {
+      page.setCharacters(readReferences(in, this.characters));
+      page.setFigures(readReferences(in, this.figures));
+      page.setShapes(readReferences(in, this.shapes));
+      page.setTextAreas(readReferences(in, this.textAreas));
+      page.setTextLines(readReferences(in, this.textLines));
+      page.setTextBlocks(readReferences(in, this.textBlocks));
+      page.setCharacterStatistic(readCharacterStatistic(in));
+      page.setTextLineStatistic(readTextLineStatistic(in));
+      pdf.addPage(page);
+    }
+    pdf.setParagraphs(readReferences(in, this.paragraphs));
+    pdf.setCharacterStatistic(readCharacterStatistic(in));
+    pdf.setTextLineStatistic(readTextLineStatistic(in));
+
+    return new Snapshot(pdf, stages);
+  }
+
+  /**
+   * Reads a font from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The font.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected Font readFont(DataInputStream in) throws IOException {
+    Font font = new Font();
+    font.setId(readString(in));
+    font.setNormalizedName(readString(in));
+    font.setBasename(readString(in));
+    font.setFontFamilyName(readString(in));
+    font.setIsType3Font(in.readBoolean());
+    font.setIsBold(in.readBoolean());
+    font.setIsItalic(in.readBoolean());
+    return font;
+  }
+
+  /**
+   * Reads a color from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The color.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected Color readColor(DataInputStream in) throws IOException {
+    Color color = new Color();
+    color.setId(readString(in));
+    color.setName(readString(in));
+    int length = in.readInt();
+    int[] rgb = null;
+    if (length >= 0) {
+      rgb = new int[length];
+      for (int i = 0; i < length; i++) {
+        rgb[i] = in.readInt();
+      }
+    }
+    color.setRGB(rgb);
+    return color;
+  }
+
+  /**
+   * Reads a character from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The character.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected Character readCharacter(DataInputStream in) throws IOException {
+    Character character = new Character();
+    character.setText(readString(in));
+    character.setPosition(readPosition(in));
+    character.setFontFace(get(this.fontFaces, in.readInt()));
+    character.setColor(get(this.colors, in.readInt()));
+    character.setExtractionRank(in.readInt());
+    return character;
+  }
+
+  /**
+   * Reads a word from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The word.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected Word readWord(DataInputStream in) throws IOException {
+    Word word = new Word();
+    word.setCharacters(readReferences(in, this.characters));
+    word.setText(readString(in));
+    word.setPositions(readPositions(in));
+    word.setIsHyphenated(in.readBoolean());
+    word.setIsDehyphenated(in.readBoolean());
+    word.setIsHyphenMandatory(in.readBoolean());
+    word.setCharacterStatistic(readCharacterStatistic(in));
+    return word;
+  }
+
+  /**
+   * Reads a text line from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The text line.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected TextLine readTextLine(DataInputStream in) throws IOException {
+    TextLine line = new TextLine();
+    line.setCharacters(readReferences(in, this.characters));
+    line.setWords(readReferences(in, this.words));
+    line.setText(readString(in));
+    line.setPosition(readPosition(in));
+    if (in.readBoolean()) {
+      line.setBaseline(new Line(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat()));
+    }
+    line.setCharacterStatistic(readCharacterStatistic(in));
+    return line;
+  }
+
+  /**
+   * Reads a text block from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The text block.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected TextBlock readTextBlock(DataInputStream in) throws IOException {
+    TextBlock block = new TextBlock();
+    block.setTextLines(readReferences(in, this.textLines));
+    block.setText(readString(in));
+    block.setPosition(readPosition(in));
+    block.setSemanticRole(readSemanticRole(in));
+    block.setSecondarySemanticRole(readSemanticRole(in));
+    block.setCharacterStatistic(readCharacterStatistic(in));
+    block.setTextLineStatistic(readTextLineStatistic(in));
+    return block;
+  }
+
+  /**
+   * Reads a paragraph from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The paragraph.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected Paragraph readParagraph(DataInputStream in) throws IOException {
+    Paragraph paragraph = new Paragraph();
+    paragraph.setWords(readReferences(in, this.words));
+    paragraph.setText(readString(in));
+    paragraph.setPositions(readPositions(in));
+    paragraph.setSemanticRole(readSemanticRole(in));
+    paragraph.setSecondarySemanticRole(readSemanticRole(in));
+    paragraph.setCharacterStatistic(readCharacterStatistic(in));
+    return paragraph;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Reads a character statistic from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The character statistic; null if a null statistic was written.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected CharacterStatistic readCharacterStatistic(DataInputStream in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    CharacterStatistic statistic = new CharacterStatistic();
+    statistic.setHeightFrequencies(readFloatCounter(in));
+    statistic.setWidthFrequencies(readFloatCounter(in));
+    statistic.setFontFaceFrequencies(readObjectCounter(in, this.fontFaces));
+    statistic.setFontSizeFrequencies(readFloatCounter(in));
+    statistic.setColorFrequencies(readObjectCounter(in, this.colors));
+    statistic.setSmallestMinX(in.readFloat());
+    statistic.setSmallestMinY(in.readFloat());
+    statistic.setLargestMaxX(in.readFloat());
+    statistic.setLargestMaxY(in.readFloat());
+    return statistic;
+  }
+
+  /**
+   * Reads a text line statistic from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The text line statistic; null if a null statistic was written.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected TextLineStatistic readTextLineStatistic(DataInputStream in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    TextLineStatistic statistic = new TextLineStatistic();
+    int numLinePitches = in.readInt();
+    if (numLinePitches >= 0) {
+      Map<FontFace, FloatCounter> linePitches = new HashMap<>();
+      for (int i = 0; i < numLinePitches; i++) {
+        FontFace fontFace = get(this.fontFaces, in.readInt());
+        linePitches.put(fontFace, readFloatCounter(in));
+      }
+      statistic.setLinePitchFrequencies(linePitches);
+    }
+    statistic.setWhitespaceWidthFrequencies(readFloatCounter(in));
+    return statistic;
+  }
+
+  /**
+   * Reads a float counter from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The counter; null if a null counter was written.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected FloatCounter readFloatCounter(DataInputStream in) throws IOException {
+    return in.readBoolean() ? FloatCounter.readFrom(in) : null;
+  }
+
+  /**
+   * Reads an object counter from the given input.
+   *
+   * @param <T>
+   *        The type of the counted objects.
+   * @param in
+   *        The input to read from.
+   * @param objects
+   *        The table of the counted objects.
+   *
+   * @return The counter; null if a null counter was written.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected <T> ObjectCounter<T> readObjectCounter(DataInputStream in, List<T> objects)
+      throws IOException {
+    return in.readBoolean() ? ObjectCounter.readFrom(in, objects) : null;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Reads a list of references to elements from the given input.
+   *
+   * @param <T>
+   *        The type of the elements.
+   * @param in
+   *        The input to read from.
+   * @param elements
+   *        The table of the referenced elements.
+   *
+   * @return The referenced elements; null if a null list was written.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected <T extends Element> ElementList<T> readReferences(DataInputStream in,
+      List<T> elements) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      return null;
+    }
+    ElementList<T> result = new ElementList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(get(elements, in.readInt()));
+    }
+    return result;
+  }
+
+  /**
+   * Reads a list of positions from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The positions; null if a null list was written.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected List<Position> readPositions(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      return null;
+    }
+    List<Position> positions = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      positions.add(readPosition(in));
+    }
+    return positions;
+  }
+
+  /**
+   * Reads a position from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The position; null if a null position was written.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected Position readPosition(DataInputStream in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    Page page = get(this.pages, in.readInt());
+    if (!in.readBoolean()) {
+      return new Position(page, (Rectangle) null);
+    }
+    return new Position(page, in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat());
+  }
+
+  /**
+   * Reads a semantic role from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The semantic role; null if a null role was written.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected SemanticRole readSemanticRole(DataInputStream in) throws IOException {
+    String name = readString(in);
+    return name != null ? SemanticRole.valueOf(name) : null;
+  }
+
+  /**
+   * Reads a string written by {@link SnapshotWriter#writeString} from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The string; null if a null string was written.
+   *
+   * @throws IOException
+   *         If reading from the input failed.
+   */
+  protected String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads a size (the number of objects in a table) from the given input.
+   *
+   * @param in
+   *        The input to read from.
+   *
+   * @return The size.
+   *
+   * @throws IOException
+   *         If reading from the input failed or if the size is negative.
+   */
+  protected int readSize(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      throw new IOException("Invalid size: " + size);
+    }
+    return size;
+  }
+
+  /**
+   * Returns the object with the given index in the given table.
+   *
+   * @param <T>
+   *        The type of the objects.
+   * @param objects
+   *        The table.
+   * @param index
+   *        The index of the object.
+   *
+   * @return The object with the given index; null if the index is -1.
+   *
+   * @throws IOException
+   *         If the index is out of the bounds of the table.
+   */
+  protected <T> T get(List<T> objects, int index) throws IOException {
+    if (index == -1) {
+      return null;
+    }
+    if (index < 0 || index >= objects.size()) {
+      throw new IOException("Invalid reference: " + index);
+    }
+    return objects.get(index);
+  }
+}
@@ -0,0 +1,989 @@
+package pdfact.core.util.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Character;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Color;
+import pdfact.core.model.Document;
+import pdfact.core.model.Figure;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Line;
+import pdfact.core.model.Page;
+import pdfact.core.model.Paragraph;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.Shape;
+import pdfact.core.model.TextArea;
+import pdfact.core.model.TextBlock;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.TextLineStatistic;
+import pdfact.core.model.Word;
+import pdfact.core.pipes.PdfActCoreStage;
+import pdfact.core.util.counter.FloatCounter;
+import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.exception.PdfActSnapshotException;
+
+/**
+ * A writer that writes snapshots of PDF documents in a compact binary format.
+ *
+ * <p>
+ * The fonts, font faces and colors are written once, in tables at the beginning of the snapshot.
+ * The elements (characters, figures, shapes, text areas, words, text lines, text blocks and
+ * paragraphs) are written in tables as well, each element once, and are referenced by their
+ * indexes in the tables. Thus, an element that is contained in multiple other elements (for
+ * example, a character that is contained in a page, a text area, a text line and a word) is
+ * also a single object after reading the snapshot. The counters of the statistics are written
+ * as values with their frequencies, in the order in which the values were added first. On
+ * reading, the values are added in the same order, such that the counters iterate the values in
+ * the same order and the statistics computed after reading a snapshot are identical to the
+ * statistics computed before writing the snapshot.
+ *
+ * <p>
+ * A writer is not thread-safe; use a separate writer per thread.
+ *
+ * @author Claudius Korzen
+ */
+public class SnapshotWriter {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(SnapshotWriter.class);
+
+  /**
+   * The fonts to write.
+   */
+  protected Table<Font> fonts;
+
+  /**
+   * The font faces to write.
+   */
+  protected Table<FontFace> fontFaces;
+
+  /**
+   * The colors to write.
+   */
+  protected Table<Color> colors;
+
+  /**
+   * The pages to write.
+   */
+  protected Table<Page> pages;
+
+  /**
+   * The characters to write.
+   */
+  protected Table<Character> characters;
+
+  /**
+   * The figures to write.
+   */
+  protected Table<Figure> figures;
+
+  /**
+   * The shapes to write.
+   */
+  protected Table<Shape> shapes;
+
+  /**
+   * The text areas to write.
+   */
+  protected Table<TextArea> textAreas;
+
+  /**
+   * The words to write.
+   */
+  protected Table<Word> words;
+
+  /**
+   * The text lines to write.
+   */
+  protected Table<TextLine> textLines;
+
+  /**
+   * The text blocks to write.
+   */
+  protected Table<TextBlock> textBlocks;
+
+  /**
+   * The paragraphs to write.
+   */
+  protected Table<Paragraph> paragraphs;
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given snapshot to the given file.
+   *
+   * @param snapshot
+   *        The snapshot to write.
+   * @param path
+   *        The path to the file to write to.
+   *
+   * @throws PdfActSnapshotException
+   *         If something went wrong while writing the snapshot.
+   */
+  public void write(Snapshot snapshot, Path path) throws PdfActSnapshotException {
+    if (path == null) {
+      throw new PdfActSnapshotException("No path to the snapshot file given.");
+    }
+
+    try (OutputStream stream = Files.newOutputStream(path)) {
+      write(snapshot, stream);
+    } catch (IOException e) {
+      throw new PdfActSnapshotException("Could not write the snapshot to '" + path + "'.", e);
+    }
+  }
+
+  /**
+   * Writes the given snapshot to the given stream. The stream is not closed.
+   *
+   * @param snapshot
+   *        The snapshot to write.
+   * @param stream
+   *        The stream to write to.
+   *
+   * @throws PdfActSnapshotException
+   *         If something went wrong while writing the snapshot.
+   */
+  public void write(Snapshot snapshot, OutputStream stream) throws PdfActSnapshotException {
+    if (snapshot == null || snapshot.getDocument() == null) {
+      throw new PdfActSnapshotException("No snapshot of a PDF document given.");
+    }
+    if (stream == null) {
+      throw new PdfActSnapshotException("No stream to write the snapshot to given.");
+    }
+
+    long start = System.currentTimeMillis();
+    try {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+      collectDocument(snapshot.getDocument());
+      writeSnapshot(out, snapshot);
+      out.flush();
+    } catch (IOException e) {
+      throw new PdfActSnapshotException("Could not write the snapshot.", e);
+    } finally {
+      this.fonts = null;
+      this.fontFaces = null;
+      this.colors = null;
+      this.pages = null;
+      this.characters = null;
+      this.figures = null;
+      this.shapes = null;
+      this.textAreas = null;
+      this.words = null;
+      this.textLines = null;
+      this.textBlocks = null;
+      this.paragraphs = null;
+    }
+    long length = System.currentTimeMillis() - start;
+
+    log.debug("Time needed to write the snapshot: " + length + "ms.");
+  }
+
+  // ==============================================================================================
+  // Methods to collect the objects to write.
+
+  /**
+   * Collects the fonts, font faces, colors, pages and elements of the given PDF document into
+   * the tables to write.
+   *
+   * @param pdf
+   *        The PDF document.
+   */
+  protected void collectDocument(Document pdf) {
+    this.fonts = new Table<>();
+    this.fontFaces = new Table<>();
+    this.colors = new Table<>();
+    this.pages = new Table<>();
+    this.characters = new Table<>();
+    this.figures = new Table<>();
+    this.shapes = new Table<>();
+    this.textAreas = new Table<>();
+    this.words = new Table<>();
+    this.textLines = new Table<>();
+    this.textBlocks = new Table<>();
+    this.paragraphs = new Table<>();
+
+    if (pdf.getPages() != null) {
+      for (Page page : pdf.getPages()) {
+        this.pages.add(page);
+      }
+      for (Page page : pdf.getPages()) {
+        collectPage(page);
+      }
+    }
+    if (pdf.getParagraphs() != null) {
+      for (Paragraph paragraph : pdf.getParagraphs()) {
+        collectParagraph(paragraph);
+      }
+    }
+    collectCharacterStatistic(pdf.getCharacterStatistic());
+    collectTextLineStatistic(pdf.getTextLineStatistic());
+  }
+
+  /**
+   * Collects the objects of the given page.
+   *
+   * @param page
+   *        The page.
+   */
+  protected void collectPage(Page page) {
+    if (page == null) {
+      return;
+    }
+    if (page.getCharacters() != null) {
+      for (Character character : page.getCharacters()) {
+        collectCharacter(character);
+      }
+    }
+    if (page.getFigures() != null) {
+      for (Figure figure : page.getFigures()) {
+        this.figures.add(figure);
+      }
+    }
+    if (page.getShapes() != null) {
+      for (Shape shape : page.getShapes()) {
+        if (this.shapes.add(shape)) {
+          this.colors.add(shape.getColor());
+        }
+      }
+    }
+    if (page.getTextAreas() != null) {
+      for (TextArea area : page.getTextAreas()) {
+        collectTextArea(area);
+      }
+    }
+    if (page.getTextLines() != null) {
+      for (TextLine line : page.getTextLines()) {
+        collectTextLine(line);
+      }
+    }
+    if (page.getTextBlocks() != null) {
+      for (TextBlock block : page.getTextBlocks()) {
+        collectTextBlock(block);
+      }
+    }
+    collectCharacterStatistic(page.getCharacterStatistic());
+    collectTextLineStatistic(page.getTextLineStatistic());
+  }
+
+  /**
+   * Collects the given character and its font face and color.
+   *
+   * @param character
+   *        The character.
+   */
+  protected void collectCharacter(Character character) {
+    if (this.characters.add(character)) {
+      collectFontFace(character.getFontFace());
+      this.colors.add(character.getColor());
+    }
+  }
+
+  /**
+   * Collects the given font face and its font.
+   *
+   * @param fontFace
+   *        The font face.
+   */
+  protected void collectFontFace(FontFace fontFace) {
+    if (this.fontFaces.add(fontFace)) {
+      this.fonts.add(fontFace.getFont());
+    }
+  }
+
+  /**
+   * Collects the given text area and its characters.
+   *
+   * @param area
+   *        The text area.
+   */
+  protected void collectTextArea(TextArea area) {
+    if (this.textAreas.add(area)) {
+      if (area.getCharacters() != null) {
+        for (Character character : area.getCharacters()) {
+          collectCharacter(character);
+        }
+      }
+      collectCharacterStatistic(area.getCharacterStatistic());
+    }
+  }
+
+  /**
+   * Collects the given word and its characters.
+   *
+   * @param word
+   *        The word.
+   */
+  protected void collectWord(Word word) {
+    if (this.words.add(word)) {
+      if (word.getCharacters() != null) {
+        for (Character character : word.getCharacters()) {
+          collectCharacter(character);
+        }
+      }
+      collectCharacterStatistic(word.getCharacterStatistic());
+    }
+  }
+
+  /**
+   * Collects the given text line and its characters and words.
+   *
+   * @param line
+   *        The text line.
+   */
+  protected void collectTextLine(TextLine line) {
+    if (this.textLines.add(line)) {
+      if (line.getCharacters() != null) {
+        for (Character character : line.getCharacters()) {
+          collectCharacter(character);
+        }
+      }
+      if (line.getWords() != null) {
+        for (Word word : line.getWords()) {
+          collectWord(word);
+        }
+      }
+      collectCharacterStatistic(line.getCharacterStatistic());
+    }
+  }
+
+  /**
+   * Collects the given text block and its text lines.
+   *
+   * @param block
+   *        The text block.
+   */
+  protected void collectTextBlock(TextBlock block) {
+    if (this.textBlocks.add(block)) {
+      if (block.getTextLines() != null) {
+        for (TextLine line : block.getTextLines()) {
+          collectTextLine(line);
+        }
+      }
+      collectCharacterStatistic(block.getCharacterStatistic());
+      collectTextLineStatistic(block.getTextLineStatistic());
+    }
+  }
+
+  /**
+   * Collects the given paragraph and its words.
+   *
+   * @param paragraph
+   *        The paragraph.
+   */
+  protected void collectParagraph(Paragraph paragraph) {
+    if (this.paragraphs.add(paragraph)) {
+      if (paragraph.getWords() != null) {
+        for (Word word : paragraph.getWords()) {
+          collectWord(word);
+        }
+      }
+      collectCharacterStatistic(paragraph.getCharacterStatistic());
+    }
+  }
+
+  /**
+   * Collects the font faces and colors counted by the given character statistic.
+   *
+   * @param statistic
+   *        The character statistic.
+   */
+  protected void collectCharacterStatistic(CharacterStatistic statistic) {
+    if (statistic == null) {
+      return;
+    }
+    if (statistic.getFontFaceFrequencies() != null) {
+      for (Object fontFace : statistic.getFontFaceFrequencies().getObjects()) {
+        collectFontFace((FontFace) fontFace);
+      }
+    }
+    if (statistic.getColorFrequencies() != null) {
+      for (Object color : statistic.getColorFrequencies().getObjects()) {
+        this.colors.add((Color) color);
+      }
+    }
+  }
+
+  /**
+   * Collects the font faces referenced by the given text line statistic.
+   *
+   * @param statistic
+   *        The text line statistic.
+   */
+  protected void collectTextLineStatistic(TextLineStatistic statistic) {
+    if (statistic == null || statistic.getLinePitchFrequencies() == null) {
+      return;
+    }
+    for (FontFace fontFace : statistic.getLinePitchFrequencies().keySet()) {
+      collectFontFace(fontFace);
+    }
+  }
+
+  // ==============================================================================================
+  // Methods to write the snapshot.
+
+  /**
+   * Writes the given snapshot to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param snapshot
+   *        The snapshot to write.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeSnapshot(DataOutputStream out, Snapshot snapshot) throws IOException {
+    Document pdf = snapshot.getDocument();
+
+    out.writeInt(Snapshot.MAGIC_NUMBER);
+    out.writeInt(Snapshot.VERSION);
+
+    out.writeInt(snapshot.getStages().size());
+    for (PdfActCoreStage stage : snapshot.getStages()) {
+      writeString(out, stage.name());
+    }
+    writeString(out, pdf.getPath() != null ? pdf.getPath().toString() : null);
+
+    out.writeInt(this.fonts.size());
+    for (Font font : this.fonts.getObjects()) {
+      writeFont(out, font);
+    }
+    out.writeInt(this.colors.size());
+    for (Color color : this.colors.getObjects()) {
+      writeColor(out, color);
+    }
+    out.writeInt(this.fontFaces.size());
+    for (FontFace fontFace : this.fontFaces.getObjects()) {
+      out.writeInt(this.fonts.indexOf(fontFace.getFont()));
+      out.writeFloat(fontFace.getFontSize());
+    }
+    out.writeInt(this.pages.size());
+    for (Page page : this.pages.getObjects()) {
+      out.writeInt(page.getPageNumber());
+      out.writeFloat(page.getWidth());
+      out.writeFloat(page.getHeight());
+    }
+
+    out.writeInt(this.characters.size());
+    for (Character character : this.characters.getObjects()) {
+      writeCharacter(out, character);
+    }
+    out.writeInt(this.figures.size());
+    for (Figure figure : this.figures.getObjects()) {
+      writePosition(out, figure.getPosition());
+    }
+    out.writeInt(this.shapes.size());
+    for (Shape shape : this.shapes.getObjects()) {
+      writePosition(out, shape.getPosition());
+      out.writeInt(this.colors.indexOf(shape.getColor()));
+    }
+    out.writeInt(this.textAreas.size());
+    for (TextArea area : this.textAreas.getObjects()) {
+      writeReferences(out, area.getCharacters(), this.characters);
+      writePosition(out, area.getPosition());
+      writeCharacterStatistic(out, area.getCharacterStatistic());
+    }
+    out.writeInt(this.words.size());
+    for (Word word : this.words.getObjects()) {
+      writeWord(out, word);
+    }
+    out.writeInt(this.textLines.size());
+    for (TextLine line : this.textLines.getObjects()) {
+      writeTextLine(out, line);
+    }
+    out.writeInt(this.textBlocks.size());
+    for (TextBlock block : this.textBlocks.getObjects()) {
+      writeTextBlock(out, block);
+    }
+    out.writeInt(this.paragraphs.size());
+    for (Paragraph paragraph : this.paragraphs.getObjects()) {
+      writeParagraph(out, paragraph);
+    }
+
+    for (Page page : this.pages.getObjects()) {
+      writeReferences(out, page.getCharacters(), this.characters);
+      writeReferences(out, page.getFigures(), this.figures);
+      writeReferences(out, page.getShapes(), this.shapes);
+      writeReferences(out, page.getTextAreas(), this.textAreas);
+      writeReferences(out, page.getTextLines(), this.textLines);
+      writeReferences(out, page.getTextBlocks(), this.textBlocks);
+      writeCharacterStatistic(out, page.getCharacterStatistic());
+      writeTextLineStatistic(out, page.getTextLineStatistic());
+    }
+    writeReferences(out, pdf.getParagraphs(), this.paragraphs);
+    writeCharacterStatistic(out, pdf.getCharacterStatistic());
+    writeTextLineStatistic(out, pdf.getTextLineStatistic());
+  }
+
+  /**
+   * Writes the given font to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param font
+   *        The font to write.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeFont(DataOutputStream out, Font font) throws IOException {
+    writeString(out, font.getId());
+    writeString(out, font.getNormalizedName());
+    writeString(out, font.getBaseName());
+    writeString(out, font.getFontFamilyName());
+    out.writeBoolean(font.isType3Font());
+    out.writeBoolean(font.isBold());
+    out.writeBoolean(font.isItalic());
+  }
+
+  /**
+   * Writes the given color to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param color
+   *        The color to write.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeColor(DataOutputStream out, Color color) throws IOException {
+    writeString(out, color.getId());
+    writeString(out, color.getName());
+    int[] rgb = color.getRGB();
+    out.writeInt(rgb != null ? rgb.length : -1);
+    if (rgb != null) {
+      for (int value : rgb) {
+        out.writeInt(value);
+      }
+    }
+  }
+
+  /**
+   * Writes the given character to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param character
+   *        The character to write.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeCharacter(DataOutputStream out, Character character) throws IOException {
+    writeString(out, character.getText());
+    writePosition(out, character.getPosition());
+    out.writeInt(this.fontFaces.indexOf(character.getFontFace()));
+    out.writeInt(this.colors.indexOf(character.getColor()));
+    out.writeInt(character.getExtractionRank());
+  }
+
+  /**
+   * Writes the given word to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param word
+   *        The word to write.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeWord(DataOutputStream out, Word word) throws IOException {
+    writeReferences(out, word.getCharacters(), this.characters);
+    writeString(out, word.getText());
+    writePositions(out, word.getPositions());
+    out.writeBoolean(word.isHyphenated());
+    out.writeBoolean(word.isDehyphenated());
+    out.writeBoolean(word.isHyphenMandatory());
+    writeCharacterStatistic(out, word.getCharacterStatistic());
+  }
+
+  /**
+   * Writes the given text line to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param line
+   *        The text line to write.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeTextLine(DataOutputStream out, TextLine line) throws IOException {
+    writeReferences(out, line.getCharacters(), this.characters);
+    writeReferences(out, line.getWords(), this.words);
+    writeString(out, line.getText());
+    writePosition(out, line.getPosition());
+    Line baseline = line.getBaseline();
+    out.writeBoolean(baseline != null);
+    if (baseline != null) {
+      out.writeFloat(baseline.getStartX());
+      out.writeFloat(baseline.getStartY());
+      out.writeFloat(baseline.getEndX());
+      out.writeFloat(baseline.getEndY());
+    }
+    writeCharacterStatistic(out, line.getCharacterStatistic());
+  }
+
+  /**
+   * Writes the given text block to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param block
+   *        The text block to write.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeTextBlock(DataOutputStream out, TextBlock block) throws IOException {
+    writeReferences(out, block.getTextLines(), this.textLines);
+    writeString(out, block.getText());
+    writePosition(out, block.getPosition());
+    writeSemanticRole(out, block.getSemanticRole());
+    writeSemanticRole(out, block.getSecondarySemanticRole());
+    writeCharacterStatistic(out, block.getCharacterStatistic());
+    writeTextLineStatistic(out, block.getTextLineStatistic());
+  }
+
+  /**
+   * Writes the given paragraph to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param paragraph
+   *        The paragraph to write.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeParagraph(DataOutputStream out, Paragraph paragraph) throws IOException {
+    writeReferences(out, paragraph.getWords(), this.words);
+    writeString(out, paragraph.getText());
+    writePositions(out, paragraph.getPositions());
+    writeSemanticRole(out, paragraph.getSemanticRole());
+    writeSemanticRole(out, paragraph.getSecondarySemanticRole());
+    writeCharacterStatistic(out, paragraph.getCharacterStatistic());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given character statistic to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param statistic
+   *        The character statistic to write; may be null.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeCharacterStatistic(DataOutputStream out, CharacterStatistic statistic)
+      throws IOException {
+    out.writeBoolean(statistic != null);
+    if (statistic == null) {
+      return;
+    }
+    writeFloatCounter(out, statistic.getHeightFrequencies());
+    writeFloatCounter(out, statistic.getWidthFrequencies());
+    writeObjectCounter(out, statistic.getFontFaceFrequencies(), this.fontFaces);
+    writeFloatCounter(out, statistic.getFontSizeFrequencies());
+    writeObjectCounter(out, statistic.getColorFrequencies(), this.colors);
+    out.writeFloat(statistic.getSmallestMinX());
+    out.writeFloat(statistic.getSmallestMinY());
+    out.writeFloat(statistic.getLargestMaxX());
+    out.writeFloat(statistic.getLargestMaxY());
+  }
+
+  /**
+   * Writes the given text line statistic to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param statistic
+   *        The text line statistic to write; may be null.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeTextLineStatistic(DataOutputStream out, TextLineStatistic statistic)
+      throws IOException {
+    out.writeBoolean(statistic != null);
+    if (statistic == null) {
+      return;
+    }
+    Map<FontFace, FloatCounter> linePitches = statistic.getLinePitchFrequencies();
+    out.writeInt(linePitches != null ? linePitches.size() : -1);
+    if (linePitches != null) {
+      // Write the entries in the order of iteration, such that the map can be restored in the
+      // same order.
+      for (Map.Entry<FontFace, FloatCounter> entry : linePitches.entrySet()) {
+        out.writeInt(this.fontFaces.indexOf(entry.getKey()));
+        writeFloatCounter(out, entry.getValue());
+      }
+    }
+    writeFloatCounter(out, statistic.getWhitespaceWidthFrequencies());
+  }
+
+  /**
+   * Writes the given float counter to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param counter
+   *        The counter to write; may be null.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeFloatCounter(DataOutputStream out, FloatCounter counter)
+      throws IOException {
+    out.writeBoolean(counter != null);
+    if (counter != null) {
+      counter.writeTo(out);
+    }
+  }
+
+  /**
+   * Writes the given object counter to the given output.
+   *
+   * @param <T>
+   *        The type of the counted objects.
+   * @param out
+   *        The output to write to.
+   * @param counter
+   *        The counter to write; may be null.
+   * @param table
+   *        The table that contains the counted objects.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected <T> void writeObjectCounter(DataOutputStream out, ObjectCounter<T> counter,
+      Table<T> table) throws IOException {
+    out.writeBoolean(counter != null);
+    if (counter != null) {
+      counter.writeTo(out, table.getIndexes());
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the indexes of the given elements in the given table to the given output.
+   *
+   * @param <T>
+   *        The type of the elements.
+   * @param out
+   *        The output to write to.
+   * @param elements
+   *        The elements; may be null.
+   * @param table
+   *        The table that contains the elements.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected <T> void writeReferences(DataOutputStream out, List<T> elements, Table<T> table)
+      throws IOException {
+    out.writeInt(elements != null ? elements.size() : -1);
+    if (elements != null) {
+      for (T element : elements) {
+        out.writeInt(table.indexOf(element));
+      }
+    }
+  }
+
+  /**
+   * Writes the given positions to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param positions
+   *        The positions to write; may be null.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writePositions(DataOutputStream out, List<Position> positions)
+      throws IOException {
+    out.writeInt(positions != null ? positions.size() : -1);
+    if (positions != null) {
+      for (Position position : positions) {
+        writePosition(out, position);
+      }
+    }
+  }
+
+  /**
+   * Writes the given position to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param position
+   *        The position to write; may be null.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writePosition(DataOutputStream out, Position position) throws IOException {
+    out.writeBoolean(position != null);
+    if (position == null) {
+      return;
+    }
+    out.writeInt(this.pages.indexOf(position.getPage()));
+    Rectangle rectangle = position.getRectangle();
+    out.writeBoolean(rectangle != null);
+    if (rectangle != null) {
+      out.writeFloat(rectangle.getMinX());
+      out.writeFloat(rectangle.getMinY());
+      out.writeFloat(rectangle.getMaxX());
+      out.writeFloat(rectangle.getMaxY());
+    }
+  }
+
+  /**
+   * Writes the given semantic role to the given output.
+   *
+   * @param out
+   *        The output to write to.
+   * @param role
+   *        The semantic role to write; may be null.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeSemanticRole(DataOutputStream out, SemanticRole role) throws IOException {
+    writeString(out, role != null ? role.name() : null);
+  }
+
+  /**
+   * Writes the given string to the given output, as the number of its UTF-8 bytes, followed by
+   * the bytes. In contrast to {@link DataOutputStream#writeUTF(String)}, the length of the string
+   * is not limited.
+   *
+   * @param out
+   *        The output to write to.
+   * @param string
+   *        The string to write; may be null.
+   *
+   * @throws IOException
+   *         If writing to the output failed.
+   */
+  protected void writeString(DataOutputStream out, String string) throws IOException {
+    if (string == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A table of objects, in which each object is identified by its index. Objects are compared
+   * by identity, since objects that are equal may still be different objects (for example, two
+   * fonts with different ids).
+   *
+   * @param <T>
+   *        The type of the objects.
+   */
+  protected static class Table<T> {
+    /**
+     * The indexes of the objects.
+     */
+    protected Map<T, Integer> indexes = new IdentityHashMap<>();
+
+    /**
+     * The objects, in the order of their indexes.
+     */
+    protected List<T> objects = new ArrayList<>();
+
+    /**
+     * Adds the given object to this table, if it is not contained in this table yet.
+     *
+     * @param object
+     *        The object to add.
+     *
+     * @return True, if the object was added; false if the object is null or was already
+     *         contained in this table.
+     */
+    public boolean add(T object) {
+      if (object == null || this.indexes.containsKey(object)) {
+        return false;
+      }
+      this.indexes.put(object, this.objects.size());
+      this.objects.add(object);
+      return true;
+    }
+
+    /**
+     * Returns the index of the given object in this table.
+     *
+     * @param object
+     *        The object.
+     *
+     * @return The index of the given object; -1 if the object is null.
+     *
+     * @throws IOException
+     *         If the object is not contained in this table.
+     */
+    public int indexOf(Object object) throws IOException {
+      if (object == null) {
+        return -1;
+      }
+      Integer index = this.indexes.get(object);
+      if (index == null) {
+        throw new IOException("The object '" + object + "' is not contained in the snapshot.");
+      }
+      return index;
+    }
+
+    /**
+     * Returns the indexes of the objects.
+     *
+     * @return The indexes of the objects.
+     */
+    public Map<T, Integer> getIndexes() {
+      return this.indexes;
+    }
+
+    /**
+     * Returns the objects, in the order of their indexes.
+     *
+     * @return The objects, in the order of their indexes.
+     */
+    public List<T> getObjects() {
+      return this.objects;
+    }
+
+    /**
+     * Returns the number of objects in this table.
+     *
+     * @return The number of objects in this table.
+     */
+    public int size() {
+      return this.objects.size();
+    }
+  }
+}
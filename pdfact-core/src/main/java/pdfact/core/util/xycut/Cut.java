@@ -0,0 +1,612 @@
+package pdfact.core.util.xycut;
+
+import java.util.Arrays;
+import java.util.List;
+import pdfact.core.model.Character;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Color;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Rectangle;
+import pdfact.core.util.counter.FloatCounter;
+import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.statistician.CharacterStatistician;
+
+/**
+ * A candidate cut, considered by {@link XYCut} while sweeping a range of characters in sweep
+ * order. A cut divides the characters at a given index into two halves: the characters in front
+ * of the index (the left half on x-cuts, the upper half on y-cuts) and the characters from the
+ * index on (the right half on x-cuts, the lower half on y-cuts).
+ *
+ * <p>
+ * The statistics about the two halves are read from prefix and suffix statistics, which are
+ * computed once per sweep instead of once per candidate. The extrema of the halves are
+ * available in constant time; the most common heights and widths are available in constant time
+ * when they are unambiguous. All other values are computed on demand from the characters of the
+ * respective half, so the returned values are identical to the values computed by
+ * {@link CharacterStatistician#compute(ElementList)}.
+ *
+ * @author Claudius Korzen
+ */
+public class Cut {
+  /**
+   * The characters, indexed by the values in the sweep order.
+   */
+  protected final Character[] characters;
+
+  /**
+   * The indexes of the characters in sweep order.
+   */
+  protected final int[] order;
+
+  /**
+   * The start of the range to cut in the sweep order, inclusive.
+   */
+  protected final int from;
+
+  /**
+   * The end of the range to cut in the sweep order, exclusive.
+   */
+  protected final int to;
+
+  /**
+   * The statistician to compute the statistics on demand.
+   */
+  protected final CharacterStatistician statistician;
+
+  /**
+   * The index (relative to the start of the range) at which the characters are currently cut.
+   */
+  protected int index;
+
+  /**
+   * The two halves of the current cut (computed on demand).
+   */
+  protected List<ElementList<Character>> halves;
+
+  /**
+   * The statistic about the first half.
+   */
+  protected final HalfStatistic firstHalfStatistic;
+
+  /**
+   * The statistic about the second half.
+   */
+  protected final HalfStatistic secondHalfStatistic;
+
+  /**
+   * The extrema of the first i characters (at position i) and of the characters from position i
+   * on (at position i), in the order minX, minY, maxX, maxY.
+   */
+  protected float[][] prefixExtrema;
+  protected float[][] suffixExtrema;
+
+  /**
+   * The most common heights and widths of the first i characters and of the characters from
+   * position i on. The value at position i is only valid if the related flag is set.
+   */
+  protected float[] prefixMostCommonHeights;
+  protected boolean[] isPrefixMostCommonHeightUnique;
+  protected float[] suffixMostCommonHeights;
+  protected boolean[] isSuffixMostCommonHeightUnique;
+  protected float[] prefixMostCommonWidths;
+  protected boolean[] isPrefixMostCommonWidthUnique;
+  protected float[] suffixMostCommonWidths;
+  protected boolean[] isSuffixMostCommonWidthUnique;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new cut for the characters in the given range of the given sweep order.
+   *
+   * @param characters
+   *        The characters, indexed by the values in the sweep order.
+   * @param order
+   *        The indexes of the characters in sweep order.
+   * @param from
+   *        The start of the range to cut in the sweep order, inclusive.
+   * @param to
+   *        The end of the range to cut in the sweep order, exclusive.
+   * @param statistician
+   *        The statistician to compute the statistics about the halves on demand.
+   */
+  public Cut(Character[] characters, int[] order, int from, int to,
+      CharacterStatistician statistician) {
+    this.characters = characters;
+    this.order = order;
+    this.from = from;
+    this.to = to;
+    this.statistician = statistician;
+    this.firstHalfStatistic = new HalfStatistic(true);
+    this.secondHalfStatistic = new HalfStatistic(false);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Moves this cut to the given index.
+   *
+   * @param index
+   *        The index at which the characters should be cut.
+   */
+  protected void moveTo(int index) {
+    this.index = index;
+    this.halves = null;
+    this.firstHalfStatistic.reset();
+    this.secondHalfStatistic.reset();
+  }
+
+  /**
+   * Returns the index at which the characters are cut, relative to the start of the range.
+   *
+   * @return The index at which the characters are cut.
+   */
+  public int getIndex() {
+    return this.index;
+  }
+
+  /**
+   * Returns the number of characters to cut.
+   *
+   * @return The number of characters to cut.
+   */
+  public int size() {
+    return this.to - this.from;
+  }
+
+  /**
+   * Returns the i-th character in sweep order.
+   *
+   * @param i
+   *        The index of the character, relative to the start of the range.
+   * @return The i-th character in sweep order.
+   */
+  public Character get(int i) {
+    return this.characters[this.order[this.from + i]];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the two halves of this cut. The halves are created on demand, so this method
+   * should only be called when the characters of a half need to be iterated.
+   *
+   * @return A list of length 2, containing the two halves.
+   */
+  public List<ElementList<Character>> getHalves() {
+    if (this.halves == null) {
+      ElementList<Character> first = new ElementList<>(this.index);
+      for (int i = 0; i < this.index; i++) {
+        first.add(get(i));
+      }
+      ElementList<Character> second = new ElementList<>(size() - this.index);
+      for (int i = this.index; i < size(); i++) {
+        second.add(get(i));
+      }
+      this.halves = Arrays.asList(first, second);
+    }
+    return this.halves;
+  }
+
+  /**
+   * Returns the first half of this cut (the left half on x-cuts, the upper half on y-cuts).
+   *
+   * @return The first half of this cut.
+   */
+  public ElementList<Character> getFirstHalf() {
+    return getHalves().get(0);
+  }
+
+  /**
+   * Returns the second half of this cut (the right half on x-cuts, the lower half on y-cuts).
+   *
+   * @return The second half of this cut.
+   */
+  public ElementList<Character> getSecondHalf() {
+    return getHalves().get(1);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the statistic about the characters in the first half of this cut. The returned
+   * object is only valid until the cut is moved to another index.
+   *
+   * @return The statistic about the characters in the first half.
+   */
+  public CharacterStatistic getFirstHalfStatistic() {
+    return this.firstHalfStatistic;
+  }
+
+  /**
+   * Returns the statistic about the characters in the second half of this cut. The returned
+   * object is only valid until the cut is moved to another index.
+   *
+   * @return The statistic about the characters in the second half.
+   */
+  public CharacterStatistic getSecondHalfStatistic() {
+    return this.secondHalfStatistic;
+  }
+
+  // ==============================================================================================
+  // Methods to compute the prefix and suffix statistics.
+
+  /**
+   * Computes the extrema of all prefixes and suffixes of the characters.
+   */
+  protected void computeExtrema() {
+    int n = size();
+    this.prefixExtrema = new float[4][n + 1];
+    this.suffixExtrema = new float[4][n + 1];
+
+    // Compute the extrema of the first i characters.
+    initExtrema(this.prefixExtrema, 0);
+    for (int i = 1; i <= n; i++) {
+      copyExtrema(this.prefixExtrema, i - 1, i);
+      updateExtrema(this.prefixExtrema, i, get(i - 1));
+    }
+
+    // Compute the extrema of the characters from position i on.
+    initExtrema(this.suffixExtrema, n);
+    for (int i = n - 1; i >= 0; i--) {
+      copyExtrema(this.suffixExtrema, i + 1, i);
+      updateExtrema(this.suffixExtrema, i, get(i));
+    }
+  }
+
+  /**
+   * Initializes the extrema at the given position with the default values of a
+   * {@link CharacterStatistic}.
+   *
+   * @param extrema
+   *        The extrema to initialize.
+   * @param pos
+   *        The position to initialize.
+   */
+  protected static void initExtrema(float[][] extrema, int pos) {
+    extrema[0][pos] = Float.MAX_VALUE;
+    extrema[1][pos] = Float.MAX_VALUE;
+    extrema[2][pos] = -Float.MAX_VALUE;
+    extrema[3][pos] = -Float.MAX_VALUE;
+  }
+
+  /**
+   * Copies the extrema at the given source position to the given target position.
+   *
+   * @param extrema
+   *        The extrema to process.
+   * @param source
+   *        The source position.
+   * @param target
+   *        The target position.
+   */
+  protected static void copyExtrema(float[][] extrema, int source, int target) {
+    for (int k = 0; k < 4; k++) {
+      extrema[k][target] = extrema[k][source];
+    }
+  }
+
+  /**
+   * Updates the extrema at the given position with the rectangle of the given character, in the
+   * same way as done by {@link CharacterStatistician#compute(ElementList)}.
+   *
+   * @param extrema
+   *        The extrema to update.
+   * @param pos
+   *        The position to update.
+   * @param character
+   *        The character to process.
+   */
+  protected static void updateExtrema(float[][] extrema, int pos, Character character) {
+    Rectangle rect = character.getPosition().getRectangle();
+    if (rect.getMinX() < extrema[0][pos]) {
+      extrema[0][pos] = rect.getMinX();
+    }
+    if (rect.getMinY() < extrema[1][pos]) {
+      extrema[1][pos] = rect.getMinY();
+    }
+    if (rect.getMaxX() > extrema[2][pos]) {
+      extrema[2][pos] = rect.getMaxX();
+    }
+    if (rect.getMaxY() > extrema[3][pos]) {
+      extrema[3][pos] = rect.getMaxY();
+    }
+  }
+
+  /**
+   * Computes the most common heights of all prefixes and suffixes of the characters.
+   */
+  protected void computeMostCommonHeights() {
+    int n = size();
+    this.prefixMostCommonHeights = new float[n + 1];
+    this.isPrefixMostCommonHeightUnique = new boolean[n + 1];
+    this.suffixMostCommonHeights = new float[n + 1];
+    this.isSuffixMostCommonHeightUnique = new boolean[n + 1];
+    computeMostCommonValues(true, true, this.prefixMostCommonHeights,
+        this.isPrefixMostCommonHeightUnique);
+    computeMostCommonValues(true, false, this.suffixMostCommonHeights,
+        this.isSuffixMostCommonHeightUnique);
+  }
+
+  /**
+   * Computes the most common widths of all prefixes and suffixes of the characters.
+   */
+  protected void computeMostCommonWidths() {
+    int n = size();
+    this.prefixMostCommonWidths = new float[n + 1];
+    this.isPrefixMostCommonWidthUnique = new boolean[n + 1];
+    this.suffixMostCommonWidths = new float[n + 1];
+    this.isSuffixMostCommonWidthUnique = new boolean[n + 1];
+    computeMostCommonValues(false, true, this.prefixMostCommonWidths,
+        this.isPrefixMostCommonWidthUnique);
+    computeMostCommonValues(false, false, this.suffixMostCommonWidths,
+        this.isSuffixMostCommonWidthUnique);
+  }
+
+  /**
+   * Sweeps the characters once and records the most common height (or width) after each step.
+   * Since the frequencies only increase during the sweep, the most common value and the number
+   * of values sharing the largest frequency can be maintained in constant time per character.
+   * If the largest frequency is shared by more than one value, the most common value depends on
+   * the iteration order of the {@link FloatCounter}; such positions are flagged as not unique.
+   *
+   * @param heights
+   *        True to process the heights of the characters, false to process the widths.
+   * @param forward
+   *        True to compute the values for the prefixes, false for the suffixes.
+   * @param mostCommonValues
+   *        The array to fill with the most common values.
+   * @param isUnique
+   *        The array to fill with the flags whether the most common values are unique.
+   */
+  protected void computeMostCommonValues(boolean heights, boolean forward,
+      float[] mostCommonValues, boolean[] isUnique) {
+    int n = size();
+    FloatCounter counter = new FloatCounter();
+    float mostCommonValue = Float.NaN;
+    int largestFrequency = 0;
+    int numValuesWithLargestFrequency = 0;
+
+    for (int step = 0; step < n; step++) {
+      int i = forward ? step : n - 1 - step;
+      Rectangle rect = get(i).getPosition().getRectangle();
+      float value = heights ? rect.getHeight() : rect.getWidth();
+
+      counter.add(value);
+      int frequency = counter.getFrequency(value);
+      if (frequency > largestFrequency) {
+        mostCommonValue = value;
+        largestFrequency = frequency;
+        numValuesWithLargestFrequency = 1;
+      } else if (frequency == largestFrequency) {
+        numValuesWithLargestFrequency++;
+      }
+
+      int pos = forward ? i + 1 : i;
+      mostCommonValues[pos] = mostCommonValue;
+      isUnique[pos] = numValuesWithLargestFrequency == 1;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A statistic about the characters of one half of a cut.
+   *
+   * @author Claudius Korzen
+   */
+  protected class HalfStatistic extends CharacterStatistic {
+    /**
+     * True if this statistic is about the first half, false if it is about the second half.
+     */
+    protected final boolean isFirstHalf;
+
+    /**
+     * The full statistic about the characters of this half (computed on demand).
+     */
+    protected CharacterStatistic fullStatistic;
+
+    /**
+     * Creates a new statistic about the characters of one half.
+     *
+     * @param isFirstHalf
+     *        True if the statistic is about the first half, false otherwise.
+     */
+    protected HalfStatistic(boolean isFirstHalf) {
+      this.isFirstHalf = isFirstHalf;
+    }
+
+    /**
+     * Resets this statistic on moving the cut.
+     */
+    protected void reset() {
+      this.fullStatistic = null;
+    }
+
+    /**
+     * Returns the full statistic about the characters of this half.
+     *
+     * @return The full statistic about the characters of this half.
+     */
+    protected CharacterStatistic getFullStatistic() {
+      if (this.fullStatistic == null) {
+        ElementList<Character> half = this.isFirstHalf ? getFirstHalf() : getSecondHalf();
+        this.fullStatistic = Cut.this.statistician.compute(half);
+      }
+      return this.fullStatistic;
+    }
+
+    /**
+     * Returns the extremum with the given number of this half.
+     *
+     * @param num
+     *        The number of the extremum (0: minX, 1: minY, 2: maxX, 3: maxY).
+     * @return The extremum.
+     */
+    protected float getExtremum(int num) {
+      if (prefixExtrema == null) {
+        computeExtrema();
+      }
+      return this.isFirstHalf ? prefixExtrema[num][index] : suffixExtrema[num][index];
+    }
+
+    // ============================================================================================
+
+    @Override
+    public float getSmallestMinX() {
+      return getExtremum(0);
+    }
+
+    @Override
+    public float getSmallestMinY() {
+      return getExtremum(1);
+    }
+
+    @Override
+    public float getLargestMaxX() {
+      return getExtremum(2);
+    }
+
+    @Override
+    public float getLargestMaxY() {
+      return getExtremum(3);
+    }
+
+    @Override
+    public float getMostCommonHeight() {
+      if (prefixMostCommonHeights == null) {
+        computeMostCommonHeights();
+      }
+      if (this.isFirstHalf && isPrefixMostCommonHeightUnique[index]) {
+        return prefixMostCommonHeights[index];
+      }
+      if (!this.isFirstHalf && isSuffixMostCommonHeightUnique[index]) {
+        return suffixMostCommonHeights[index];
+      }
+      return getFullStatistic().getMostCommonHeight();
+    }
+
+    @Override
+    public float getMostCommonWidth() {
+      if (prefixMostCommonWidths == null) {
+        computeMostCommonWidths();
+      }
+      if (this.isFirstHalf && isPrefixMostCommonWidthUnique[index]) {
+        return prefixMostCommonWidths[index];
+      }
+      if (!this.isFirstHalf && isSuffixMostCommonWidthUnique[index]) {
+        return suffixMostCommonWidths[index];
+      }
+      return getFullStatistic().getMostCommonWidth();
+    }
+
+    // ============================================================================================
+
+    @Override
+    public FloatCounter getHeightFrequencies() {
+      return getFullStatistic().getHeightFrequencies();
+    }
+
+    @Override
+    public float getAverageHeight() {
+      return getFullStatistic().getAverageHeight();
+    }
+
+    @Override
+    public FloatCounter getWidthFrequencies() {
+      return getFullStatistic().getWidthFrequencies();
+    }
+
+    @Override
+    public float getAverageWidth() {
+      return getFullStatistic().getAverageWidth();
+    }
+
+    @Override
+    public ObjectCounter<FontFace> getFontFaceFrequencies() {
+      return getFullStatistic().getFontFaceFrequencies();
+    }
+
+    @Override
+    public FontFace getMostCommonFontFace() {
+      return getFullStatistic().getMostCommonFontFace();
+    }
+
+    @Override
+    public FloatCounter getFontSizeFrequencies() {
+      return getFullStatistic().getFontSizeFrequencies();
+    }
+
+    @Override
+    public float getAverageFontsize() {
+      return getFullStatistic().getAverageFontsize();
+    }
+
+    @Override
+    public ObjectCounter<Color> getColorFrequencies() {
+      return getFullStatistic().getColorFrequencies();
+    }
+
+    @Override
+    public Color getMostCommonColor() {
+      return getFullStatistic().getMostCommonColor();
+    }
+
+    // ============================================================================================
+
+    @Override
+    public void setHeightFrequencies(FloatCounter freqs) {
+      // Don't allow to change the statistic.
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setWidthFrequencies(FloatCounter freqs) {
+      // Don't allow to change the statistic.
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setFontFaceFrequencies(ObjectCounter<FontFace> freqs) {
+      // Don't allow to change the statistic.
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setFontSizeFrequencies(FloatCounter freqs) {
+      // Don't allow to change the statistic.
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setColorFrequencies(ObjectCounter<Color> freqs) {
+      // Don't allow to change the statistic.
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setSmallestMinX(float minX) {
+      // Don't allow to change the statistic.
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setSmallestMinY(float minY) {
+      // Don't allow to change the statistic.
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setLargestMaxX(float maxX) {
+      // Don't allow to change the statistic.
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setLargestMaxY(float maxY) {
+      // Don't allow to change the statistic.
+      throw new UnsupportedOperationException();
+    }
+  }
+}
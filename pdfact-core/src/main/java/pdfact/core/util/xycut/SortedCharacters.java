@@ -0,0 +1,253 @@
+package pdfact.core.util.xycut;
+
+import java.util.Arrays;
+import pdfact.core.model.Character;
+import pdfact.core.model.Rectangle;
+import pdfact.core.util.comparator.ExtractionRankComparator;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * The characters to be cut by {@link XYCut}, sorted once by their minX values (ascending) and
+ * once by their maxY values (descending). The characters are never re-sorted while cutting.
+ * Instead, the sorted orders are stored as arrays of character indexes, which are partitioned
+ * stably on each cut (in the style of building a k-d tree), such that each block is a range in
+ * both arrays and each range is sorted in both directions.
+ *
+ * <p>
+ * Characters with equal minX (maxY) values are sorted by their extraction ranks, like by the
+ * {@link pdfact.core.util.comparator.MinXComparator}.
+ *
+ * @author Claudius Korzen
+ */
+public class SortedCharacters {
+  /**
+   * The characters to cut.
+   */
+  protected final Character[] characters;
+
+  /**
+   * The indexes of the characters, sorted by the minX values of the characters.
+   */
+  protected final int[] byMinX;
+
+  /**
+   * The indexes of the characters, sorted by the maxY values of the characters in descending
+   * order.
+   */
+  protected final int[] byMaxY;
+
+  /**
+   * The flags indicating whether a character belongs to the first half of the current cut.
+   */
+  protected final boolean[] isInFirstHalf;
+
+  /**
+   * The buffer used on partitioning the index arrays.
+   */
+  protected final int[] buffer;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Sorts the given characters.
+   *
+   * @param characters
+   *        The characters to sort.
+   */
+  public SortedCharacters(ElementList<Character> characters) {
+    int n = characters.size();
+    this.characters = characters.toArray(new Character[n]);
+    // Sort the characters by their extraction ranks (the characters are usually given in this
+    // order already, so this takes linear time), such that ties are broken by the ranks below.
+    Arrays.sort(this.characters, new ExtractionRankComparator());
+    this.isInFirstHalf = new boolean[n];
+    this.buffer = new int[n];
+
+    // Sort the indexes by the related values. Pack each value together with the index into a
+    // long, such that the primitive sort breaks ties by the index (and thus by the rank).
+    long[] keys = new long[n];
+    for (int i = 0; i < n; i++) {
+      Rectangle rect = this.characters[i].getPosition().getRectangle();
+      keys[i] = pack(toSortableInt(rect.getMinX()), i);
+    }
+    this.byMinX = sortIndexes(keys);
+
+    for (int i = 0; i < n; i++) {
+      Rectangle rect = this.characters[i].getPosition().getRectangle();
+      // Invert the bits of the value to sort in descending order.
+      keys[i] = pack(~toSortableInt(rect.getMaxY()), i);
+    }
+    this.byMaxY = sortIndexes(keys);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of characters.
+   *
+   * @return The number of characters.
+   */
+  public int size() {
+    return this.characters.length;
+  }
+
+  /**
+   * Returns the characters to cut, indexed by the values stored in the index arrays.
+   *
+   * @return The characters to cut.
+   */
+  public Character[] getCharacters() {
+    return this.characters;
+  }
+
+  /**
+   * Returns the indexes of the characters, sorted by their minX values.
+   *
+   * @return The indexes of the characters, sorted by their minX values.
+   */
+  public int[] getIndexesSortedByMinX() {
+    return this.byMinX;
+  }
+
+  /**
+   * Returns the indexes of the characters, sorted by their maxY values in descending order.
+   *
+   * @return The indexes of the characters, sorted by their maxY values in descending order.
+   */
+  public int[] getIndexesSortedByMaxY() {
+    return this.byMaxY;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Cuts the characters in the given range vertically at the given position in the minX order
+   * and partitions the maxY order of the range accordingly, such that the characters of the left
+   * half come first in both orders.
+   *
+   * @param from
+   *        The start of the range, inclusive.
+   * @param cut
+   *        The position of the cut in the minX order.
+   * @param to
+   *        The end of the range, exclusive.
+   */
+  public void partitionByMinXCut(int from, int cut, int to) {
+    partition(this.byMinX, this.byMaxY, from, cut, to);
+  }
+
+  /**
+   * Cuts the characters in the given range horizontally at the given position in the maxY order
+   * and partitions the minX order of the range accordingly, such that the characters of the
+   * upper half come first in both orders.
+   *
+   * @param from
+   *        The start of the range, inclusive.
+   * @param cut
+   *        The position of the cut in the maxY order.
+   * @param to
+   *        The end of the range, exclusive.
+   */
+  public void partitionByMaxYCut(int from, int cut, int to) {
+    partition(this.byMaxY, this.byMinX, from, cut, to);
+  }
+
+  /**
+   * Returns the characters in the given range of the given order as a new list.
+   *
+   * @param order
+   *        The order in which the characters should be added to the list.
+   * @param from
+   *        The start of the range, inclusive.
+   * @param to
+   *        The end of the range, exclusive.
+   * @return The list of characters.
+   */
+  public ElementList<Character> toList(int[] order, int from, int to) {
+    ElementList<Character> list = new ElementList<>(to - from);
+    for (int i = from; i < to; i++) {
+      list.add(this.characters[order[i]]);
+    }
+    return list;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Partitions the given range of the target order stably, such that the characters contained
+   * in the range [from, cut) of the source order come first.
+   *
+   * @param source
+   *        The order in which the cut was made.
+   * @param target
+   *        The order to partition.
+   * @param from
+   *        The start of the range, inclusive.
+   * @param cut
+   *        The position of the cut in the source order.
+   * @param to
+   *        The end of the range, exclusive.
+   */
+  protected void partition(int[] source, int[] target, int from, int cut, int to) {
+    for (int i = from; i < to; i++) {
+      this.isInFirstHalf[source[i]] = i < cut;
+    }
+
+    int first = from;
+    int second = 0;
+    for (int i = from; i < to; i++) {
+      int index = target[i];
+      if (this.isInFirstHalf[index]) {
+        target[first++] = index;
+      } else {
+        this.buffer[second++] = index;
+      }
+    }
+    System.arraycopy(this.buffer, 0, target, first, second);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Transforms the given float to an int, such that the ints are ordered as the floats are
+   * ordered by {@link Float#compare(float, float)}.
+   *
+   * @param f
+   *        The float to transform.
+   * @return The transformed int.
+   */
+  protected static int toSortableInt(float f) {
+    int bits = Float.floatToIntBits(f);
+    return bits ^ ((bits >> 31) & 0x7fffffff);
+  }
+
+  /**
+   * Packs the given sort value and the given index into a single long.
+   *
+   * @param value
+   *        The sort value.
+   * @param index
+   *        The index.
+   * @return The packed long.
+   */
+  protected static long pack(int value, int index) {
+    return ((long) value << 32) | index;
+  }
+
+  /**
+   * Sorts the given packed keys and returns the indexes in the sorted order.
+   *
+   * @param keys
+   *        The packed keys to sort.
+   * @return The sorted indexes.
+   */
+  protected static int[] sortIndexes(long[] keys) {
+    Arrays.sort(keys);
+    int[] indexes = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      indexes[i] = (int) keys[i];
+    }
+    return indexes;
+  }
+}
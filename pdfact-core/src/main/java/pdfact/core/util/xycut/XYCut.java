@@ -1,15 +1,12 @@
 package pdfact.core.util.xycut;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import pdfact.core.model.Character;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
-import pdfact.core.util.comparator.MaxYComparator;
-import pdfact.core.util.comparator.MinXComparator;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.statistician.CharacterStatistician;
 
 /**
  * A class that cuts a list of characters horizontally and vertically into
@@ -19,7 +16,13 @@ import pdfact.core.util.list.ElementList;
  */
 public abstract class XYCut {
   /**
-   * Cuts the given characters into blocks of type T.
+   * The statistician to compute statistics about the halves of a cut on demand.
+   */
+  protected CharacterStatistician cutStatistician = new CharacterStatistician();
+
+  /**
+   * Cuts the given characters into blocks of type T. The characters are sorted only once per
+   * direction, see {@link SortedCharacters}. The given list is not modified.
    * 
    * @param pdf
    *        The PDF document to which the characters belong to.
@@ -28,170 +31,207 @@ public abstract class XYCut {
    * @param characters
    *        The characters to cut.
    * 
-   * @return The list of resulting blocks.
+   * @return The list of resulting blocks. The characters of each block are sorted by their maxY
+   *         values in descending order.
    */
   public List<ElementList<Character>> cut(Document pdf, Page page,
       ElementList<Character> characters) {
     List<ElementList<Character>> target = new ArrayList<>();
-    cut(pdf, page, characters, target);
+    if (characters != null && !characters.isEmpty()) {
+      SortedCharacters chars = new SortedCharacters(characters);
+      cut(pdf, page, chars, 0, chars.size(), target);
+    }
     return target;
   }
 
   /**
-   * Cuts the given characters into blocks of type T and adds them to the given
-   * result list.
+   * Cuts the characters in the given range of the given sorted characters into blocks of type T
+   * and adds them to the given result list.
    * 
    * @param pdf
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
-   * @param origin
-   *        The characters to be cut.
+   * @param chars
+   *        The sorted characters.
+   * @param from
+   *        The start of the range of characters to be cut, inclusive.
+   * @param to
+   *        The end of the range of characters to be cut, exclusive.
    * @param target
    *        The list of blocks to fill.
    */
-  protected void cut(Document pdf, Page page, ElementList<Character> origin,
+  protected void cut(Document pdf, Page page, SortedCharacters chars, int from, int to,
       List<ElementList<Character>> target) {
     // Cut the characters vertically (x-cut).
-    List<ElementList<Character>> xBlocks = xCut(pdf, page, origin);
-
-    for (ElementList<Character> xBlock : xBlocks) {
-      // Cut the characters horizontally (y-cut).
-      List<ElementList<Character>> yBlocks = yCut(pdf, page, xBlock);
-      if (xBlocks.size() == 1 && yBlocks.size() == 1) {
-        // Both cuts results in a single blocks. So, the characters could *not*
-        // be cut. Pack them and add them to the result list.
-        ElementList<Character> block = yBlocks.get(0);
-        if (block != null && !block.isEmpty()) {
-          target.add(block);
-        }
-      } else {
-        // The characters could be cut. Cut the resulted blocks recursively.
-        for (ElementList<Character> yBlock : yBlocks) {
-          cut(pdf, page, yBlock, target);
-        }
-      }
+    int xCutIndex = xCut(pdf, page, chars, from, to);
+    if (xCutIndex > -1) {
+      chars.partitionByMinXCut(from, xCutIndex, to);
+      cutHorizontally(pdf, page, chars, from, xCutIndex, target);
+      cutHorizontally(pdf, page, chars, xCutIndex, to, target);
+      return;
+    }
+
+    // Cut the characters horizontally (y-cut).
+    int yCutIndex = yCut(pdf, page, chars, from, to);
+    if (yCutIndex > -1) {
+      // The characters could be cut. Cut the resulted blocks recursively.
+      chars.partitionByMaxYCut(from, yCutIndex, to);
+      cut(pdf, page, chars, from, yCutIndex, target);
+      cut(pdf, page, chars, yCutIndex, to, target);
+      return;
+    }
+
+    // Both cuts results in a single blocks. So, the characters could *not* be cut. Pack them and
+    // add them to the result list.
+    if (to > from) {
+      target.add(chars.toList(chars.getIndexesSortedByMaxY(), from, to));
     }
   }
 
   /**
-   * Takes a list of characters and iterates them by sweeping a lane in x
-   * direction in order to find a position to cut the characters vertically into
-   * a left half and a right half.
+   * Cuts the characters in the given range (which results from an x-cut) horizontally and cuts
+   * the resulting blocks recursively.
    * 
    * @param pdf
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
    * @param chars
-   *        The characters to cut.
-   * @return A list of list of characters. In case of the characters could be
-   *         cut, this list has two inner lists representing the characters of
-   *         the two halves. In case of the characters could *not* be cut, the
-   *         list consists only of a single list, which is the original list of
-   *         characters.
+   *        The sorted characters.
+   * @param from
+   *        The start of the range of characters to be cut, inclusive.
+   * @param to
+   *        The end of the range of characters to be cut, exclusive.
+   * @param target
+   *        The list of blocks to fill.
    */
-  protected List<ElementList<Character>> xCut(Document pdf, Page page,
-      ElementList<Character> chars) {
-    if (chars != null && !chars.isEmpty()) {
-      // Sort the characters by minX in order to sweep them in x direction.
-      Collections.sort(chars, new MinXComparator());
-
-      // The score of the best cut found so far.
-      float bestCutScore = 0;
-      // The index of the best cut found so far.
-      int bestCutIndex = -1;
-      // The current position in the list of characters.
-      float currentPos = chars.get(0).getPosition().getRectangle().getMaxX();
-
-      for (int index = 1; index < chars.size(); index++) {
-        Character character = chars.get(index);
-
-        if (character.getPosition().getRectangle().getMinX() > currentPos) {
-          List<ElementList<Character>> halves = chars.cut(index);
-          // Find the position of the "best" cut.
-          while (index < chars.size()) {
-            // The score of the current cut.
-            float cutScore = assessVerticalCut(pdf, page, halves);
-
-            if (cutScore < 0) {
-              break;
-            } else if (cutScore > bestCutScore) {
-              bestCutScore = cutScore;
-              bestCutIndex = index;
-            }
-            halves = chars.cut(++index);
+  protected void cutHorizontally(Document pdf, Page page, SortedCharacters chars, int from,
+      int to, List<ElementList<Character>> target) {
+    int yCutIndex = yCut(pdf, page, chars, from, to);
+    if (yCutIndex > -1) {
+      chars.partitionByMaxYCut(from, yCutIndex, to);
+      cut(pdf, page, chars, from, yCutIndex, target);
+      cut(pdf, page, chars, yCutIndex, to, target);
+    } else {
+      cut(pdf, page, chars, from, to, target);
+    }
+  }
+
+  /**
+   * Takes a range of characters and iterates them by sweeping a lane in x direction in order to
+   * find a position to cut the characters vertically into a left half and a right half.
+   * 
+   * @param pdf
+   *        The PDF document to which the characters belong to.
+   * @param page
+   *        The page in which the characters are located.
+   * @param chars
+   *        The sorted characters.
+   * @param from
+   *        The start of the range of characters to be cut, inclusive.
+   * @param to
+   *        The end of the range of characters to be cut, exclusive.
+   * @return The position of the best cut in the minX order of the characters, or -1 if the
+   *         characters could *not* be cut.
+   */
+  protected int xCut(Document pdf, Page page, SortedCharacters chars, int from, int to) {
+    if (to - from < 2) {
+      return -1;
+    }
+
+    // Sweep the characters in x direction.
+    Cut cut = new Cut(chars.getCharacters(), chars.getIndexesSortedByMinX(), from, to,
+        this.cutStatistician);
+
+    // The score of the best cut found so far.
+    float bestCutScore = 0;
+    // The index of the best cut found so far.
+    int bestCutIndex = -1;
+    // The current position in the list of characters.
+    float currentPos = cut.get(0).getPosition().getRectangle().getMaxX();
+
+    for (int index = 1; index < cut.size(); index++) {
+      Character character = cut.get(index);
+
+      if (character.getPosition().getRectangle().getMinX() > currentPos) {
+        // Find the position of the "best" cut.
+        while (index < cut.size()) {
+          // The score of the current cut.
+          cut.moveTo(index);
+          float cutScore = assessVerticalCut(pdf, page, cut);
+
+          if (cutScore < 0) {
+            break;
+          } else if (cutScore > bestCutScore) {
+            bestCutScore = cutScore;
+            bestCutIndex = index;
           }
+          index++;
         }
-        currentPos = character.getPosition().getRectangle().getMaxX();
-      }
-
-      if (bestCutIndex > -1) {
-        // A cut was found. Return the resulting halves.
-        return chars.cut(bestCutIndex);
       }
+      currentPos = character.getPosition().getRectangle().getMaxX();
     }
-    return Arrays.asList(chars);
+
+    return bestCutIndex > -1 ? from + bestCutIndex : -1;
   }
 
   /**
-   * Takes a set of characters and sweeps the characters in y direction in order
-   * to find a position to cut the characters vertically into a upper half and a
-   * lower half. For more details about the approach of the sweep algorithm, see
-   * the examples given for xCut().
+   * Takes a range of characters and sweeps the characters in y direction in order to find a
+   * position to cut the characters horizontally into a upper half and a lower half. For more
+   * details about the approach of the sweep algorithm, see the examples given for xCut().
    * 
    * @param pdf
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
    * @param chars
-   *        The characters to cut.
-   * @return A list of set of characters. In case of the characters could be
-   *         cut, this list consists of two inner sets, containing the
-   *         characters of the two halves. In case of the characters could not
-   *         be cut, the list consists only of a single set, representing a copy
-   *         of the original set of characters.
+   *        The sorted characters.
+   * @param from
+   *        The start of the range of characters to be cut, inclusive.
+   * @param to
+   *        The end of the range of characters to be cut, exclusive.
+   * @return The position of the best cut in the maxY order of the characters, or -1 if the
+   *         characters could *not* be cut.
    */
-  protected List<ElementList<Character>> yCut(Document pdf, Page page,
-      ElementList<Character> chars) {
-    if (chars != null && !chars.isEmpty()) {
-      // Sort the characters by minX in order to sweep them in x direction.
-      Collections.sort(chars, Collections.reverseOrder(new MaxYComparator()));
-
-      // The score of the best cut found so far.
-      float bestCutScore = 0;
-      // The index of the best cut found so far.
-      int bestCutIndex = -1;
-      // The current position in the list of characters.
-      float currentPos = chars.get(0).getPosition().getRectangle().getMinY();
-
-      for (int index = 1; index < chars.size(); index++) {
-        Character character = chars.get(index);
-
-        if (character.getPosition().getRectangle().getMaxY() < currentPos) {
-          List<ElementList<Character>> halves = chars.cut(index);
-          // Find the position of the "best" cut.
-          while (index < chars.size()) {
-            float cutScore = assessHorizontalCut(pdf, page, halves);
-
-            if (cutScore < 0) {
-              break;
-            } else if (cutScore > bestCutScore) {
-              bestCutScore = cutScore;
-              bestCutIndex = index;
-            }
-            halves = chars.cut(++index);
+  protected int yCut(Document pdf, Page page, SortedCharacters chars, int from, int to) {
+    if (to - from < 2) {
+      return -1;
+    }
+
+    // Sweep the characters in y direction.
+    Cut cut = new Cut(chars.getCharacters(), chars.getIndexesSortedByMaxY(), from, to,
+        this.cutStatistician);
+
+    // The score of the best cut found so far.
+    float bestCutScore = 0;
+    // The index of the best cut found so far.
+    int bestCutIndex = -1;
+    // The current position in the list of characters.
+    float currentPos = cut.get(0).getPosition().getRectangle().getMinY();
+
+    for (int index = 1; index < cut.size(); index++) {
+      Character character = cut.get(index);
+
+      if (character.getPosition().getRectangle().getMaxY() < currentPos) {
+        // Find the position of the "best" cut.
+        while (index < cut.size()) {
+          cut.moveTo(index);
+          float cutScore = assessHorizontalCut(pdf, page, cut);
+
+          if (cutScore < 0) {
+            break;
+          } else if (cutScore > bestCutScore) {
+            bestCutScore = cutScore;
+            bestCutIndex = index;
           }
+          index++;
         }
-        currentPos = character.getPosition().getRectangle().getMinY();
-      }
-
-      if (bestCutIndex > -1) {
-        // A cut was found. Return the resulting halves.
-        return chars.cut(bestCutIndex);
       }
+      currentPos = character.getPosition().getRectangle().getMinY();
     }
-    return Arrays.asList(chars);
+
+    return bestCutIndex > -1 ? from + bestCutIndex : -1;
   }
 
   // ==============================================================================================
@@ -206,12 +246,12 @@ public abstract class XYCut {
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
-   * @param halves
-   *        The characters of the two halves.
+   * @param cut
+   *        The cut to assess, providing the characters of the two halves and the statistics
+   *        about them.
    * @return A score that assesses the given cut.
    */
-  public abstract float assessVerticalCut(Document pdf, Page page,
-      List<ElementList<Character>> halves);
+  public abstract float assessVerticalCut(Document pdf, Page page, Cut cut);
 
   /**
    * Assesses the given horizontal cut. Returns a positive score, if the cut is
@@ -222,12 +262,12 @@ public abstract class XYCut {
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
-   * @param halves
-   *        The characters of the two halves.
+   * @param cut
+   *        The cut to assess, providing the characters of the two halves and the statistics
+   *        about them.
    * @return A score that assesses the given cut.
    */
-  public abstract float assessHorizontalCut(Document pdf, Page page,
-      List<ElementList<Character>> halves);
+  public abstract float assessHorizontalCut(Document pdf, Page page, Cut cut);
 
   // /**
   // * Packs the given characters into the target type.
@@ -0,0 +1,180 @@
+package pdfact.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+
+/**
+ * A builder of small PDF documents for the tests, whose pages and forms are given by the
+ * operators of their content streams. A font and a form are referenced in the content streams by
+ * the names "F1" and "Fm1".
+ */
+public class TestPdfBuilder implements Closeable {
+  /**
+   * The name of the font in the resources created by this builder.
+   */
+  public static final String FONT_NAME = "F1";
+
+  /**
+   * The name of the form in the resources created by this builder.
+   */
+  public static final String FORM_NAME = "Fm1";
+
+  /**
+   * The PDF document to build.
+   */
+  protected PDDocument doc;
+
+  /**
+   * Creates a new builder of an empty PDF document.
+   */
+  public TestPdfBuilder() {
+    this.doc = new PDDocument();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates resources with the given font and form.
+   *
+   * @param font The font, available under the name {@link #FONT_NAME}; null for no font.
+   * @param form The form, available under the name {@link #FORM_NAME}; null for no form.
+   *
+   * @return The created resources.
+   */
+  public PDResources createResources(PDFont font, PDFormXObject form) {
+    PDResources resources = new PDResources();
+    if (font != null) {
+      resources.put(COSName.getPDFName(FONT_NAME), font);
+    }
+    if (form != null) {
+      resources.put(COSName.getPDFName(FORM_NAME), form);
+    }
+    return resources;
+  }
+
+  /**
+   * Creates a page-sized form with the given font and content.
+   *
+   * @param font    The font of the form; null for no font.
+   * @param content The operators of the content stream of the form.
+   *
+   * @return The created form.
+   *
+   * @throws IOException If something went wrong on writing the content stream.
+   */
+  public PDFormXObject createForm(PDFont font, String content) throws IOException {
+    PDFormXObject form = new PDFormXObject(this.doc);
+    form.setBBox(PDRectangle.LETTER);
+    form.setResources(createResources(font, null));
+    write(form.getContentStream(), content);
+    return form;
+  }
+
+  /**
+   * Creates a stream with the given content, for example the stream of a glyph in a Type3 font.
+   *
+   * @param content The content of the stream.
+   *
+   * @return The created stream.
+   *
+   * @throws IOException If something went wrong on writing the stream.
+   */
+  public COSStream createStream(String content) throws IOException {
+    COSStream stream = this.doc.getDocument().createCOSStream();
+    try (OutputStream out = stream.createOutputStream()) {
+      out.write(content.getBytes(StandardCharsets.US_ASCII));
+    }
+    return stream;
+  }
+
+  /**
+   * Adds a page with the given font, form and content.
+   *
+   * @param font    The font of the page; null for no font.
+   * @param form    The form of the page; null for no form.
+   * @param content The operators of the content stream of the page.
+   *
+   * @return This builder.
+   *
+   * @throws IOException If something went wrong on writing the content stream.
+   */
+  public TestPdfBuilder addPage(PDFont font, PDFormXObject form, String content)
+      throws IOException {
+    return addPage(createResources(font, form), content);
+  }
+
+  /**
+   * Adds a page with the given resources and content.
+   *
+   * @param resources The resources of the page.
+   * @param content   The operators of the content stream of the page.
+   *
+   * @return This builder.
+   *
+   * @throws IOException If something went wrong on writing the content stream.
+   */
+  public TestPdfBuilder addPage(PDResources resources, String content) throws IOException {
+    PDPage page = new PDPage();
+    page.setResources(resources);
+    PDStream contents = new PDStream(this.doc);
+    write(contents, content);
+    page.setContents(contents);
+    this.doc.addPage(page);
+    return this;
+  }
+
+  /**
+   * Returns the PDF document to build, for example to create images.
+   *
+   * @return The PDF document to build.
+   */
+  public PDDocument getDocument() {
+    return this.doc;
+  }
+
+  /**
+   * Returns the content of the built PDF file.
+   *
+   * @return The content of the built PDF file.
+   *
+   * @throws IOException If something went wrong on saving the PDF document.
+   */
+  public byte[] toByteArray() throws IOException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    this.doc.save(stream);
+    return stream.toByteArray();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.doc.close();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given content to the given stream.
+   *
+   * @param stream  The stream.
+   * @param content The content to write.
+   *
+   * @throws IOException If something went wrong on writing the stream.
+   */
+  protected void write(PDStream stream, String content) throws IOException {
+    try (OutputStream out = stream.createOutputStream()) {
+      out.write(content.getBytes(StandardCharsets.US_ASCII));
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package pdfact.core;
+
+import pdfact.core.model.Character;
+import pdfact.core.model.Page;
+
+/**
+ * A collection of utility methods to examine the extraction results in the tests.
+ */
+public class TestPdfUtils {
+  /**
+   * Returns the text of the characters of the given page.
+   *
+   * @param page The page.
+   *
+   * @return The text of the characters of the given page.
+   */
+  public static String text(Page page) {
+    StringBuilder sb = new StringBuilder();
+    for (Character character : page.getCharacters()) {
+      sb.append(character.getText());
+    }
+    return sb.toString();
+  }
+}
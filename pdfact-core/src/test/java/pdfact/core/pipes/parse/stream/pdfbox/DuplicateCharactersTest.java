@@ -0,0 +1,98 @@
+package pdfact.core.pipes.parse.stream.pdfbox;
+
+import static pdfact.core.TestPdfUtils.text;
+import java.io.IOException;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.TestPdfBuilder;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests removing characters drawn multiple times at nearly the same position.
+ */
+public class DuplicateCharactersTest {
+  @Test
+  public void testKeepDuplicateCharacters() throws Exception {
+    List<Page> pages = parse(createPdf(), false, 1).getPages();
+    Assert.assertEquals("BoldBoldBoldiiXX", text(pages.get(0)));
+    Assert.assertEquals("X", text(pages.get(1)));
+    Assert.assertEquals(0, pages.get(0).getNumDuplicateCharacters());
+  }
+
+  @Test
+  public void testRemoveDuplicateCharacters() throws Exception {
+    byte[] pdf = createPdf();
+    for (int parallelism : new int[] { 1, 4 }) {
+      List<Page> pages = parse(pdf, true, parallelism).getPages();
+      // Only the first drawn "Bold" (the shadow) is kept, but both "i"s of the small font.
+      Assert.assertEquals("BoldiiX", text(pages.get(0)));
+      Assert.assertEquals(9, pages.get(0).getNumDuplicateCharacters());
+      // The form drawn on both pages is replayed on the second page, without a duplicate.
+      Assert.assertEquals("X", text(pages.get(1)));
+      Assert.assertEquals(0, pages.get(1).getNumDuplicateCharacters());
+
+      // The extraction ranks have no gaps.
+      int rank = 0;
+      for (Page page : pages) {
+        for (Character character : page.getCharacters()) {
+          Assert.assertEquals(rank++, character.getExtractionRank());
+        }
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the given PDF file.
+   *
+   * @param pdf                The content of the PDF file.
+   * @param isRemoveDuplicates True if duplicate characters should be removed.
+   * @param parallelism        The maximum number of pages to parse in parallel.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF file.
+   */
+  protected Document parse(byte[] pdf, boolean isRemoveDuplicates, int parallelism)
+      throws PdfActException {
+    PdfBoxPdfStreamsParser parser = new PdfBoxPdfStreamsParser();
+    parser.setIsToRemoveDuplicateCharacters(isRemoveDuplicates);
+    parser.setParallelism(parallelism);
+    Document doc = new Document(pdf);
+    parser.parse(doc);
+    return doc;
+  }
+
+  /**
+   * Creates a PDF file with two pages. The first page shows a gray shadow of "Bold" and "Bold"
+   * twice with a tiny offset, "ii" in a font so small that the "i"s are closer to each other
+   * than the offset, and an "X" that is also drawn by a form. The second page only draws the
+   * form.
+   *
+   * @return The content of the created PDF file.
+   *
+   * @throws IOException If something went wrong on creating the PDF file.
+   */
+  protected byte[] createPdf() throws IOException {
+    try (TestPdfBuilder builder = new TestPdfBuilder()) {
+      PDFormXObject form = builder.createForm(PDType1Font.HELVETICA,
+          "BT /F1 10 Tf 100 500 Td (X) Tj ET");
+      return builder
+          .addPage(PDType1Font.HELVETICA, form,
+              "0.5 g BT /F1 10 Tf 100.5 699.5 Td (Bold) Tj ET 0 g "
+              + "BT /F1 10 Tf 100 700 Td (Bold) Tj ET "
+              + "BT /F1 10 Tf 100.3 700 Td (Bold) Tj ET "
+              + "BT /F1 1 Tf 100 600 Td (ii) Tj ET "
+              + "BT /F1 10 Tf 100 500 Td (X) Tj ET /Fm1 Do")
+          .addPage(PDType1Font.HELVETICA, form, "/Fm1 Do")
+          .toByteArray();
+    }
+  }
+}
@@ -0,0 +1,165 @@
+package pdfact.core.pipes.parse.stream.pdfbox;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.TestPdfBuilder;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.Shape;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests replaying the elements extracted from a form XObject that is painted
+ * multiple times.
+ */
+public class FormReplayTest {
+  /**
+   * The number of pages of the created PDF files.
+   */
+  protected static final int NUM_PAGES = 6;
+
+  @Test
+  public void testSharedFormIsExtractedAsDistinctForms() throws Exception {
+    // On parsing the PDF file with distinct (but equal) forms, no form can be replayed.
+    List<String> expected = describe(parse(createPdf(false), 1));
+    Assert.assertEquals(expected, describe(parse(createPdf(true), 1)));
+    Assert.assertEquals(expected, describe(parse(createPdf(true), 4)));
+  }
+
+  @Test
+  public void testFormInheritsColorOnReplay() throws Exception {
+    for (Page page : parse(createPdf(true), 1).getPages()) {
+      List<String> colors = new ArrayList<>();
+      for (Character character : page.getCharacters()) {
+        if (character.getText().equals("H")) {
+          colors.add(Arrays.toString(character.getColor().getRGB()));
+        }
+      }
+      // The form is painted in black and in blue on each page.
+      Assert.assertEquals(Arrays.asList("[0, 0, 0]", "[0, 0, 255]"), colors);
+    }
+  }
+
+  @Test
+  public void testFormAtOtherPositionIsReplayedTranslated() throws Exception {
+    final int[] numReplays = new int[1];
+    PdfBoxPdfStreamsParser parser = new PdfBoxPdfStreamsParser() {
+      @Override
+      protected void replayForm(Document pdf, Page page, FormExtractionCache.Extraction extraction,
+          float dx, float dy) {
+        numReplays[0]++;
+        super.replayForm(pdf, page, extraction, dx, dy);
+      }
+    };
+    parser.setParallelism(1);
+    Document doc = new Document(createPdfWithAlternatingPositions(true));
+    parser.parse(doc);
+
+    // The form is interpreted on the first page and replayed on all other pages.
+    Assert.assertEquals(NUM_PAGES - 1, numReplays[0]);
+    Assert.assertEquals(describe(parse(createPdfWithAlternatingPositions(false), 1)),
+        describe(doc));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the given PDF file.
+   *
+   * @param pdf         The content of the PDF file.
+   * @param parallelism The maximum number of pages to parse in parallel.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF file.
+   */
+  protected Document parse(byte[] pdf, int parallelism) throws PdfActException {
+    PdfBoxPdfStreamsParser parser = new PdfBoxPdfStreamsParser();
+    parser.setParallelism(parallelism);
+    Document doc = new Document(pdf);
+    parser.parse(doc);
+    return doc;
+  }
+
+  /**
+   * Describes the characters and shapes of the given PDF document by strings.
+   *
+   * @param pdf The PDF document.
+   *
+   * @return The descriptions of the characters and shapes.
+   */
+  protected List<String> describe(Document pdf) {
+    List<String> descriptions = new ArrayList<>();
+    for (Page page : pdf.getPages()) {
+      for (Character c : page.getCharacters()) {
+        descriptions.add(c.getExtractionRank() + " " + c.getText() + " " + c.getPosition() + " "
+            + c.getColor().getId() + " " + c.getFontFace().getFont().getId() + " "
+            + c.getFontFace().getFontSize());
+      }
+      for (Shape shape : page.getShapes()) {
+        descriptions.add(shape.getPosition() + " " + shape.getColor().getId());
+      }
+    }
+    return descriptions;
+  }
+
+  /**
+   * Creates a PDF file whose pages paint a form (with a text and a rectangle, but without colors)
+   * in black at the top and in blue at the center of the page, and a text between.
+   *
+   * @param isSharedForm True if all pages should paint the same form; false if each page should
+   *                     paint its own (but equal) form.
+   *
+   * @return The content of the created PDF file.
+   *
+   * @throws IOException If something went wrong on creating the PDF file.
+   */
+  protected byte[] createPdf(boolean isSharedForm) throws IOException {
+    try (TestPdfBuilder builder = new TestPdfBuilder()) {
+      PDFormXObject form = null;
+      for (int i = 0; i < NUM_PAGES; i++) {
+        if (form == null || !isSharedForm) {
+          form = builder.createForm(PDType1Font.HELVETICA,
+              "BT /F1 10 Tf 50 750 Td (Header) Tj ET 50 740 200 2 re f");
+        }
+        builder.addPage(PDType1Font.TIMES_ROMAN, form, "q /Fm1 Do Q "
+            + "BT /F1 12 Tf 100 600 Td (Page " + (i + 1) + ") Tj ET "
+            + "q 0 0 1 rg 1 0 0 1 0 -400 cm /Fm1 Do Q");
+      }
+      return builder.toByteArray();
+    }
+  }
+
+  /**
+   * Creates a PDF file whose pages paint a form (with a text and a rectangle) at the top left on
+   * odd pages and at the top right on even pages.
+   *
+   * @param isSharedForm True if all pages should paint the same form; false if each page should
+   *                     paint its own (but equal) form.
+   *
+   * @return The content of the created PDF file.
+   *
+   * @throws IOException If something went wrong on creating the PDF file.
+   */
+  protected byte[] createPdfWithAlternatingPositions(boolean isSharedForm) throws IOException {
+    try (TestPdfBuilder builder = new TestPdfBuilder()) {
+      PDFormXObject form = null;
+      for (int i = 0; i < NUM_PAGES; i++) {
+        if (form == null || !isSharedForm) {
+          form = builder.createForm(PDType1Font.HELVETICA,
+              "BT /F1 10 Tf 50 750 Td (Logo) Tj ET 50 740 30.5 2 re f");
+        }
+        builder.addPage(PDType1Font.TIMES_ROMAN, form, "q 1 0 0 1 " + (i % 2 == 0 ? 0 : 462.7)
+            + " -3.3 cm /Fm1 Do Q BT /F1 12 Tf 100 600 Td (Page " + (i + 1) + ") Tj ET");
+      }
+      return builder.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package pdfact.core.pipes.parse.stream.pdfbox.operators.graphic;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.TestPdfBuilder;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.pipes.parse.stream.pdfbox.PdfBoxPdfStreamsParser;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the classification of images into shapes and figures.
+ */
+public class ImageClassificationTest {
+  @Test
+  public void testSingleColorImageIsShape() throws Exception {
+    Page page = parse(createPdf(createImage(false)), true);
+    Assert.assertEquals(1, page.getShapes().size());
+    Assert.assertEquals(0, page.getFigures().size());
+    int[] rgb = page.getShapes().get(0).getColor().getRGB();
+    Assert.assertArrayEquals(new int[] {200, 30, 30, 255}, rgb);
+  }
+
+  @Test
+  public void testImageWithSingleDeviatingPixelIsFigure() throws Exception {
+    Page page = parse(createPdf(createImage(true)), true);
+    Assert.assertEquals(0, page.getShapes().size());
+    Assert.assertEquals(1, page.getFigures().size());
+  }
+
+  @Test
+  public void testImagesAreFiguresWithoutClassification() throws Exception {
+    Page page = parse(createPdf(createImage(false)), false);
+    Assert.assertEquals(0, page.getShapes().size());
+    Assert.assertEquals(1, page.getFigures().size());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the given PDF file.
+   *
+   * @param pdf              The content of the PDF file.
+   * @param isClassifyImages The boolean flag indicating whether or not to classify the images.
+   *
+   * @return The first page of the parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF file.
+   */
+  protected Page parse(byte[] pdf, boolean isClassifyImages) throws PdfActException {
+    Document doc = new Document(pdf);
+    new PdfBoxPdfStreamsParser(true, true, isClassifyImages).parse(doc);
+    return doc.getPages().get(0);
+  }
+
+  /**
+   * Creates a 300x200 image filled with a single color.
+   *
+   * @param withDeviatingPixel True, if a single pixel (which is not hit by a subsampled probe of
+   *                           the image) should have a different color.
+   *
+   * @return The created image.
+   */
+  protected BufferedImage createImage(boolean withDeviatingPixel) {
+    BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        image.setRGB(x, y, 0xC81E1E);
+      }
+    }
+    if (withDeviatingPixel) {
+      image.setRGB(157, 113, 0x000000);
+    }
+    return image;
+  }
+
+  /**
+   * Creates a PDF file with a single page that draws the given image.
+   *
+   * @param image The image to draw.
+   *
+   * @return The content of the created PDF file.
+   *
+   * @throws IOException If something went wrong on creating the PDF file.
+   */
+  protected byte[] createPdf(BufferedImage image) throws IOException {
+    try (TestPdfBuilder builder = new TestPdfBuilder()) {
+      PDResources resources = new PDResources();
+      resources.put(COSName.getPDFName("Im1"),
+          LosslessFactory.createFromImage(builder.getDocument(), image));
+      return builder.addPage(resources, "q 150 0 0 100 100 400 cm /Im1 Do Q").toByteArray();
+    }
+  }
+}
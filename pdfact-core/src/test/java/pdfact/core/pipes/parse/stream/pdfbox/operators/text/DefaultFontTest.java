@@ -0,0 +1,63 @@
+package pdfact.core.pipes.parse.stream.pdfbox.operators.text;
+
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.TestPdfBuilder;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.pipes.parse.stream.pdfbox.PdfBoxPdfStreamsParser;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the extraction of characters shown without a current font.
+ */
+public class DefaultFontTest {
+  @Test
+  public void testTextWithoutFontIsExtracted() throws Exception {
+    Page page = parse(createPdf("(ab) Tj (cd) Tj"));
+    Assert.assertEquals(4, page.getCharacters().size());
+    Assert.assertEquals("a", page.getCharacters().get(0).getText());
+    Assert.assertEquals("d", page.getCharacters().get(3).getText());
+  }
+
+  @Test
+  public void testDefaultFontIsCreatedOnce() throws Exception {
+    ShowText showText = new ShowText();
+    Assert.assertSame(showText.getDefaultFont(), showText.getDefaultFont());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the given PDF file.
+   *
+   * @param pdf The content of the PDF file.
+   *
+   * @return The first page of the parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF file.
+   */
+  protected Page parse(byte[] pdf) throws PdfActException {
+    Document doc = new Document(pdf);
+    new PdfBoxPdfStreamsParser().parse(doc);
+    return doc.getPages().get(0);
+  }
+
+  /**
+   * Creates a PDF file with a single page that shows the given text in a font that is not given
+   * in the resources of the page, so that the text state has no current font.
+   *
+   * @param text The text showing operators to write in the 10pt font at (100, 700).
+   *
+   * @return The content of the created PDF file.
+   *
+   * @throws IOException If something went wrong on creating the PDF file.
+   */
+  protected byte[] createPdf(String text) throws IOException {
+    try (TestPdfBuilder builder = new TestPdfBuilder()) {
+      return builder.addPage(null, null, "BT /F1 10 Tf 100 700 Td " + text + " ET")
+          .toByteArray();
+    }
+  }
+}
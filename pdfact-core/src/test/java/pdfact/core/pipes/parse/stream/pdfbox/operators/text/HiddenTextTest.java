@@ -0,0 +1,112 @@
+package pdfact.core.pipes.parse.stream.pdfbox.operators.text;
+
+import static pdfact.core.TestPdfUtils.text;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.TestPdfBuilder;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.HiddenTextCategory;
+import pdfact.core.model.HiddenTextPolicy;
+import pdfact.core.model.Page;
+import pdfact.core.pipes.parse.stream.pdfbox.PdfBoxPdfStreamsParser;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests dealing with invisible, off-page and clipped characters.
+ */
+public class HiddenTextTest {
+  @Test
+  public void testKeepHiddenText() throws Exception {
+    Page page = parse(createPdf(), HiddenTextPolicy.KEEP).getPages().get(0);
+    Assert.assertEquals("VIOCFF", text(page));
+    for (Character character : page.getCharacters()) {
+      Assert.assertNull(character.getHiddenTextCategory());
+    }
+  }
+
+  @Test
+  public void testDropHiddenText() throws Exception {
+    Page page = parse(createPdf(), HiddenTextPolicy.DROP).getPages().get(0);
+    // The form is painted twice, but only once inside the clipping path, so it must not be
+    // replayed on the second time.
+    Assert.assertEquals("VF", text(page));
+  }
+
+  @Test
+  public void testFlagHiddenText() throws Exception {
+    Page page = parse(createPdf(), HiddenTextPolicy.FLAG).getPages().get(0);
+    Assert.assertEquals("VIOCFF", text(page));
+
+    List<HiddenTextCategory> expected = Arrays.asList(null, HiddenTextCategory.INVISIBLE,
+        HiddenTextCategory.OFF_PAGE, HiddenTextCategory.CLIPPED, null,
+        HiddenTextCategory.CLIPPED);
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i), page.getCharacters().get(i).getHiddenTextCategory());
+    }
+  }
+
+  @Test
+  public void testDropClippedTextWithoutShapes() throws Exception {
+    // If no shapes are needed, the paths are only constructed to compute the clipping paths.
+    PdfBoxPdfStreamsParser parser = new PdfBoxPdfStreamsParser(true, false);
+    parser.setHiddenTextPolicy(HiddenTextCategory.CLIPPED, HiddenTextPolicy.DROP);
+    Document pdf = new Document(createPdf());
+    parser.parse(pdf);
+    // The "O" outside the page is also outside the initial clipping path.
+    Assert.assertEquals("VIF", text(pdf.getPages().get(0)));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the given PDF file.
+   *
+   * @param pdf    The content of the PDF file.
+   * @param policy The policy for all categories of hidden characters.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF file.
+   */
+  protected Document parse(byte[] pdf, HiddenTextPolicy policy) throws PdfActException {
+    PdfBoxPdfStreamsParser parser = new PdfBoxPdfStreamsParser();
+    for (HiddenTextCategory category : HiddenTextCategory.values()) {
+      parser.setHiddenTextPolicy(category, policy);
+    }
+    Document doc = new Document(pdf);
+    parser.parse(doc);
+    return doc;
+  }
+
+  /**
+   * Creates a PDF file with a page that shows a visible "V", an invisible "I", an "O" outside the
+   * page, a "C" outside the clipping path, and a form with an "F" painted twice with the same
+   * transformation matrix, once inside and once outside the clipping path.
+   *
+   * @return The content of the created PDF file.
+   *
+   * @throws IOException If something went wrong on creating the PDF file.
+   */
+  protected byte[] createPdf() throws IOException {
+    try (TestPdfBuilder builder = new TestPdfBuilder()) {
+      PDFormXObject form = builder.createForm(PDType1Font.HELVETICA,
+          "BT /F1 12 Tf 50 50 Td (F) Tj ET");
+      return builder.addPage(PDType1Font.HELVETICA, form, "BT /F1 12 Tf 100 700 Td (V) Tj ET "
+          + "BT /F1 12 Tf 3 Tr 100 650 Td (I) Tj 0 Tr ET "
+          + "BT /F1 12 Tf 700 600 Td (O) Tj ET "
+          + "q 0 0 200 200 re W n "
+          + "BT /F1 12 Tf 300 300 Td (C) Tj ET "
+          + "/Fm1 Do "
+          + "Q "
+          + "q 400 400 100 100 re W n "
+          + "/Fm1 Do "
+          + "Q").toByteArray();
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package pdfact.core.pipes.parse.stream.pdfbox.operators.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import pdfact.core.model.Document;
+import pdfact.core.pipes.parse.stream.pdfbox.PdfBoxPdfStreamsParser;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A microbenchmark of the per-glyph path of the text operators (Tj and TJ), that is: parsing the
+ * characters of a text-heavy PDF document, without extracting figures and shapes. Its main
+ * figure of interest is the allocation rate, so run it with the GC profiler (-prof gc), which
+ * reports the bytes allocated per operation ("gc.alloc.rate.norm").
+ *
+ * <p>
+ * Run it from the test classpath of this module via the main method, e.g.: mvn test-compile
+ * exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=pdfact.core.pipes.parse.stream.pdfbox.operators.text.ShowTextBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShowTextBenchmark {
+  /**
+   * The path to the PDF document to parse, for example a real-world paper given by
+   * "-p pdfPath=...". If empty, a PDF document with {@link #numPages} pages is generated.
+   */
+  @Param({ "" })
+  public String pdfPath;
+
+  /**
+   * The number of pages of the generated PDF document.
+   */
+  @Param({ "10" })
+  public int numPages;
+
+  /**
+   * The content of the PDF document to parse, held in memory such that the measured times don't
+   * include reading the PDF file.
+   */
+  protected byte[] pdf;
+
+  /**
+   * Creates the PDF document to parse.
+   *
+   * @throws IOException If creating or reading the PDF document failed.
+   */
+  @Setup(Level.Trial)
+  public void createPdf() throws IOException {
+    if (this.pdfPath.isEmpty()) {
+      this.pdf = createPdf(this.numPages);
+    } else {
+      this.pdf = Files.readAllBytes(Paths.get(this.pdfPath));
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the characters of the PDF document.
+   */
+  @Benchmark
+  public Document parseCharacters() throws PdfActException {
+    Document pdf = new Document(this.pdf);
+    new PdfBoxPdfStreamsParser(false, false).parse(pdf);
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates a PDF document with the given number of pages, each with two columns of text lines
+   * shown alternately by Tj (a whole line per operator) and TJ (with kerning adjustments between
+   * the words, as typesetting systems emit them).
+   *
+   * @param numPages The number of pages.
+   *
+   * @return The content of the created PDF document.
+   *
+   * @throws IOException If creating the PDF document failed.
+   */
+  protected static byte[] createPdf(int numPages) throws IOException {
+    String text = "The quick brown fox jumps over the lazy dog and";
+    Object[] kernedText = { "The", -250f, "quick", -250f, "brown", -250f, "fox", -250f, "jumps",
+        -250f, "over", -250f, "the", -250f, "lazy", -250f, "dog", -250f, "and" };
+
+    try (PDDocument doc = new PDDocument()) {
+      for (int i = 0; i < numPages; i++) {
+        PDPage page = new PDPage();
+        doc.addPage(page);
+        try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+          for (int column = 0; column < 2; column++) {
+            content.beginText();
+            content.setFont(PDType1Font.TIMES_ROMAN, 9);
+            content.setLeading(11);
+            content.newLineAtOffset(50 + column * 270, 740);
+            for (int line = 0; line < 60; line++) {
+              if (line % 2 == 0) {
+                content.showText(text);
+              } else {
+                content.showTextWithPositioning(kernedText);
+              }
+              content.newLine();
+            }
+            content.endText();
+          }
+        }
+      }
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      doc.save(stream);
+      return stream.toByteArray();
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Runs this benchmark with the GC profiler.
+   *
+   * @param args The command line arguments.
+   *
+   * @throws RunnerException If running the benchmark fails.
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(ShowTextBenchmark.class.getSimpleName())
+        .addProfiler("gc")
+        .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,142 @@
+package pdfact.core.pipes.parse.stream.pdfbox.operators.text;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSFloat;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.font.PDType3Font;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.TestPdfBuilder;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.Rectangle;
+import pdfact.core.pipes.parse.stream.pdfbox.PdfBoxPdfStreamsParser;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the extraction of characters given in a Type3 font.
+ */
+public class Type3FontTest {
+  @Test
+  public void testBoundingBoxesOfRepeatedGlyphs() throws Exception {
+    Page page = parse(createPdf("(aaabbb) Tj"));
+
+    List<Character> as = new ArrayList<>();
+    List<Character> bs = new ArrayList<>();
+    for (Character character : page.getCharacters()) {
+      if (character.getText().equals("a")) {
+        as.add(character);
+      } else if (character.getText().equals("b")) {
+        bs.add(character);
+      }
+    }
+    Assert.assertEquals(3, as.size());
+    Assert.assertEquals(3, bs.size());
+
+    // The bounding boxes of all occurrences of a glyph only differ by the advance of the glyphs.
+    List<List<Character>> glyphs = Arrays.asList(as, bs);
+    for (int k = 0; k < glyphs.size(); k++) {
+      List<Character> characters = glyphs.get(k);
+      Rectangle first = characters.get(0).getPosition().getRectangle();
+      Assert.assertEquals(100 + k * 18, first.getMinX(), 0.01);
+      Assert.assertEquals(700, first.getMinY(), 0.01);
+      Assert.assertEquals(707, first.getMaxY(), 0.01);
+      for (int i = 1; i < characters.size(); i++) {
+        Rectangle box = characters.get(i).getPosition().getRectangle();
+        Rectangle previous = characters.get(i - 1).getPosition().getRectangle();
+        Assert.assertEquals(6, box.getMinX() - previous.getMinX(), 0.01);
+        Assert.assertEquals(first.getWidth(), box.getWidth(), 0.01);
+        Assert.assertEquals(first.getMinY(), box.getMinY(), 0.01);
+        Assert.assertEquals(first.getMaxY(), box.getMaxY(), 0.01);
+      }
+    }
+  }
+
+  @Test
+  public void testShapesOfRepeatedGlyphsAreExtractedForEachOccurrence() throws Exception {
+    int numShapes = parse(createPdf("(b) Tj")).getShapes().size();
+    Assert.assertTrue(numShapes > 0);
+    Assert.assertEquals(3 * numShapes, parse(createPdf("(abbab) Tj")).getShapes().size());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the given PDF file.
+   *
+   * @param pdf The content of the PDF file.
+   *
+   * @return The first page of the parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF file.
+   */
+  protected Page parse(byte[] pdf) throws PdfActException {
+    Document doc = new Document(pdf);
+    new PdfBoxPdfStreamsParser().parse(doc);
+    return doc.getPages().get(0);
+  }
+
+  /**
+   * Creates a PDF file with a single page that shows the given text in a Type3 font with the
+   * glyphs "a" (a glyph without any painting operators) and "b" (a glyph that fills a rectangle).
+   * Both glyphs are 500x700 units large and 600 units wide.
+   *
+   * @param text The text showing operators to write in the 10pt font at (100, 700).
+   *
+   * @return The content of the created PDF file.
+   *
+   * @throws IOException If something went wrong on creating the PDF file.
+   */
+  protected byte[] createPdf(String text) throws IOException {
+    try (TestPdfBuilder builder = new TestPdfBuilder()) {
+      COSDictionary charProcs = new COSDictionary();
+      charProcs.setItem(COSName.getPDFName("a"), builder.createStream("600 0 0 0 500 700 d1"));
+      charProcs.setItem(COSName.getPDFName("b"),
+          builder.createStream("600 0 0 0 500 700 d1 0 0 500 700 re f"));
+
+      COSArray differences = new COSArray();
+      differences.add(COSInteger.get(97));
+      differences.add(COSName.getPDFName("a"));
+      differences.add(COSName.getPDFName("b"));
+      COSDictionary encoding = new COSDictionary();
+      encoding.setItem(COSName.TYPE, COSName.ENCODING);
+      encoding.setItem(COSName.DIFFERENCES, differences);
+
+      COSDictionary font = new COSDictionary();
+      font.setItem(COSName.TYPE, COSName.FONT);
+      font.setItem(COSName.SUBTYPE, COSName.TYPE3);
+      font.setItem(COSName.FONT_BBOX, createArray(0, 0, 500, 700));
+      font.setItem(COSName.FONT_MATRIX, createArray(0.001f, 0, 0, 0.001f, 0, 0));
+      font.setItem(COSName.CHAR_PROCS, charProcs);
+      font.setItem(COSName.ENCODING, encoding);
+      font.setInt(COSName.FIRST_CHAR, 97);
+      font.setInt(COSName.LAST_CHAR, 98);
+      font.setItem(COSName.WIDTHS, createArray(600, 600));
+
+      return builder.addPage(new PDType3Font(font), null,
+          "BT /F1 10 Tf 100 700 Td " + text + " ET").toByteArray();
+    }
+  }
+
+  /**
+   * Creates an array with the given numbers.
+   *
+   * @param numbers The numbers.
+   *
+   * @return The created array.
+   */
+  protected COSArray createArray(float... numbers) {
+    COSArray array = new COSArray();
+    for (float number : numbers) {
+      array.add(new COSFloat(number));
+    }
+    return array;
+  }
+}
@@ -0,0 +1,169 @@
+package pdfact.core.pipes.parse.stream.pdfbox.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.TestPdfBuilder;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.Shape;
+import pdfact.core.pipes.parse.stream.pdfbox.PdfBoxPdfStreamsParser;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests merging the shapes of a paint operation and limiting the number of shapes
+ * per page.
+ */
+public class ShapeAggregationTest {
+  /**
+   * The number of segments of each path in the created PDF file.
+   */
+  protected static final int NUM_SEGMENTS = 200;
+
+  @Test
+  public void testShapesPerSegment() throws Exception {
+    Page page = parse(createPdf(), false, 0, 1).getPages().get(0);
+    // A shape per segment of the two paths.
+    Assert.assertEquals(2 * NUM_SEGMENTS, page.getShapes().size());
+  }
+
+  @Test
+  public void testMergeShapesPerPaint() throws Exception {
+    byte[] pdf = createPdf();
+    Page page = parse(pdf, true, 0, 1).getPages().get(0);
+
+    // A single shape per paint operation, given by the bounding box of the path.
+    List<Shape> shapes = page.getShapes();
+    Assert.assertEquals(2, shapes.size());
+    Assert.assertEquals(new Rectangle(50f, 100f, 250f, 110f), shapes.get(0).getPosition()
+        .getRectangle());
+    Assert.assertEquals(new Rectangle(300f, 500f, 500f, 510f), shapes.get(1).getPosition()
+        .getRectangle());
+    Assert.assertNotEquals(shapes.get(0).getColor(), shapes.get(1).getColor());
+
+    Assert.assertEquals(describe(parse(pdf, true, 0, 1)), describe(parse(pdf, true, 0, 4)));
+  }
+
+  @Test
+  public void testMaxNumShapesPerPage() throws Exception {
+    byte[] pdf = createPdf();
+    Page page = parse(pdf, false, 0, 1).getPages().get(0);
+    Rectangle bounds = Rectangle.fromHasPositionElements(normalize(page.getShapes()));
+
+    for (int maxNumShapes : new int[] { 1, 2, 10, 50 }) {
+      Page cappedPage = parse(pdf, false, maxNumShapes, 1).getPages().get(0);
+      List<Shape> shapes = cappedPage.getShapes();
+      Assert.assertTrue(shapes.size() <= maxNumShapes);
+      // The merged shapes still cover the area of all shapes.
+      Assert.assertEquals(bounds, Rectangle.fromHasPositionElements(shapes));
+
+      Assert.assertEquals(describe(parse(pdf, false, maxNumShapes, 1)),
+          describe(parse(pdf, false, maxNumShapes, 4)));
+    }
+    // Shapes with different colors are only merged if there is no other way.
+    Assert.assertEquals(2, parse(pdf, false, 2, 1).getPages().get(0).getShapes().size());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the shapes of the given PDF file.
+   *
+   * @param pdf                 The content of the PDF file.
+   * @param isMergeShapes       True if the shapes of a paint operation should be merged.
+   * @param maxNumShapesPerPage The maximum number of shapes per page; 0 for no limit.
+   * @param parallelism         The maximum number of pages to parse in parallel.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If something went wrong on parsing the PDF file.
+   */
+  protected Document parse(byte[] pdf, boolean isMergeShapes, int maxNumShapesPerPage,
+      int parallelism) throws PdfActException {
+    PdfBoxPdfStreamsParser parser = new PdfBoxPdfStreamsParser(false, true);
+    parser.setIsToMergeShapesPerPaint(isMergeShapes);
+    parser.setMaxNumShapesPerPage(maxNumShapesPerPage);
+    parser.setParallelism(parallelism);
+    Document doc = new Document(pdf);
+    parser.parse(doc);
+    return doc;
+  }
+
+  /**
+   * Describes the shapes of the given PDF document by strings.
+   *
+   * @param pdf The PDF document.
+   *
+   * @return The descriptions of the shapes.
+   */
+  protected List<String> describe(Document pdf) {
+    List<String> descriptions = new ArrayList<>();
+    for (Page page : pdf.getPages()) {
+      for (Shape shape : page.getShapes()) {
+        descriptions.add(shape.getPosition() + " " + shape.getColor().getId());
+      }
+    }
+    return descriptions;
+  }
+
+  /**
+   * Returns copies of the given shapes whose rectangles are normalized (the rectangle of a shape
+   * that stems from a line segment is given by the start and the end point of the segment).
+   *
+   * @param shapes The shapes.
+   *
+   * @return The normalized shapes.
+   */
+  protected List<Shape> normalize(List<Shape> shapes) {
+    List<Shape> normalized = new ArrayList<>();
+    for (Shape shape : shapes) {
+      Rectangle r = shape.getPosition().getRectangle();
+      Shape copy = new Shape();
+      copy.setPosition(new Position(shape.getPosition().getPage(),
+          Math.min(r.getMinX(), r.getMaxX()), Math.min(r.getMinY(), r.getMaxY()),
+          Math.max(r.getMinX(), r.getMaxX()), Math.max(r.getMinY(), r.getMaxY())));
+      normalized.add(copy);
+    }
+    return normalized;
+  }
+
+  /**
+   * Creates a PDF file with two pages, each stroking a black zigzag line at the bottom and a red
+   * zigzag line at the top, each with {@link #NUM_SEGMENTS} segments.
+   *
+   * @return The content of the created PDF file.
+   *
+   * @throws IOException If something went wrong on creating the PDF file.
+   */
+  protected byte[] createPdf() throws IOException {
+    try (TestPdfBuilder builder = new TestPdfBuilder()) {
+      for (int i = 0; i < 2; i++) {
+        builder.addPage(null, null,
+            "0 G " + zigzag(50, 100) + " S 1 0 0 RG " + zigzag(300, 500) + " S");
+      }
+      return builder.toByteArray();
+    }
+  }
+
+  /**
+   * Returns the path operators of a zigzag line with {@link #NUM_SEGMENTS} segments of width 1
+   * and height 10, starting at the given point.
+   *
+   * @param x The x-coordinate of the start point.
+   * @param y The y-coordinate of the start point.
+   *
+   * @return The path operators.
+   */
+  protected String zigzag(int x, int y) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(x).append(" ").append(y).append(" m");
+    for (int i = 1; i <= NUM_SEGMENTS; i++) {
+      sb.append(" ").append(x + i).append(" ").append(y + (i % 2) * 10).append(" l");
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,97 @@
+package pdfact.core.util.counter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * A class that tests writing and reading {@link FloatCounter} and {@link ObjectCounter}.
+ */
+public class CounterTest {
+  /**
+   * Tests that a counter read from its written form iterates the values in the same order and
+   * thus yields the same statistics, also if there are multiple most common values.
+   */
+  @Test
+  public void testWriteAndRead() throws IOException {
+    List<String> table = new ArrayList<>();
+    Map<String, Integer> indexes = new HashMap<>();
+    for (int i = 0; i < 50; i++) {
+      indexes.put("s" + i, i);
+      table.add("s" + i);
+    }
+
+    // Add the values in a shuffled order, with many ties, such that the tables are rehashed.
+    FloatCounter floats = new FloatCounter();
+    ObjectCounter<String> objects = new ObjectCounter<>(3);
+    for (int i = 0; i < 500; i++) {
+      int k = (i * 37) % 50;
+      floats.add(k * 0.25f);
+      objects.add(table.get(k));
+    }
+    assertRoundTrip(floats, objects, table, indexes);
+
+    // A counter that was merged from other counters.
+    FloatCounter mergedFloats = new FloatCounter(1);
+    mergedFloats.add(5f);
+    mergedFloats.add(floats);
+    ObjectCounter<String> mergedObjects = new ObjectCounter<>();
+    mergedObjects.add(table.get(7));
+    mergedObjects.add(objects);
+    assertRoundTrip(mergedFloats, mergedObjects, table, indexes);
+
+    // Empty counters.
+    assertRoundTrip(new FloatCounter(), new ObjectCounter<>(), table, indexes);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given counters, reads them again and checks that the read counters are equal to
+   * the given counters, iterate the values in the same order and yield the same statistics.
+   *
+   * @param floats  The float counter.
+   * @param objects The object counter.
+   * @param table   The table of objects.
+   * @param indexes The indexes of the objects in the table of objects.
+   *
+   * @throws IOException If writing or reading the counters failed.
+   */
+  protected void assertRoundTrip(FloatCounter floats, ObjectCounter<String> objects,
+      List<String> table, Map<String, Integer> indexes) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    floats.writeTo(out);
+    objects.writeTo(out, indexes);
+    out.flush();
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    FloatCounter readFloats = FloatCounter.readFrom(in);
+    ObjectCounter<String> readObjects = ObjectCounter.readFrom(in, table);
+
+    assertEquals(floats, readFloats);
+    assertArrayEquals(floats.getFloats(), readFloats.getFloats(), 0);
+    assertEquals(floats.getMostCommonFloat(), readFloats.getMostCommonFloat(), 0);
+    assertEquals(floats.getAverageFloat(), readFloats.getAverageFloat(), 0);
+    assertEquals(objects, readObjects);
+    assertArrayEquals(objects.getObjects(), readObjects.getObjects());
+    assertSame(objects.getMostCommonObject(), readObjects.getMostCommonObject());
+
+    // Merging the read counters yields the same statistics as merging the given counters.
+    FloatCounter mergedFloats = new FloatCounter();
+    mergedFloats.add(floats);
+    FloatCounter mergedReadFloats = new FloatCounter();
+    mergedReadFloats.add(readFloats);
+    assertArrayEquals(mergedFloats.getFloats(), mergedReadFloats.getFloats(), 0);
+  }
+}
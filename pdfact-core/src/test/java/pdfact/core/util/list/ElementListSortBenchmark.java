@@ -0,0 +1,198 @@
+package pdfact.core.util.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import pdfact.core.model.Character;
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.util.comparator.MinXComparator;
+
+/**
+ * A microbenchmark that compares sorting an {@link ElementList} (and a view of it) with the
+ * former last-element-pivot Quicksort, on characters in sorted, reverse-sorted and random order.
+ *
+ * <p>
+ * Run it from the test classpath of this module via the main method, e.g.: mvn test-compile
+ * exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=pdfact.core.util.list.ElementListSortBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementListSortBenchmark {
+  /**
+   * The number of characters to sort (the order of magnitude of characters on a dense page).
+   */
+  @Param({ "1000", "10000" })
+  public int numCharacters;
+
+  /**
+   * The initial order of the characters.
+   */
+  @Param({ "SORTED", "REVERSE_SORTED", "RANDOM" })
+  public String order;
+
+  /**
+   * The characters in their initial order.
+   */
+  protected List<Character> characters;
+
+  /**
+   * The list to sort.
+   */
+  protected ElementList<Character> list;
+
+  /**
+   * The comparator to sort the characters with.
+   */
+  protected Comparator<HasPosition> comparator = new MinXComparator();
+
+  /**
+   * Creates the characters in the initial order.
+   */
+  @Setup(Level.Trial)
+  public void createCharacters() {
+    Page page = new Page(1);
+    this.characters = new ArrayList<>(this.numCharacters);
+    for (int i = 0; i < this.numCharacters; i++) {
+      Character character = new Character();
+      // Let some characters share the same minX, as done by characters in the same column.
+      float minX = i / 2;
+      character.setPosition(new Position(page, minX, 0, minX + 5, 10));
+      this.characters.add(character);
+    }
+
+    if ("REVERSE_SORTED".equals(this.order)) {
+      Collections.reverse(this.characters);
+    } else if ("RANDOM".equals(this.order)) {
+      Collections.shuffle(this.characters, new Random(42));
+    }
+  }
+
+  /**
+   * Restores the initial order before each sort.
+   */
+  @Setup(Level.Invocation)
+  public void createList() {
+    this.list = new ElementList<>(this.numCharacters);
+    this.list.addAll(this.characters);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Sorts the list.
+   */
+  @Benchmark
+  public ElementList<Character> sortList() {
+    this.list.sort(this.comparator);
+    return this.list;
+  }
+
+  /**
+   * Sorts a view of the list, spanning all elements but the first one.
+   */
+  @Benchmark
+  public ElementList<Character> sortView() {
+    ElementList<Character> view = this.list.cut(1).get(1);
+    view.sort(this.comparator);
+    return view;
+  }
+
+  /**
+   * Sorts the list with the former Quicksort implementation.
+   */
+  @Benchmark
+  public ElementList<Character> sortListWithLegacyQuicksort() {
+    LegacyQuicksort.sort(this.list, this.comparator);
+    return this.list;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The Quicksort formerly used by {@link ElementList}, which always uses the rightmost element
+   * as pivot and swaps the elements via {@link ElementList#swap(int, int)}.
+   */
+  static class LegacyQuicksort {
+    /**
+     * Sorts the given list.
+     */
+    static <T extends pdfact.core.model.Element> void sort(ElementList<T> list,
+        Comparator<? super T> c) {
+      if (list.size() > 1) {
+        sort(list, c, 0, list.size() - 1);
+      }
+    }
+
+    /**
+     * Sorts the range [l, r] of the given list.
+     */
+    static <T extends pdfact.core.model.Element> void sort(ElementList<T> list,
+        Comparator<? super T> c, int l, int r) {
+      int i = l;
+      int j = r - 1;
+      T pivot = list.get(r);
+      while (true) {
+        while (i <= j && c.compare(list.get(i), pivot) < 0) {
+          i++;
+        }
+        while (i <= j && c.compare(list.get(j), pivot) >= 0) {
+          j--;
+        }
+        if (i > j) {
+          break;
+        }
+        list.swap(i, j);
+      }
+      list.swap(r, i);
+
+      if (i > l + 1) {
+        sort(list, c, l, i - 1);
+      }
+      if (i < r - 1) {
+        sort(list, c, i + 1, r);
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Runs this benchmark.
+   *
+   * @param args The command line arguments.
+   *
+   * @throws RunnerException If running the benchmark fails.
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(ElementListSortBenchmark.class.getSimpleName())
+        .build();
+    new Runner(options).run();
+  }
+}
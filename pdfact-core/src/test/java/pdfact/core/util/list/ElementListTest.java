@@ -0,0 +1,95 @@
+package pdfact.core.util.list;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.util.comparator.MinXComparator;
+
+/**
+ * A class that tests sorting an {@link ElementList} and its views.
+ */
+public class ElementListTest {
+  /**
+   * Tests sorting a list with characters in reverse order and with equal keys.
+   */
+  @Test
+  public void testSortIsStable() {
+    ElementList<Character> list = createCharacters(5, 3, 3, 1, 3);
+    List<Character> expected = new ArrayList<>();
+    expected.add(list.get(3));
+    expected.add(list.get(1));
+    expected.add(list.get(2));
+    expected.add(list.get(4));
+    expected.add(list.get(0));
+
+    list.sort(new MinXComparator());
+
+    assertEquals(expected.size(), list.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertSame(expected.get(i), list.get(i));
+    }
+  }
+
+  /**
+   * Tests that characters with equal minX values are sorted by their extraction ranks,
+   * regardless of their order in the list.
+   */
+  @Test
+  public void testSortBreaksTiesByExtractionRank() {
+    ElementList<Character> list = createCharacters(3, 3, 1, 3);
+    list.get(0).setExtractionRank(2);
+    list.get(1).setExtractionRank(0);
+    list.get(2).setExtractionRank(3);
+    list.get(3).setExtractionRank(1);
+    List<Character> expected = new ArrayList<>();
+    expected.add(list.get(2));
+    expected.add(list.get(1));
+    expected.add(list.get(3));
+    expected.add(list.get(0));
+
+    list.sort(new MinXComparator());
+
+    for (int i = 0; i < expected.size(); i++) {
+      assertSame(expected.get(i), list.get(i));
+    }
+  }
+
+  /**
+   * Tests sorting a view, which must only reorder the related range in the parent list.
+   */
+  @Test
+  public void testSortView() {
+    ElementList<Character> list = createCharacters(9, 4, 3, 2, 1, 0);
+    Character first = list.get(0);
+    Character last = list.get(5);
+
+    ElementList<Character> view = list.cut(1).get(1).cut(4).get(0);
+    view.sort(new MinXComparator());
+
+    assertSame(first, list.get(0));
+    assertSame(last, list.get(5));
+    for (int i = 1; i < 5; i++) {
+      assertEquals(i, list.get(i).getPosition().getRectangle().getMinX(), 0);
+      assertSame(list.get(i), view.get(i - 1));
+    }
+  }
+
+  /**
+   * Creates a list of characters with the given minX values.
+   */
+  protected ElementList<Character> createCharacters(float... minXs) {
+    Page page = new Page(1);
+    ElementList<Character> list = new ElementList<>();
+    for (float minX : minXs) {
+      Character character = new Character();
+      character.setPosition(new Position(page, minX, 0, minX + 1, 1));
+      list.add(character);
+    }
+    return list;
+  }
+}
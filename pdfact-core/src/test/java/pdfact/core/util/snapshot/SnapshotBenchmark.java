@@ -0,0 +1,206 @@
+package pdfact.core.util.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import pdfact.core.model.Document;
+import pdfact.core.pipes.PdfActCoreOptions;
+import pdfact.core.pipes.PdfActCoreStage;
+import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A macrobenchmark that compares processing a PDF document by all stages of the core pipe
+ * (parsing it included) with resuming the processing from a snapshot taken after all stages,
+ * which is what a consumer that extracts other units from an already processed PDF document
+ * does.
+ *
+ * <p>
+ * Run it from the test classpath of this module via the main method, e.g.: mvn test-compile
+ * exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=pdfact.core.util.snapshot.SnapshotBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+  /**
+   * The path to the PDF document to process, for example a real-world paper given by
+   * "-p pdfPath=...". If empty, a PDF document with {@link #numPages} pages is generated.
+   */
+  @Param({ "" })
+  public String pdfPath;
+
+  /**
+   * The number of pages of the generated PDF document.
+   */
+  @Param({ "10" })
+  public int numPages;
+
+  /**
+   * All stages of the core pipe.
+   */
+  protected Set<PdfActCoreStage> stages = EnumSet.allOf(PdfActCoreStage.class);
+
+  /**
+   * The options of the executions of the core pipe (the pages are processed sequentially, so
+   * that the measured times don't depend on the number of available processors).
+   */
+  protected PdfActCoreOptions options = PdfActCoreOptions.DEFAULT.withParallelism(1);
+
+  /**
+   * The core pipe.
+   */
+  protected PlainPdfActCorePipe corePipe;
+
+  /**
+   * The path to the PDF document to process.
+   */
+  protected Path path;
+
+  /**
+   * True if the PDF document to process was generated (and is to be deleted).
+   */
+  protected boolean isGenerated;
+
+  /**
+   * The snapshot of the PDF document, taken after all stages.
+   */
+  protected byte[] snapshot;
+
+  /**
+   * Creates the PDF document and its snapshot.
+   *
+   * @throws IOException     If creating the PDF document failed.
+   * @throws PdfActException If processing the PDF document failed.
+   */
+  @Setup(Level.Trial)
+  public void createSnapshot() throws IOException, PdfActException {
+    this.corePipe = new PlainPdfActCorePipe(1);
+    this.isGenerated = this.pdfPath.isEmpty();
+    this.path = this.isGenerated ? createPdf(this.numPages) : Paths.get(this.pdfPath);
+
+    Document pdf = this.corePipe.execute(new Document(this.path), this.stages, null, null,
+        this.options);
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    new SnapshotWriter().write(new Snapshot(pdf, this.stages), stream);
+    this.snapshot = stream.toByteArray();
+  }
+
+  /**
+   * Deletes the generated PDF document.
+   *
+   * @throws IOException If deleting the PDF document failed.
+   */
+  @TearDown(Level.Trial)
+  public void deletePdf() throws IOException {
+    if (this.isGenerated) {
+      Files.deleteIfExists(this.path);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the PDF document and processes it by all stages of the core pipe.
+   */
+  @Benchmark
+  public Document parse() throws PdfActException {
+    return this.corePipe.execute(new Document(this.path), this.stages, null, null,
+        this.options);
+  }
+
+  /**
+   * Reads the snapshot of the PDF document and resumes the processing by all stages of the core
+   * pipe (which were all executed before the snapshot was taken).
+   */
+  @Benchmark
+  public Document resume() throws PdfActException {
+    Snapshot snapshot = new SnapshotReader().read(new ByteArrayInputStream(this.snapshot));
+    return this.corePipe.resume(snapshot, this.stages, null, null, this.options);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates a PDF document with the given number of pages, each with two columns of text lines.
+   *
+   * @param numPages The number of pages.
+   *
+   * @return The path to the created PDF document.
+   *
+   * @throws IOException If creating the PDF document failed.
+   */
+  protected static Path createPdf(int numPages) throws IOException {
+    Path path = Files.createTempFile("snapshot-benchmark", ".pdf");
+    String text = "The quick brown fox jumps over the lazy dog and";
+
+    try (PDDocument doc = new PDDocument()) {
+      for (int i = 0; i < numPages; i++) {
+        PDPage page = new PDPage();
+        doc.addPage(page);
+        try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+          for (int column = 0; column < 2; column++) {
+            content.beginText();
+            content.setFont(PDType1Font.TIMES_ROMAN, 9);
+            content.setLeading(11);
+            content.newLineAtOffset(50 + column * 270, 740);
+            for (int line = 0; line < 60; line++) {
+              content.showText(text);
+              content.newLine();
+            }
+            content.endText();
+          }
+        }
+      }
+      doc.save(path.toFile());
+    }
+    return path;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Runs this benchmark.
+   *
+   * @param args The command line arguments.
+   *
+   * @throws RunnerException If running the benchmark fails.
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(SnapshotBenchmark.class.getSimpleName())
+        .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,130 @@
+package pdfact.core.util.xycut;
+
+import static org.junit.Assert.assertEquals;
+import java.util.Random;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Color;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.statistician.CharacterStatistician;
+
+/**
+ * A class that tests the statistics provided by {@link Cut}.
+ */
+public class CutTest {
+  /**
+   * Tests if the statistics about the halves of a cut are identical to the statistics computed
+   * from scratch by the {@link CharacterStatistician}, for all indexes of the cut.
+   */
+  @Test
+  public void testHalfStatisticsAreIdenticalToComputedStatistics() {
+    Random random = new Random(42);
+    CharacterStatistician statistician = new CharacterStatistician();
+    FontFace fontFace = new FontFace(new Font(), 10);
+    Color color = new Color(0, 0, 0);
+    Page page = new Page(1);
+
+    for (int run = 0; run < 20; run++) {
+      ElementList<Character> characters = new ElementList<>();
+      int numCharacters = 1 + random.nextInt(100);
+      for (int i = 0; i < numCharacters; i++) {
+        // Use a small set of widths and heights, so that there are many ties.
+        float minX = random.nextInt(500);
+        float minY = random.nextInt(700);
+        float width = 1 + random.nextInt(4);
+        float height = 5 + random.nextInt(3);
+
+        Character character = new Character();
+        character.setText("x");
+        character.setPosition(new Position(page, minX, minY, minX + width, minY + height));
+        character.setFontFace(fontFace);
+        character.setColor(color);
+        character.setExtractionRank(i);
+        characters.add(character);
+      }
+
+      Character[] chars = characters.toArray(new Character[numCharacters]);
+      int[] order = new int[numCharacters];
+      for (int i = 0; i < numCharacters; i++) {
+        order[i] = i;
+      }
+
+      Cut cut = new Cut(chars, order, 0, numCharacters, statistician);
+      for (int index = 1; index < characters.size(); index++) {
+        cut.moveTo(index);
+
+        CharacterStatistic first = statistician.compute(characters.cut(index).get(0));
+        assertStatisticEquals(first, cut.getFirstHalfStatistic());
+
+        CharacterStatistic second = statistician.compute(characters.cut(index).get(1));
+        assertStatisticEquals(second, cut.getSecondHalfStatistic());
+      }
+    }
+  }
+
+  /**
+   * Tests that the most common heights and widths of the halves of a cut are served without
+   * computing the full statistics about the halves if they are unique, and that they are
+   * computed from the characters of the halves on ties.
+   */
+  @Test
+  public void testUniqueMostCommonValuesAreServedIncrementally() {
+    CharacterStatistician statistician = new CharacterStatistician();
+    FontFace fontFace = new FontFace(new Font(), 10);
+    Color color = new Color(0, 0, 0);
+    Page page = new Page(1);
+    int numCharacters = 8;
+    ElementList<Character> characters = new ElementList<>();
+    int[] order = new int[numCharacters];
+    for (int i = 0; i < numCharacters; i++) {
+      // Alternate the widths and heights, such that every even prefix and suffix has a tie.
+      float size = i % 2 == 0 ? 6 : 4;
+      Character character = new Character();
+      character.setPosition(new Position(page, i * 10, 0, i * 10 + size, size));
+      character.setFontFace(fontFace);
+      character.setColor(color);
+      characters.add(character);
+      order[i] = i;
+    }
+
+    Character[] chars = characters.toArray(new Character[numCharacters]);
+    Cut cut = new Cut(chars, order, 0, numCharacters, statistician);
+    for (int index = 1; index < numCharacters; index++) {
+      cut.moveTo(index);
+      CharacterStatistic first = statistician.compute(characters.cut(index).get(0));
+      CharacterStatistic second = statistician.compute(characters.cut(index).get(1));
+      // Read the most common values before any other value, which would compute the halves.
+      assertEquals(first.getMostCommonHeight(),
+          cut.getFirstHalfStatistic().getMostCommonHeight(), 0);
+      assertEquals(first.getMostCommonWidth(), cut.getFirstHalfStatistic().getMostCommonWidth(),
+          0);
+      assertEquals(second.getMostCommonHeight(),
+          cut.getSecondHalfStatistic().getMostCommonHeight(), 0);
+      assertEquals(second.getMostCommonWidth(),
+          cut.getSecondHalfStatistic().getMostCommonWidth(), 0);
+
+      boolean isTie = index % 2 == 0;
+      assertEquals(isTie, cut.firstHalfStatistic.fullStatistic != null);
+      assertEquals(isTie, cut.secondHalfStatistic.fullStatistic != null);
+      assertEquals(isTie, cut.halves != null);
+    }
+  }
+
+  /**
+   * Asserts that the given statistics are identical.
+   */
+  protected void assertStatisticEquals(CharacterStatistic expected, CharacterStatistic actual) {
+    assertEquals(expected.getSmallestMinX(), actual.getSmallestMinX(), 0);
+    assertEquals(expected.getSmallestMinY(), actual.getSmallestMinY(), 0);
+    assertEquals(expected.getLargestMaxX(), actual.getLargestMaxX(), 0);
+    assertEquals(expected.getLargestMaxY(), actual.getLargestMaxY(), 0);
+    assertEquals(expected.getMostCommonHeight(), actual.getMostCommonHeight(), 0);
+    assertEquals(expected.getMostCommonWidth(), actual.getMostCommonWidth(), 0);
+    assertEquals(expected.getAverageFontsize(), actual.getAverageFontsize(), 0);
+  }
+}
@@ -0,0 +1,67 @@
+package pdfact.core.util.xycut;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A class that tests the orders of {@link SortedCharacters}.
+ */
+public class SortedCharactersTest {
+  /**
+   * Tests that characters with equal minX (maxY) values are sorted by their extraction ranks,
+   * regardless of the order in which they were given.
+   */
+  @Test
+  public void testTiesAreBrokenByExtractionRank() {
+    // The characters, given by their ranks, minX and maxY values.
+    int[] ranks = { 3, 0, 4, 1, 2 };
+    float[] minXs = { 10, 10, 5, 10, 5 };
+    float[] maxYs = { 20, 30, 20, 20, 30 };
+
+    Page page = new Page(1);
+    ElementList<Character> characters = new ElementList<>();
+    for (int i = 0; i < ranks.length; i++) {
+      Character character = new Character();
+      character.setText(String.valueOf(ranks[i]));
+      character.setExtractionRank(ranks[i]);
+      character.setPosition(new Position(page, minXs[i], maxYs[i] - 5, minXs[i] + 1, maxYs[i]));
+      characters.add(character);
+    }
+
+    SortedCharacters sorted = new SortedCharacters(characters);
+    assertArrayEquals(new String[] { "2", "4", "0", "1", "3" },
+        texts(sorted, sorted.getIndexesSortedByMinX()));
+    assertArrayEquals(new String[] { "0", "2", "1", "3", "4" },
+        texts(sorted, sorted.getIndexesSortedByMaxY()));
+
+    // The orders don't depend on the order in which the characters were given.
+    ElementList<Character> reversed = new ElementList<>();
+    for (int i = characters.size() - 1; i >= 0; i--) {
+      reversed.add(characters.get(i));
+    }
+    SortedCharacters sortedReversed = new SortedCharacters(reversed);
+    assertArrayEquals(texts(sorted, sorted.getIndexesSortedByMinX()),
+        texts(sortedReversed, sortedReversed.getIndexesSortedByMinX()));
+    assertArrayEquals(texts(sorted, sorted.getIndexesSortedByMaxY()),
+        texts(sortedReversed, sortedReversed.getIndexesSortedByMaxY()));
+    assertEquals(characters.size(), sortedReversed.size());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the texts of the characters in the given order.
+   */
+  protected String[] texts(SortedCharacters sorted, int[] order) {
+    String[] texts = new String[order.length];
+    for (int i = 0; i < order.length; i++) {
+      texts[i] = sorted.getCharacters()[order[i]].getText();
+    }
+    return texts;
+  }
+}